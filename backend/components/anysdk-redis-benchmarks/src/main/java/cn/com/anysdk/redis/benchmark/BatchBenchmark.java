@@ -0,0 +1,77 @@
+package cn.com.anysdk.redis.benchmark;
+
+import cn.com.anysdk.redis.api.RedisBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量操作基准测试
+ * 每次调用包含{@link #BATCH_SIZE}个键，吞吐量按单个键计算，便于与单键操作直接比较
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BatchBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * 每个线程固定使用一段连续的键，避免在测量过程中构造集合
+     */
+    @State(Scope.Thread)
+    public static class BatchState {
+        List<String> keys;
+        Map<String, String> values;
+
+        @Setup
+        public void setUp(RedisBenchmarkState state) {
+            keys = state.randomKeys(BATCH_SIZE);
+            values = new LinkedHashMap<>();
+            for (String key : keys) {
+                values.put(key, state.value);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> mGet(RedisBenchmarkState state, BatchState batch) {
+        return state.service.mGet(batch.keys);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void mSet(RedisBenchmarkState state, BatchState batch) {
+        state.service.mSet(batch.values);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Object> pipeline(RedisBenchmarkState state, BatchState batch) {
+        RedisBatch redisBatch = state.service.batch();
+        for (int i = 0; i < batch.keys.size(); i++) {
+            String key = batch.keys.get(i);
+            if ((i & 1) == 0) {
+                redisBatch.set(key, state.value);
+            } else {
+                redisBatch.get(key);
+            }
+        }
+        return redisBatch.execute();
+    }
+}
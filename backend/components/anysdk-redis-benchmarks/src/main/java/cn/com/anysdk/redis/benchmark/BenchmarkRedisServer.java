@@ -0,0 +1,109 @@
+package cn.com.anysdk.redis.benchmark;
+
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基准测试使用的Redis服务器
+ * <p>
+ * 通过系统属性选择目标服务器：
+ * <ul>
+ *     <li>{@code anysdk.redis.benchmark.server=local}（默认）：连接已在运行的Redis，
+ *     地址由{@code anysdk.redis.benchmark.host}和{@code anysdk.redis.benchmark.port}指定</li>
+ *     <li>{@code anysdk.redis.benchmark.server=embedded}：在随机端口启动一个关闭持久化的redis-server子进程，
+ *     可执行文件由{@code anysdk.redis.benchmark.redisServer}指定，默认从PATH查找</li>
+ * </ul>
+ * 每个JMH fork进程内只启动一次，进程退出时自动关闭。
+ */
+public final class BenchmarkRedisServer {
+    private static final String PROPERTY_PREFIX = "anysdk.redis.benchmark.";
+    private static final long STARTUP_TIMEOUT_MILLIS = 10000;
+
+    private static BenchmarkRedisServer instance;
+
+    private final String host;
+    private final int port;
+
+    private BenchmarkRedisServer(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * 获取当前进程使用的Redis服务器，首次调用时按系统属性连接或启动
+     * @return Redis服务器
+     */
+    public static synchronized BenchmarkRedisServer get() {
+        if (instance == null) {
+            String mode = System.getProperty(PROPERTY_PREFIX + "server", "local");
+            if ("embedded".equalsIgnoreCase(mode)) {
+                instance = startEmbedded(System.getProperty(PROPERTY_PREFIX + "redisServer", "redis-server"));
+            } else {
+                instance = new BenchmarkRedisServer(System.getProperty(PROPERTY_PREFIX + "host", "localhost"),
+                        Integer.getInteger(PROPERTY_PREFIX + "port", 6379));
+            }
+        }
+        return instance;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    private static BenchmarkRedisServer startEmbedded(String executable) {
+        int port = freePort();
+        try {
+            Process process = new ProcessBuilder(executable,
+                    "--port", String.valueOf(port),
+                    "--bind", "127.0.0.1",
+                    "--save", "",
+                    "--appendonly", "no")
+                    .redirectErrorStream(true)
+                    .redirectOutput(new File(System.getProperty("java.io.tmpdir"), "anysdk-redis-benchmark-" + port + ".log"))
+                    .start();
+            Runtime.getRuntime().addShutdownHook(new Thread(process::destroy, "anysdk-redis-benchmark-shutdown"));
+            awaitPort(process, port);
+            return new BenchmarkRedisServer("127.0.0.1", port);
+        } catch (IOException e) {
+            throw new RedisException("Failed to start embedded redis-server: " + e.getMessage(), e);
+        }
+    }
+
+    private static void awaitPort(Process process, int port) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STARTUP_TIMEOUT_MILLIS);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new RedisException("Embedded redis-server exited with code " + process.exitValue());
+            }
+            try (Socket ignored = new Socket("127.0.0.1", port)) {
+                return;
+            } catch (IOException e) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        process.destroy();
+        throw new RedisException("Embedded redis-server did not start listening on port " + port);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new RedisException("Failed to find a free port: " + e.getMessage(), e);
+        }
+    }
+}
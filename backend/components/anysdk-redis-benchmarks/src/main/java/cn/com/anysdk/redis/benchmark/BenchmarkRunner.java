@@ -0,0 +1,42 @@
+package cn.com.anysdk.redis.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * <p>
+ * 依次以不同线程数运行全部基准测试，并开启GC分析器输出分配速率（gc.alloc.rate.norm为每次操作分配的字节数）。
+ * 结果以JSON格式写入当前目录的{@code anysdk-redis-benchmark-<threads>t.json}，可用JMH Visualizer对比。
+ * <p>
+ * 用法：{@code java [-Danysdk.redis.benchmark.server=embedded] -jar benchmarks.jar [include-regex] [threads,...]}，
+ * 默认运行全部基准测试，线程数为1,4,16。
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*Benchmark.*";
+        String threadList = args.length > 1 ? args[1] : "1,4,16";
+
+        for (String value : threadList.split(",")) {
+            int threads = Integer.parseInt(value.trim());
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("anysdk-redis-benchmark-" + threads + "t.json");
+            for (String property : new String[]{"server", "host", "port", "redisServer", "maxConnections"}) {
+                String propertyValue = System.getProperty("anysdk.redis.benchmark." + property);
+                if (propertyValue != null) {
+                    options.jvmArgsAppend("-Danysdk.redis.benchmark." + property + "=" + propertyValue);
+                }
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
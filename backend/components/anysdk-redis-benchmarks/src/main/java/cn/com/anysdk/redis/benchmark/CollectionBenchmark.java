@@ -0,0 +1,74 @@
+package cn.com.anysdk.redis.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 列表和集合操作基准测试
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CollectionBenchmark {
+
+    /**
+     * 每个线程写入独立的列表，每{@link #MAX_LENGTH}次写入后删除一次，避免列表无限增长占满内存
+     */
+    @State(Scope.Thread)
+    public static class PushState {
+        private static final int MAX_LENGTH = 1000;
+        private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+        String key;
+        int length;
+
+        @Setup
+        public void setUp(RedisBenchmarkState state) {
+            key = state.listKey + ":push:" + THREAD_IDS.incrementAndGet();
+            state.service.delete(key);
+        }
+
+        String next(RedisBenchmarkState state) {
+            if (++length >= MAX_LENGTH) {
+                state.service.delete(key);
+                length = 0;
+            }
+            return key;
+        }
+    }
+
+    @Benchmark
+    public long lPush(RedisBenchmarkState state, PushState push) {
+        return state.service.lPush(push.next(state), state.value);
+    }
+
+    @Benchmark
+    public List<String> lRange(RedisBenchmarkState state) {
+        return state.service.lRange(state.listKey, 0, 9);
+    }
+
+    @Benchmark
+    public long sAdd(RedisBenchmarkState state) {
+        return state.service.sAdd(state.setKey, state.randomMember());
+    }
+
+    @Benchmark
+    public Set<String> sMembers(RedisBenchmarkState state) {
+        return state.service.sMembers(state.setKey);
+    }
+}
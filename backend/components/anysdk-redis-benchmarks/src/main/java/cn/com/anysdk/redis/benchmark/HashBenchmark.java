@@ -0,0 +1,39 @@
+package cn.com.anysdk.redis.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 哈希操作基准测试
+ * hGetAll读取整个哈希（{@link RedisBenchmarkState#HASH_FIELD_COUNT}个字段），用于比较各实现的结果转换开销
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HashBenchmark {
+
+    @Benchmark
+    public Object hGet(RedisBenchmarkState state) {
+        return state.service.hGet(state.hashKey, state.randomField());
+    }
+
+    @Benchmark
+    public void hSet(RedisBenchmarkState state) {
+        state.service.hSet(state.hashKey, state.randomField(), state.value);
+    }
+
+    @Benchmark
+    public Map<Object, Object> hGetAll(RedisBenchmarkState state) {
+        return state.service.hGetAll(state.hashKey);
+    }
+}
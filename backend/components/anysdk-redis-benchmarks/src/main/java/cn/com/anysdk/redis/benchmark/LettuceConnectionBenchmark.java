@@ -0,0 +1,88 @@
+package cn.com.anysdk.redis.benchmark;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.config.LettuceRedisConfig;
+import cn.com.anysdk.redis.impl.LettuceRedisService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lettuce多路复用连接基准测试
+ * <p>
+ * 默认64个调用线程（入口类的线程数参数会覆盖），对比连接数、分配方式和合并刷新对同步get/set吞吐量的影响。
+ * 单条连接时所有命令由一个事件循环线程编解码，吞吐量在该线程饱和后不再随调用线程增加。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class LettuceConnectionBenchmark {
+    private static final int KEY_COUNT = 1024;
+
+    @State(Scope.Benchmark)
+    public static class ConnectionState {
+        @Param({"1", "4", "8"})
+        public int connectionCount;
+
+        @Param({IRedisConfig.CONNECTION_ASSIGNMENT_ROUND_ROBIN, IRedisConfig.CONNECTION_ASSIGNMENT_THREAD_AFFINITY})
+        public String connectionAssignment;
+
+        @Param({"false", "true"})
+        public boolean commandCoalescing;
+
+        LettuceRedisService service;
+        String[] keys;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            BenchmarkRedisServer server = BenchmarkRedisServer.get();
+            service = new LettuceRedisService(LettuceRedisConfig.create(server.getHost(), server.getPort(), "")
+                    .setConnectionCount(connectionCount)
+                    .setConnectionAssignment(connectionAssignment)
+                    .setSharedClientResources(false)
+                    .setCommandCoalescing(commandCoalescing));
+            keys = new String[KEY_COUNT];
+            for (int i = 0; i < KEY_COUNT; i++) {
+                keys[i] = "anysdk:bench:lettuce-connection:" + i;
+                service.set(keys[i], "value" + i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            service.delete(Arrays.asList(keys));
+        }
+
+        String randomKey() {
+            return keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)];
+        }
+    }
+
+    @Benchmark
+    public String get(ConnectionState state) {
+        return state.service.get(state.randomKey());
+    }
+
+    @Benchmark
+    public void set(ConnectionState state) {
+        state.service.set(state.randomKey(), "value");
+    }
+}
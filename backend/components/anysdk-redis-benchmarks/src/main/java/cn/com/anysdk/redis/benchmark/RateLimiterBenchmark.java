@@ -0,0 +1,75 @@
+package cn.com.anysdk.redis.benchmark;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.factory.RedisServiceFactory;
+import cn.com.anysdk.redis.ratelimit.RateLimitAlgorithm;
+import cn.com.anysdk.redis.ratelimit.RateLimitConfig;
+import cn.com.anysdk.redis.ratelimit.RedisRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流器基准测试，吞吐量即每秒判定次数
+ * <p>
+ * 限额设得足够大，测量的是放行路径的开销；batchSize为1时每次判定访问一次Redis，
+ * 大于1时大部分判定使用本地预留的许可完成。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RateLimiterBenchmark {
+    private static final int TENANT_COUNT = 64;
+
+    @State(Scope.Benchmark)
+    public static class LimiterState {
+        @Param({"jedis", "lettuce", "redisson"})
+        public String provider;
+
+        @Param({"TOKEN_BUCKET", "SLIDING_LOG", "SLIDING_WINDOW", "GCRA"})
+        public RateLimitAlgorithm algorithm;
+
+        @Param({"1", "100"})
+        public int batchSize;
+
+        IRedisService service;
+        RedisRateLimiter limiter;
+        String[] tenants;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = RedisServiceFactory.createService(
+                    RedisBenchmarkState.createConfig(provider, BenchmarkRedisServer.get()));
+            limiter = new RedisRateLimiter(service, RateLimitConfig.create(algorithm, 10_000_000, 1000)
+                    .setKeyPrefix("anysdk:bench:ratelimit:" + provider + ":")
+                    .setBatchSize(batchSize));
+            tenants = new String[TENANT_COUNT];
+            for (int i = 0; i < TENANT_COUNT; i++) {
+                tenants[i] = "tenant" + i;
+            }
+        }
+
+        String randomTenant() {
+            return tenants[ThreadLocalRandom.current().nextInt(TENANT_COUNT)];
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire(LimiterState state) {
+        return state.limiter.tryAcquire(state.randomTenant());
+    }
+}
@@ -0,0 +1,146 @@
+package cn.com.anysdk.redis.benchmark;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.config.JedisRedisConfig;
+import cn.com.anysdk.redis.config.LettuceRedisConfig;
+import cn.com.anysdk.redis.config.LocalRedisConfig;
+import cn.com.anysdk.redis.config.RedissonRedisConfig;
+import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.factory.RedisServiceFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 基准测试共享状态
+ * <p>
+ * 按提供商和值大小创建Redis服务，并预先写入测试数据。
+ * 连接池大小取{@code anysdk.redis.benchmark.maxConnections}，默认64，保证多线程测试时不因连接不足排队。
+ */
+@State(Scope.Benchmark)
+public class RedisBenchmarkState {
+    static final int KEY_COUNT = 1024;
+    static final int HASH_FIELD_COUNT = 64;
+    static final int SET_MEMBER_COUNT = 64;
+    static final int LIST_LENGTH = 64;
+
+    private static final String KEY_PREFIX = "anysdk:bench:";
+
+    @Param({"jedis", "lettuce", "redisson", "local"})
+    public String provider;
+
+    @Param({"16", "1024", "16384"})
+    public int valueSize;
+
+    IRedisService service;
+    String value;
+    String[] keys;
+    String[] fields;
+    String[] members;
+    String hashKey;
+    String listKey;
+    String setKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkRedisServer server = BenchmarkRedisServer.get();
+        service = RedisServiceFactory.createService(createConfig(provider, server));
+        value = randomValue(valueSize);
+
+        keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = KEY_PREFIX + provider + ":string:" + i;
+        }
+        fields = new String[HASH_FIELD_COUNT];
+        for (int i = 0; i < HASH_FIELD_COUNT; i++) {
+            fields[i] = "field" + i;
+        }
+        members = new String[SET_MEMBER_COUNT];
+        for (int i = 0; i < SET_MEMBER_COUNT; i++) {
+            members[i] = randomValue(Math.min(valueSize, 64)) + i;
+        }
+        hashKey = KEY_PREFIX + provider + ":hash";
+        listKey = KEY_PREFIX + provider + ":list";
+        setKey = KEY_PREFIX + provider + ":set";
+
+        Map<String, String> strings = new HashMap<>();
+        for (String key : keys) {
+            strings.put(key, value);
+        }
+        service.mSet(strings);
+
+        Map<String, Object> hash = new HashMap<>();
+        for (String field : fields) {
+            hash.put(field, value);
+        }
+        service.delete(hashKey);
+        service.hSetAll(hashKey, hash);
+
+        service.delete(listKey);
+        for (int i = 0; i < LIST_LENGTH; i++) {
+            service.rPush(listKey, value);
+        }
+
+        service.delete(setKey);
+        service.sAdd(setKey, members);
+    }
+
+    String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)];
+    }
+
+    String randomField() {
+        return fields[ThreadLocalRandom.current().nextInt(HASH_FIELD_COUNT)];
+    }
+
+    String randomMember() {
+        return members[ThreadLocalRandom.current().nextInt(SET_MEMBER_COUNT)];
+    }
+
+    List<String> randomKeys(int count) {
+        List<String> result = new ArrayList<>(count);
+        int start = ThreadLocalRandom.current().nextInt(KEY_COUNT);
+        for (int i = 0; i < count; i++) {
+            result.add(keys[(start + i) % KEY_COUNT]);
+        }
+        return result;
+    }
+
+    static IRedisConfig createConfig(String provider, BenchmarkRedisServer server) {
+        int maxConnections = Integer.getInteger("anysdk.redis.benchmark.maxConnections", 64);
+        switch (provider) {
+            case "jedis":
+                return JedisRedisConfig.create(server.getHost(), server.getPort(), "")
+                        .setMaxConnections(maxConnections);
+            case "lettuce":
+                return LettuceRedisConfig.create(server.getHost(), server.getPort(), "")
+                        .setMaxConnections(maxConnections);
+            case "redisson":
+                return RedissonRedisConfig.create(server.getHost(), server.getPort(), "")
+                        .setMaxConnections(maxConnections);
+            case "local":
+                // 进程内实现，作为不含网络往返的基线
+                return LocalRedisConfig.createDefault();
+            default:
+                throw new RedisException("Unsupported Redis provider: " + provider);
+        }
+    }
+
+    private static String randomValue(int size) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            builder.append((char) ('a' + random.nextInt(26)));
+        }
+        return builder.toString();
+    }
+}
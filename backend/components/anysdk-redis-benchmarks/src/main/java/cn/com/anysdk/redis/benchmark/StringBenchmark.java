@@ -0,0 +1,37 @@
+package cn.com.anysdk.redis.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字符串操作基准测试
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StringBenchmark {
+
+    @Benchmark
+    public String get(RedisBenchmarkState state) {
+        return state.service.get(state.randomKey());
+    }
+
+    @Benchmark
+    public void set(RedisBenchmarkState state) {
+        state.service.set(state.randomKey(), state.value);
+    }
+
+    @Benchmark
+    public void setWithTtl(RedisBenchmarkState state) {
+        state.service.set(state.randomKey(), state.value, 10, TimeUnit.MINUTES);
+    }
+}
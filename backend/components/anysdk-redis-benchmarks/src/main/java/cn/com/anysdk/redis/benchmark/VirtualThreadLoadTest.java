@@ -0,0 +1,150 @@
+package cn.com.anysdk.redis.benchmark;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.concurrency.ConcurrencyLimitedRedisService;
+import cn.com.anysdk.redis.config.JedisRedisConfig;
+import cn.com.anysdk.redis.config.LettuceRedisConfig;
+import cn.com.anysdk.redis.config.RedissonRedisConfig;
+import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.factory.RedisServiceFactory;
+import cn.com.anysdk.redis.monitor.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 虚拟线程负载测试
+ * <p>
+ * 启动大量虚拟线程（默认10000个）持续发出get/set，各占一半，开启虚拟线程模式。
+ * 每秒输出该秒的吞吐量和延迟分位，结束时输出各秒p99的中位数与最大值之比，比值接近1说明延迟稳定。
+ * 延迟从调用开始计算，包含在并发许可上等待的时间。
+ * <p>
+ * 用法：{@code java -cp benchmarks.jar cn.com.anysdk.redis.benchmark.VirtualThreadLoadTest [provider] [threads] [seconds]}，
+ * 默认jedis、10000、30；连接参数与基准测试相同，例如{@code -Danysdk.redis.benchmark.server=embedded}。
+ * 与组件一样按JDK 17编译，虚拟线程执行器通过反射创建，需要在JDK 21及以上运行。
+ */
+public class VirtualThreadLoadTest {
+    private static final int KEY_COUNT = 10_000;
+    private static final String KEY_PREFIX = "anysdk:bench:vthread:";
+
+    public static void main(String[] args) throws Exception {
+        String provider = args.length > 0 ? args[0] : "jedis";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        IRedisService service = RedisServiceFactory.createService(createConfig(provider, BenchmarkRedisServer.get()));
+        String[] keys = new String[KEY_COUNT];
+        Map<String, String> initial = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = KEY_PREFIX + i;
+            initial.put(keys[i], "value" + i);
+        }
+        service.mSet(initial);
+
+        AtomicReference<LatencyHistogram> interval = new AtomicReference<>(new LatencyHistogram());
+        LatencyHistogram total = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        System.out.printf("provider=%s threads=%d seconds=%d%n", provider, threads, seconds);
+        List<Long> p99s = new ArrayList<>();
+        ExecutorService executor = newVirtualThreadExecutor();
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String key = keys[random.nextInt(KEY_COUNT)];
+                        long start = System.nanoTime();
+                        try {
+                            if (random.nextBoolean()) {
+                                service.get(key);
+                            } else {
+                                service.set(key, "value");
+                            }
+                        } catch (RedisException e) {
+                            errors.increment();
+                        }
+                        long elapsed = System.nanoTime() - start;
+                        interval.get().record(elapsed);
+                        total.record(elapsed);
+                    }
+                });
+            }
+
+            for (int second = 1; second <= seconds; second++) {
+                Thread.sleep(1000);
+                LatencyHistogram.Snapshot snapshot = interval.getAndSet(new LatencyHistogram()).snapshot();
+                p99s.add(snapshot.getP99());
+                System.out.printf("%3ds ops/s=%8d p50=%6.2fms p99=%6.2fms p999=%6.2fms max=%7.2fms errors=%d%n",
+                        second, snapshot.getCount(), millis(snapshot.getP50()), millis(snapshot.getP99()),
+                        millis(snapshot.getP999()), millis(snapshot.getMax()), errors.sum());
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        LatencyHistogram.Snapshot snapshot = total.snapshot();
+        System.out.printf("total ops=%d p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms errors=%d%n",
+                snapshot.getCount(), millis(snapshot.getP50()), millis(snapshot.getP99()),
+                millis(snapshot.getP999()), millis(snapshot.getMax()), errors.sum());
+        // 去掉第一秒的预热数据
+        List<Long> steady = new ArrayList<>(p99s.subList(Math.min(1, p99s.size()), p99s.size()));
+        if (!steady.isEmpty()) {
+            Collections.sort(steady);
+            long median = steady.get(steady.size() / 2);
+            System.out.printf("p99 stability: median=%.2fms worst=%.2fms ratio=%.2f%n", millis(median),
+                    millis(steady.get(steady.size() - 1)), median == 0 ? 0 : (double) steady.get(steady.size() - 1) / median);
+        }
+        if (service instanceof ConcurrencyLimitedRedisService) {
+            System.out.println(((ConcurrencyLimitedRedisService) service).getStats());
+        }
+        service.mDelete(new ArrayList<>(initial.keySet()));
+        // Lettuce和Redisson的事件循环线程不是守护线程
+        System.exit(0);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available, run the load test on JDK 21 or later", e);
+        }
+    }
+
+    private static IRedisConfig createConfig(String provider, BenchmarkRedisServer server) {
+        int maxConnections = Integer.getInteger("anysdk.redis.benchmark.maxConnections", 64);
+        switch (provider) {
+            case "jedis":
+                return JedisRedisConfig.create(server.getHost(), server.getPort(), "")
+                        .setMaxConnections(maxConnections)
+                        .setVirtualThreads(true);
+            case "lettuce":
+                return LettuceRedisConfig.create(server.getHost(), server.getPort(), "")
+                        .setMaxConnections(maxConnections)
+                        .setConnectionCount(4)
+                        .setVirtualThreads(true);
+            case "redisson":
+                return RedissonRedisConfig.create(server.getHost(), server.getPort(), "")
+                        .setMaxConnections(maxConnections)
+                        .setVirtualThreads(true);
+            default:
+                throw new RedisException("Unsupported Redis provider: " + provider);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,170 @@
+package cn.com.anysdk.redis.api;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步Redis服务接口
+ * 与{@link IRedisService}的操作一一对应，所有方法立即返回{@link CompletableFuture}，不阻塞调用线程。
+ * 操作失败时返回的Future以{@link cn.com.anysdk.redis.exception.RedisException}异常完成。
+ */
+public interface IAsyncRedisService {
+    /**
+     * 设置字符串值
+     * @param key 键
+     * @param value 值
+     * @return 操作结果
+     */
+    CompletableFuture<Void> set(String key, String value);
+
+    /**
+     * 设置字符串值并设置过期时间
+     * @param key 键
+     * @param value 值
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     * @return 操作结果
+     */
+    CompletableFuture<Void> set(String key, String value, long timeout, TimeUnit unit);
+
+    /**
+     * 获取字符串值
+     * @param key 键
+     * @return 值
+     */
+    CompletableFuture<String> get(String key);
+
+    /**
+     * 删除键
+     * @param key 键
+     * @return 是否成功
+     */
+    CompletableFuture<Boolean> delete(String key);
+
+    /**
+     * 批量删除键
+     * @param keys 键集合
+     * @return 成功删除的数量
+     */
+    CompletableFuture<Long> delete(List<String> keys);
+
+    /**
+     * 设置过期时间
+     * @param key 键
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     * @return 是否成功
+     */
+    CompletableFuture<Boolean> expire(String key, long timeout, TimeUnit unit);
+
+    /**
+     * 判断键是否存在
+     * @param key 键
+     * @return 是否存在
+     */
+    CompletableFuture<Boolean> hasKey(String key);
+
+    /**
+     * 获取过期时间
+     * @param key 键
+     * @param unit 时间单位
+     * @return 过期时间
+     */
+    CompletableFuture<Long> getExpire(String key, TimeUnit unit);
+
+    /**
+     * 哈希表设置字段值
+     * @param key 键
+     * @param field 字段
+     * @param value 值
+     * @return 操作结果
+     */
+    CompletableFuture<Void> hSet(String key, String field, Object value);
+
+    /**
+     * 哈希表获取字段值
+     * @param key 键
+     * @param field 字段
+     * @return 值
+     */
+    CompletableFuture<Object> hGet(String key, String field);
+
+    /**
+     * 哈希表设置多个字段值
+     * @param key 键
+     * @param map 字段值映射
+     * @return 操作结果
+     */
+    CompletableFuture<Void> hSetAll(String key, Map<String, Object> map);
+
+    /**
+     * 哈希表获取所有字段值
+     * @param key 键
+     * @return 字段值映射
+     */
+    CompletableFuture<Map<Object, Object>> hGetAll(String key);
+
+    /**
+     * 列表左侧添加元素
+     * @param key 键
+     * @param value 值
+     * @return 列表长度
+     */
+    CompletableFuture<Long> lPush(String key, String value);
+
+    /**
+     * 列表右侧添加元素
+     * @param key 键
+     * @param value 值
+     * @return 列表长度
+     */
+    CompletableFuture<Long> rPush(String key, String value);
+
+    /**
+     * 获取列表指定范围的元素
+     * @param key 键
+     * @param start 开始索引
+     * @param end 结束索引
+     * @return 元素列表
+     */
+    CompletableFuture<List<String>> lRange(String key, long start, long end);
+
+    /**
+     * 集合添加元素
+     * @param key 键
+     * @param values 值
+     * @return 添加成功的数量
+     */
+    CompletableFuture<Long> sAdd(String key, String... values);
+
+    /**
+     * 获取集合所有元素
+     * @param key 键
+     * @return 元素集合
+     */
+    CompletableFuture<Set<String>> sMembers(String key);
+
+    /**
+     * 批量获取字符串值
+     * @param keys 键集合
+     * @return 与键顺序一致的值列表，不存在的键对应null
+     */
+    CompletableFuture<List<String>> mGet(List<String> keys);
+
+    /**
+     * 批量设置字符串值
+     * @param map 键值映射
+     * @return 操作结果
+     */
+    CompletableFuture<Void> mSet(Map<String, String> map);
+
+    /**
+     * 按最大批量大小分批删除键
+     * @param keys 键集合
+     * @return 成功删除的数量
+     */
+    CompletableFuture<Long> mDelete(List<String> keys);
+}
@@ -1,10 +1,97 @@
 package cn.com.anysdk.redis.api;
 
+import java.util.List;
+
 /**
  * Redis配置接口
  * 定义了Redis服务所需的基本配置项
  */
 public interface IRedisConfig {
+    /**
+     * 单机模式
+     */
+    String MODE_STANDALONE = "standalone";
+
+    /**
+     * 集群模式
+     */
+    String MODE_CLUSTER = "cluster";
+
+    /**
+     * 哨兵模式，nodes为哨兵地址
+     */
+    String MODE_SENTINEL = "sentinel";
+
+    /**
+     * 静态主从模式，host/port为主节点，nodes为从节点地址
+     */
+    String MODE_MASTER_REPLICA = "master-replica";
+
+    /**
+     * 读操作只访问主节点
+     */
+    String READ_FROM_MASTER = "master";
+
+    /**
+     * 读操作优先访问从节点，没有可用从节点时访问主节点
+     */
+    String READ_FROM_REPLICA_PREFERRED = "replica-preferred";
+
+    /**
+     * 读操作访问测得延迟最低的节点（主节点或从节点）
+     */
+    String READ_FROM_NEAREST = "nearest";
+
+    /**
+     * 按轮询把命令分配到多路复用连接
+     */
+    String CONNECTION_ASSIGNMENT_ROUND_ROBIN = "round-robin";
+
+    /**
+     * 同一线程的命令始终使用同一条多路复用连接，保持单线程内的命令顺序
+     */
+    String CONNECTION_ASSIGNMENT_THREAD_AFFINITY = "thread-affinity";
+
+    /**
+     * 内存达到上限时拒绝写入（local）
+     */
+    String MAXMEMORY_POLICY_NOEVICTION = "noeviction";
+
+    /**
+     * 淘汰最久未访问的键（local）
+     */
+    String MAXMEMORY_POLICY_ALLKEYS_LRU = "allkeys-lru";
+
+    /**
+     * 淘汰访问频率最低的键（local）
+     */
+    String MAXMEMORY_POLICY_ALLKEYS_LFU = "allkeys-lfu";
+
+    /**
+     * 随机淘汰键（local）
+     */
+    String MAXMEMORY_POLICY_ALLKEYS_RANDOM = "allkeys-random";
+
+    /**
+     * 在设置了过期时间的键中淘汰最久未访问的键（local）
+     */
+    String MAXMEMORY_POLICY_VOLATILE_LRU = "volatile-lru";
+
+    /**
+     * 在设置了过期时间的键中淘汰访问频率最低的键（local）
+     */
+    String MAXMEMORY_POLICY_VOLATILE_LFU = "volatile-lfu";
+
+    /**
+     * 在设置了过期时间的键中随机淘汰（local）
+     */
+    String MAXMEMORY_POLICY_VOLATILE_RANDOM = "volatile-random";
+
+    /**
+     * 在设置了过期时间的键中淘汰最先过期的键（local）
+     */
+    String MAXMEMORY_POLICY_VOLATILE_TTL = "volatile-ttl";
+
     /**
      * 获取Redis服务器地址
      */
@@ -45,9 +132,157 @@ public interface IRedisConfig {
      */
     boolean isUseSsl();
 
+    /**
+     * 获取连接池最小空闲连接数（Jedis、Redisson）
+     */
+    int getMinIdle();
+
+    /**
+     * 获取连接池最大空闲连接数（Jedis），小于0时等于最大连接数，避免突发流量后连接被反复销毁重建
+     */
+    int getMaxIdle();
+
+    /**
+     * 获取从连接池借用连接的最长等待时间（毫秒，Jedis），小于0时一直等待
+     */
+    long getPoolMaxWaitMillis();
+
+    /**
+     * 是否在每次借用连接时PING校验（Jedis），开启后每条命令多一次往返，默认关闭并改为空闲检测
+     */
+    boolean isTestOnBorrow();
+
+    /**
+     * 获取空闲连接检测间隔（毫秒，Jedis），后台线程按该间隔校验并回收空闲连接，小于等于0时不检测
+     */
+    long getIdleCheckIntervalMillis();
+
+    /**
+     * 获取连接空闲多久后可被回收（毫秒，Jedis、Redisson）
+     */
+    long getMinEvictableIdleMillis();
+
+    /**
+     * 是否在启动时预先创建最小空闲连接（Jedis，Redisson始终预先创建）
+     */
+    boolean isPrewarmPool();
+
+    /**
+     * 是否根据借用等待情况自动调整连接池的空闲连接数（Jedis）
+     */
+    boolean isAdaptivePool();
+
+    /**
+     * 获取多路复用连接数（Lettuce），多条连接分摊单条连接上的编解码和排队，大量调用线程时提高吞吐
+     */
+    int getConnectionCount();
+
+    /**
+     * 获取多路复用连接的分配方式（Lettuce）：round-robin或thread-affinity
+     */
+    String getConnectionAssignment();
+
+    /**
+     * 是否与其他服务实例共享事件循环和定时器线程（Lettuce），关闭时每个服务实例创建自己的线程
+     */
+    boolean isSharedClientResources();
+
+    /**
+     * 是否合并刷新（Lettuce）：同一事件循环周期内多个线程写出的命令合并为一次刷新，减少系统调用
+     */
+    boolean isCommandCoalescing();
+
+    /**
+     * 是否按虚拟线程调整执行方式：限制并发命令数，Jedis连接池启动时建满连接，避免在连接创建的同步块中钉住载体线程
+     */
+    boolean isVirtualThreads();
+
+    /**
+     * 获取并发命令数上限，超出的调用在信号量上等待，最长等待操作超时时间；
+     * 0表示虚拟线程模式下自动取值（Jedis为最大连接数，Lettuce和Redisson为最大连接数的32倍），非虚拟线程模式下不限制
+     */
+    int getMaxConcurrentCommands();
+
+    /**
+     * 获取单次批量操作（管道）允许的最大命令数
+     * 超过该数量的批量操作会被拆分为多个管道依次执行，小于等于0时不拆分
+     */
+    int getMaxBatchSize();
+
+    /**
+     * 获取慢操作阈值（毫秒）
+     * 监控装饰器会对耗时超过该阈值的操作输出警告日志
+     */
+    long getSlowOperationThreshold();
+
+    /**
+     * 获取值压缩阈值（字节）
+     * 大于0时，编码后超过该大小的字符串值压缩后写入，0表示不压缩
+     */
+    int getCompressionThreshold();
+
+    /**
+     * 获取内存上限（字节，local），按键和值的大小估算，0表示不限制
+     */
+    long getMaxMemory();
+
+    /**
+     * 获取达到内存上限时的淘汰策略（local），取值与Redis的maxmemory-policy相同
+     */
+    String getMaxMemoryPolicy();
+
+    /**
+     * 获取部署模式
+     * @return 部署模式（standalone, cluster, sentinel, master-replica）
+     */
+    String getMode();
+
+    /**
+     * 获取节点地址，格式为host:port
+     * 集群模式下为种子节点，哨兵模式下为哨兵节点，主从模式下为从节点
+     */
+    List<String> getNodes();
+
+    /**
+     * 获取哨兵监控的主节点名称，仅哨兵模式使用
+     */
+    String getSentinelMaster();
+
+    /**
+     * 获取读操作路由策略
+     * @return 路由策略（master, replica-preferred, nearest），单机模式下忽略
+     */
+    String getReadFrom();
+
+    /**
+     * 获取集群模式下跟随MOVED/ASK重定向的最大次数
+     */
+    int getMaxRedirects();
+
+    /**
+     * 是否为集群模式
+     */
+    default boolean isClusterMode() {
+        return MODE_CLUSTER.equalsIgnoreCase(getMode());
+    }
+
+    /**
+     * 是否为哨兵模式
+     */
+    default boolean isSentinelMode() {
+        return MODE_SENTINEL.equalsIgnoreCase(getMode());
+    }
+
+    /**
+     * 是否为静态主从模式
+     */
+    default boolean isMasterReplicaMode() {
+        return MODE_MASTER_REPLICA.equalsIgnoreCase(getMode());
+    }
+
     /**
      * 获取Redis客户端提供商
-     * @return 客户端提供商名称（jedis, lettuce, redisson等）
+     * @return 客户端提供商名称（jedis, lettuce, redisson, local）
      */
     String getProvider();
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package cn.com.anysdk.redis.api;
 
+import cn.com.anysdk.redis.codec.ByteBuffers;
+import cn.com.anysdk.redis.codec.IRedisCodec;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
  * Redis服务接口
@@ -26,6 +32,16 @@ public interface IRedisService {
      */
     void set(String key, String value, long timeout, TimeUnit unit);
 
+    /**
+     * 键不存在时设置字符串值并设置过期时间（SET NX PX）
+     * @param key 键
+     * @param value 值
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     * @return 是否设置成功
+     */
+    boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit);
+
     /**
      * 获取字符串值
      * @param key 键
@@ -71,6 +87,47 @@ public interface IRedisService {
      */
     long getExpire(String key, TimeUnit unit);
 
+    /**
+     * 序列化键的值（DUMP），用于迁移和备份
+     * 本地提供商的序列化格式与Redis不同，只能在本地提供商之间互相恢复
+     * @param key 键
+     * @return 序列化后的值，键不存在时返回null
+     */
+    byte[] dump(String key);
+
+    /**
+     * 用{@link #dump(String)}得到的序列化值创建键（RESTORE）
+     * @param key 键
+     * @param ttlMillis 过期时间（毫秒），0表示不过期
+     * @param serialized 序列化后的值
+     * @param replace 键已存在时是否替换，为false时键已存在会抛出错误码为BUSYKEY的异常
+     */
+    void restore(String key, long ttlMillis, byte[] serialized, boolean replace);
+
+    /**
+     * 将键的整数值加1，键不存在时视为0
+     * @param key 键
+     * @return 自增后的值
+     */
+    long incr(String key);
+
+    /**
+     * 将键的整数值加上增量，键不存在时视为0
+     * @param key 键
+     * @param delta 增量，可以为负数
+     * @return 自增后的值
+     */
+    long incrBy(String key, long delta);
+
+    /**
+     * 将哈希表字段的整数值加上增量，字段不存在时视为0
+     * @param key 键
+     * @param field 字段
+     * @param delta 增量，可以为负数
+     * @return 自增后的值
+     */
+    long hIncrBy(String key, String field, long delta);
+
     /**
      * 哈希表设置字段值
      * @param key 键
@@ -140,4 +197,375 @@ public interface IRedisService {
      * @return 元素集合
      */
     Set<String> sMembers(String key);
-}
\ No newline at end of file
+
+    /**
+     * 有序集合添加成员，成员已存在时更新分数
+     * @param key 键
+     * @param score 分数
+     * @param member 成员
+     * @return 新添加的成员数量（0或1）
+     */
+    long zAdd(String key, double score, String member);
+
+    /**
+     * 有序集合批量添加成员，一条ZADD命令发送
+     * @param key 键
+     * @param members 成员及分数，为空时不发送命令
+     * @return 新添加的成员数量
+     */
+    long zAdd(String key, Collection<ScoredMember> members);
+
+    /**
+     * 有序集合成员分数自增，成员不存在时以0为初始分数
+     * @param key 键
+     * @param increment 增量
+     * @param member 成员
+     * @return 自增后的分数
+     */
+    double zIncrBy(String key, double increment, String member);
+
+    /**
+     * 获取有序集合成员的分数
+     * @param key 键
+     * @param member 成员
+     * @return 分数，成员不存在时返回null
+     */
+    Double zScore(String key, String member);
+
+    /**
+     * 获取有序集合成员按分数升序的排名
+     * @param key 键
+     * @param member 成员
+     * @return 从0开始的排名，成员不存在时返回-1
+     */
+    long zRank(String key, String member);
+
+    /**
+     * 获取有序集合成员按分数降序的排名
+     * @param key 键
+     * @param member 成员
+     * @return 从0开始的排名，成员不存在时返回-1
+     */
+    long zRevRank(String key, String member);
+
+    /**
+     * 获取有序集合的成员数量
+     * @param key 键
+     * @return 成员数量
+     */
+    long zCard(String key);
+
+    /**
+     * 按分数范围升序获取有序集合成员及分数（ZRANGEBYSCORE ... WITHSCORES LIMIT）
+     * @param key 键
+     * @param min 最小分数（包含），可以为{@link Double#NEGATIVE_INFINITY}
+     * @param max 最大分数（包含），可以为{@link Double#POSITIVE_INFINITY}
+     * @param offset 跳过的成员数量
+     * @param count 最多返回的数量，负数表示不限
+     * @return 成员及分数列表
+     */
+    List<ScoredMember> zRangeByScore(String key, double min, double max, long offset, long count);
+
+    /**
+     * 按排名范围降序获取有序集合成员及分数（ZREVRANGE ... WITHSCORES）
+     * @param key 键
+     * @param start 开始排名
+     * @param end 结束排名（包含），负数从末尾计算
+     * @return 成员及分数列表
+     */
+    List<ScoredMember> zRevRange(String key, long start, long end);
+
+    /**
+     * 按分数范围删除有序集合成员
+     * @param key 键
+     * @param min 最小分数（包含）
+     * @param max 最大分数（包含）
+     * @return 删除的成员数量
+     */
+    long zRemRangeByScore(String key, double min, double max);
+
+    /**
+     * 弹出有序集合中分数最小的成员
+     * @param key 键
+     * @param count 最多弹出的数量
+     * @return 按分数升序的成员及分数列表
+     */
+    List<ScoredMember> zPopMin(String key, int count);
+
+    /**
+     * 向流追加一条消息（XADD），ID由Redis生成
+     * @param key 键
+     * @param fields 消息字段
+     * @param maxLen 大于0时按MAXLEN ~近似裁剪到该长度，裁剪以宏节点为单位，实际长度可能略大
+     * @return 消息ID
+     */
+    String xAdd(String key, Map<String, String> fields, long maxLen);
+
+    /**
+     * 获取流的长度
+     * @param key 键
+     * @return 消息数，键不存在时返回0
+     */
+    long xLen(String key);
+
+    /**
+     * 创建消费者组（XGROUP CREATE ... MKSTREAM），流不存在时一并创建
+     * @param key 键
+     * @param group 组名
+     * @param startId 组从哪条消息之后开始读取，0表示从头开始，$表示只读取新消息
+     * @return 是否新建，组已存在时返回false
+     */
+    boolean xGroupCreate(String key, String group, String startId);
+
+    /**
+     * 以消费者组读取尚未投递的消息（XREADGROUP ... STREAMS key >），读取的消息进入待确认列表
+     * @param key 键
+     * @param group 组名
+     * @param consumer 消费者名称
+     * @param count 最多读取的消息数
+     * @param blockMillis 大于0时没有消息最多阻塞等待的毫秒数，需小于命令超时时间；否则不阻塞
+     * @return 按ID排列的消息，没有消息时为空列表
+     */
+    List<StreamEntry> xReadGroup(String key, String group, String consumer, int count, long blockMillis);
+
+    /**
+     * 确认消息（XACK），从组的待确认列表中移除
+     * @param key 键
+     * @param group 组名
+     * @param ids 消息ID
+     * @return 实际确认的消息数
+     */
+    long xAck(String key, String group, Collection<String> ids);
+
+    /**
+     * 把空闲时间超过阈值的待确认消息转移给指定消费者（XAUTOCLAIM），用于接管崩溃消费者的消息
+     * @param key 键
+     * @param group 组名
+     * @param consumer 接管的消费者名称
+     * @param minIdleMillis 最小空闲毫秒数
+     * @param startId 扫描起始ID，首次为0-0，之后传入上次结果的nextId
+     * @param count 最多扫描的待确认消息数
+     * @return 转移的消息和下一次扫描的起始ID
+     */
+    StreamClaimResult xAutoClaim(String key, String group, String consumer, long minIdleMillis, String startId, int count);
+
+    /**
+     * 获取流上所有消费者组的信息（XINFO GROUPS），包括待确认数和积压数
+     * @param key 键
+     * @return 消费者组信息
+     */
+    List<StreamGroupInfo> xInfoGroups(String key);
+
+    /**
+     * 批量获取字符串值
+     * 超过最大批量大小的键会被拆分为多条MGET命令在同一管道中执行
+     * @param keys 键集合
+     * @return 与键顺序一致的值列表，不存在的键对应null
+     */
+    List<String> mGet(List<String> keys);
+
+    /**
+     * 批量设置字符串值
+     * @param map 键值映射
+     */
+    void mSet(Map<String, String> map);
+
+    /**
+     * 按最大批量大小分批删除键
+     * @param keys 键集合
+     * @return 成功删除的数量
+     */
+    long mDelete(List<String> keys);
+
+    /**
+     * 创建批量操作构建器
+     * 构建器中排队的命令在执行时通过管道一次性发送
+     * @return 批量操作构建器
+     */
+    RedisBatch batch();
+
+    /**
+     * 以SCAN游标流式遍历键
+     * 返回的流按需逐页拉取，内存占用只与count有关；遍历期间被修改的键可能重复或遗漏，与SCAN语义一致
+     * @param pattern 匹配模式（glob风格），null表示全部
+     * @param count 每页建议返回的数量（SCAN的COUNT参数）
+     * @return 键的惰性流
+     */
+    Stream<String> scanKeys(String pattern, int count);
+
+    /**
+     * 以HSCAN游标流式遍历哈希表
+     * @param key 键
+     * @param pattern 字段匹配模式（glob风格），null表示全部
+     * @param count 每页建议返回的数量
+     * @return 字段值的惰性流
+     */
+    Stream<Map.Entry<String, Object>> hScan(String key, String pattern, int count);
+
+    /**
+     * 以SSCAN游标流式遍历集合
+     * @param key 键
+     * @param pattern 成员匹配模式（glob风格），null表示全部
+     * @param count 每页建议返回的数量
+     * @return 成员的惰性流
+     */
+    Stream<String> sScan(String key, String pattern, int count);
+
+    /**
+     * 以ZSCAN游标流式遍历有序集合
+     * @param key 键
+     * @param pattern 成员匹配模式（glob风格），null表示全部
+     * @param count 每页建议返回的数量
+     * @return 成员及分数的惰性流
+     */
+    Stream<ScoredMember> zScan(String key, String pattern, int count);
+
+    /**
+     * 向频道发布消息
+     * @param channel 频道
+     * @param message 消息
+     * @return 收到消息的订阅者数量
+     */
+    long publish(String channel, String message);
+
+    /**
+     * 订阅频道，使用独立的订阅连接
+     * @param listener 消息监听器
+     * @param channels 频道
+     * @return 订阅句柄，关闭即取消订阅
+     */
+    RedisSubscription subscribe(RedisMessageListener listener, String... channels);
+
+    /**
+     * 把Lua脚本加载到服务端脚本缓存，集群模式下加载到所有节点
+     * @param script 脚本源码
+     * @return 脚本的SHA1摘要
+     */
+    String scriptLoad(String script);
+
+    /**
+     * 按SHA1摘要执行已缓存的Lua脚本，脚本不在缓存中时抛出错误码为NOSCRIPT的异常
+     * 集群模式下所有键必须位于同一槽位
+     * @param sha1 脚本摘要
+     * @param returnType 返回值类型
+     * @param keys 键
+     * @param args 参数
+     * @return 脚本返回值，类型由returnType决定
+     */
+    Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args);
+
+    /**
+     * 获取原始字节值
+     * @param key 键
+     * @return 字节值，不存在时返回null
+     */
+    byte[] getBytes(String key);
+
+    /**
+     * 设置原始字节值
+     * @param key 键
+     * @param value 字节值
+     */
+    void setBytes(String key, byte[] value);
+
+    /**
+     * 设置原始字节值并设置过期时间
+     * @param key 键
+     * @param value 字节值
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     */
+    void setBytes(String key, byte[] value, long timeout, TimeUnit unit);
+
+    /**
+     * 批量获取原始字节值
+     * @param keys 键集合
+     * @return 与键顺序一致的字节值列表，不存在的键对应null
+     */
+    List<byte[]> mGetBytes(List<String> keys);
+
+    /**
+     * 获取哈希表字段的原始字节值
+     * @param key 键
+     * @param field 字段
+     * @return 字节值，不存在时返回null
+     */
+    byte[] hGetBytes(String key, String field);
+
+    /**
+     * 设置哈希表字段的原始字节值
+     * @param key 键
+     * @param field 字段
+     * @param value 字节值
+     */
+    void hSetBytes(String key, String field, byte[] value);
+
+    /**
+     * 获取哈希表所有字段的原始字节值
+     * @param key 键
+     * @return 字段到字节值的映射
+     */
+    Map<String, byte[]> hGetAllBytes(String key);
+
+    /**
+     * 获取值并包装为ByteBuffer，不做额外复制
+     * @param key 键
+     * @return 缓冲区，不存在时返回null
+     */
+    default ByteBuffer getBuffer(String key) {
+        return ByteBuffers.wrap(getBytes(key));
+    }
+
+    /**
+     * 写入缓冲区剩余的字节，堆缓冲区覆盖整个底层数组时不做复制
+     * @param key 键
+     * @param value 缓冲区
+     */
+    default void setBuffer(String key, ByteBuffer value) {
+        setBytes(key, ByteBuffers.toBytes(value));
+    }
+
+    /**
+     * 写入缓冲区剩余的字节并设置过期时间
+     * @param key 键
+     * @param value 缓冲区
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     */
+    default void setBuffer(String key, ByteBuffer value, long timeout, TimeUnit unit) {
+        setBytes(key, ByteBuffers.toBytes(value), timeout, unit);
+    }
+
+    /**
+     * 使用编解码器读取值
+     * @param key 键
+     * @param codec 编解码器
+     * @return 值，不存在时返回null
+     */
+    default <T> T get(String key, IRedisCodec<T> codec) {
+        byte[] bytes = getBytes(key);
+        return bytes == null ? null : codec.decode(bytes);
+    }
+
+    /**
+     * 使用编解码器写入值
+     * @param key 键
+     * @param value 值
+     * @param codec 编解码器
+     */
+    default <T> void set(String key, T value, IRedisCodec<T> codec) {
+        setBytes(key, codec.encode(value));
+    }
+
+    /**
+     * 使用编解码器写入值并设置过期时间
+     * @param key 键
+     * @param value 值
+     * @param codec 编解码器
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     */
+    default <T> void set(String key, T value, IRedisCodec<T> codec, long timeout, TimeUnit unit) {
+        setBytes(key, codec.encode(value), timeout, unit);
+    }
+}
@@ -0,0 +1,216 @@
+package cn.com.anysdk.redis.api;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis批量操作构建器
+ * 排队多条命令，在调用{@link #execute()}时通过管道一次性发送，减少网络往返次数。
+ * <p>
+ * 执行结果按命令入队顺序返回，每条命令的结果类型与{@link IRedisService}中对应方法一致：
+ * <ul>
+ *     <li>set、hSet、hSetAll：null</li>
+ *     <li>delete、expire：Boolean</li>
+ *     <li>lPush、rPush、sAdd：Long</li>
+ *     <li>get、hGet：值本身，不存在时为null</li>
+ * </ul>
+ * 命令数超过{@link IRedisConfig#getMaxBatchSize()}时会拆分为多个管道依次执行。
+ * 批量操作不是事务，单条命令失败不会回滚其他命令。构建器不是线程安全的。
+ */
+public interface RedisBatch {
+    /**
+     * 设置字符串值
+     * @param key 键
+     * @param value 值
+     * @return 当前构建器
+     */
+    RedisBatch set(String key, String value);
+
+    /**
+     * 设置字符串值并设置过期时间
+     * @param key 键
+     * @param value 值
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     * @return 当前构建器
+     */
+    RedisBatch set(String key, String value, long timeout, TimeUnit unit);
+
+    /**
+     * 获取字符串值
+     * @param key 键
+     * @return 当前构建器
+     */
+    RedisBatch get(String key);
+
+    /**
+     * 删除键
+     * @param key 键
+     * @return 当前构建器
+     */
+    RedisBatch delete(String key);
+
+    /**
+     * 设置过期时间
+     * @param key 键
+     * @param timeout 过期时间
+     * @param unit 时间单位
+     * @return 当前构建器
+     */
+    RedisBatch expire(String key, long timeout, TimeUnit unit);
+
+    /**
+     * 哈希表设置字段值
+     * @param key 键
+     * @param field 字段
+     * @param value 值
+     * @return 当前构建器
+     */
+    RedisBatch hSet(String key, String field, Object value);
+
+    /**
+     * 哈希表获取字段值
+     * @param key 键
+     * @param field 字段
+     * @return 当前构建器
+     */
+    RedisBatch hGet(String key, String field);
+
+    /**
+     * 哈希表设置多个字段值
+     * @param key 键
+     * @param map 字段值映射
+     * @return 当前构建器
+     */
+    RedisBatch hSetAll(String key, Map<String, Object> map);
+
+    /**
+     * 列表左侧添加元素
+     * @param key 键
+     * @param value 值
+     * @return 当前构建器
+     */
+    RedisBatch lPush(String key, String value);
+
+    /**
+     * 列表右侧添加元素
+     * @param key 键
+     * @param value 值
+     * @return 当前构建器
+     */
+    RedisBatch rPush(String key, String value);
+
+    /**
+     * 集合添加元素
+     * @param key 键
+     * @param values 值
+     * @return 当前构建器
+     */
+    RedisBatch sAdd(String key, String... values);
+
+    /**
+     * 将键的整数值加上增量
+     * @param key 键
+     * @param delta 增量
+     * @return 当前构建器
+     */
+    RedisBatch incrBy(String key, long delta);
+
+    /**
+     * 将哈希表字段的整数值加上增量
+     * @param key 键
+     * @param field 字段
+     * @param delta 增量
+     * @return 当前构建器
+     */
+    RedisBatch hIncrBy(String key, String field, long delta);
+
+    /**
+     * 有序集合添加成员
+     * @param key 键
+     * @param score 分数
+     * @param member 成员
+     * @return 当前构建器
+     */
+    RedisBatch zAdd(String key, double score, String member);
+
+    /**
+     * 有序集合成员分数自增，结果为自增后的分数
+     * @param key 键
+     * @param increment 增量
+     * @param member 成员
+     * @return 当前构建器
+     */
+    RedisBatch zIncrBy(String key, double increment, String member);
+
+    /**
+     * 按分数范围删除有序集合成员，结果为删除的数量
+     * @param key 键
+     * @param min 最小分数（包含）
+     * @param max 最大分数（包含）
+     * @return 当前构建器
+     */
+    RedisBatch zRemRangeByScore(String key, double min, double max);
+
+    /**
+     * 获取有序集合的成员数量
+     * @param key 键
+     * @return 当前构建器
+     */
+    RedisBatch zCard(String key);
+
+    /**
+     * 向流追加一条消息
+     * @param key 键
+     * @param fields 消息字段
+     * @param maxLen 大于0时按MAXLEN ~近似裁剪
+     * @return 当前构建器，结果为消息ID
+     */
+    RedisBatch xAdd(String key, Map<String, String> fields, long maxLen);
+
+    /**
+     * 确认消息
+     * @param key 键
+     * @param group 组名
+     * @param ids 消息ID
+     * @return 当前构建器，结果为实际确认的消息数
+     */
+    RedisBatch xAck(String key, String group, String... ids);
+
+    /**
+     * 序列化键的值（DUMP），结果为byte[]，键不存在时为null
+     * @param key 键
+     * @return 当前构建器
+     */
+    RedisBatch dump(String key);
+
+    /**
+     * 用序列化值创建键（RESTORE），结果为null
+     * @param key 键
+     * @param ttlMillis 过期时间（毫秒），0表示不过期
+     * @param serialized 序列化后的值
+     * @param replace 键已存在时是否替换
+     * @return 当前构建器
+     */
+    RedisBatch restore(String key, long ttlMillis, byte[] serialized, boolean replace);
+
+    /**
+     * 获取剩余过期时间（PTTL），结果为毫秒数，键没有过期时间时为-1，键不存在时为-2
+     * @param key 键
+     * @return 当前构建器
+     */
+    RedisBatch pTtl(String key);
+
+    /**
+     * 获取已排队的命令数
+     * @return 命令数
+     */
+    int size();
+
+    /**
+     * 执行所有已排队的命令并清空构建器
+     * @return 与命令入队顺序一致的结果列表
+     */
+    List<Object> execute();
+}
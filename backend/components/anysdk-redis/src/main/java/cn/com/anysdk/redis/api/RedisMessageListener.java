@@ -0,0 +1,14 @@
+package cn.com.anysdk.redis.api;
+
+/**
+ * 发布订阅消息监听器
+ */
+@FunctionalInterface
+public interface RedisMessageListener {
+    /**
+     * 收到消息，在客户端的事件线程或订阅线程上回调，不应执行耗时操作
+     * @param channel 频道
+     * @param message 消息
+     */
+    void onMessage(String channel, String message);
+}
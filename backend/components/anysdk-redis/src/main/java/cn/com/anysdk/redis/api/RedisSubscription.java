@@ -0,0 +1,13 @@
+package cn.com.anysdk.redis.api;
+
+/**
+ * 发布订阅的订阅句柄
+ * 连接断开后由实现自动重连并重新订阅，关闭后不再回调监听器
+ */
+public interface RedisSubscription extends AutoCloseable {
+    /**
+     * 取消订阅并释放订阅连接
+     */
+    @Override
+    void close();
+}
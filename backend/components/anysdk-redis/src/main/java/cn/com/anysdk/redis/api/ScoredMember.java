@@ -0,0 +1,25 @@
+package cn.com.anysdk.redis.api;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 有序集合成员及其分数
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ScoredMember {
+    /**
+     * 成员
+     */
+    private final String member;
+
+    /**
+     * 分数
+     */
+    private final double score;
+}
@@ -0,0 +1,31 @@
+package cn.com.anysdk.redis.api;
+
+/**
+ * Lua脚本返回值类型，决定各客户端如何解析脚本的回复
+ */
+public enum ScriptReturnType {
+    /**
+     * 布尔值，脚本返回1为true，返回0、false或nil为false
+     */
+    BOOLEAN,
+
+    /**
+     * 整数，对应Long
+     */
+    INTEGER,
+
+    /**
+     * 状态回复，对应String
+     */
+    STATUS,
+
+    /**
+     * 字符串值，对应String，nil为null
+     */
+    VALUE,
+
+    /**
+     * 数组，对应List
+     */
+    MULTI
+}
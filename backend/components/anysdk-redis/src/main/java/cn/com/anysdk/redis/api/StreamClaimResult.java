@@ -0,0 +1,30 @@
+package cn.com.anysdk.redis.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * XAUTOCLAIM的结果
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StreamClaimResult {
+    /**
+     * 下一次扫描的起始ID，为0-0时表示待确认列表已扫描完
+     */
+    private final String nextId;
+
+    /**
+     * 转移到当前消费者的消息
+     */
+    private final List<StreamEntry> entries;
+
+    /**
+     * 已不在流中的消息ID（Redis 6.2会在待确认列表中保留已删除的消息，需要调用方确认）
+     */
+    private final List<String> deletedIds;
+}
@@ -0,0 +1,25 @@
+package cn.com.anysdk.redis.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * 流中的一条消息
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StreamEntry {
+    /**
+     * 消息ID，格式为毫秒时间戳-序号
+     */
+    private final String id;
+
+    /**
+     * 消息字段
+     */
+    private final Map<String, String> fields;
+}
@@ -0,0 +1,43 @@
+package cn.com.anysdk.redis.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 消费者组信息，对应XINFO GROUPS
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StreamGroupInfo {
+    /**
+     * 组名
+     */
+    private final String name;
+
+    /**
+     * 消费者数
+     */
+    private final long consumers;
+
+    /**
+     * 已投递未确认的消息数
+     */
+    private final long pending;
+
+    /**
+     * 最后投递的消息ID
+     */
+    private final String lastDeliveredId;
+
+    /**
+     * 已读取的消息数，Redis 7.0以下为-1
+     */
+    private final long entriesRead;
+
+    /**
+     * 尚未投递给该组的消息数，Redis 7.0以下或无法计算时为-1
+     */
+    private final long lag;
+}
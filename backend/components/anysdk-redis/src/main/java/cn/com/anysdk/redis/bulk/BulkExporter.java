@@ -0,0 +1,158 @@
+package cn.com.anysdk.redis.bulk;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 批量导出
+ * <p>
+ * 通过SCAN遍历匹配的键，每{@link BulkLoadConfig#getBatchSize()}条命令（每个键DUMP和PTTL两条）为一个批次以管道执行，
+ * 最多{@link BulkLoadConfig#getMaxInFlightBatches()}个批次在途，结果按SCAN的顺序写入{@link BulkFileFormat}格式的文件，
+ * 记录类型为{@link BulkRecord.Type#DUMP}，可以通过{@link BulkLoader}导入，或通过{@link RespWriter}转换为RESP协议。
+ * <p>
+ * DUMP的格式由提供商决定，只能导入同类提供商：Jedis、Lettuce、Redisson导出的是Redis的序列化格式，可以互相导入；
+ * 本地提供商导出的格式只能导入本地提供商。SCAN期间被删除的键不写入，SCAN可能重复返回的键会写入多次，导入时后写入的覆盖先写入的。
+ */
+public class BulkExporter {
+    private final IRedisService redisService;
+    private final BulkLoadConfig config;
+
+    public BulkExporter(IRedisService redisService) {
+        this(redisService, BulkLoadConfig.createDefault());
+    }
+
+    public BulkExporter(IRedisService redisService, BulkLoadConfig config) {
+        if (config.getBatchSize() < 2 || config.getMaxInFlightBatches() <= 0) {
+            throw new RedisException("Bulk batch size must be at least 2 and max in-flight batches must be positive");
+        }
+        this.redisService = redisService;
+        this.config = config;
+    }
+
+    public BulkStats export(String pattern, Path file) {
+        return export(pattern, file, null);
+    }
+
+    public BulkStats export(String pattern, Path file, Consumer<BulkStats> progressListener) {
+        try {
+            return export(pattern, Files.newOutputStream(file), progressListener);
+        } catch (IOException e) {
+            throw new RedisException("Failed to open bulk file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 导出匹配的键
+     * @param pattern 键的匹配模式
+     * @param output 输出流，结束后关闭
+     * @param progressListener 进度监听器，按{@link BulkLoadConfig#getProgressIntervalMillis()}和结束时在调用线程上回调，可以为null
+     * @return 导出结果
+     */
+    public BulkStats export(String pattern, OutputStream output, Consumer<BulkStats> progressListener) {
+        BulkProgress progress = new BulkProgress("export", config.getProgressIntervalMillis(), progressListener);
+        int pageSize = config.getBatchSize() / 2;
+        Deque<Future<List<BulkRecord>>> pending = new ArrayDeque<>();
+        ExecutorService executor = BulkProgress.newExecutor("export", config.getMaxInFlightBatches());
+        try (BulkFileWriter writer = new BulkFileWriter(output);
+             Stream<String> keys = redisService.scanKeys(pattern, config.getScanCount())) {
+            Iterator<String> iterator = keys.iterator();
+            List<String> page = new ArrayList<>(pageSize);
+            while (iterator.hasNext()) {
+                page.add(iterator.next());
+                if (page.size() >= pageSize) {
+                    // 窗口满时先按顺序写出最早的批次
+                    if (pending.size() >= config.getMaxInFlightBatches()) {
+                        write(writer, pending.poll(), progress);
+                    }
+                    pending.add(submit(executor, progress, page));
+                    page = new ArrayList<>(pageSize);
+                }
+            }
+            if (!page.isEmpty()) {
+                pending.add(submit(executor, progress, page));
+            }
+            while (!pending.isEmpty()) {
+                write(writer, pending.poll(), progress);
+            }
+        } catch (IOException e) {
+            throw new RedisException("Failed to write bulk file: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException("Interrupted while waiting for bulk export batches", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return progress.finish();
+    }
+
+    private Future<List<BulkRecord>> submit(ExecutorService executor, BulkProgress progress, List<String> page) {
+        progress.inFlightBatches.incrementAndGet();
+        return executor.submit(() -> {
+            try {
+                return dump(page, progress);
+            } catch (RuntimeException e) {
+                if (config.isStopOnError()) {
+                    throw e;
+                }
+                progress.fail(page.size(), e);
+                return new ArrayList<>();
+            } finally {
+                progress.batches.increment();
+                progress.inFlightBatches.decrementAndGet();
+            }
+        });
+    }
+
+    private List<BulkRecord> dump(List<String> page, BulkProgress progress) {
+        RedisBatch batch = redisService.batch();
+        for (String key : page) {
+            batch.dump(key).pTtl(key);
+        }
+        List<Object> replies = batch.execute();
+        progress.commands.add(replies.size());
+        List<BulkRecord> records = new ArrayList<>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            Object serialized = replies.get(i * 2);
+            long ttlMillis = (Long) replies.get(i * 2 + 1);
+            // DUMP和PTTL之间键被删除或过期
+            if (serialized == null || ttlMillis == -2) {
+                continue;
+            }
+            records.add(BulkRecord.dump(page.get(i), (byte[]) serialized, ttlMillis < 0 ? 0 : Math.max(1, ttlMillis)));
+        }
+        return records;
+    }
+
+    private void write(BulkFileWriter writer, Future<List<BulkRecord>> future, BulkProgress progress)
+            throws IOException, InterruptedException {
+        List<BulkRecord> records;
+        try {
+            records = future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RedisException ? (RedisException) cause
+                    : new RedisException("Failed to export batch: " + cause.getMessage(), cause);
+        }
+        for (BulkRecord record : records) {
+            writer.write(record);
+        }
+        progress.records.add(records.size());
+        progress.maybeReport();
+    }
+}
@@ -0,0 +1,30 @@
+package cn.com.anysdk.redis.bulk;
+
+/**
+ * 批量导入导出文件格式
+ * <p>
+ * 文件头为4字节格式标识"ASRB"和1字节版本，之后每条记录依次为：类型（1字节）、键、剩余过期时间（8字节毫秒，0表示不过期）、值，
+ * 文件以类型0结束。字符串为4字节长度前缀加UTF-8字节；哈希为4字节字段数加交替的字段和值；列表、集合为4字节元素数加元素；
+ * DUMP为4字节长度前缀加序列化字节。
+ */
+final class BulkFileFormat {
+    static final byte[] MAGIC = {'A', 'S', 'R', 'B'};
+    static final byte VERSION = 1;
+    static final byte END = 0;
+
+    private static final BulkRecord.Type[] TYPES = BulkRecord.Type.values();
+
+    private BulkFileFormat() {
+    }
+
+    static byte code(BulkRecord.Type type) {
+        return (byte) (type.ordinal() + 1);
+    }
+
+    static BulkRecord.Type type(byte code) {
+        if (code < 1 || code > TYPES.length) {
+            return null;
+        }
+        return TYPES[code - 1];
+    }
+}
@@ -0,0 +1,123 @@
+package cn.com.anysdk.redis.bulk;
+
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 按{@link BulkFileFormat}流式读取记录，内存中只保留当前一条记录
+ */
+public class BulkFileReader implements Iterator<BulkRecord>, Closeable {
+    private final DataInputStream in;
+    private BulkRecord next;
+    private boolean finished;
+
+    public BulkFileReader(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    public BulkFileReader(InputStream input) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(input, 64 * 1024));
+        byte[] magic = new byte[BulkFileFormat.MAGIC.length];
+        try {
+            in.readFully(magic);
+            if (!Arrays.equals(magic, BulkFileFormat.MAGIC) || in.readByte() != BulkFileFormat.VERSION) {
+                throw new RedisException("Unsupported bulk file format or version");
+            }
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            next = read();
+            finished = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public BulkRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BulkRecord record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private BulkRecord read() {
+        try {
+            byte code = in.readByte();
+            if (code == BulkFileFormat.END) {
+                return null;
+            }
+            BulkRecord.Type type = BulkFileFormat.type(code);
+            if (type == null) {
+                throw new RedisException("Corrupted bulk file, unknown record type: " + code);
+            }
+            String key = readString();
+            long ttlMillis = in.readLong();
+            switch (type) {
+                case STRING:
+                    return BulkRecord.string(key, readString(), ttlMillis);
+                case HASH: {
+                    int size = in.readInt();
+                    Map<String, String> hash = new LinkedHashMap<>(Math.max(16, size * 2));
+                    for (int i = 0; i < size; i++) {
+                        hash.put(readString(), readString());
+                    }
+                    return BulkRecord.hash(key, hash, ttlMillis);
+                }
+                case LIST:
+                case SET: {
+                    int size = in.readInt();
+                    List<String> elements = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        elements.add(readString());
+                    }
+                    return type == BulkRecord.Type.LIST
+                            ? BulkRecord.list(key, elements, ttlMillis) : BulkRecord.set(key, elements, ttlMillis);
+                }
+                default: {
+                    byte[] serialized = new byte[in.readInt()];
+                    in.readFully(serialized);
+                    return BulkRecord.dump(key, serialized, ttlMillis);
+                }
+            }
+        } catch (EOFException e) {
+            throw new RedisException("Truncated bulk file, missing end marker", e);
+        } catch (IOException e) {
+            throw new RedisException("Failed to read bulk file: " + e.getMessage(), e);
+        }
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
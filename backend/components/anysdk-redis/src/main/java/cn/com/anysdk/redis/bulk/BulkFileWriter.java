@@ -0,0 +1,94 @@
+package cn.com.anysdk.redis.bulk;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按{@link BulkFileFormat}写入记录，关闭时写入结束标记
+ */
+public class BulkFileWriter implements Closeable {
+    private final DataOutputStream out;
+    private long records;
+    private boolean closed;
+
+    public BulkFileWriter(Path file) throws IOException {
+        this(Files.newOutputStream(file));
+    }
+
+    public BulkFileWriter(OutputStream output) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(output, 64 * 1024));
+        out.write(BulkFileFormat.MAGIC);
+        out.writeByte(BulkFileFormat.VERSION);
+    }
+
+    public void write(BulkRecord record) throws IOException {
+        out.writeByte(BulkFileFormat.code(record.getType()));
+        writeString(record.getKey());
+        out.writeLong(record.getTtlMillis());
+        switch (record.getType()) {
+            case STRING:
+                writeString(record.getString());
+                break;
+            case HASH:
+                Map<String, String> hash = record.getHash();
+                out.writeInt(hash.size());
+                for (Map.Entry<String, String> entry : hash.entrySet()) {
+                    writeString(entry.getKey());
+                    writeString(entry.getValue());
+                }
+                break;
+            case LIST:
+            case SET:
+                List<String> elements = record.getElements();
+                out.writeInt(elements.size());
+                for (String element : elements) {
+                    writeString(element);
+                }
+                break;
+            default:
+                byte[] serialized = record.getSerialized();
+                out.writeInt(serialized.length);
+                out.write(serialized);
+        }
+        records++;
+    }
+
+    /**
+     * 已写入的记录数
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.writeByte(BulkFileFormat.END);
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,50 @@
+package cn.com.anysdk.redis.bulk;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 批量导入导出配置
+ */
+@Data
+@Accessors(chain = true)
+public class BulkLoadConfig {
+    /**
+     * 每个管道批次的命令数，一条记录的命令不会拆到两个批次中
+     */
+    private int batchSize = 1000;
+
+    /**
+     * 同时在途的批次数，达到后读取记录的线程等待，读取速度随Redis的处理速度下降
+     */
+    private int maxInFlightBatches = 8;
+
+    /**
+     * 输出进度日志和回调进度监听器的间隔（毫秒），0表示不输出
+     */
+    private long progressIntervalMillis = 5000;
+
+    /**
+     * 导入时是否覆盖已存在的键：哈希、列表、集合先删除再写入，DUMP记录使用RESTORE ... REPLACE；
+     * 为false时集合类型与已有的值合并，DUMP记录遇到已存在的键时所在批次失败
+     */
+    private boolean replaceExisting = true;
+
+    /**
+     * 批次失败时是否停止导入并抛出异常，为false时记录失败的记录数后继续
+     */
+    private boolean stopOnError = false;
+
+    /**
+     * 导出时SCAN每次返回的键数提示
+     */
+    private int scanCount = 1000;
+
+    /**
+     * 创建默认配置
+     * @return 默认配置
+     */
+    public static BulkLoadConfig createDefault() {
+        return new BulkLoadConfig();
+    }
+}
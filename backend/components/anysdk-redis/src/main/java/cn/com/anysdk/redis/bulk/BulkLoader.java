@@ -0,0 +1,178 @@
+package cn.com.anysdk.redis.bulk;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 批量导入
+ * <p>
+ * 读取记录的线程把记录转换为命令追加到当前批次，批次满{@link BulkLoadConfig#getBatchSize()}条命令后交给线程池以管道执行，
+ * 同时最多{@link BulkLoadConfig#getMaxInFlightBatches()}个批次在途：窗口满时读取线程等待，读取速度随Redis的处理速度下降，
+ * 内存中最多保留窗口内的批次。Lettuce等多路复用连接上多个在途批次在同一连接上连续发送，不等待前一批次的回复，
+ * 单连接吞吐量主要取决于批次大小和窗口大小。
+ * <p>
+ * 一条记录的命令总在同一个批次内按顺序执行；不同批次并发执行，同一个键出现在多条记录中时写入顺序不确定。
+ * 批次失败时其中的记录都计为失败，{@link BulkLoadConfig#isStopOnError()}为true时停止读取并抛出第一个失败的异常。
+ */
+public class BulkLoader {
+    private final IRedisService redisService;
+    private final BulkLoadConfig config;
+
+    public BulkLoader(IRedisService redisService) {
+        this(redisService, BulkLoadConfig.createDefault());
+    }
+
+    public BulkLoader(IRedisService redisService, BulkLoadConfig config) {
+        if (config.getBatchSize() <= 0 || config.getMaxInFlightBatches() <= 0) {
+            throw new RedisException("Bulk batch size and max in-flight batches must be positive");
+        }
+        this.redisService = redisService;
+        this.config = config;
+    }
+
+    /**
+     * 从{@link BulkExporter}或{@link BulkFileWriter}写出的文件导入
+     * @param file 文件
+     * @return 导入结果
+     */
+    public BulkStats load(Path file) {
+        return load(file, null);
+    }
+
+    public BulkStats load(Path file, Consumer<BulkStats> progressListener) {
+        try (BulkFileReader reader = new BulkFileReader(file)) {
+            return load(reader, progressListener);
+        } catch (IOException e) {
+            throw new RedisException("Failed to read bulk file: " + e.getMessage(), e);
+        }
+    }
+
+    public BulkStats load(Iterator<BulkRecord> records) {
+        return load(records, null);
+    }
+
+    /**
+     * 导入记录
+     * @param records 记录，只在调用线程上按顺序读取
+     * @param progressListener 进度监听器，按{@link BulkLoadConfig#getProgressIntervalMillis()}和结束时在调用线程上回调，可以为null
+     * @return 导入结果
+     */
+    public BulkStats load(Iterator<BulkRecord> records, Consumer<BulkStats> progressListener) {
+        BulkProgress progress = new BulkProgress("load", config.getProgressIntervalMillis(), progressListener);
+        int window = config.getMaxInFlightBatches();
+        Semaphore permits = new Semaphore(window);
+        ExecutorService executor = BulkProgress.newExecutor("load", window);
+        try {
+            RedisBatch batch = redisService.batch();
+            int batchRecords = 0;
+            while (records.hasNext() && !(config.isStopOnError() && progress.failure.get() != null)) {
+                append(batch, records.next());
+                batchRecords++;
+                if (batch.size() >= config.getBatchSize()) {
+                    submit(executor, permits, progress, batch, batchRecords);
+                    batch = redisService.batch();
+                    batchRecords = 0;
+                    progress.maybeReport();
+                }
+            }
+            if (batchRecords > 0 && !(config.isStopOnError() && progress.failure.get() != null)) {
+                submit(executor, permits, progress, batch, batchRecords);
+            }
+            // 取回全部许可即所有在途批次都已完成
+            permits.acquire(window);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException("Interrupted while waiting for bulk load batches", e);
+        } finally {
+            executor.shutdown();
+        }
+        RuntimeException failure = progress.failure.get();
+        if (failure != null && config.isStopOnError()) {
+            throw new RedisException("Bulk load stopped after " + progress.records.sum() + " records: "
+                    + failure.getMessage(), failure);
+        }
+        return progress.finish();
+    }
+
+    private void submit(ExecutorService executor, Semaphore permits, BulkProgress progress, RedisBatch batch,
+                        int batchRecords) throws InterruptedException {
+        permits.acquire();
+        progress.inFlightBatches.incrementAndGet();
+        int commands = batch.size();
+        try {
+            executor.execute(() -> {
+                try {
+                    batch.execute();
+                    progress.records.add(batchRecords);
+                    progress.commands.add(commands);
+                } catch (RuntimeException e) {
+                    progress.fail(batchRecords, e);
+                } finally {
+                    progress.batches.increment();
+                    progress.inFlightBatches.decrementAndGet();
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            progress.inFlightBatches.decrementAndGet();
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void append(RedisBatch batch, BulkRecord record) {
+        String key = record.getKey();
+        long ttlMillis = record.getTtlMillis();
+        boolean replace = config.isReplaceExisting();
+        switch (record.getType()) {
+            case STRING:
+                if (ttlMillis > 0) {
+                    batch.set(key, record.getString(), ttlMillis, TimeUnit.MILLISECONDS);
+                } else {
+                    batch.set(key, record.getString());
+                }
+                return;
+            case DUMP:
+                batch.restore(key, ttlMillis, record.getSerialized(), replace);
+                return;
+            case HASH:
+                if (replace) {
+                    batch.delete(key);
+                }
+                if (!record.getHash().isEmpty()) {
+                    batch.hSetAll(key, Collections.unmodifiableMap(record.getHash()));
+                }
+                break;
+            case LIST:
+                if (replace) {
+                    batch.delete(key);
+                }
+                for (String element : record.getElements()) {
+                    batch.rPush(key, element);
+                }
+                break;
+            default:
+                if (replace) {
+                    batch.delete(key);
+                }
+                List<String> members = record.getElements();
+                if (!members.isEmpty()) {
+                    batch.sAdd(key, members.toArray(new String[0]));
+                }
+        }
+        if (ttlMillis > 0) {
+            batch.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package cn.com.anysdk.redis.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 一次导入或导出的进度，由读取记录的线程按间隔输出日志和回调监听器
+ */
+@Slf4j
+final class BulkProgress {
+    final LongAdder records = new LongAdder();
+    final LongAdder failedRecords = new LongAdder();
+    final LongAdder commands = new LongAdder();
+    final LongAdder batches = new LongAdder();
+    final AtomicInteger inFlightBatches = new AtomicInteger();
+    final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    private final String operation;
+    private final long intervalNanos;
+    private final Consumer<BulkStats> listener;
+    private final long startNanos = System.nanoTime();
+    private long nextReportNanos;
+
+    BulkProgress(String operation, long intervalMillis, Consumer<BulkStats> listener) {
+        this.operation = operation;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.listener = listener;
+        this.nextReportNanos = startNanos + intervalNanos;
+    }
+
+    /**
+     * 记录失败的批次，只保留第一个异常
+     */
+    void fail(long recordCount, RuntimeException e) {
+        failedRecords.add(recordCount);
+        if (failure.compareAndSet(null, e)) {
+            log.warn("Bulk {} batch failed: {}", operation, e.getMessage());
+        } else {
+            log.debug("Bulk {} batch failed: {}", operation, e.getMessage());
+        }
+    }
+
+    void maybeReport() {
+        if (intervalNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - nextReportNanos < 0) {
+            return;
+        }
+        nextReportNanos = now + intervalNanos;
+        report(snapshot(false));
+    }
+
+    BulkStats finish() {
+        BulkStats stats = snapshot(true);
+        report(stats);
+        return stats;
+    }
+
+    private void report(BulkStats stats) {
+        log.info("Bulk {} {}: {} records, {} failed, {} records/s, {} batches in flight", operation,
+                stats.isFinished() ? "finished" : "progress", stats.getRecords(), stats.getFailedRecords(),
+                stats.getRecordsPerSecond(), stats.getInFlightBatches());
+        if (listener != null) {
+            try {
+                listener.accept(stats);
+            } catch (Exception e) {
+                log.warn("Bulk {} progress listener failed: {}", operation, e.getMessage());
+            }
+        }
+    }
+
+    private BulkStats snapshot(boolean finished) {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        long recordCount = records.sum();
+        return new BulkStats(recordCount, failedRecords.sum(), commands.sum(), batches.sum(), inFlightBatches.get(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), (long) (recordCount * 1e9 / elapsedNanos), finished);
+    }
+
+    /**
+     * 执行批次的线程池，线程数与在途批次数相同
+     */
+    static ExecutorService newExecutor(String operation, int threads) {
+        AtomicInteger index = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "anysdk-redis-bulk-" + operation + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package cn.com.anysdk.redis.bulk;
+
+import cn.com.anysdk.redis.exception.RedisException;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量导入导出的一条记录，对应一个键
+ */
+@Getter
+@ToString
+public final class BulkRecord {
+    /**
+     * 记录类型
+     */
+    public enum Type {
+        /**
+         * 字符串，值为String
+         */
+        STRING,
+        /**
+         * 哈希表，值为Map&lt;String, String&gt;
+         */
+        HASH,
+        /**
+         * 列表，值为List&lt;String&gt;，按顺序RPUSH
+         */
+        LIST,
+        /**
+         * 集合，值为List&lt;String&gt;
+         */
+        SET,
+        /**
+         * DUMP序列化的值，值为byte[]，通过RESTORE写入，只能写入与导出时相同类型的提供商
+         */
+        DUMP
+    }
+
+    /**
+     * 键
+     */
+    private final String key;
+
+    /**
+     * 记录类型
+     */
+    private final Type type;
+
+    /**
+     * 值，类型见{@link Type}
+     */
+    @ToString.Exclude
+    private final Object value;
+
+    /**
+     * 剩余过期时间（毫秒），0表示不过期
+     */
+    private final long ttlMillis;
+
+    private BulkRecord(String key, Type type, Object value, long ttlMillis) {
+        if (key == null || value == null) {
+            throw new RedisException("Bulk record key and value cannot be null");
+        }
+        if (ttlMillis < 0) {
+            throw new RedisException("Bulk record ttl cannot be negative: " + ttlMillis);
+        }
+        this.key = key;
+        this.type = type;
+        this.value = value;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static BulkRecord string(String key, String value) {
+        return string(key, value, 0);
+    }
+
+    public static BulkRecord string(String key, String value, long ttlMillis) {
+        return new BulkRecord(key, Type.STRING, value, ttlMillis);
+    }
+
+    public static BulkRecord hash(String key, Map<String, String> value, long ttlMillis) {
+        return new BulkRecord(key, Type.HASH, new LinkedHashMap<>(value), ttlMillis);
+    }
+
+    public static BulkRecord list(String key, List<String> value, long ttlMillis) {
+        return new BulkRecord(key, Type.LIST, new ArrayList<>(value), ttlMillis);
+    }
+
+    public static BulkRecord set(String key, Collection<String> value, long ttlMillis) {
+        return new BulkRecord(key, Type.SET, new ArrayList<>(value), ttlMillis);
+    }
+
+    public static BulkRecord dump(String key, byte[] serialized, long ttlMillis) {
+        return new BulkRecord(key, Type.DUMP, serialized, ttlMillis);
+    }
+
+    public String getString() {
+        return (String) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, String> getHash() {
+        return (Map<String, String>) value;
+    }
+
+    /**
+     * 列表或集合的元素
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getElements() {
+        return (List<String>) value;
+    }
+
+    public byte[] getSerialized() {
+        return (byte[]) value;
+    }
+}
@@ -0,0 +1,53 @@
+package cn.com.anysdk.redis.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 批量导入导出的进度快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BulkStats {
+    /**
+     * 已处理完成的记录数（导入为写入成功的记录数，导出为写入文件的记录数）
+     */
+    private final long records;
+
+    /**
+     * 所在批次失败的记录数
+     */
+    private final long failedRecords;
+
+    /**
+     * 已执行的命令数
+     */
+    private final long commands;
+
+    /**
+     * 已执行的批次数
+     */
+    private final long batches;
+
+    /**
+     * 当前在途的批次数
+     */
+    private final int inFlightBatches;
+
+    /**
+     * 已耗时（毫秒）
+     */
+    private final long elapsedMillis;
+
+    /**
+     * 平均每秒处理的记录数
+     */
+    private final long recordsPerSecond;
+
+    /**
+     * 是否已结束
+     */
+    private final boolean finished;
+}
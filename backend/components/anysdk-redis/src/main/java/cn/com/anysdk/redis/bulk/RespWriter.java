@@ -0,0 +1,174 @@
+package cn.com.anysdk.redis.bulk;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按RESP协议写出命令，输出可直接通过{@code redis-cli --pipe}批量写入（mass insertion）
+ * <p>
+ * 记录转换为命令：字符串为SET（带过期时间时加PX），哈希为HSET，列表为RPUSH，集合为SADD，集合类型带过期时间时追加PEXPIRE，
+ * DUMP记录为RESTORE。覆盖已存在的键时集合类型先DEL，RESTORE加REPLACE。
+ * 元素很多的集合类型按{@link #MAX_ARGUMENTS}拆成多条命令，避免单条命令过大。
+ */
+public class RespWriter implements Closeable {
+    private static final int MAX_ARGUMENTS = 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] DEL = bytes("DEL");
+    private static final byte[] SET = bytes("SET");
+    private static final byte[] PX = bytes("PX");
+    private static final byte[] HSET = bytes("HSET");
+    private static final byte[] RPUSH = bytes("RPUSH");
+    private static final byte[] SADD = bytes("SADD");
+    private static final byte[] PEXPIRE = bytes("PEXPIRE");
+    private static final byte[] RESTORE = bytes("RESTORE");
+    private static final byte[] REPLACE = bytes("REPLACE");
+
+    private final OutputStream out;
+    private final boolean replaceExisting;
+    private final byte[] numberBuffer = new byte[20];
+    private long commands;
+
+    public RespWriter(Path file, boolean replaceExisting) throws IOException {
+        this(Files.newOutputStream(file), replaceExisting);
+    }
+
+    /**
+     * @param output 输出流
+     * @param replaceExisting 是否覆盖已存在的键
+     */
+    public RespWriter(OutputStream output, boolean replaceExisting) {
+        this.out = new BufferedOutputStream(output, 64 * 1024);
+        this.replaceExisting = replaceExisting;
+    }
+
+    /**
+     * 写出一条记录对应的命令
+     * @param record 记录
+     */
+    public void write(BulkRecord record) throws IOException {
+        byte[] key = bytes(record.getKey());
+        long ttlMillis = record.getTtlMillis();
+        switch (record.getType()) {
+            case STRING:
+                if (ttlMillis > 0) {
+                    writeCommand(SET, key, bytes(record.getString()), PX, bytes(Long.toString(ttlMillis)));
+                } else {
+                    writeCommand(SET, key, bytes(record.getString()));
+                }
+                return;
+            case DUMP:
+                if (replaceExisting) {
+                    writeCommand(RESTORE, key, bytes(Long.toString(ttlMillis)), record.getSerialized(), REPLACE);
+                } else {
+                    writeCommand(RESTORE, key, bytes(Long.toString(ttlMillis)), record.getSerialized());
+                }
+                return;
+            case HASH:
+                deleteIfReplacing(key);
+                writeHash(key, record.getHash());
+                break;
+            default:
+                deleteIfReplacing(key);
+                writeElements(record.getType() == BulkRecord.Type.LIST ? RPUSH : SADD, key, record.getElements());
+        }
+        if (ttlMillis > 0) {
+            writeCommand(PEXPIRE, key, bytes(Long.toString(ttlMillis)));
+        }
+    }
+
+    /**
+     * 写出任意命令
+     * @param arguments 命令名和参数
+     */
+    public void writeCommand(byte[]... arguments) throws IOException {
+        out.write('*');
+        writeNumber(arguments.length);
+        for (byte[] argument : arguments) {
+            out.write('$');
+            writeNumber(argument.length);
+            out.write(argument);
+            out.write(CRLF);
+        }
+        commands++;
+    }
+
+    /**
+     * 已写出的命令数，与{@code redis-cli --pipe}报告的回复数对应
+     */
+    public long getCommands() {
+        return commands;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void deleteIfReplacing(byte[] key) throws IOException {
+        if (replaceExisting) {
+            writeCommand(DEL, key);
+        }
+    }
+
+    private void writeHash(byte[] key, Map<String, String> hash) throws IOException {
+        byte[][] arguments = null;
+        int index = 0;
+        int remaining = hash.size();
+        for (Map.Entry<String, String> entry : hash.entrySet()) {
+            if (arguments == null) {
+                arguments = head(HSET, key, Math.min(remaining, MAX_ARGUMENTS / 2) * 2);
+                index = 2;
+            }
+            arguments[index++] = bytes(entry.getKey());
+            arguments[index++] = bytes(entry.getValue());
+            remaining--;
+            if (index == arguments.length) {
+                writeCommand(arguments);
+                arguments = null;
+            }
+        }
+    }
+
+    private void writeElements(byte[] command, byte[] key, List<String> elements) throws IOException {
+        for (int from = 0; from < elements.size(); from += MAX_ARGUMENTS) {
+            int to = Math.min(from + MAX_ARGUMENTS, elements.size());
+            byte[][] arguments = head(command, key, to - from);
+            for (int i = from; i < to; i++) {
+                arguments[i - from + 2] = bytes(elements.get(i));
+            }
+            writeCommand(arguments);
+        }
+    }
+
+    private static byte[][] head(byte[] command, byte[] key, int argumentCount) {
+        byte[][] arguments = new byte[argumentCount + 2][];
+        arguments[0] = command;
+        arguments[1] = key;
+        return arguments;
+    }
+
+    private void writeNumber(int value) throws IOException {
+        int position = numberBuffer.length;
+        do {
+            numberBuffer[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        out.write(numberBuffer, position, numberBuffer.length - position);
+        out.write(CRLF);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+package cn.com.anysdk.redis.cache;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 旁路缓存加载器配置
+ */
+@Data
+@Accessors(chain = true)
+public class CacheAsideConfig {
+    /**
+     * 是否在加载前获取Redis分布式锁，保证同一时刻整个集群只有一个节点回源
+     */
+    private boolean lockEnabled = false;
+
+    /**
+     * 锁键后缀
+     */
+    private String lockSuffix = ":loading";
+
+    /**
+     * 锁的过期时间（毫秒），应大于一次回源的最长耗时
+     */
+    private long lockTimeoutMillis = 3000;
+
+    /**
+     * 未获得锁时等待其他节点写入缓存的最长时间（毫秒），超时后自行回源
+     */
+    private long lockWaitMillis = 3000;
+
+    /**
+     * 等待期间轮询缓存的间隔（毫秒）
+     */
+    private long lockPollIntervalMillis = 50;
+
+    /**
+     * 提前刷新系数（XFetch的beta），越大越早刷新，0表示关闭提前刷新
+     */
+    private double earlyRefreshBeta = 1.0;
+
+    /**
+     * 创建默认配置
+     * @return 默认配置
+     */
+    public static CacheAsideConfig createDefault() {
+        return new CacheAsideConfig();
+    }
+}
@@ -0,0 +1,270 @@
+package cn.com.anysdk.redis.cache;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.codec.IRedisCodec;
+import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.script.AtomicOperations;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 防击穿的旁路缓存加载器
+ * <p>
+ * 未命中时回源加载并写回Redis，并通过三种手段避免热点键过期时大量请求同时回源：
+ * <ul>
+ *     <li>同一JVM内相同键的并发加载合并为一次，其余线程等待同一个结果</li>
+ *     <li>可选的Redis锁（SET NX PX），同一时刻只有一个节点回源，其他节点在旧值存在时直接返回旧值，否则轮询等待</li>
+ *     <li>XFetch概率提前刷新：越接近过期、回源越慢，越可能由某次读取提前刷新，热点键通常在过期前就已更新</li>
+ * </ul>
+ * 值与过期时间、回源耗时一起编码后写入，因此本加载器管理的键应只通过本加载器读取。
+ * @param <T> 值类型
+ */
+@Slf4j
+public class CacheAsideLoader<T> {
+    private static final byte ENVELOPE_MAGIC = (byte) 0xFE;
+    private static final int ENVELOPE_HEADER_SIZE = 13;
+
+    private final IRedisService redisService;
+    private final CacheAsideConfig config;
+    private final AtomicOperations atomicOperations;
+    private final IRedisCodec<Envelope<T>> envelopeCodec;
+    private final ConcurrentMap<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CacheAsideLoader(IRedisService redisService, IRedisCodec<T> codec) {
+        this(redisService, codec, CacheAsideConfig.createDefault());
+    }
+
+    public CacheAsideLoader(IRedisService redisService, IRedisCodec<T> codec, CacheAsideConfig config) {
+        this.redisService = redisService;
+        this.config = config;
+        this.atomicOperations = new AtomicOperations(redisService);
+        this.envelopeCodec = new EnvelopeCodec<>(codec);
+    }
+
+    /**
+     * 读取缓存，未命中或需要提前刷新时回源加载并写回
+     * @param key 键
+     * @param ttl 缓存时间
+     * @param unit 时间单位
+     * @param loader 回源加载函数，返回null时不写缓存
+     * @return 值
+     */
+    public T getOrLoad(String key, long ttl, TimeUnit unit, Callable<T> loader) {
+        Envelope<T> cached = redisService.get(key, envelopeCodec);
+        if (cached != null && !shouldRefreshEarly(cached)) {
+            hits.increment();
+            return cached.value;
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            // 其他线程正在刷新，旧值仍然有效时不必等待
+            return cached != null ? cached.value : await(existing);
+        }
+        if (cached != null) {
+            earlyRefreshes.increment();
+        }
+
+        try {
+            T value = loadWithLock(key, ttl, unit, loader, cached);
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 删除缓存，下次读取时重新加载
+     * @param key 键
+     * @return 是否删除
+     */
+    public boolean invalidate(String key) {
+        return redisService.delete(key);
+    }
+
+    /**
+     * 获取统计快照
+     * @return 统计快照
+     */
+    public CacheAsideStats getStats() {
+        return new CacheAsideStats(hits.sum(), loads.sum(), earlyRefreshes.sum(), coalesced.sum());
+    }
+
+    private T loadWithLock(String key, long ttl, TimeUnit unit, Callable<T> loader, Envelope<T> stale) {
+        if (!config.isLockEnabled()) {
+            return load(key, ttl, unit, loader);
+        }
+        String lockKey = key + config.getLockSuffix();
+        String token = UUID.randomUUID().toString();
+        if (redisService.setIfAbsent(lockKey, token, config.getLockTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+            try {
+                return load(key, ttl, unit, loader);
+            } finally {
+                unlock(lockKey, token);
+            }
+        }
+        if (stale != null) {
+            return stale.value;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getLockWaitMillis());
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(config.getLockPollIntervalMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RedisException("Interrupted while waiting for cache load: " + key, e);
+            }
+            Envelope<T> loaded = redisService.get(key, envelopeCodec);
+            if (loaded != null) {
+                return loaded.value;
+            }
+        }
+        log.warn("Timed out waiting {}ms for another node to load key: {}, loading locally", config.getLockWaitMillis(), key);
+        return load(key, ttl, unit, loader);
+    }
+
+    private T load(String key, long ttl, TimeUnit unit, Callable<T> loader) {
+        loads.increment();
+        long startMillis = System.currentTimeMillis();
+        T value;
+        try {
+            value = loader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RedisException("Failed to load value for key " + key + ": " + e.getMessage(), e);
+        }
+        if (value != null) {
+            long now = System.currentTimeMillis();
+            Envelope<T> envelope = new Envelope<>(value, now + unit.toMillis(ttl), (int) Math.min(Integer.MAX_VALUE, now - startMillis));
+            redisService.set(key, envelope, envelopeCodec, ttl, unit);
+        }
+        return value;
+    }
+
+    /**
+     * 释放锁，只删除自己持有的锁
+     * 比较与删除原子执行，锁已过期并被其他节点获取时不会误删；释放失败时锁在过期后自动释放
+     */
+    private void unlock(String lockKey, String token) {
+        try {
+            // 比较与删除在一个脚本内完成，避免锁过期后误删其他节点持有的锁
+            atomicOperations.compareAndDelete(lockKey, token);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release cache load lock: {}, it will expire automatically: {}", lockKey, e.getMessage());
+        }
+    }
+
+    /**
+     * XFetch：now - delta * beta * ln(rand) >= expiry 时提前刷新
+     */
+    private boolean shouldRefreshEarly(Envelope<T> envelope) {
+        double beta = config.getEarlyRefreshBeta();
+        if (beta <= 0 || envelope.expiryMillis <= 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double gap = -envelope.deltaMillis * beta * Math.log(random);
+        return System.currentTimeMillis() + gap >= envelope.expiryMillis;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException("Interrupted while waiting for cache load", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RedisException("Failed to load value: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 缓存值及其元数据
+     */
+    private static final class Envelope<T> {
+        private final T value;
+        private final long expiryMillis;
+        private final int deltaMillis;
+
+        private Envelope(T value, long expiryMillis, int deltaMillis) {
+            this.value = value;
+            this.expiryMillis = expiryMillis;
+            this.deltaMillis = deltaMillis;
+        }
+    }
+
+    /**
+     * 包装编解码器：1字节标记0xFE、8字节过期时间戳、4字节回源耗时，之后是值本身的编码
+     * 0xFE不是合法的UTF-8首字节，不带标记的历史值按无元数据处理，不参与提前刷新
+     */
+    private static final class EnvelopeCodec<T> implements IRedisCodec<Envelope<T>> {
+        private final IRedisCodec<T> codec;
+
+        private EnvelopeCodec(IRedisCodec<T> codec) {
+            this.codec = Objects.requireNonNull(codec, "codec");
+        }
+
+        @Override
+        public byte[] encode(Envelope<T> envelope) {
+            byte[] payload = codec.encode(envelope.value);
+            byte[] bytes = new byte[ENVELOPE_HEADER_SIZE + payload.length];
+            bytes[0] = ENVELOPE_MAGIC;
+            for (int i = 0; i < 8; i++) {
+                bytes[1 + i] = (byte) (envelope.expiryMillis >>> (56 - 8 * i));
+            }
+            for (int i = 0; i < 4; i++) {
+                bytes[9 + i] = (byte) (envelope.deltaMillis >>> (24 - 8 * i));
+            }
+            System.arraycopy(payload, 0, bytes, ENVELOPE_HEADER_SIZE, payload.length);
+            return bytes;
+        }
+
+        @Override
+        public Envelope<T> decode(byte[] bytes) {
+            if (bytes.length < ENVELOPE_HEADER_SIZE || bytes[0] != ENVELOPE_MAGIC) {
+                return new Envelope<>(codec.decode(bytes), 0, 0);
+            }
+            long expiryMillis = 0;
+            for (int i = 0; i < 8; i++) {
+                expiryMillis = (expiryMillis << 8) | (bytes[1 + i] & 0xFF);
+            }
+            int deltaMillis = 0;
+            for (int i = 0; i < 4; i++) {
+                deltaMillis = (deltaMillis << 8) | (bytes[9 + i] & 0xFF);
+            }
+            T value = codec.decode(Arrays.copyOfRange(bytes, ENVELOPE_HEADER_SIZE, bytes.length));
+            return new Envelope<>(value, expiryMillis, deltaMillis);
+        }
+    }
+}
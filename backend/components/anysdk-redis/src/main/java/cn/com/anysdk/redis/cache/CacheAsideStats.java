@@ -0,0 +1,33 @@
+package cn.com.anysdk.redis.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 旁路缓存加载器统计快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CacheAsideStats {
+    /**
+     * 命中缓存且无需刷新的读取次数
+     */
+    private final long hitCount;
+
+    /**
+     * 实际回源加载次数
+     */
+    private final long loadCount;
+
+    /**
+     * 缓存未过期但按XFetch提前刷新的次数
+     */
+    private final long earlyRefreshCount;
+
+    /**
+     * 合并到其他线程进行中加载的请求次数
+     */
+    private final long coalescedCount;
+}
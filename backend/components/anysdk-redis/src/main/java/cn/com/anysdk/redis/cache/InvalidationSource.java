@@ -0,0 +1,35 @@
+package cn.com.anysdk.redis.cache;
+
+/**
+ * 近端缓存失效通知来源
+ * 负责与服务端建立跟踪关系，并在键被修改时回调监听器
+ */
+public interface InvalidationSource extends AutoCloseable {
+    /**
+     * 开始接收失效通知
+     * @param listener 失效监听器
+     */
+    void start(InvalidationListener listener);
+
+    /**
+     * 停止接收失效通知并释放连接
+     */
+    @Override
+    void close();
+
+    /**
+     * 失效监听器
+     */
+    interface InvalidationListener {
+        /**
+         * 键已被修改或删除
+         * @param key 键
+         */
+        void onInvalidate(String key);
+
+        /**
+         * 需要清空全部本地缓存，例如服务端执行了FLUSHALL或跟踪连接断开
+         */
+        void onInvalidateAll();
+    }
+}
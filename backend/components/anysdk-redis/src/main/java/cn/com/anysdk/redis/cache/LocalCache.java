@@ -0,0 +1,355 @@
+package cn.com.anysdk.redis.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * 有界本地缓存
+ * <p>
+ * 按键哈希分段，每段由一个ConcurrentHashMap保存数据、一个访问顺序的LinkedHashMap维护LRU顺序。
+ * 读操作无锁查找，只在能立即拿到段锁时才调整LRU顺序（竞争激烈时丢弃这次顺序更新，与Caffeine的读缓冲思路一致）；
+ * 写操作持有段锁，超过段容量时按LRU顺序淘汰。容量按权重计算，权重由weigher给出，可以是条目数也可以是估算字节数。
+ * 所有条目都受写入后最大存活时间约束。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class LocalCache<K, V> {
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final ToLongBiFunction<K, V> weigher;
+    private final long maxTtlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 创建按条目数限制容量的本地缓存
+     * @param maxSize 最大条目数
+     * @param maxTtl 最大存活时间，小于等于0表示不限制
+     * @param unit 时间单位
+     */
+    public LocalCache(long maxSize, long maxTtl, TimeUnit unit) {
+        this(maxSize, (key, value) -> 1L, maxTtl, unit);
+    }
+
+    /**
+     * 创建按权重限制容量的本地缓存
+     * @param maxWeight 最大总权重
+     * @param weigher 权重计算函数
+     * @param maxTtl 最大存活时间，小于等于0表示不限制
+     * @param unit 时间单位
+     */
+    @SuppressWarnings("unchecked")
+    public LocalCache(long maxWeight, ToLongBiFunction<K, V> weigher, long maxTtl, TimeUnit unit) {
+        int segmentCount = maxWeight < DEFAULT_SEGMENTS * 16L ? 1 : DEFAULT_SEGMENTS;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(Math.max(1, maxWeight / segmentCount), evictions);
+        }
+        this.segmentMask = segmentCount - 1;
+        this.weigher = weigher;
+        this.maxTtlNanos = maxTtl > 0 ? unit.toNanos(maxTtl) : Long.MAX_VALUE;
+    }
+
+    /**
+     * 获取缓存值
+     * @param key 键
+     * @return 值，不存在或已过期时返回null
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        Node<V> node = segment.data.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (node.isExpired(System.nanoTime())) {
+            segment.remove(key, node);
+            misses.increment();
+            return null;
+        }
+        segment.recordAccess(key);
+        hits.increment();
+        return node.value;
+    }
+
+    /**
+     * 获取缓存值，不计入命中统计也不调整LRU顺序
+     * @param key 键
+     * @return 值，不存在或已过期时返回null
+     */
+    public V peek(K key) {
+        Node<V> node = segmentFor(key).data.get(key);
+        return node == null || node.isExpired(System.nanoTime()) ? null : node.value;
+    }
+
+    /**
+     * 写入缓存，存活时间为最大存活时间
+     * @param key 键
+     * @param value 值
+     */
+    public void put(K key, V value) {
+        put(key, value, maxTtlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 写入缓存并指定存活时间，实际存活时间不超过最大存活时间
+     * @param key 键
+     * @param value 值
+     * @param ttl 存活时间
+     * @param unit 时间单位
+     */
+    public void put(K key, V value, long ttl, TimeUnit unit) {
+        Node<V> node = newNode(key, value, ttl, unit);
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.putLocked(key, node);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 键不存在（或已过期）时写入缓存
+     * @param key 键
+     * @param value 值
+     * @return 已存在的值，写入成功时返回null
+     */
+    public V putIfAbsent(K key, V value) {
+        Node<V> node = newNode(key, value, maxTtlNanos, TimeUnit.NANOSECONDS);
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            Node<V> existing = segment.data.get(key);
+            if (existing != null && !existing.isExpired(System.nanoTime())) {
+                return existing.value;
+            }
+            segment.putLocked(key, node);
+            return null;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 当前值与期望值为同一对象时替换
+     * @param key 键
+     * @param expected 期望的当前值
+     * @param value 新值
+     * @return 是否替换成功
+     */
+    public boolean replace(K key, V expected, V value) {
+        Node<V> node = newNode(key, value, maxTtlNanos, TimeUnit.NANOSECONDS);
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            Node<V> existing = segment.data.get(key);
+            if (existing == null || existing.value != expected) {
+                return false;
+            }
+            segment.putLocked(key, node);
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 当前值与期望值为同一对象时移除
+     * @param key 键
+     * @param expected 期望的当前值
+     * @return 是否移除成功
+     */
+    public boolean remove(K key, V expected) {
+        Segment<K, V> segment = segmentFor(key);
+        Node<V> existing = segment.data.get(key);
+        return existing != null && existing.value == expected && segment.remove(key, existing);
+    }
+
+    /**
+     * 移除缓存
+     * @param key 键
+     * @return 是否存在并被移除
+     */
+    public boolean invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            return segment.removeLocked(key) != null;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.data.clear();
+                segment.order.clear();
+                segment.weight = 0;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 获取条目数
+     * @return 条目数
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.data.size();
+        }
+        return size;
+    }
+
+    /**
+     * 获取当前总权重
+     * @return 总权重
+     */
+    public long weightedSize() {
+        long weight = 0;
+        for (Segment<K, V> segment : segments) {
+            weight += segment.weight;
+        }
+        return weight;
+    }
+
+    /**
+     * 获取命中次数
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 获取因容量不足被淘汰的条目数
+     * @return 淘汰条目数
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Node<V> newNode(K key, V value, long ttl, TimeUnit unit) {
+        long ttlNanos = Math.min(unit.toNanos(ttl), maxTtlNanos);
+        long expireAt = ttlNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + ttlNanos;
+        return new Node<>(value, Math.max(1, weigher.applyAsLong(key, value)), expireAt);
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & segmentMask];
+    }
+
+    private static final class Node<V> {
+        final V value;
+        final long weight;
+        final long expireAt;
+
+        Node(V value, long weight, long expireAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+
+        boolean isExpired(long now) {
+            return expireAt != Long.MAX_VALUE && now - expireAt >= 0;
+        }
+    }
+
+    private static final class Segment<SK, SV> {
+        final ReentrantLock lock = new ReentrantLock();
+        final ConcurrentHashMap<SK, Node<SV>> data = new ConcurrentHashMap<>();
+        final LinkedHashMap<SK, Node<SV>> order = new LinkedHashMap<>(16, 0.75f, true);
+        final long maxWeight;
+        final LongAdder evictions;
+        volatile long weight;
+
+        Segment(long maxWeight, LongAdder evictions) {
+            this.maxWeight = maxWeight;
+            this.evictions = evictions;
+        }
+
+        void recordAccess(SK key) {
+            if (lock.tryLock()) {
+                try {
+                    order.get(key);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        void putLocked(SK key, Node<SV> node) {
+            if (node.weight > maxWeight) {
+                // 单个条目超过段容量时不缓存，同时移除旧值避免读到过期数据
+                removeLocked(key);
+                return;
+            }
+            Node<SV> previous = data.put(key, node);
+            order.put(key, node);
+            weight += node.weight - (previous == null ? 0 : previous.weight);
+            evictLocked();
+        }
+
+        boolean remove(SK key, Node<SV> expected) {
+            lock.lock();
+            try {
+                if (data.get(key) != expected) {
+                    return false;
+                }
+                removeLocked(key);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Node<SV> removeLocked(SK key) {
+            Node<SV> removed = data.remove(key);
+            if (removed != null) {
+                order.remove(key);
+                weight -= removed.weight;
+            }
+            return removed;
+        }
+
+        void evictLocked() {
+            Iterator<Map.Entry<SK, Node<SV>>> iterator = order.entrySet().iterator();
+            while (weight > maxWeight && iterator.hasNext()) {
+                Map.Entry<SK, Node<SV>> eldest = iterator.next();
+                iterator.remove();
+                data.remove(eldest.getKey());
+                weight -= eldest.getValue().weight;
+                evictions.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package cn.com.anysdk.redis.cache;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 近端缓存配置
+ */
+@Data
+@Accessors(chain = true)
+public class NearCacheConfig {
+    /**
+     * 本地缓存最大容量（估算字节数）
+     */
+    private long maxWeightBytes = 64L * 1024 * 1024;
+
+    /**
+     * 本地条目最大存活时间（毫秒），即使没有收到失效通知也会在此时间后重新读取
+     */
+    private long maxTtlMillis = 60_000;
+
+    /**
+     * 是否通过CLIENT TRACKING接收服务端失效通知
+     */
+    private boolean trackingEnabled = true;
+
+    /**
+     * 广播模式跟踪的键前缀，为空表示跟踪所有键
+     */
+    private List<String> trackingPrefixes = new ArrayList<>();
+
+    /**
+     * 是否缓存哈希字段
+     */
+    private boolean cacheHashes = true;
+
+    /**
+     * 创建默认配置
+     * @return 默认配置
+     */
+    public static NearCacheConfig createDefault() {
+        return new NearCacheConfig();
+    }
+}
@@ -0,0 +1,610 @@
+package cn.com.anysdk.redis.cache;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.impl.DelegatingRedisService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带近端缓存的Redis服务
+ * <p>
+ * 在本地缓存字符串值和哈希字段，读命中时不访问Redis。条目通过以下方式失效：
+ * <ul>
+ *     <li>经由本服务执行的写操作（set、delete、expire、hSet等）完成后立即失效对应键</li>
+ *     <li>服务端CLIENT TRACKING推送的失效通知（需要提供{@link InvalidationSource}）</li>
+ *     <li>达到{@link NearCacheConfig#getMaxTtlMillis()}后自动过期</li>
+ * </ul>
+ * 加载时先在本地放置占位符，只有占位符在读取期间没有被失效时才回填，避免失效通知与读取交错导致缓存旧值。
+ */
+@Slf4j
+public class NearCacheRedisService extends DelegatingRedisService implements AutoCloseable {
+    private static final Object NULL_VALUE = new Object();
+
+    private final LocalCache<String, Object> cache;
+    private final NearCacheConfig nearCacheConfig;
+    private final InvalidationSource invalidationSource;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder serverInvalidations = new LongAdder();
+    private final LongAdder localInvalidations = new LongAdder();
+
+    public NearCacheRedisService(IRedisService delegate, NearCacheConfig nearCacheConfig) {
+        this(delegate, nearCacheConfig, null);
+    }
+
+    public NearCacheRedisService(IRedisService delegate, NearCacheConfig nearCacheConfig, InvalidationSource invalidationSource) {
+        super(delegate);
+        this.nearCacheConfig = nearCacheConfig;
+        this.cache = new LocalCache<>(nearCacheConfig.getMaxWeightBytes(), NearCacheRedisService::weigh,
+                nearCacheConfig.getMaxTtlMillis(), TimeUnit.MILLISECONDS);
+        this.invalidationSource = invalidationSource;
+
+        if (invalidationSource != null) {
+            invalidationSource.start(new InvalidationSource.InvalidationListener() {
+                @Override
+                public void onInvalidate(String key) {
+                    if (cache.invalidate(key)) {
+                        serverInvalidations.increment();
+                    }
+                }
+
+                @Override
+                public void onInvalidateAll() {
+                    cache.invalidateAll();
+                }
+            });
+        } else {
+            log.warn("Near cache is running without server-assisted invalidation, entries may be stale for up to {}ms",
+                    nearCacheConfig.getMaxTtlMillis());
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        Object cached = cache.get(key);
+        if (cached instanceof String) {
+            hits.increment();
+            return (String) cached;
+        }
+        if (cached == NULL_VALUE) {
+            hits.increment();
+            return null;
+        }
+        misses.increment();
+
+        Loading loading = new Loading();
+        // 已有占位符或哈希条目时只读取不回填
+        boolean owner = cached == null && cache.putIfAbsent(key, loading) == null;
+        String value;
+        try {
+            value = super.get(key);
+        } catch (RuntimeException e) {
+            if (owner) {
+                cache.remove(key, loading);
+            }
+            throw e;
+        }
+        if (owner) {
+            cache.replace(key, loading, value == null ? NULL_VALUE : value);
+        }
+        return value;
+    }
+
+    @Override
+    public Object hGet(String key, String field) {
+        if (!nearCacheConfig.isCacheHashes()) {
+            return super.hGet(key, field);
+        }
+        Object cached = cache.get(key);
+        if (cached instanceof HashEntry && ((HashEntry) cached).contains(field)) {
+            hits.increment();
+            return ((HashEntry) cached).get(field);
+        }
+        misses.increment();
+
+        Object expected = null;
+        if (cached instanceof HashEntry) {
+            expected = cached;
+        } else if (cached == null) {
+            Loading loading = new Loading();
+            if (cache.putIfAbsent(key, loading) == null) {
+                expected = loading;
+            }
+        }
+
+        Object value;
+        try {
+            value = super.hGet(key, field);
+        } catch (RuntimeException e) {
+            if (expected instanceof Loading) {
+                cache.remove(key, expected);
+            }
+            throw e;
+        }
+        if (expected != null) {
+            HashEntry base = expected instanceof HashEntry ? (HashEntry) expected : HashEntry.EMPTY;
+            cache.replace(key, expected, base.with(field, value));
+        }
+        return value;
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        List<String> values = new ArrayList<>(keys.size());
+        Map<String, Loading> loadingKeys = new HashMap<>();
+        List<String> missingKeys = new ArrayList<>();
+        for (String key : keys) {
+            Object cached = cache.get(key);
+            if (cached instanceof String) {
+                hits.increment();
+                values.add((String) cached);
+            } else if (cached == NULL_VALUE) {
+                hits.increment();
+                values.add(null);
+            } else {
+                misses.increment();
+                values.add(null);
+                if (!loadingKeys.containsKey(key)) {
+                    Loading loading = new Loading();
+                    if (cached == null && cache.putIfAbsent(key, loading) == null) {
+                        loadingKeys.put(key, loading);
+                    }
+                    missingKeys.add(key);
+                }
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return values;
+        }
+
+        List<String> loaded;
+        try {
+            loaded = super.mGet(missingKeys);
+        } catch (RuntimeException e) {
+            loadingKeys.forEach(cache::remove);
+            throw e;
+        }
+        Map<String, String> loadedValues = new HashMap<>();
+        for (int i = 0; i < missingKeys.size(); i++) {
+            String key = missingKeys.get(i);
+            String value = loaded.get(i);
+            loadedValues.put(key, value);
+            Loading loading = loadingKeys.get(key);
+            if (loading != null) {
+                cache.replace(key, loading, value == null ? NULL_VALUE : value);
+            }
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            if (loadedValues.containsKey(keys.get(i))) {
+                values.set(i, loadedValues.get(keys.get(i)));
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void set(String key, String value) {
+        try {
+            super.set(key, value);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        try {
+            super.set(key, value, timeout, unit);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        try {
+            return super.setIfAbsent(key, value, timeout, unit);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args) {
+        // 脚本可能修改任意传入的键
+        try {
+            return super.evalSha(sha1, returnType, keys, args);
+        } finally {
+            keys.forEach(this::invalidateLocal);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) {
+        try {
+            return super.delete(key);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public long delete(List<String> keys) {
+        try {
+            return super.delete(keys);
+        } finally {
+            keys.forEach(this::invalidateLocal);
+        }
+    }
+
+    @Override
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        try {
+            return super.expire(key, timeout, unit);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public void restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        try {
+            super.restore(key, ttlMillis, serialized, replace);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public long incr(String key) {
+        try {
+            return super.incr(key);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        try {
+            return super.incrBy(key, delta);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public long hIncrBy(String key, String field, long delta) {
+        try {
+            return super.hIncrBy(key, field, delta);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public void hSet(String key, String field, Object value) {
+        try {
+            super.hSet(key, field, value);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map) {
+        try {
+            super.hSetAll(key, map);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public void mSet(Map<String, String> map) {
+        try {
+            super.mSet(map);
+        } finally {
+            map.keySet().forEach(this::invalidateLocal);
+        }
+    }
+
+    @Override
+    public long mDelete(List<String> keys) {
+        try {
+            return super.mDelete(keys);
+        } finally {
+            keys.forEach(this::invalidateLocal);
+        }
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value) {
+        try {
+            super.setBytes(key, value);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        try {
+            super.setBytes(key, value, timeout, unit);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public void hSetBytes(String key, String field, byte[] value) {
+        try {
+            super.hSetBytes(key, field, value);
+        } finally {
+            invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return new NearCacheBatch(super.batch());
+    }
+
+    /**
+     * 获取统计快照
+     * @return 统计快照
+     */
+    public NearCacheStats getStats() {
+        return new NearCacheStats(hits.sum(), misses.sum(), cache.getEvictionCount(),
+                serverInvalidations.sum(), localInvalidations.sum(), cache.size(), cache.weightedSize());
+    }
+
+    /**
+     * 清空本地缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void close() {
+        if (invalidationSource != null) {
+            invalidationSource.close();
+        }
+        cache.invalidateAll();
+    }
+
+    private void invalidateLocal(String key) {
+        cache.invalidate(key);
+        localInvalidations.increment();
+    }
+
+    private static long weigh(String key, Object value) {
+        long weight = 48 + key.length() * 2L;
+        if (value instanceof String) {
+            weight += 40 + ((String) value).length() * 2L;
+        } else if (value instanceof HashEntry) {
+            weight += ((HashEntry) value).weight;
+        } else {
+            weight += 16;
+        }
+        return weight;
+    }
+
+    /**
+     * 加载中占位符，每次加载使用独立实例以便按引用比较
+     */
+    private static final class Loading {
+    }
+
+    /**
+     * 不可变的哈希字段缓存条目，新增字段时复制
+     */
+    private static final class HashEntry {
+        static final HashEntry EMPTY = new HashEntry(Collections.emptyMap(), 0);
+
+        final Map<String, Object> fields;
+        final long weight;
+
+        HashEntry(Map<String, Object> fields, long weight) {
+            this.fields = fields;
+            this.weight = weight;
+        }
+
+        boolean contains(String field) {
+            return fields.containsKey(field);
+        }
+
+        Object get(String field) {
+            Object value = fields.get(field);
+            return value == NULL_VALUE ? null : value;
+        }
+
+        HashEntry with(String field, Object value) {
+            Map<String, Object> copy = new HashMap<>(fields);
+            copy.put(field, value == null ? NULL_VALUE : value);
+            long fieldWeight = 64 + field.length() * 2L + (value == null ? 0 : String.valueOf(value).length() * 2L);
+            return new HashEntry(copy, weight + fieldWeight);
+        }
+    }
+
+    /**
+     * 批量操作包装，执行后失效所有被写入的键
+     */
+    private final class NearCacheBatch implements RedisBatch {
+        private final RedisBatch target;
+        private final Set<String> writtenKeys = new LinkedHashSet<>();
+
+        NearCacheBatch(RedisBatch target) {
+            this.target = target;
+        }
+
+        @Override
+        public RedisBatch set(String key, String value) {
+            target.set(key, value);
+            writtenKeys.add(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch set(String key, String value, long timeout, TimeUnit unit) {
+            target.set(key, value, timeout, unit);
+            writtenKeys.add(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch get(String key) {
+            target.get(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch delete(String key) {
+            target.delete(key);
+            writtenKeys.add(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch expire(String key, long timeout, TimeUnit unit) {
+            target.expire(key, timeout, unit);
+            writtenKeys.add(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch hSet(String key, String field, Object value) {
+            target.hSet(key, field, value);
+            writtenKeys.add(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch hGet(String key, String field) {
+            target.hGet(key, field);
+            return this;
+        }
+
+        @Override
+        public RedisBatch hSetAll(String key, Map<String, Object> map) {
+            target.hSetAll(key, map);
+            writtenKeys.add(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch lPush(String key, String value) {
+            target.lPush(key, value);
+            return this;
+        }
+
+        @Override
+        public RedisBatch rPush(String key, String value) {
+            target.rPush(key, value);
+            return this;
+        }
+
+        @Override
+        public RedisBatch sAdd(String key, String... values) {
+            target.sAdd(key, values);
+            return this;
+        }
+
+        @Override
+        public RedisBatch incrBy(String key, long delta) {
+            target.incrBy(key, delta);
+            writtenKeys.add(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch hIncrBy(String key, String field, long delta) {
+            target.hIncrBy(key, field, delta);
+            writtenKeys.add(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch zAdd(String key, double score, String member) {
+            target.zAdd(key, score, member);
+            return this;
+        }
+
+        @Override
+        public RedisBatch zIncrBy(String key, double increment, String member) {
+            target.zIncrBy(key, increment, member);
+            return this;
+        }
+
+        @Override
+        public RedisBatch zRemRangeByScore(String key, double min, double max) {
+            target.zRemRangeByScore(key, min, max);
+            return this;
+        }
+
+        @Override
+        public RedisBatch zCard(String key) {
+            target.zCard(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch xAdd(String key, Map<String, String> fields, long maxLen) {
+            target.xAdd(key, fields, maxLen);
+            return this;
+        }
+
+        @Override
+        public RedisBatch xAck(String key, String group, String... ids) {
+            target.xAck(key, group, ids);
+            return this;
+        }
+
+        @Override
+        public RedisBatch dump(String key) {
+            target.dump(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+            target.restore(key, ttlMillis, serialized, replace);
+            writtenKeys.add(key);
+            return this;
+        }
+
+        @Override
+        public RedisBatch pTtl(String key) {
+            target.pTtl(key);
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return target.size();
+        }
+
+        @Override
+        public List<Object> execute() {
+            try {
+                return target.execute();
+            } finally {
+                writtenKeys.forEach(NearCacheRedisService.this::invalidateLocal);
+                writtenKeys.clear();
+            }
+        }
+    }
+}
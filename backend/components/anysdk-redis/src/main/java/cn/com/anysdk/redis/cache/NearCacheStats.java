@@ -0,0 +1,57 @@
+package cn.com.anysdk.redis.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 近端缓存统计快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class NearCacheStats {
+    /**
+     * 命中次数
+     */
+    private final long hitCount;
+
+    /**
+     * 未命中次数（即实际访问Redis的读取次数）
+     */
+    private final long missCount;
+
+    /**
+     * 因容量不足被淘汰的条目数
+     */
+    private final long evictionCount;
+
+    /**
+     * 收到服务端失效通知而移除的条目数
+     */
+    private final long serverInvalidationCount;
+
+    /**
+     * 本地写操作触发的失效次数
+     */
+    private final long localInvalidationCount;
+
+    /**
+     * 当前条目数
+     */
+    private final long size;
+
+    /**
+     * 当前估算占用字节数
+     */
+    private final long weightedSize;
+
+    /**
+     * 获取命中率
+     * @return 命中率，没有请求时为0
+     */
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
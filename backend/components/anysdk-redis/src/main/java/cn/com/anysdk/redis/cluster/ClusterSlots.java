@@ -0,0 +1,137 @@
+package cn.com.anysdk.redis.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis集群槽位工具
+ * <p>
+ * 按Redis集群规范计算键的槽位：对键（或其哈希标签）做CRC16（XMODEM）后对16384取模。
+ * 键中第一个'{'与其后第一个'}'之间的非空内容称为哈希标签，只有哈希标签参与计算，
+ * 因此{@code {user:1}:profile}和{@code {user:1}:orders}必定位于同一槽位，可以在一条多键命令或事务中操作。
+ */
+public final class ClusterSlots {
+    /**
+     * 集群槽位总数
+     */
+    public static final int SLOT_COUNT = 16384;
+
+    private static final int[] CRC16_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+            CRC16_TABLE[i] = crc & 0xFFFF;
+        }
+    }
+
+    private ClusterSlots() {
+    }
+
+    /**
+     * 计算键所在槽位
+     * @param key 键
+     * @return 槽位，取值0到16383
+     */
+    public static int slot(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int start = 0;
+        int end = bytes.length;
+        for (int open = 0; open < bytes.length; open++) {
+            if (bytes[open] == '{') {
+                for (int close = open + 1; close < bytes.length; close++) {
+                    if (bytes[close] == '}') {
+                        if (close > open + 1) {
+                            start = open + 1;
+                            end = close;
+                        }
+                        break;
+                    }
+                }
+                break;
+            }
+        }
+        return crc16(bytes, start, end) & (SLOT_COUNT - 1);
+    }
+
+    /**
+     * 为键加上哈希标签，使同一标签的键位于同一槽位
+     * @param tag 哈希标签，例如用户ID
+     * @param key 键的其余部分
+     * @return 形如{@code {tag}key}的键
+     */
+    public static String withHashTag(String tag, String key) {
+        if (tag == null || tag.isEmpty()) {
+            throw new IllegalArgumentException("Hash tag cannot be empty");
+        }
+        if (tag.indexOf('{') >= 0 || tag.indexOf('}') >= 0) {
+            throw new IllegalArgumentException("Hash tag cannot contain braces: " + tag);
+        }
+        return "{" + tag + "}" + key;
+    }
+
+    /**
+     * 获取键的哈希标签
+     * @param key 键
+     * @return 哈希标签，没有时返回null
+     */
+    public static String hashTag(String key) {
+        int open = key.indexOf('{');
+        if (open < 0) {
+            return null;
+        }
+        int close = key.indexOf('}', open + 1);
+        if (close <= open + 1) {
+            return null;
+        }
+        return key.substring(open + 1, close);
+    }
+
+    /**
+     * 判断所有键是否位于同一槽位
+     * @param keys 键集合
+     * @return 是否位于同一槽位，空集合返回true
+     */
+    public static boolean isSameSlot(Collection<String> keys) {
+        Iterator<String> iterator = keys.iterator();
+        if (!iterator.hasNext()) {
+            return true;
+        }
+        int slot = slot(iterator.next());
+        while (iterator.hasNext()) {
+            if (slot(iterator.next()) != slot) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按槽位分组键的下标，便于拆分多键命令后按原顺序还原结果
+     * @param keys 键列表
+     * @return 槽位到键下标列表的映射，按首次出现的顺序排列
+     */
+    public static Map<Integer, List<Integer>> groupBySlot(List<String> keys) {
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            groups.computeIfAbsent(slot(keys.get(i)), slot -> new ArrayList<>()).add(i);
+        }
+        return groups;
+    }
+
+    private static int crc16(byte[] bytes, int start, int end) {
+        int crc = 0;
+        for (int i = start; i < end; i++) {
+            crc = ((crc << 8) ^ CRC16_TABLE[((crc >>> 8) ^ bytes[i]) & 0xFF]) & 0xFFFF;
+        }
+        return crc;
+    }
+}
@@ -0,0 +1,18 @@
+package cn.com.anysdk.redis.codec;
+
+/**
+ * 原始字节编解码器，不做任何转换也不复制
+ */
+public class ByteArrayRedisCodec implements IRedisCodec<byte[]> {
+    public static final ByteArrayRedisCodec INSTANCE = new ByteArrayRedisCodec();
+
+    @Override
+    public byte[] encode(byte[] value) {
+        return value;
+    }
+
+    @Override
+    public byte[] decode(byte[] bytes) {
+        return bytes;
+    }
+}
@@ -0,0 +1,36 @@
+package cn.com.anysdk.redis.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ByteBuffer与字节数组之间的转换工具
+ */
+public final class ByteBuffers {
+    private ByteBuffers() {
+    }
+
+    /**
+     * 取出缓冲区剩余的字节，不修改缓冲区的位置
+     * 堆缓冲区恰好覆盖整个底层数组时直接返回该数组，不做复制
+     * @param buffer 缓冲区
+     * @return 字节数组
+     */
+    public static byte[] toBytes(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * 包装字节数组，不做复制
+     * @param bytes 字节数组，可以为null
+     * @return 缓冲区，bytes为null时返回null
+     */
+    public static ByteBuffer wrap(byte[] bytes) {
+        return bytes == null ? null : ByteBuffer.wrap(bytes);
+    }
+}
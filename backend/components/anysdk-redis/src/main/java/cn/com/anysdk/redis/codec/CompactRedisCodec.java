@@ -0,0 +1,279 @@
+package cn.com.anysdk.redis.codec;
+
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 紧凑二进制编解码器
+ * <p>
+ * 每个值以一个类型字节开头：整数使用ZigZag变长编码，浮点数使用8字节大端IEEE 754，
+ * 字符串和字节数组使用变长长度前缀，列表、集合和映射递归编码其元素。
+ * 支持null、Boolean、Integer、Long、Double、String、byte[]以及由这些类型组成的List、Set、Map，不依赖Java序列化，也不写入类名。
+ * Set的元素和Map的条目按编码后的字节排序写入，与HashSet、HashMap的迭代顺序无关，相等的值总是编码为相同的字节；
+ * 解码得到的Set和Map按该顺序迭代。
+ */
+public class CompactRedisCodec implements IRedisCodec<Object> {
+    public static final CompactRedisCodec INSTANCE = new CompactRedisCodec();
+
+    private static final byte TYPE_NULL = 0x00;
+    private static final byte TYPE_TRUE = 0x01;
+    private static final byte TYPE_FALSE = 0x02;
+    private static final byte TYPE_INT = 0x03;
+    private static final byte TYPE_LONG = 0x04;
+    private static final byte TYPE_DOUBLE = 0x05;
+    private static final byte TYPE_STRING = 0x06;
+    private static final byte TYPE_BYTES = 0x07;
+    private static final byte TYPE_LIST = 0x08;
+    private static final byte TYPE_SET = 0x09;
+    private static final byte TYPE_MAP = 0x0A;
+
+    @Override
+    public byte[] encode(Object value) {
+        Output output = new Output();
+        write(output, value);
+        return output.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        Input input = new Input(bytes);
+        try {
+            Object value = read(input);
+            if (input.position != bytes.length) {
+                throw new RedisException("Failed to decode compact value: " + (bytes.length - input.position) + " trailing bytes");
+            }
+            return value;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new RedisException("Failed to decode compact value: unexpected end of input", e);
+        }
+    }
+
+    private static void write(Output output, Object value) {
+        if (value == null) {
+            output.write(TYPE_NULL);
+        } else if (value instanceof Boolean) {
+            output.write((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+        } else if (value instanceof Integer) {
+            output.write(TYPE_INT);
+            output.writeVarLong(zigZag((Integer) value));
+        } else if (value instanceof Long) {
+            output.write(TYPE_LONG);
+            output.writeVarLong(zigZag((Long) value));
+        } else if (value instanceof Double) {
+            output.write(TYPE_DOUBLE);
+            output.writeLong(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof String) {
+            output.write(TYPE_STRING);
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            output.writeVarLong(bytes.length);
+            output.write(bytes);
+        } else if (value instanceof byte[]) {
+            output.write(TYPE_BYTES);
+            byte[] bytes = (byte[]) value;
+            output.writeVarLong(bytes.length);
+            output.write(bytes);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            List<byte[]> entries = new ArrayList<>(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                Output element = new Output();
+                write(element, entry.getKey());
+                write(element, entry.getValue());
+                entries.add(element.toByteArray());
+            }
+            writeSorted(output, TYPE_MAP, entries);
+        } else if (value instanceof Set) {
+            Set<?> set = (Set<?>) value;
+            List<byte[]> elements = new ArrayList<>(set.size());
+            for (Object element : set) {
+                Output encoded = new Output();
+                write(encoded, element);
+                elements.add(encoded.toByteArray());
+            }
+            writeSorted(output, TYPE_SET, elements);
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            output.write(TYPE_LIST);
+            output.writeVarLong(collection.size());
+            for (Object element : collection) {
+                write(output, element);
+            }
+        } else {
+            throw new RedisException("Unsupported value type for compact codec: " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * 编码是自定界的，按无符号字节序排序后Map条目先按键、再按值排列
+     */
+    private static void writeSorted(Output output, byte type, List<byte[]> elements) {
+        elements.sort(Arrays::compareUnsigned);
+        output.write(type);
+        output.writeVarLong(elements.size());
+        for (byte[] element : elements) {
+            output.write(element);
+        }
+    }
+
+    private static Object read(Input input) {
+        byte type = input.read();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_TRUE:
+                return Boolean.TRUE;
+            case TYPE_FALSE:
+                return Boolean.FALSE;
+            case TYPE_INT:
+                return (int) unZigZag(input.readVarLong());
+            case TYPE_LONG:
+                return unZigZag(input.readVarLong());
+            case TYPE_DOUBLE:
+                return Double.longBitsToDouble(input.readLong());
+            case TYPE_STRING: {
+                int length = input.readLength();
+                return new String(input.bytes, input.skip(length), length, StandardCharsets.UTF_8);
+            }
+            case TYPE_BYTES: {
+                int length = input.readLength();
+                int from = input.skip(length);
+                return Arrays.copyOfRange(input.bytes, from, from + length);
+            }
+            case TYPE_LIST: {
+                int size = input.readLength();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(read(input));
+                }
+                return list;
+            }
+            case TYPE_SET: {
+                int size = input.readLength();
+                Set<Object> set = new LinkedHashSet<>(size * 4 / 3 + 1);
+                for (int i = 0; i < size; i++) {
+                    set.add(read(input));
+                }
+                return set;
+            }
+            case TYPE_MAP: {
+                int size = input.readLength();
+                Map<Object, Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+                for (int i = 0; i < size; i++) {
+                    map.put(read(input), read(input));
+                }
+                return map;
+            }
+            default:
+                throw new RedisException("Failed to decode compact value: unknown type " + type);
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Output {
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        void write(byte value) {
+            ensureCapacity(1);
+            buffer[size++] = value;
+        }
+
+        void write(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, size + extra));
+            }
+        }
+    }
+
+    private static final class Input {
+        private final byte[] bytes;
+        private int position;
+
+        Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte read() {
+            return bytes[position++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new RedisException("Failed to decode compact value: malformed varint");
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        int readLength() {
+            long length = readVarLong();
+            if (length < 0 || length > bytes.length - position) {
+                throw new RedisException("Failed to decode compact value: invalid length " + length);
+            }
+            return (int) length;
+        }
+
+        /**
+         * 跳过指定长度并返回跳过前的位置
+         */
+        int skip(int length) {
+            int from = position;
+            position += length;
+            return from;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package cn.com.anysdk.redis.codec;
+
+/**
+ * Redis值编解码器
+ * 负责在业务对象和写入Redis的字节之间转换，与具体的客户端实现无关，
+ * 因此同一编解码器在Jedis、Lettuce、Redisson之间产生完全相同的字节
+ * @param <T> 值类型
+ */
+public interface IRedisCodec<T> {
+    /**
+     * 编码
+     * @param value 值
+     * @return 字节
+     */
+    byte[] encode(T value);
+
+    /**
+     * 解码
+     * @param bytes 字节
+     * @return 值
+     */
+    T decode(byte[] bytes);
+}
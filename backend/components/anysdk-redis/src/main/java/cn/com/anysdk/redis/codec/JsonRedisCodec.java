@@ -0,0 +1,50 @@
+package cn.com.anysdk.redis.codec;
+
+import cn.com.anysdk.redis.exception.RedisException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * 基于Jackson的JSON编解码器
+ * 写入的是UTF-8编码的JSON文本，其他语言的客户端也可以直接读取
+ * @param <T> 值类型
+ */
+public class JsonRedisCodec<T> implements IRedisCodec<T> {
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+    private final ObjectMapper objectMapper;
+    private final JavaType type;
+
+    public JsonRedisCodec(Class<T> type) {
+        this(DEFAULT_MAPPER, type);
+    }
+
+    public JsonRedisCodec(ObjectMapper objectMapper, Class<T> type) {
+        this(objectMapper, objectMapper.constructType(type));
+    }
+
+    public JsonRedisCodec(ObjectMapper objectMapper, JavaType type) {
+        this.objectMapper = objectMapper;
+        this.type = type;
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new RedisException("Failed to encode value as JSON: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public T decode(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new RedisException("Failed to decode JSON value: " + e.getMessage(), e);
+        }
+    }
+}
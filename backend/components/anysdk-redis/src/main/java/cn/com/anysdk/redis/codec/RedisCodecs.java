@@ -0,0 +1,38 @@
+package cn.com.anysdk.redis.codec;
+
+/**
+ * 内置编解码器入口
+ */
+public final class RedisCodecs {
+    private RedisCodecs() {
+    }
+
+    /**
+     * UTF-8字符串
+     */
+    public static IRedisCodec<String> string() {
+        return StringRedisCodec.INSTANCE;
+    }
+
+    /**
+     * 原始字节
+     */
+    public static IRedisCodec<byte[]> bytes() {
+        return ByteArrayRedisCodec.INSTANCE;
+    }
+
+    /**
+     * 紧凑二进制格式
+     */
+    public static IRedisCodec<Object> compact() {
+        return CompactRedisCodec.INSTANCE;
+    }
+
+    /**
+     * JSON格式，需要引入jackson-databind
+     * @param type 值类型
+     */
+    public static <T> IRedisCodec<T> json(Class<T> type) {
+        return new JsonRedisCodec<>(type);
+    }
+}
@@ -0,0 +1,20 @@
+package cn.com.anysdk.redis.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8字符串编解码器，与各客户端字符串命令写入的字节一致
+ */
+public class StringRedisCodec implements IRedisCodec<String> {
+    public static final StringRedisCodec INSTANCE = new StringRedisCodec();
+
+    @Override
+    public byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String decode(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
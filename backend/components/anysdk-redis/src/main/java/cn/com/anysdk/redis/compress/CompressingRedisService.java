@@ -0,0 +1,240 @@
+package cn.com.anysdk.redis.compress;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.codec.IRedisCodec;
+import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.impl.DelegatingRedisService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * 透明压缩的Redis服务
+ * <p>
+ * 字符串值（{@code set}、{@code hSet}、{@code hSetAll}、{@code mSet}）和编解码器写入的值在编码后不小于阈值时，
+ * 以Deflate压缩并加上头部后经字节接口写入；压缩后没有变小的字符串值按原样写入。
+ * 编解码器的输出可以是任意字节，无法按内容区分是否压缩，因此总是带头部写入，低于阈值或压缩没有收益时头部标记为未压缩。
+ * 读取时按头部判断是否需要解压，没有头部的历史值照常读取；带头部的编解码器值只能经本服务读取。
+ * <p>
+ * 原始字节接口（{@code getBytes}/{@code setBytes}等）不做处理；批量操作构建器、游标遍历以及列表、集合命令
+ * 按原样转发，不要用它们读取可能被压缩的键。
+ */
+public class CompressingRedisService extends DelegatingRedisService {
+    /**
+     * UTF-8编码中单个字符最多占用的字节数（按UTF-16代码单元计）
+     */
+    private static final int MAX_UTF8_BYTES_PER_CHAR = 3;
+
+    private final int threshold;
+    private final DeflateCompressor compressor;
+
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder incompressible = new LongAdder();
+    private final LongAdder originalBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+    private final LongAdder decompressed = new LongAdder();
+    private final LongAdder decompressNanos = new LongAdder();
+
+    public CompressingRedisService(IRedisService delegate, int threshold) {
+        this(delegate, threshold, Deflater.BEST_SPEED);
+    }
+
+    /**
+     * @param delegate 被装饰的服务
+     * @param threshold 压缩阈值（字节）
+     * @param level Deflate压缩级别，0到9
+     */
+    public CompressingRedisService(IRedisService delegate, int threshold, int level) {
+        super(delegate);
+        if (threshold <= 0) {
+            throw new RedisException("Compression threshold must be positive: " + threshold);
+        }
+        this.threshold = threshold;
+        this.compressor = new DeflateCompressor(level, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    @Override
+    public void set(String key, String value) {
+        byte[] bytes = encode(value);
+        if (bytes == null) {
+            delegate.set(key, value);
+        } else {
+            delegate.setBytes(key, bytes);
+        }
+    }
+
+    @Override
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        byte[] bytes = encode(value);
+        if (bytes == null) {
+            delegate.set(key, value, timeout, unit);
+        } else {
+            delegate.setBytes(key, bytes, timeout, unit);
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        return decodeString(delegate.getBytes(key));
+    }
+
+    @Override
+    public void hSet(String key, String field, Object value) {
+        String stringValue = String.valueOf(value);
+        byte[] bytes = encode(stringValue);
+        if (bytes == null) {
+            delegate.hSet(key, field, stringValue);
+        } else {
+            delegate.hSetBytes(key, field, bytes);
+        }
+    }
+
+    @Override
+    public Object hGet(String key, String field) {
+        return decodeString(delegate.hGetBytes(key, field));
+    }
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map) {
+        Map<String, Object> plain = new HashMap<>();
+        Map<String, byte[]> encoded = new HashMap<>();
+        map.forEach((field, value) -> {
+            String stringValue = String.valueOf(value);
+            byte[] bytes = encode(stringValue);
+            if (bytes == null) {
+                plain.put(field, stringValue);
+            } else {
+                encoded.put(field, bytes);
+            }
+        });
+        if (!plain.isEmpty()) {
+            delegate.hSetAll(key, plain);
+        }
+        encoded.forEach((field, bytes) -> delegate.hSetBytes(key, field, bytes));
+    }
+
+    @Override
+    public Map<Object, Object> hGetAll(String key) {
+        Map<String, byte[]> map = delegate.hGetAllBytes(key);
+        Map<Object, Object> result = new HashMap<>(map.size() * 4 / 3 + 1);
+        map.forEach((field, bytes) -> result.put(field, decodeString(bytes)));
+        return result;
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        List<byte[]> values = delegate.mGetBytes(keys);
+        List<String> result = new ArrayList<>(values.size());
+        for (byte[] bytes : values) {
+            result.add(decodeString(bytes));
+        }
+        return result;
+    }
+
+    @Override
+    public void mSet(Map<String, String> map) {
+        Map<String, String> plain = new LinkedHashMap<>();
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        map.forEach((key, value) -> {
+            byte[] bytes = encode(value);
+            if (bytes == null) {
+                plain.put(key, value);
+            } else {
+                encoded.put(key, bytes);
+            }
+        });
+        if (!plain.isEmpty()) {
+            delegate.mSet(plain);
+        }
+        encoded.forEach(delegate::setBytes);
+    }
+
+    @Override
+    public <T> T get(String key, IRedisCodec<T> codec) {
+        byte[] bytes = delegate.getBytes(key);
+        return bytes == null ? null : codec.decode(decompress(bytes));
+    }
+
+    @Override
+    public <T> void set(String key, T value, IRedisCodec<T> codec) {
+        delegate.setBytes(key, encode(codec.encode(value)));
+    }
+
+    @Override
+    public <T> void set(String key, T value, IRedisCodec<T> codec, long timeout, TimeUnit unit) {
+        delegate.setBytes(key, encode(codec.encode(value)), timeout, unit);
+    }
+
+    /**
+     * 获取统计快照
+     * @return 统计快照
+     */
+    public CompressionStats getStats() {
+        return new CompressionStats(compressed.sum(), incompressible.sum(), originalBytes.sum(), compressedBytes.sum(),
+                compressNanos.sum(), decompressed.sum(), decompressNanos.sum());
+    }
+
+    /**
+     * 编码字符串值
+     * @return 需要经字节接口写入的数据，不需要压缩时返回null，由字符串接口直接写入
+     */
+    private byte[] encode(String value) {
+        if (value == null || (long) value.length() * MAX_UTF8_BYTES_PER_CHAR < threshold) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < threshold) {
+            return null;
+        }
+        // 压缩没有收益时直接写入已编码的字节，避免字符串接口再编码一次
+        return compress(bytes);
+    }
+
+    /**
+     * 编码编解码器的输出，总是带头部
+     */
+    private byte[] encode(byte[] bytes) {
+        byte[] result = compress(bytes);
+        return result == bytes ? DeflateCompressor.store(bytes) : result;
+    }
+
+    private byte[] compress(byte[] bytes) {
+        if (bytes.length < threshold) {
+            return bytes;
+        }
+        long startNanos = System.nanoTime();
+        byte[] result = compressor.compress(bytes);
+        compressNanos.add(System.nanoTime() - startNanos);
+        if (result == null) {
+            incompressible.increment();
+            return bytes;
+        }
+        compressed.increment();
+        originalBytes.add(bytes.length);
+        compressedBytes.add(result.length);
+        return result;
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        if (!DeflateCompressor.hasHeader(bytes)) {
+            return bytes;
+        }
+        long startNanos = System.nanoTime();
+        byte[] result = compressor.decompress(bytes);
+        decompressNanos.add(System.nanoTime() - startNanos);
+        decompressed.increment();
+        return result;
+    }
+
+    private String decodeString(byte[] bytes) {
+        return bytes == null ? null : new String(decompress(bytes), StandardCharsets.UTF_8);
+    }
+}
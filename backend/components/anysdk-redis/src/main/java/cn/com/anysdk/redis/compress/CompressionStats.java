@@ -0,0 +1,71 @@
+package cn.com.anysdk.redis.compress;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 压缩统计快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CompressionStats {
+    /**
+     * 压缩后写入的值数量
+     */
+    private final long compressedCount;
+
+    /**
+     * 超过阈值但压缩后没有变小、按原样写入的值数量
+     */
+    private final long incompressibleCount;
+
+    /**
+     * 被压缩的值压缩前的总字节数
+     */
+    private final long originalBytes;
+
+    /**
+     * 压缩后的总字节数（含头部）
+     */
+    private final long compressedBytes;
+
+    /**
+     * 压缩（含无效压缩尝试）累计耗时（纳秒）
+     */
+    private final long compressNanos;
+
+    /**
+     * 读取时解压的值数量
+     */
+    private final long decompressedCount;
+
+    /**
+     * 解压累计耗时（纳秒）
+     */
+    private final long decompressNanos;
+
+    /**
+     * 获取压缩率
+     * @return 压缩后与压缩前的字节数之比，没有压缩过时为1
+     */
+    public double getCompressionRatio() {
+        return originalBytes == 0 ? 1 : (double) compressedBytes / originalBytes;
+    }
+
+    /**
+     * 获取每次压缩尝试的平均耗时（纳秒）
+     */
+    public long getAverageCompressNanos() {
+        long attempts = compressedCount + incompressibleCount;
+        return attempts == 0 ? 0 : compressNanos / attempts;
+    }
+
+    /**
+     * 获取每次解压的平均耗时（纳秒）
+     */
+    public long getAverageDecompressNanos() {
+        return decompressedCount == 0 ? 0 : decompressNanos / decompressedCount;
+    }
+}
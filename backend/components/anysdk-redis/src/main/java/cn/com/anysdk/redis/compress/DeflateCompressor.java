@@ -0,0 +1,186 @@
+package cn.com.anysdk.redis.compress;
+
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 带头部的Deflate压缩器
+ * <p>
+ * 压缩格式为：1字节标记0xFF、1字节算法号、4字节大端原始长度，之后是原始Deflate数据；
+ * 算法号为0时头部之后是未压缩的原始数据，用于必须带头部才能与任意字节区分的编解码器值。
+ * 0xFF不会出现在合法UTF-8文本的任何位置，因此未压缩的历史字符串值可以与压缩值共存。
+ * Deflater、Inflater及工作缓冲区放在有界池中复用，压缩时只分配一次结果数组，解压时只分配一次原始长度的数组。
+ */
+final class DeflateCompressor {
+    static final byte MAGIC = (byte) 0xFF;
+    static final byte ALGORITHM_STORED = 0x00;
+    static final byte ALGORITHM_DEFLATE = 0x01;
+    static final int HEADER_SIZE = 6;
+
+    /**
+     * 归还到池中的工作缓冲区上限，更大的缓冲区用完即丢弃
+     */
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+    private final int level;
+    private final BlockingQueue<Context> pool;
+
+    DeflateCompressor(int level, int poolSize) {
+        this.level = level;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * 判断是否为本压缩器写入的数据（压缩或带头部的未压缩数据）
+     */
+    static boolean hasHeader(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_SIZE && bytes[0] == MAGIC
+                && (bytes[1] == ALGORITHM_DEFLATE || bytes[1] == ALGORITHM_STORED);
+    }
+
+    /**
+     * 给未压缩的数据加上头部
+     * @param input 原始数据
+     * @return 带头部的原始数据
+     */
+    static byte[] store(byte[] input) {
+        byte[] output = new byte[HEADER_SIZE + input.length];
+        output[0] = MAGIC;
+        output[1] = ALGORITHM_STORED;
+        writeInt(output, 2, input.length);
+        System.arraycopy(input, 0, output, HEADER_SIZE, input.length);
+        return output;
+    }
+
+    /**
+     * 压缩数据
+     * @param input 原始数据
+     * @return 带头部的压缩数据，加上头部后不比原始数据小时返回null
+     */
+    byte[] compress(byte[] input) {
+        int limit = input.length;
+        if (limit <= HEADER_SIZE) {
+            return null;
+        }
+        Context context = acquire();
+        try {
+            byte[] buffer = context.buffer(limit);
+            Deflater deflater = context.deflater;
+            deflater.reset();
+            deflater.setInput(input);
+            deflater.finish();
+            int length = HEADER_SIZE;
+            while (!deflater.finished() && length < limit) {
+                length += deflater.deflate(buffer, length, limit - length);
+            }
+            if (!deflater.finished() || length >= limit) {
+                return null;
+            }
+            buffer[0] = MAGIC;
+            buffer[1] = ALGORITHM_DEFLATE;
+            writeInt(buffer, 2, input.length);
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            release(context);
+        }
+    }
+
+    /**
+     * 解压数据
+     * @param compressed 带头部的数据
+     * @return 原始数据
+     */
+    byte[] decompress(byte[] compressed) {
+        int originalLength = readInt(compressed, 2);
+        if (originalLength < 0) {
+            throw new RedisException("Failed to decompress value: invalid length " + originalLength);
+        }
+        if (compressed[1] == ALGORITHM_STORED) {
+            if (originalLength != compressed.length - HEADER_SIZE) {
+                throw new RedisException("Failed to decompress value: expected " + originalLength + " bytes but got "
+                        + (compressed.length - HEADER_SIZE));
+            }
+            return Arrays.copyOfRange(compressed, HEADER_SIZE, compressed.length);
+        }
+        byte[] output = new byte[originalLength];
+        Context context = acquire();
+        try {
+            Inflater inflater = context.inflater;
+            inflater.reset();
+            inflater.setInput(compressed, HEADER_SIZE, compressed.length - HEADER_SIZE);
+            int length = 0;
+            while (length < originalLength && !inflater.finished()) {
+                int inflated = inflater.inflate(output, length, originalLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != originalLength) {
+                throw new RedisException("Failed to decompress value: expected " + originalLength + " bytes but got " + length);
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new RedisException("Failed to decompress value: " + e.getMessage(), e);
+        } finally {
+            release(context);
+        }
+    }
+
+    private Context acquire() {
+        Context context = pool.poll();
+        return context == null ? new Context(level) : context;
+    }
+
+    private void release(Context context) {
+        if (context.buffer != null && context.buffer.length > MAX_POOLED_BUFFER_SIZE) {
+            context.buffer = null;
+        }
+        if (!pool.offer(context)) {
+            context.end();
+        }
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] buffer, int offset) {
+        return ((buffer[offset] & 0xFF) << 24) | ((buffer[offset + 1] & 0xFF) << 16)
+                | ((buffer[offset + 2] & 0xFF) << 8) | (buffer[offset + 3] & 0xFF);
+    }
+
+    /**
+     * 可复用的压缩上下文，Deflater和Inflater持有本地内存，创建成本较高
+     */
+    private static final class Context {
+        private final Deflater deflater;
+        private final Inflater inflater = new Inflater();
+        private byte[] buffer;
+
+        private Context(int level) {
+            this.deflater = new Deflater(level);
+        }
+
+        private byte[] buffer(int size) {
+            if (buffer == null || buffer.length < size) {
+                buffer = new byte[Math.max(size, buffer == null ? 0 : buffer.length << 1)];
+            }
+            return buffer;
+        }
+
+        private void end() {
+            deflater.end();
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,643 @@
+package cn.com.anysdk.redis.concurrency;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
+import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.impl.DelegatingRedisBatch;
+import cn.com.anysdk.redis.impl.DelegatingRedisService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限制并发命令数的Redis服务
+ * <p>
+ * 为虚拟线程设计：成千上万个虚拟线程同时调用时，超出许可数的调用在{@link Semaphore}上等待，
+ * 等待期间虚拟线程从载体线程卸载；不会堆积到连接池借用队列或客户端的命令队列里，
+ * 进入的调用不因排队过长而超时。信号量是公平的，等待者按先后顺序获得许可，不会有线程反复插队而其他线程饿死，
+ * 延迟分布保持稳定。等待超过上限时抛出{@link RedisException}。
+ * <p>
+ * 许可数通常取连接池最大连接数。游标遍历和订阅按原样转发，不占用许可；批量操作在执行时占用一个许可。
+ */
+public class ConcurrencyLimitedRedisService extends DelegatingRedisService {
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long acquireTimeoutNanos;
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * @param delegate 被装饰的服务
+     * @param maxConcurrency 最大并发命令数
+     * @param acquireTimeoutMillis 等待许可的最长时间（毫秒）
+     */
+    public ConcurrencyLimitedRedisService(IRedisService delegate, int maxConcurrency, long acquireTimeoutMillis) {
+        super(delegate);
+        if (maxConcurrency <= 0) {
+            throw new RedisException("Max concurrency must be positive: " + maxConcurrency);
+        }
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+    }
+
+    /**
+     * 获取统计快照
+     * @return 统计快照
+     */
+    public ConcurrencyStats getStats() {
+        return new ConcurrencyStats(maxConcurrency, maxConcurrency - permits.availablePermits(),
+                permits.getQueueLength(), waits.sum(), rejections.sum());
+    }
+
+    @Override
+    public void set(String key, String value) {
+        acquire();
+        try {
+            delegate.set(key, value);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        acquire();
+        try {
+            delegate.set(key, value, timeout, unit);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        acquire();
+        try {
+            return delegate.setIfAbsent(key, value, timeout, unit);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        acquire();
+        try {
+            return delegate.get(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean delete(String key) {
+        acquire();
+        try {
+            return delegate.delete(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long delete(List<String> keys) {
+        acquire();
+        try {
+            return delegate.delete(keys);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        acquire();
+        try {
+            return delegate.expire(key, timeout, unit);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        acquire();
+        try {
+            return delegate.hasKey(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long getExpire(String key, TimeUnit unit) {
+        acquire();
+        try {
+            return delegate.getExpire(key, unit);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public byte[] dump(String key) {
+        acquire();
+        try {
+            return delegate.dump(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        acquire();
+        try {
+            delegate.restore(key, ttlMillis, serialized, replace);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long incr(String key) {
+        acquire();
+        try {
+            return delegate.incr(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        acquire();
+        try {
+            return delegate.incrBy(key, delta);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long hIncrBy(String key, String field, long delta) {
+        acquire();
+        try {
+            return delegate.hIncrBy(key, field, delta);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void hSet(String key, String field, Object value) {
+        acquire();
+        try {
+            delegate.hSet(key, field, value);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Object hGet(String key, String field) {
+        acquire();
+        try {
+            return delegate.hGet(key, field);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map) {
+        acquire();
+        try {
+            delegate.hSetAll(key, map);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Map<Object, Object> hGetAll(String key) {
+        acquire();
+        try {
+            return delegate.hGetAll(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long lPush(String key, String value) {
+        acquire();
+        try {
+            return delegate.lPush(key, value);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long rPush(String key, String value) {
+        acquire();
+        try {
+            return delegate.rPush(key, value);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<String> lRange(String key, long start, long end) {
+        acquire();
+        try {
+            return delegate.lRange(key, start, end);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long sAdd(String key, String... values) {
+        acquire();
+        try {
+            return delegate.sAdd(key, values);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Set<String> sMembers(String key) {
+        acquire();
+        try {
+            return delegate.sMembers(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long zAdd(String key, double score, String member) {
+        acquire();
+        try {
+            return delegate.zAdd(key, score, member);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long zAdd(String key, Collection<ScoredMember> members) {
+        acquire();
+        try {
+            return delegate.zAdd(key, members);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public double zIncrBy(String key, double increment, String member) {
+        acquire();
+        try {
+            return delegate.zIncrBy(key, increment, member);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Double zScore(String key, String member) {
+        acquire();
+        try {
+            return delegate.zScore(key, member);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long zRank(String key, String member) {
+        acquire();
+        try {
+            return delegate.zRank(key, member);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long zRevRank(String key, String member) {
+        acquire();
+        try {
+            return delegate.zRevRank(key, member);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long zCard(String key) {
+        acquire();
+        try {
+            return delegate.zCard(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zRangeByScore(String key, double min, double max, long offset, long count) {
+        acquire();
+        try {
+            return delegate.zRangeByScore(key, min, max, offset, count);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zRevRange(String key, long start, long end) {
+        acquire();
+        try {
+            return delegate.zRevRange(key, start, end);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long zRemRangeByScore(String key, double min, double max) {
+        acquire();
+        try {
+            return delegate.zRemRangeByScore(key, min, max);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zPopMin(String key, int count) {
+        acquire();
+        try {
+            return delegate.zPopMin(key, count);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public String xAdd(String key, Map<String, String> fields, long maxLen) {
+        acquire();
+        try {
+            return delegate.xAdd(key, fields, maxLen);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long xLen(String key) {
+        acquire();
+        try {
+            return delegate.xLen(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean xGroupCreate(String key, String group, String startId) {
+        acquire();
+        try {
+            return delegate.xGroupCreate(key, group, startId);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<StreamEntry> xReadGroup(String key, String group, String consumer, int count, long blockMillis) {
+        acquire();
+        try {
+            return delegate.xReadGroup(key, group, consumer, count, blockMillis);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long xAck(String key, String group, Collection<String> ids) {
+        acquire();
+        try {
+            return delegate.xAck(key, group, ids);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public StreamClaimResult xAutoClaim(String key, String group, String consumer, long minIdleMillis, String startId, int count) {
+        acquire();
+        try {
+            return delegate.xAutoClaim(key, group, consumer, minIdleMillis, startId, count);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<StreamGroupInfo> xInfoGroups(String key) {
+        acquire();
+        try {
+            return delegate.xInfoGroups(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        acquire();
+        try {
+            return delegate.mGet(keys);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void mSet(Map<String, String> map) {
+        acquire();
+        try {
+            delegate.mSet(map);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long mDelete(List<String> keys) {
+        acquire();
+        try {
+            return delegate.mDelete(keys);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public long publish(String channel, String message) {
+        acquire();
+        try {
+            return delegate.publish(channel, message);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public String scriptLoad(String script) {
+        acquire();
+        try {
+            return delegate.scriptLoad(script);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args) {
+        acquire();
+        try {
+            return delegate.evalSha(sha1, returnType, keys, args);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        acquire();
+        try {
+            return delegate.getBytes(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value) {
+        acquire();
+        try {
+            delegate.setBytes(key, value);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        acquire();
+        try {
+            delegate.setBytes(key, value, timeout, unit);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<byte[]> mGetBytes(List<String> keys) {
+        acquire();
+        try {
+            return delegate.mGetBytes(keys);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public byte[] hGetBytes(String key, String field) {
+        acquire();
+        try {
+            return delegate.hGetBytes(key, field);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void hSetBytes(String key, String field, byte[] value) {
+        acquire();
+        try {
+            delegate.hSetBytes(key, field, value);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public Map<String, byte[]> hGetAllBytes(String key) {
+        acquire();
+        try {
+            return delegate.hGetAllBytes(key);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return new LimitedBatch(delegate.batch());
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            // 不带超时的tryAcquire会插队，忽略公平性
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            waits.increment();
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException("Interrupted while waiting for a command permit", e);
+        }
+        if (!acquired) {
+            rejections.increment();
+            throw new RedisException("Failed to acquire command permit within "
+                    + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms, max concurrency: " + maxConcurrency);
+        }
+    }
+
+    private class LimitedBatch extends DelegatingRedisBatch {
+        LimitedBatch(RedisBatch delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public List<Object> execute() {
+            acquire();
+            try {
+                return delegate.execute();
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package cn.com.anysdk.redis.concurrency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 并发限制统计快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ConcurrencyStats {
+    /**
+     * 最大并发命令数
+     */
+    private final int maxConcurrency;
+
+    /**
+     * 正在执行的命令数
+     */
+    private final int inFlight;
+
+    /**
+     * 正在等待许可的线程数（估计值）
+     */
+    private final int waiting;
+
+    /**
+     * 累计需要等待许可的调用次数
+     */
+    private final long waitCount;
+
+    /**
+     * 累计等待超时被拒绝的调用次数
+     */
+    private final long rejectedCount;
+}
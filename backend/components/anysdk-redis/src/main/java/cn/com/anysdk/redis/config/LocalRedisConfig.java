@@ -0,0 +1,70 @@
+package cn.com.anysdk.redis.config;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 本地提供商配置实现
+ * 连接相关的配置项不使用，保留是为了与其他提供商的配置互换
+ */
+@Data
+@Accessors(chain = true)
+public class LocalRedisConfig implements IRedisConfig {
+    private String host = "localhost";
+    private int port = 6379;
+    private String password = "";
+    private int database = 0;
+    private int connectTimeout = 3000;
+    private int operationTimeout = 3000;
+    private int maxConnections = 8;
+    private boolean useSsl = false;
+    private int minIdle = 1;
+    private int maxIdle = -1;
+    private long poolMaxWaitMillis = -1;
+    private boolean testOnBorrow = false;
+    private long idleCheckIntervalMillis = 30000;
+    private long minEvictableIdleMillis = 60000;
+    private boolean prewarmPool = true;
+    private boolean adaptivePool = false;
+    private int connectionCount = 1;
+    private String connectionAssignment = CONNECTION_ASSIGNMENT_ROUND_ROBIN;
+    private boolean sharedClientResources = true;
+    private boolean commandCoalescing = false;
+    private boolean virtualThreads = false;
+    private int maxConcurrentCommands = 0;
+    private int maxBatchSize = 1000;
+    private long slowOperationThreshold = 100;
+    private int compressionThreshold = 0;
+    private long maxMemory = 0;
+    private String maxMemoryPolicy = MAXMEMORY_POLICY_NOEVICTION;
+    private String mode = MODE_STANDALONE;
+    private List<String> nodes = new ArrayList<>();
+    private int maxRedirects = 5;
+    private String sentinelMaster = "mymaster";
+    private String readFrom = READ_FROM_MASTER;
+    private final String provider = "local";
+
+    /**
+     * 创建默认配置，不限制内存
+     * @return 默认配置
+     */
+    public static LocalRedisConfig createDefault() {
+        return new LocalRedisConfig();
+    }
+
+    /**
+     * 创建限制内存的配置
+     * @param maxMemory 内存上限（字节）
+     * @param maxMemoryPolicy 淘汰策略，取值与Redis的maxmemory-policy相同
+     * @return 自定义配置
+     */
+    public static LocalRedisConfig create(long maxMemory, String maxMemoryPolicy) {
+        return new LocalRedisConfig()
+                .setMaxMemory(maxMemory)
+                .setMaxMemoryPolicy(maxMemoryPolicy);
+    }
+}
@@ -4,6 +4,10 @@ import cn.com.anysdk.redis.api.IRedisConfig;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Redisson Redis配置实现
  */
@@ -18,6 +22,30 @@ public class RedissonRedisConfig implements IRedisConfig {
     private int operationTimeout = 3000;
     private int maxConnections = 8;
     private boolean useSsl = false;
+    private int minIdle = 1;
+    private int maxIdle = -1;
+    private long poolMaxWaitMillis = -1;
+    private boolean testOnBorrow = false;
+    private long idleCheckIntervalMillis = 30000;
+    private long minEvictableIdleMillis = 60000;
+    private boolean prewarmPool = true;
+    private boolean adaptivePool = false;
+    private int connectionCount = 1;
+    private String connectionAssignment = CONNECTION_ASSIGNMENT_ROUND_ROBIN;
+    private boolean sharedClientResources = true;
+    private boolean commandCoalescing = false;
+    private boolean virtualThreads = false;
+    private int maxConcurrentCommands = 0;
+    private int maxBatchSize = 1000;
+    private long slowOperationThreshold = 100;
+    private int compressionThreshold = 0;
+    private long maxMemory = 0;
+    private String maxMemoryPolicy = MAXMEMORY_POLICY_NOEVICTION;
+    private String mode = MODE_STANDALONE;
+    private List<String> nodes = new ArrayList<>();
+    private int maxRedirects = 5;
+    private String sentinelMaster = "mymaster";
+    private String readFrom = READ_FROM_MASTER;
     private final String provider = "redisson";
 
     /**
@@ -41,4 +69,32 @@ public class RedissonRedisConfig implements IRedisConfig {
                 .setPort(port)
                 .setPassword(password);
     }
+
+    /**
+     * 创建集群配置
+     * @param password 密码
+     * @param nodes 种子节点，格式为host:port
+     * @return 集群配置
+     */
+    public static RedissonRedisConfig createCluster(String password, String... nodes) {
+        return new RedissonRedisConfig()
+                .setMode(MODE_CLUSTER)
+                .setNodes(new ArrayList<>(Arrays.asList(nodes)))
+                .setPassword(password);
+    }
+
+    /**
+     * 创建哨兵配置
+     * @param masterName 主节点名称
+     * @param password 密码
+     * @param sentinels 哨兵节点，格式为host:port
+     * @return 哨兵配置
+     */
+    public static RedissonRedisConfig createSentinel(String masterName, String password, String... sentinels) {
+        return new RedissonRedisConfig()
+                .setMode(MODE_SENTINEL)
+                .setSentinelMaster(masterName)
+                .setNodes(new ArrayList<>(Arrays.asList(sentinels)))
+                .setPassword(password);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package cn.com.anysdk.redis.counter;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 写后缓冲计数器配置
+ */
+@Data
+@Accessors(chain = true)
+public class WriteBehindConfig {
+    /**
+     * 定时刷新间隔（毫秒）
+     */
+    private long flushIntervalMillis = 1000;
+
+    /**
+     * 待刷新的键数达到该值时提前刷新
+     */
+    private int flushThreshold = 10000;
+
+    /**
+     * 最多缓冲的键数，超过后新键的写入进入背压
+     */
+    private int maxPendingKeys = 100000;
+
+    /**
+     * 背压时等待刷新腾出空间的最长时间（毫秒），超时后直接同步写入Redis
+     */
+    private long backpressureWaitMillis = 100;
+
+    /**
+     * 创建默认配置
+     * @return 默认配置
+     */
+    public static WriteBehindConfig createDefault() {
+        return new WriteBehindConfig();
+    }
+}
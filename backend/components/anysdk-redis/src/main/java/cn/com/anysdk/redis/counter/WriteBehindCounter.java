@@ -0,0 +1,345 @@
+package cn.com.anysdk.redis.counter;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.exception.RedisException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 写后缓冲计数器
+ * <p>
+ * 自增先累加到本地每个键一个的{@link LongAdder}，写入路径无锁；后台线程按时间间隔或缓冲键数触发刷新，
+ * 把每个键合并后的增量通过管道批量写入（INCRBY/HINCRBY），高频计数从每次一条命令降为每个刷新周期每个键一条命令。
+ * <p>
+ * 一个刷新周期内没有写入的键会被移出缓冲，内存上限为{@link WriteBehindConfig#getMaxPendingKeys()}个键；
+ * 达到上限时新键的写入等待刷新腾出空间，Redis变慢时写入方随之变慢，超时后直接同步写入，增量不会丢弃。
+ * 刷新失败时增量重新缓冲，下次刷新重试；管道部分成功时可能重复计数。关闭时执行最后一次刷新。
+ */
+@Slf4j
+public class WriteBehindCounter implements AutoCloseable {
+    private final IRedisService redisService;
+    private final WriteBehindConfig config;
+    private final ConcurrentMap<CounterKey, Cell> pending = new ConcurrentHashMap<>();
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+    private final Lock flushLock = new ReentrantLock();
+    private final Lock signalLock = new ReentrantLock();
+    private final Condition flushSignal = signalLock.newCondition();
+    private final Condition capacitySignal = signalLock.newCondition();
+    private final Thread flusher;
+    private volatile boolean running = true;
+    private boolean flushRequested;
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder flushedCommands = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder directWrites = new LongAdder();
+    private volatile long lastFlushMillis;
+
+    public WriteBehindCounter(IRedisService redisService) {
+        this(redisService, WriteBehindConfig.createDefault());
+    }
+
+    public WriteBehindCounter(IRedisService redisService, WriteBehindConfig config) {
+        this.redisService = redisService;
+        this.config = config;
+        this.flusher = new Thread(this::runLoop, "anysdk-redis-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * 缓冲键的自增
+     * @param key 键
+     * @param delta 增量
+     */
+    public void increment(String key, long delta) {
+        add(new CounterKey(key, null), delta);
+    }
+
+    /**
+     * 缓冲哈希表字段的自增
+     * @param key 键
+     * @param field 字段
+     * @param delta 增量
+     */
+    public void hIncrement(String key, String field, long delta) {
+        add(new CounterKey(key, field), delta);
+    }
+
+    /**
+     * 获取键尚未刷新的增量
+     * @param key 键
+     * @return 未刷新的增量
+     */
+    public long pendingDelta(String key) {
+        Cell cell = pending.get(new CounterKey(key, null));
+        return cell == null ? 0 : cell.adder.sum();
+    }
+
+    /**
+     * 立即把所有缓冲的增量写入Redis，与后台刷新互斥
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        long startMillis = System.currentTimeMillis();
+        long oldest = oldestPendingMillis.getAndSet(0);
+        Map<CounterKey, Long> deltas = drain();
+        if (!deltas.isEmpty()) {
+            try {
+                RedisBatch batch = redisService.batch();
+                deltas.forEach((counterKey, delta) -> {
+                    if (counterKey.field == null) {
+                        batch.incrBy(counterKey.key, delta);
+                    } else {
+                        batch.hIncrBy(counterKey.key, counterKey.field, delta);
+                    }
+                });
+                batch.execute();
+                flushedCommands.add(deltas.size());
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+                deltas.forEach(this::requeue);
+                if (oldest != 0) {
+                    oldestPendingMillis.accumulateAndGet(oldest, (current, previous) -> current == 0 ? previous : Math.min(current, previous));
+                }
+                log.warn("Failed to flush {} buffered counters, will retry: {}", deltas.size(), e.getMessage());
+            }
+        }
+        flushes.increment();
+        lastFlushMillis = System.currentTimeMillis() - startMillis;
+        signalLock.lock();
+        try {
+            capacitySignal.signalAll();
+        } finally {
+            signalLock.unlock();
+        }
+    }
+
+    /**
+     * 获取统计快照
+     * @return 统计快照
+     */
+    public WriteBehindStats getStats() {
+        long oldest = oldestPendingMillis.get();
+        return new WriteBehindStats(pending.size(),
+                oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest),
+                writes.sum(),
+                flushedCommands.sum(),
+                flushes.sum(),
+                failedFlushes.sum(),
+                directWrites.sum(),
+                lastFlushMillis);
+    }
+
+    /**
+     * 停止后台刷新并执行最后一次刷新，之后的写入直接同步写入Redis
+     */
+    @Override
+    public void close() {
+        running = false;
+        signalLock.lock();
+        try {
+            flushSignal.signalAll();
+        } finally {
+            signalLock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("{} buffered counters could not be flushed on close", pending.size());
+        }
+    }
+
+    private void add(CounterKey counterKey, long delta) {
+        if (!running) {
+            write(counterKey, delta);
+            return;
+        }
+        writes.increment();
+        Cell cell = pending.get(counterKey);
+        if (cell == null) {
+            if (pending.size() >= config.getMaxPendingKeys() && !awaitCapacity()) {
+                directWrites.increment();
+                write(counterKey, delta);
+                return;
+            }
+            cell = pending.computeIfAbsent(counterKey, k -> new Cell());
+            if (pending.size() >= config.getFlushThreshold()) {
+                requestFlush();
+            }
+        }
+        if (oldestPendingMillis.get() == 0) {
+            oldestPendingMillis.compareAndSet(0, System.currentTimeMillis());
+        }
+        cell.adder.add(delta);
+        if (cell.retired) {
+            // 刷新线程已把该单元移出缓冲，取回可能未被刷新的增量重新缓冲
+            long leftover = cell.adder.sumThenReset();
+            if (leftover != 0) {
+                requeue(counterKey, leftover);
+            }
+        }
+    }
+
+    /**
+     * 取出所有单元的增量；本周期没有写入的单元移出缓冲并标记退役，
+     * 退役标记先于最后一次取值，写入方在标记之后的增量由写入方自己取回
+     */
+    private Map<CounterKey, Long> drain() {
+        Map<CounterKey, Long> deltas = new LinkedHashMap<>();
+        for (Map.Entry<CounterKey, Cell> entry : pending.entrySet()) {
+            Cell cell = entry.getValue();
+            long delta = cell.adder.sumThenReset();
+            if (delta == 0) {
+                pending.remove(entry.getKey(), cell);
+                cell.retired = true;
+                delta = cell.adder.sumThenReset();
+            }
+            if (delta != 0) {
+                deltas.merge(entry.getKey(), delta, Long::sum);
+            }
+        }
+        return deltas;
+    }
+
+    private void requeue(CounterKey counterKey, long delta) {
+        Cell cell = pending.computeIfAbsent(counterKey, k -> new Cell());
+        cell.adder.add(delta);
+        if (cell.retired) {
+            long leftover = cell.adder.sumThenReset();
+            if (leftover != 0) {
+                requeue(counterKey, leftover);
+            }
+        }
+        oldestPendingMillis.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    private boolean awaitCapacity() {
+        requestFlush();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(config.getBackpressureWaitMillis());
+        signalLock.lock();
+        try {
+            while (pending.size() >= config.getMaxPendingKeys() && remaining > 0) {
+                remaining = capacitySignal.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            signalLock.unlock();
+        }
+        return pending.size() < config.getMaxPendingKeys();
+    }
+
+    private void write(CounterKey counterKey, long delta) {
+        try {
+            if (counterKey.field == null) {
+                redisService.incrBy(counterKey.key, delta);
+            } else {
+                redisService.hIncrBy(counterKey.key, counterKey.field, delta);
+            }
+        } catch (RedisException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new RedisException("Failed to write counter: " + e.getMessage(), e);
+        }
+    }
+
+    private void requestFlush() {
+        signalLock.lock();
+        try {
+            flushRequested = true;
+            flushSignal.signalAll();
+        } finally {
+            signalLock.unlock();
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            signalLock.lock();
+            try {
+                if (!flushRequested && running) {
+                    flushSignal.await(config.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                }
+                flushRequested = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                signalLock.unlock();
+            }
+            if (!running) {
+                return;
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Write-behind flush failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 缓冲键：普通键或哈希表字段
+     */
+    private static final class CounterKey {
+        private final String key;
+        private final String field;
+
+        CounterKey(String key, String field) {
+            this.key = key;
+            this.field = field;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CounterKey)) {
+                return false;
+            }
+            CounterKey that = (CounterKey) o;
+            return key.equals(that.key) && Objects.equals(field, that.field);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + (field == null ? 0 : field.hashCode());
+        }
+    }
+
+    /**
+     * 单个键的累加单元
+     */
+    private static final class Cell {
+        private final LongAdder adder = new LongAdder();
+        private volatile boolean retired;
+    }
+}
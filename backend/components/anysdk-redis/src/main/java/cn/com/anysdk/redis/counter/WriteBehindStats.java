@@ -0,0 +1,53 @@
+package cn.com.anysdk.redis.counter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 写后缓冲计数器统计快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class WriteBehindStats {
+    /**
+     * 当前缓冲的键数
+     */
+    private final int pendingKeys;
+
+    /**
+     * 最早一次尚未刷新的写入距今的时间（毫秒），即刷新落后的时长，没有待刷新的写入时为0
+     */
+    private final long lagMillis;
+
+    /**
+     * 累计写入次数
+     */
+    private final long writeCount;
+
+    /**
+     * 刷新到Redis的合并命令数
+     */
+    private final long flushedCommandCount;
+
+    /**
+     * 刷新次数
+     */
+    private final long flushCount;
+
+    /**
+     * 刷新失败次数，失败的增量会重新缓冲
+     */
+    private final long failedFlushCount;
+
+    /**
+     * 因背压超时而直接同步写入Redis的次数
+     */
+    private final long directWriteCount;
+
+    /**
+     * 最近一次刷新的耗时（毫秒）
+     */
+    private final long lastFlushMillis;
+}
@@ -0,0 +1,93 @@
+package cn.com.anysdk.redis.exception;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Redis服务端错误码
+ * <p>
+ * 服务端错误回复以大写错误码开头（例如"NOSCRIPT No matching script"），各客户端把它包装成不同的异常类型，
+ * 这里统一从异常链的消息中解析错误码，调用方无需依赖具体客户端的异常类。
+ * {@link #CIRCUIT_OPEN}和{@link #LOAD_SHED}是客户端拒绝命令时设置的错误码，不会出现在服务端回复中。
+ */
+public final class RedisErrorCodes {
+    public static final String ERR = "ERR";
+    public static final String NOSCRIPT = "NOSCRIPT";
+    public static final String BUSY = "BUSY";
+    public static final String WRONGTYPE = "WRONGTYPE";
+    public static final String READONLY = "READONLY";
+    public static final String LOADING = "LOADING";
+    public static final String OOM = "OOM";
+    public static final String NOAUTH = "NOAUTH";
+    public static final String NOPERM = "NOPERM";
+    public static final String CROSSSLOT = "CROSSSLOT";
+    public static final String TRYAGAIN = "TRYAGAIN";
+    public static final String CLUSTERDOWN = "CLUSTERDOWN";
+    public static final String MASTERDOWN = "MASTERDOWN";
+    public static final String BUSYKEY = "BUSYKEY";
+    public static final String BUSYGROUP = "BUSYGROUP";
+    public static final String NOGROUP = "NOGROUP";
+
+    /**
+     * 客户端熔断器打开，命令未发送
+     */
+    public static final String CIRCUIT_OPEN = "CIRCUIT_OPEN";
+
+    /**
+     * 客户端排队超过预算被削峰拒绝，命令未发送
+     */
+    public static final String LOAD_SHED = "LOAD_SHED";
+
+    private static final Set<String> KNOWN_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ERR, NOSCRIPT, BUSY, WRONGTYPE, READONLY, LOADING, OOM, NOAUTH, NOPERM, CROSSSLOT, TRYAGAIN, CLUSTERDOWN, MASTERDOWN, BUSYKEY,
+            BUSYGROUP, NOGROUP)));
+
+    private RedisErrorCodes() {
+    }
+
+    /**
+     * 解析异常对应的服务端错误码
+     * 优先使用{@link RedisException#getErrorCode()}，否则依次检查异常链中每个异常消息的开头
+     * @param throwable 异常
+     * @return 错误码，不是服务端错误时返回null
+     */
+    public static String of(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof RedisException && ((RedisException) current).getErrorCode() != null) {
+                return ((RedisException) current).getErrorCode();
+            }
+            String code = leadingCode(current.getMessage());
+            if (code != null) {
+                return code;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 是否为脚本缓存中不存在该脚本的错误
+     */
+    public static boolean isNoScript(Throwable throwable) {
+        return NOSCRIPT.equals(of(throwable));
+    }
+
+    private static String leadingCode(String message) {
+        if (message == null) {
+            return null;
+        }
+        int end = 0;
+        while (end < message.length() && message.charAt(end) >= 'A' && message.charAt(end) <= 'Z') {
+            end++;
+        }
+        if (end == 0 || (end < message.length() && message.charAt(end) != ' ')) {
+            return null;
+        }
+        String code = message.substring(0, end);
+        return KNOWN_CODES.contains(code) ? code : null;
+    }
+}
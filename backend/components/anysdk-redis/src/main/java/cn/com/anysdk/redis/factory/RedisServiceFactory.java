@@ -1,10 +1,24 @@
 package cn.com.anysdk.redis.factory;
 
+import cn.com.anysdk.redis.api.IAsyncRedisService;
 import cn.com.anysdk.redis.api.IRedisService;
 import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.cache.InvalidationSource;
+import cn.com.anysdk.redis.cache.NearCacheConfig;
+import cn.com.anysdk.redis.cache.NearCacheRedisService;
+import cn.com.anysdk.redis.compress.CompressingRedisService;
+import cn.com.anysdk.redis.concurrency.ConcurrencyLimitedRedisService;
 import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.impl.JedisAsyncRedisService;
 import cn.com.anysdk.redis.impl.JedisRedisService;
+import cn.com.anysdk.redis.impl.DelegatingRedisService;
+import cn.com.anysdk.redis.impl.JedisTrackingInvalidationSource;
+import cn.com.anysdk.redis.impl.LettuceAsyncRedisService;
 import cn.com.anysdk.redis.impl.LettuceRedisService;
+import cn.com.anysdk.redis.impl.LettuceTrackingInvalidationSource;
+import cn.com.anysdk.redis.impl.LocalAsyncRedisService;
+import cn.com.anysdk.redis.impl.LocalRedisService;
+import cn.com.anysdk.redis.impl.RedissonAsyncRedisService;
 import cn.com.anysdk.redis.impl.RedissonRedisService;
 import lombok.extern.slf4j.Slf4j;
 
@@ -16,10 +30,58 @@ import lombok.extern.slf4j.Slf4j;
 public class RedisServiceFactory {
     /**
      * 创建Redis服务实例
+     * 开启虚拟线程模式或配置了并发命令数上限时外层包装{@link ConcurrencyLimitedRedisService}，
+     * 配置了压缩阈值时返回透明压缩的服务
      * @param config Redis配置
      * @return Redis服务实例
      */
     public static IRedisService createService(IRedisConfig config) {
+        IRedisService redisService = createProviderService(config);
+        int maxConcurrency = maxConcurrentCommands(config);
+        if (maxConcurrency > 0) {
+            redisService = new ConcurrencyLimitedRedisService(redisService, maxConcurrency, config.getOperationTimeout());
+        }
+        if (config.getCompressionThreshold() > 0) {
+            return new CompressingRedisService(redisService, config.getCompressionThreshold());
+        }
+        return redisService;
+    }
+
+    /**
+     * 并发命令数上限：Jedis每条命令独占一条连接，上限取连接池大小，等待发生在信号量上而不是连接池里；
+     * Lettuce和Redisson的连接可以同时承载多条命令，上限只用于防止命令队列无限堆积；
+     * 本地提供商没有连接，只在显式配置时限制
+     */
+    private static int maxConcurrentCommands(IRedisConfig config) {
+        if (config.getMaxConcurrentCommands() > 0) {
+            return config.getMaxConcurrentCommands();
+        }
+        if (!config.isVirtualThreads() || "local".equalsIgnoreCase(config.getProvider())) {
+            return 0;
+        }
+        int maxConnections = Math.max(1, config.getMaxConnections());
+        return "jedis".equalsIgnoreCase(config.getProvider()) ? maxConnections : maxConnections * 32;
+    }
+
+    /**
+     * 关闭服务：从外到内依次关闭装饰链上实现了AutoCloseable的服务，如近端缓存的失效通知和Lettuce的连接与客户端资源
+     * @param redisService Redis服务实例
+     */
+    public static void close(IRedisService redisService) {
+        IRedisService current = redisService;
+        while (current != null) {
+            if (current instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) current).close();
+                } catch (Exception e) {
+                    log.warn("Failed to close Redis service: {}: {}", current.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+            current = current instanceof DelegatingRedisService ? ((DelegatingRedisService) current).getDelegate() : null;
+        }
+    }
+
+    private static IRedisService createProviderService(IRedisConfig config) {
         if (config == null) {
             throw new RedisException("Redis config cannot be null");
         }
@@ -32,8 +94,75 @@ public class RedisServiceFactory {
                 return new LettuceRedisService(config);
             case "redisson":
                 return new RedissonRedisService(config);
+            case "local":
+                return new LocalRedisService(config);
             default:
                 throw new RedisException("Unsupported Redis provider: " + provider);
         }
     }
+
+    /**
+     * 创建异步Redis服务实例，异步服务不做透明压缩
+     * @param config Redis配置
+     * @return 异步Redis服务实例
+     */
+    public static IAsyncRedisService createAsyncService(IRedisConfig config) {
+        return createAsyncService(createProviderService(config));
+    }
+
+    /**
+     * 基于现有Redis服务创建异步服务实例，两者共享底层连接
+     * @param redisService Redis服务实例
+     * @return 异步Redis服务实例
+     */
+    public static IAsyncRedisService createAsyncService(IRedisService redisService) {
+        if (redisService instanceof JedisRedisService) {
+            return new JedisAsyncRedisService((JedisRedisService) redisService);
+        }
+        if (redisService instanceof LettuceRedisService) {
+            return new LettuceAsyncRedisService((LettuceRedisService) redisService);
+        }
+        if (redisService instanceof RedissonRedisService) {
+            return new RedissonAsyncRedisService((RedissonRedisService) redisService);
+        }
+        if (redisService instanceof LocalRedisService) {
+            return new LocalAsyncRedisService((LocalRedisService) redisService);
+        }
+        throw new RedisException("Unsupported Redis service for async access: "
+                + (redisService == null ? null : redisService.getClass().getName()));
+    }
+
+    /**
+     * 创建带近端缓存的Redis服务实例
+     * 开启跟踪时，Lettuce使用RESP3推送、Jedis使用RESP2重定向接收失效通知；
+     * Redisson 3.20尚不支持CLIENT TRACKING，只依赖本地写失效和最大存活时间
+     * @param config Redis配置
+     * @param nearCacheConfig 近端缓存配置
+     * @return 带近端缓存的Redis服务实例
+     */
+    public static NearCacheRedisService createNearCacheService(IRedisConfig config, NearCacheConfig nearCacheConfig) {
+        if (nearCacheConfig == null) {
+            throw new RedisException("Near cache config cannot be null");
+        }
+        IRedisService redisService = createService(config);
+
+        InvalidationSource invalidationSource = null;
+        if (nearCacheConfig.isTrackingEnabled() && (config.isClusterMode() || config.isSentinelMode())) {
+            // 集群模式下每个节点只通知自身槽位的修改，哨兵模式下主节点会随故障转移变化，跟踪连接暂不支持这两种拓扑
+            log.warn("Client tracking is not supported in {} mode, near cache relies on local invalidation and max TTL",
+                    config.getMode());
+        } else if (nearCacheConfig.isTrackingEnabled()) {
+            switch (config.getProvider().toLowerCase()) {
+                case "jedis":
+                    invalidationSource = new JedisTrackingInvalidationSource(config, nearCacheConfig.getTrackingPrefixes());
+                    break;
+                case "lettuce":
+                    invalidationSource = new LettuceTrackingInvalidationSource(config, nearCacheConfig.getTrackingPrefixes());
+                    break;
+                default:
+                    log.warn("Client tracking is not supported by provider: {}", config.getProvider());
+            }
+        }
+        return new NearCacheRedisService(redisService, nearCacheConfig, invalidationSource);
+    }
 }
\ No newline at end of file
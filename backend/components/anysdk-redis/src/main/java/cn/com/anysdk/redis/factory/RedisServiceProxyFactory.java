@@ -3,26 +3,52 @@ package cn.com.anysdk.redis.factory;
 import cn.com.anysdk.redis.api.IRedisConfig;
 import cn.com.anysdk.redis.api.IRedisService;
 import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.monitor.InstrumentedRedisService;
+import cn.com.anysdk.redis.monitor.RedisMetrics;
+import cn.com.anysdk.redis.resilience.ResilienceConfig;
+import cn.com.anysdk.redis.resilience.ResilientRedisService;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
-
 /**
  * Redis服务代理工厂
  * 用于创建带有监控和异常处理功能的Redis服务实例
  */
 @Slf4j
 public class RedisServiceProxyFactory {
+    private static final long DEFAULT_SLOW_OPERATION_THRESHOLD = 100;
+
     /**
      * 创建Redis服务代理实例
      * @param config Redis配置
      * @return Redis服务代理实例
      */
-    public static IRedisService createServiceProxy(IRedisConfig config) {
+    public static InstrumentedRedisService createServiceProxy(IRedisConfig config) {
+        return createServiceProxy(config, new RedisMetrics());
+    }
+
+    /**
+     * 创建Redis服务代理实例，并将指标记录到指定注册表
+     * @param config Redis配置
+     * @param metrics 指标注册表
+     * @return Redis服务代理实例
+     */
+    public static InstrumentedRedisService createServiceProxy(IRedisConfig config, RedisMetrics metrics) {
+        IRedisService redisService = RedisServiceFactory.createService(config);
+        return createServiceProxy(redisService, metrics, config.getSlowOperationThreshold());
+    }
+
+    /**
+     * 创建带熔断、隔离和削峰的Redis服务代理实例
+     * 熔断和削峰拒绝的调用同样计入指标
+     * @param config Redis配置
+     * @param metrics 指标注册表
+     * @param resilienceConfig 熔断、隔离和削峰配置
+     * @return Redis服务代理实例
+     */
+    public static InstrumentedRedisService createServiceProxy(IRedisConfig config, RedisMetrics metrics,
+                                                              ResilienceConfig resilienceConfig) {
         IRedisService redisService = RedisServiceFactory.createService(config);
-        return createServiceProxy(redisService);
+        return createServiceProxy(redisService, metrics, config.getSlowOperationThreshold(), resilienceConfig);
     }
 
     /**
@@ -30,58 +56,40 @@ public class RedisServiceProxyFactory {
      * @param redisService Redis服务实例
      * @return Redis服务代理实例
      */
-    public static IRedisService createServiceProxy(IRedisService redisService) {
+    public static InstrumentedRedisService createServiceProxy(IRedisService redisService) {
+        return createServiceProxy(redisService, new RedisMetrics(), DEFAULT_SLOW_OPERATION_THRESHOLD);
+    }
+
+    /**
+     * 为现有Redis服务创建代理实例
+     * @param redisService Redis服务实例
+     * @param metrics 指标注册表
+     * @param slowOperationThreshold 慢操作阈值（毫秒）
+     * @return Redis服务代理实例
+     */
+    public static InstrumentedRedisService createServiceProxy(IRedisService redisService, RedisMetrics metrics,
+                                                              long slowOperationThreshold) {
         if (redisService == null) {
             throw new RedisException("Redis service cannot be null");
         }
-
-        return (IRedisService) Proxy.newProxyInstance(
-                redisService.getClass().getClassLoader(),
-                new Class<?>[] { IRedisService.class },
-                new RedisServiceInvocationHandler(redisService)
-        );
+        return new InstrumentedRedisService(redisService, metrics, slowOperationThreshold);
     }
 
     /**
-     * Redis服务调用处理器
-     * 用于在Redis服务方法调用前后添加监控和异常处理逻辑
+     * 为现有Redis服务创建带熔断、隔离和削峰的代理实例
+     * @param redisService Redis服务实例
+     * @param metrics 指标注册表
+     * @param slowOperationThreshold 慢操作阈值（毫秒）
+     * @param resilienceConfig 熔断、隔离和削峰配置
+     * @return Redis服务代理实例
      */
-    private static class RedisServiceInvocationHandler implements InvocationHandler {
-        private final IRedisService target;
-
-        public RedisServiceInvocationHandler(IRedisService target) {
-            this.target = target;
-        }
-
-        @Override
-        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            String methodName = method.getName();
-            long startTime = System.currentTimeMillis();
-            
-            try {
-                // 执行目标方法
-                Object result = method.invoke(target, args);
-                
-                // 记录执行时间
-                long executionTime = System.currentTimeMillis() - startTime;
-                if (executionTime > 100) { // 记录执行时间超过100ms的操作
-                    log.warn("Redis operation [{}] took {}ms to execute", methodName, executionTime);
-                } else {
-                    log.debug("Redis operation [{}] took {}ms to execute", methodName, executionTime);
-                }
-                
-                return result;
-            } catch (Exception e) {
-                log.error("Redis operation [{}] failed: {}", methodName, e.getMessage());
-                
-                // 如果是反射异常，则获取原始异常
-                Throwable cause = e.getCause();
-                if (cause != null) {
-                    throw cause;
-                } else {
-                    throw e;
-                }
-            }
+    public static InstrumentedRedisService createServiceProxy(IRedisService redisService, RedisMetrics metrics,
+                                                              long slowOperationThreshold,
+                                                              ResilienceConfig resilienceConfig) {
+        if (redisService == null) {
+            throw new RedisException("Redis service cannot be null");
         }
+        return new InstrumentedRedisService(new ResilientRedisService(redisService, resilienceConfig), metrics,
+                slowOperationThreshold);
     }
-}
\ No newline at end of file
+}
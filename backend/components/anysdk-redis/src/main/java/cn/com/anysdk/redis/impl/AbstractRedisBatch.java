@@ -0,0 +1,323 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量操作构建器基类
+ * 负责命令排队、按最大批量大小拆分以及结果归一化，具体的管道执行由各客户端实现
+ */
+public abstract class AbstractRedisBatch implements RedisBatch {
+    private final List<BatchCommand> commands = new ArrayList<>();
+    private final int maxBatchSize;
+
+    protected AbstractRedisBatch(int maxBatchSize) {
+        this.maxBatchSize = batchSize(maxBatchSize);
+    }
+
+    /**
+     * 归一化配置的最大批量大小，小于等于0表示不拆分
+     * @param maxBatchSize 配置的最大批量大小
+     * @return 拆分时每组的大小
+     */
+    static int batchSize(int maxBatchSize) {
+        return maxBatchSize > 0 ? maxBatchSize : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public RedisBatch set(String key, String value) {
+        return add(CommandType.SET, key, value);
+    }
+
+    @Override
+    public RedisBatch set(String key, String value, long timeout, TimeUnit unit) {
+        return add(CommandType.SET_EX, key, value, unit.toMillis(timeout));
+    }
+
+    @Override
+    public RedisBatch get(String key) {
+        return add(CommandType.GET, key);
+    }
+
+    @Override
+    public RedisBatch delete(String key) {
+        return add(CommandType.DELETE, key);
+    }
+
+    @Override
+    public RedisBatch expire(String key, long timeout, TimeUnit unit) {
+        return add(CommandType.EXPIRE, key, unit.toMillis(timeout));
+    }
+
+    @Override
+    public RedisBatch hSet(String key, String field, Object value) {
+        return add(CommandType.HSET, key, field, value);
+    }
+
+    @Override
+    public RedisBatch hGet(String key, String field) {
+        return add(CommandType.HGET, key, field);
+    }
+
+    @Override
+    public RedisBatch hSetAll(String key, Map<String, Object> map) {
+        return add(CommandType.HSET_ALL, key, map);
+    }
+
+    @Override
+    public RedisBatch lPush(String key, String value) {
+        return add(CommandType.LPUSH, key, value);
+    }
+
+    @Override
+    public RedisBatch rPush(String key, String value) {
+        return add(CommandType.RPUSH, key, value);
+    }
+
+    @Override
+    public RedisBatch sAdd(String key, String... values) {
+        return add(CommandType.SADD, key, (Object) values);
+    }
+
+    @Override
+    public RedisBatch incrBy(String key, long delta) {
+        return add(CommandType.INCRBY, key, delta);
+    }
+
+    @Override
+    public RedisBatch hIncrBy(String key, String field, long delta) {
+        return add(CommandType.HINCRBY, key, field, delta);
+    }
+
+    @Override
+    public RedisBatch zAdd(String key, double score, String member) {
+        return add(CommandType.ZADD, key, score, member);
+    }
+
+    @Override
+    public RedisBatch zIncrBy(String key, double increment, String member) {
+        return add(CommandType.ZINCRBY, key, increment, member);
+    }
+
+    @Override
+    public RedisBatch zRemRangeByScore(String key, double min, double max) {
+        return add(CommandType.ZREMRANGEBYSCORE, key, min, max);
+    }
+
+    @Override
+    public RedisBatch zCard(String key) {
+        return add(CommandType.ZCARD, key);
+    }
+
+    @Override
+    public RedisBatch xAdd(String key, Map<String, String> fields, long maxLen) {
+        return add(CommandType.XADD, key, fields, maxLen);
+    }
+
+    @Override
+    public RedisBatch xAck(String key, String group, String... ids) {
+        return add(CommandType.XACK, key, group, ids);
+    }
+
+    @Override
+    public RedisBatch dump(String key) {
+        return add(CommandType.DUMP, key);
+    }
+
+    @Override
+    public RedisBatch restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        return add(CommandType.RESTORE, key, ttlMillis, serialized, replace);
+    }
+
+    @Override
+    public RedisBatch pTtl(String key) {
+        return add(CommandType.PTTL, key);
+    }
+
+    @Override
+    public int size() {
+        return commands.size();
+    }
+
+    @Override
+    public List<Object> execute() {
+        if (commands.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            List<Object> results = new ArrayList<>(commands.size());
+            for (int from = 0; from < commands.size(); from += maxBatchSize) {
+                List<BatchCommand> chunk = commands.subList(from, Math.min(from + maxBatchSize, commands.size()));
+                List<?> replies = executePipeline(chunk);
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(normalize(chunk.get(i).getType(), replies.get(i)));
+                }
+            }
+            return results;
+        } catch (RedisException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RedisException("Failed to execute batch: " + e.getMessage(), e);
+        } finally {
+            commands.clear();
+        }
+    }
+
+    /**
+     * 通过管道执行一组命令
+     * @param chunk 不超过最大批量大小的命令列表
+     * @return 与命令顺序一致的原始回复
+     * @throws Exception 执行失败
+     */
+    protected abstract List<?> executePipeline(List<BatchCommand> chunk) throws Exception;
+
+    private RedisBatch add(CommandType type, String key, Object... args) {
+        commands.add(new BatchCommand(type, key, args));
+        return this;
+    }
+
+    private static Object normalize(CommandType type, Object reply) {
+        switch (type.getReplyType()) {
+            case NONE:
+                return null;
+            case BOOLEAN:
+                if (reply instanceof Boolean) {
+                    return reply;
+                }
+                return reply instanceof Number && ((Number) reply).longValue() > 0;
+            case LONG:
+                if (reply == null) {
+                    return 0L;
+                }
+                if (reply instanceof Boolean) {
+                    // Redisson的部分异步命令以布尔值表示0或1
+                    return (Boolean) reply ? 1L : 0L;
+                }
+                return reply instanceof Number ? ((Number) reply).longValue() : Long.parseLong(String.valueOf(reply));
+            case DOUBLE:
+                if (reply == null) {
+                    return null;
+                }
+                return reply instanceof Number ? ((Number) reply).doubleValue() : Double.parseDouble(String.valueOf(reply));
+            case STRING:
+                // 各客户端的消息ID类型的toString均为毫秒时间戳-序号
+                return reply == null ? null : String.valueOf(reply);
+            default:
+                return reply;
+        }
+    }
+
+    /**
+     * 回复类型
+     */
+    protected enum ReplyType {
+        NONE, BOOLEAN, LONG, DOUBLE, STRING, VALUE
+    }
+
+    /**
+     * 批量命令类型
+     * 带过期时间的命令参数中的时长统一为毫秒
+     */
+    protected enum CommandType {
+        SET(ReplyType.NONE),
+        SET_EX(ReplyType.NONE),
+        GET(ReplyType.VALUE),
+        DELETE(ReplyType.BOOLEAN),
+        EXPIRE(ReplyType.BOOLEAN),
+        HSET(ReplyType.NONE),
+        HGET(ReplyType.VALUE),
+        HSET_ALL(ReplyType.NONE),
+        LPUSH(ReplyType.LONG),
+        RPUSH(ReplyType.LONG),
+        SADD(ReplyType.LONG),
+        INCRBY(ReplyType.LONG),
+        HINCRBY(ReplyType.LONG),
+        ZADD(ReplyType.LONG),
+        ZINCRBY(ReplyType.DOUBLE),
+        ZREMRANGEBYSCORE(ReplyType.LONG),
+        ZCARD(ReplyType.LONG),
+        DUMP(ReplyType.VALUE),
+        RESTORE(ReplyType.NONE),
+        PTTL(ReplyType.LONG),
+        XADD(ReplyType.STRING),
+        XACK(ReplyType.LONG);
+
+        private final ReplyType replyType;
+
+        CommandType(ReplyType replyType) {
+            this.replyType = replyType;
+        }
+
+        public ReplyType getReplyType() {
+            return replyType;
+        }
+    }
+
+    /**
+     * 已排队的批量命令
+     */
+    protected static final class BatchCommand {
+        private final CommandType type;
+        private final String key;
+        private final Object[] args;
+
+        BatchCommand(CommandType type, String key, Object[] args) {
+            this.type = type;
+            this.key = key;
+            this.args = args;
+        }
+
+        public CommandType getType() {
+            return type;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getString(int index) {
+            Object arg = args[index];
+            return arg == null ? null : String.valueOf(arg);
+        }
+
+        public long getLong(int index) {
+            return (Long) args[index];
+        }
+
+        public double getDouble(int index) {
+            return (Double) args[index];
+        }
+
+        public Object getArg(int index) {
+            return args[index];
+        }
+
+        public byte[] getBytes(int index) {
+            return (byte[]) args[index];
+        }
+
+        public boolean getBoolean(int index) {
+            return (Boolean) args[index];
+        }
+
+        public String[] getStrings(int index) {
+            return (String[]) args[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        public Map<String, Object> getMap(int index) {
+            return (Map<String, Object>) args[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        public Map<String, String> getStringMap(int index) {
+            return (Map<String, String>) args[index];
+        }
+    }
+}
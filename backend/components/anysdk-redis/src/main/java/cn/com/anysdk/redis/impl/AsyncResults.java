@@ -0,0 +1,72 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 异步结果工具
+ * 将客户端返回的Future统一转换为以RedisException失败的CompletableFuture
+ */
+final class AsyncResults {
+    private AsyncResults() {
+    }
+
+    /**
+     * 包装客户端返回的异步结果
+     * @param stage 客户端异步结果
+     * @param message 失败时的错误信息前缀
+     * @return CompletableFuture
+     */
+    static <T> CompletableFuture<T> wrap(CompletionStage<T> stage, String message) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        stage.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(toRedisException(error, message));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 创建以RedisException失败的Future
+     * @param error 原始异常
+     * @param message 错误信息前缀
+     * @return 失败的Future
+     */
+    static <T> CompletableFuture<T> failed(Throwable error, String message) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(toRedisException(error, message));
+        return result;
+    }
+
+    /**
+     * 等待全部Future完成并按顺序合并结果
+     * @param futures Future列表
+     * @return 结果列表
+     */
+    static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<T> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<T> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+
+    private static RedisException toRedisException(Throwable error, String message) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RedisException) {
+            return (RedisException) cause;
+        }
+        return new RedisException(message + ": " + cause.getMessage(), cause);
+    }
+}
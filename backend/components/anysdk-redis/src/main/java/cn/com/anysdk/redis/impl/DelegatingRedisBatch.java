@@ -0,0 +1,161 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.RedisBatch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量操作构建器装饰器基类
+ * 默认将所有命令转发给被装饰的构建器，并返回装饰器自身以保持链式调用
+ */
+public abstract class DelegatingRedisBatch implements RedisBatch {
+    protected final RedisBatch delegate;
+
+    protected DelegatingRedisBatch(RedisBatch delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public RedisBatch set(String key, String value) {
+        delegate.set(key, value);
+        return this;
+    }
+
+    @Override
+    public RedisBatch set(String key, String value, long timeout, TimeUnit unit) {
+        delegate.set(key, value, timeout, unit);
+        return this;
+    }
+
+    @Override
+    public RedisBatch get(String key) {
+        delegate.get(key);
+        return this;
+    }
+
+    @Override
+    public RedisBatch delete(String key) {
+        delegate.delete(key);
+        return this;
+    }
+
+    @Override
+    public RedisBatch expire(String key, long timeout, TimeUnit unit) {
+        delegate.expire(key, timeout, unit);
+        return this;
+    }
+
+    @Override
+    public RedisBatch hSet(String key, String field, Object value) {
+        delegate.hSet(key, field, value);
+        return this;
+    }
+
+    @Override
+    public RedisBatch hGet(String key, String field) {
+        delegate.hGet(key, field);
+        return this;
+    }
+
+    @Override
+    public RedisBatch hSetAll(String key, Map<String, Object> map) {
+        delegate.hSetAll(key, map);
+        return this;
+    }
+
+    @Override
+    public RedisBatch lPush(String key, String value) {
+        delegate.lPush(key, value);
+        return this;
+    }
+
+    @Override
+    public RedisBatch rPush(String key, String value) {
+        delegate.rPush(key, value);
+        return this;
+    }
+
+    @Override
+    public RedisBatch sAdd(String key, String... values) {
+        delegate.sAdd(key, values);
+        return this;
+    }
+
+    @Override
+    public RedisBatch incrBy(String key, long delta) {
+        delegate.incrBy(key, delta);
+        return this;
+    }
+
+    @Override
+    public RedisBatch hIncrBy(String key, String field, long delta) {
+        delegate.hIncrBy(key, field, delta);
+        return this;
+    }
+
+    @Override
+    public RedisBatch zAdd(String key, double score, String member) {
+        delegate.zAdd(key, score, member);
+        return this;
+    }
+
+    @Override
+    public RedisBatch zIncrBy(String key, double increment, String member) {
+        delegate.zIncrBy(key, increment, member);
+        return this;
+    }
+
+    @Override
+    public RedisBatch zRemRangeByScore(String key, double min, double max) {
+        delegate.zRemRangeByScore(key, min, max);
+        return this;
+    }
+
+    @Override
+    public RedisBatch zCard(String key) {
+        delegate.zCard(key);
+        return this;
+    }
+
+    @Override
+    public RedisBatch xAdd(String key, Map<String, String> fields, long maxLen) {
+        delegate.xAdd(key, fields, maxLen);
+        return this;
+    }
+
+    @Override
+    public RedisBatch xAck(String key, String group, String... ids) {
+        delegate.xAck(key, group, ids);
+        return this;
+    }
+
+    @Override
+    public RedisBatch dump(String key) {
+        delegate.dump(key);
+        return this;
+    }
+
+    @Override
+    public RedisBatch restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        delegate.restore(key, ttlMillis, serialized, replace);
+        return this;
+    }
+
+    @Override
+    public RedisBatch pTtl(String key) {
+        delegate.pTtl(key);
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public List<Object> execute() {
+        return delegate.execute();
+    }
+}
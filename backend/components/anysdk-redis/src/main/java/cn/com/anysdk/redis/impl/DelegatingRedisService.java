@@ -0,0 +1,342 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.RedisMessageListener;
+import cn.com.anysdk.redis.api.RedisSubscription;
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Redis服务装饰器基类
+ * 默认将所有操作转发给被装饰的服务，子类只需覆盖关心的方法
+ */
+public abstract class DelegatingRedisService implements IRedisService {
+    protected final IRedisService delegate;
+
+    protected DelegatingRedisService(IRedisService delegate) {
+        if (delegate == null) {
+            throw new RedisException("Redis service cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    /**
+     * 获取被装饰的服务
+     * @return 被装饰的服务
+     */
+    public IRedisService getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void set(String key, String value) {
+        delegate.set(key, value);
+    }
+
+    @Override
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        delegate.set(key, value, timeout, unit);
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        return delegate.setIfAbsent(key, value, timeout, unit);
+    }
+
+    @Override
+    public String get(String key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public boolean delete(String key) {
+        return delegate.delete(key);
+    }
+
+    @Override
+    public long delete(List<String> keys) {
+        return delegate.delete(keys);
+    }
+
+    @Override
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        return delegate.expire(key, timeout, unit);
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return delegate.hasKey(key);
+    }
+
+    @Override
+    public long getExpire(String key, TimeUnit unit) {
+        return delegate.getExpire(key, unit);
+    }
+
+    @Override
+    public byte[] dump(String key) {
+        return delegate.dump(key);
+    }
+
+    @Override
+    public void restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        delegate.restore(key, ttlMillis, serialized, replace);
+    }
+
+    @Override
+    public long incr(String key) {
+        return delegate.incr(key);
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        return delegate.incrBy(key, delta);
+    }
+
+    @Override
+    public long hIncrBy(String key, String field, long delta) {
+        return delegate.hIncrBy(key, field, delta);
+    }
+
+    @Override
+    public void hSet(String key, String field, Object value) {
+        delegate.hSet(key, field, value);
+    }
+
+    @Override
+    public Object hGet(String key, String field) {
+        return delegate.hGet(key, field);
+    }
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map) {
+        delegate.hSetAll(key, map);
+    }
+
+    @Override
+    public Map<Object, Object> hGetAll(String key) {
+        return delegate.hGetAll(key);
+    }
+
+    @Override
+    public long lPush(String key, String value) {
+        return delegate.lPush(key, value);
+    }
+
+    @Override
+    public long rPush(String key, String value) {
+        return delegate.rPush(key, value);
+    }
+
+    @Override
+    public List<String> lRange(String key, long start, long end) {
+        return delegate.lRange(key, start, end);
+    }
+
+    @Override
+    public long sAdd(String key, String... values) {
+        return delegate.sAdd(key, values);
+    }
+
+    @Override
+    public Set<String> sMembers(String key) {
+        return delegate.sMembers(key);
+    }
+
+    @Override
+    public long zAdd(String key, double score, String member) {
+        return delegate.zAdd(key, score, member);
+    }
+
+    @Override
+    public long zAdd(String key, Collection<ScoredMember> members) {
+        return delegate.zAdd(key, members);
+    }
+
+    @Override
+    public double zIncrBy(String key, double increment, String member) {
+        return delegate.zIncrBy(key, increment, member);
+    }
+
+    @Override
+    public Double zScore(String key, String member) {
+        return delegate.zScore(key, member);
+    }
+
+    @Override
+    public long zRank(String key, String member) {
+        return delegate.zRank(key, member);
+    }
+
+    @Override
+    public long zRevRank(String key, String member) {
+        return delegate.zRevRank(key, member);
+    }
+
+    @Override
+    public long zCard(String key) {
+        return delegate.zCard(key);
+    }
+
+    @Override
+    public List<ScoredMember> zRangeByScore(String key, double min, double max, long offset, long count) {
+        return delegate.zRangeByScore(key, min, max, offset, count);
+    }
+
+    @Override
+    public List<ScoredMember> zRevRange(String key, long start, long end) {
+        return delegate.zRevRange(key, start, end);
+    }
+
+    @Override
+    public long zRemRangeByScore(String key, double min, double max) {
+        return delegate.zRemRangeByScore(key, min, max);
+    }
+
+    @Override
+    public List<ScoredMember> zPopMin(String key, int count) {
+        return delegate.zPopMin(key, count);
+    }
+
+    @Override
+    public String xAdd(String key, Map<String, String> fields, long maxLen) {
+        return delegate.xAdd(key, fields, maxLen);
+    }
+
+    @Override
+    public long xLen(String key) {
+        return delegate.xLen(key);
+    }
+
+    @Override
+    public boolean xGroupCreate(String key, String group, String startId) {
+        return delegate.xGroupCreate(key, group, startId);
+    }
+
+    @Override
+    public List<StreamEntry> xReadGroup(String key, String group, String consumer, int count, long blockMillis) {
+        return delegate.xReadGroup(key, group, consumer, count, blockMillis);
+    }
+
+    @Override
+    public long xAck(String key, String group, Collection<String> ids) {
+        return delegate.xAck(key, group, ids);
+    }
+
+    @Override
+    public StreamClaimResult xAutoClaim(String key, String group, String consumer, long minIdleMillis, String startId, int count) {
+        return delegate.xAutoClaim(key, group, consumer, minIdleMillis, startId, count);
+    }
+
+    @Override
+    public List<StreamGroupInfo> xInfoGroups(String key) {
+        return delegate.xInfoGroups(key);
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        return delegate.mGet(keys);
+    }
+
+    @Override
+    public void mSet(Map<String, String> map) {
+        delegate.mSet(map);
+    }
+
+    @Override
+    public long mDelete(List<String> keys) {
+        return delegate.mDelete(keys);
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return delegate.batch();
+    }
+
+    @Override
+    public Stream<String> scanKeys(String pattern, int count) {
+        return delegate.scanKeys(pattern, count);
+    }
+
+    @Override
+    public Stream<Map.Entry<String, Object>> hScan(String key, String pattern, int count) {
+        return delegate.hScan(key, pattern, count);
+    }
+
+    @Override
+    public Stream<String> sScan(String key, String pattern, int count) {
+        return delegate.sScan(key, pattern, count);
+    }
+
+    @Override
+    public Stream<ScoredMember> zScan(String key, String pattern, int count) {
+        return delegate.zScan(key, pattern, count);
+    }
+
+    @Override
+    public long publish(String channel, String message) {
+        return delegate.publish(channel, message);
+    }
+
+    @Override
+    public RedisSubscription subscribe(RedisMessageListener listener, String... channels) {
+        return delegate.subscribe(listener, channels);
+    }
+
+    @Override
+    public String scriptLoad(String script) {
+        return delegate.scriptLoad(script);
+    }
+
+    @Override
+    public Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args) {
+        return delegate.evalSha(sha1, returnType, keys, args);
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        return delegate.getBytes(key);
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value) {
+        delegate.setBytes(key, value);
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        delegate.setBytes(key, value, timeout, unit);
+    }
+
+    @Override
+    public List<byte[]> mGetBytes(List<String> keys) {
+        return delegate.mGetBytes(keys);
+    }
+
+    @Override
+    public byte[] hGetBytes(String key, String field) {
+        return delegate.hGetBytes(key, field);
+    }
+
+    @Override
+    public void hSetBytes(String key, String field, byte[] value) {
+        delegate.hSetBytes(key, field, value);
+    }
+
+    @Override
+    public Map<String, byte[]> hGetAllBytes(String key) {
+        return delegate.hGetAllBytes(key);
+    }
+}
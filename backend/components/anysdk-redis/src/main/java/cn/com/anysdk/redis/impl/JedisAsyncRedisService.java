@@ -0,0 +1,195 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IAsyncRedisService;
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.exception.RedisException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Jedis实现的异步Redis服务
+ * Jedis没有原生异步API，命令通过有界线程池在连接池上执行。
+ * 线程数与连接池大小一致，多出的线程只会阻塞在借用连接上；队列满时直接以失败的Future返回，不会无限堆积。
+ */
+@Slf4j
+public class JedisAsyncRedisService implements IAsyncRedisService {
+    /**
+     * 默认等待队列容量
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    private final JedisRedisService redisService;
+    private final ExecutorService executor;
+
+    public JedisAsyncRedisService(IRedisConfig config) {
+        this(new JedisRedisService(config));
+    }
+
+    public JedisAsyncRedisService(JedisRedisService redisService) {
+        this(redisService, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public JedisAsyncRedisService(JedisRedisService redisService, int queueCapacity) {
+        if (redisService == null) {
+            throw new RedisException("Redis service cannot be null");
+        }
+        this.redisService = redisService;
+
+        int threads = Math.max(1, redisService.getConfig().getMaxConnections());
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+                threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "anysdk-redis-async-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        threadPool.allowCoreThreadTimeOut(true);
+        this.executor = threadPool;
+
+        log.info("Initialized Jedis async Redis service with {} worker threads", threads);
+    }
+
+    @Override
+    public CompletableFuture<Void> set(String key, String value) {
+        return submit(() -> {
+            redisService.set(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> set(String key, String value, long timeout, TimeUnit unit) {
+        return submit(() -> {
+            redisService.set(key, value, timeout, unit);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> get(String key) {
+        return submit(() -> redisService.get(key));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delete(String key) {
+        return submit(() -> redisService.delete(key));
+    }
+
+    @Override
+    public CompletableFuture<Long> delete(List<String> keys) {
+        return submit(() -> redisService.delete(keys));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        return submit(() -> redisService.expire(key, timeout, unit));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasKey(String key) {
+        return submit(() -> redisService.hasKey(key));
+    }
+
+    @Override
+    public CompletableFuture<Long> getExpire(String key, TimeUnit unit) {
+        return submit(() -> redisService.getExpire(key, unit));
+    }
+
+    @Override
+    public CompletableFuture<Void> hSet(String key, String field, Object value) {
+        return submit(() -> {
+            redisService.hSet(key, field, value);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Object> hGet(String key, String field) {
+        return submit(() -> redisService.hGet(key, field));
+    }
+
+    @Override
+    public CompletableFuture<Void> hSetAll(String key, Map<String, Object> map) {
+        return submit(() -> {
+            redisService.hSetAll(key, map);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<Object, Object>> hGetAll(String key) {
+        return submit(() -> redisService.hGetAll(key));
+    }
+
+    @Override
+    public CompletableFuture<Long> lPush(String key, String value) {
+        return submit(() -> redisService.lPush(key, value));
+    }
+
+    @Override
+    public CompletableFuture<Long> rPush(String key, String value) {
+        return submit(() -> redisService.rPush(key, value));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> lRange(String key, long start, long end) {
+        return submit(() -> redisService.lRange(key, start, end));
+    }
+
+    @Override
+    public CompletableFuture<Long> sAdd(String key, String... values) {
+        return submit(() -> redisService.sAdd(key, values));
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> sMembers(String key) {
+        return submit(() -> redisService.sMembers(key));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> mGet(List<String> keys) {
+        // 同步实现已经通过管道合并为一次往返，不需要再拆分成多个任务
+        return submit(() -> redisService.mGet(keys));
+    }
+
+    @Override
+    public CompletableFuture<Void> mSet(Map<String, String> map) {
+        return submit(() -> {
+            redisService.mSet(map);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> mDelete(List<String> keys) {
+        return submit(() -> redisService.mDelete(keys));
+    }
+
+    /**
+     * 关闭工作线程池
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        try {
+            return AsyncResults.wrap(CompletableFuture.supplyAsync(operation, executor), "Failed to execute async operation");
+        } catch (RejectedExecutionException e) {
+            return AsyncResults.failed(e, "Async executor is saturated");
+        }
+    }
+}
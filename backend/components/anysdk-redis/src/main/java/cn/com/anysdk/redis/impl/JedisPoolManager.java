@@ -0,0 +1,273 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.monitor.LatencyHistogram;
+import cn.com.anysdk.redis.monitor.PoolStats;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.Pool;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Jedis连接池管理
+ * <p>
+ * 按{@link IRedisConfig}配置连接池：默认不在借用时PING，改为后台按空闲检测间隔校验空闲连接；
+ * 启动时预热到最小空闲连接数；记录每次借用的等待耗时。
+ * <p>
+ * 自适应模式下定期检查每个连接池的借用竞争：出现等待线程或慢借用（等待超过1毫秒，通常是现场新建连接）时，按最大连接数的1/8逐步调高该池的最小和最大空闲连接数，
+ * 让突发流量用过的连接留在池中；连续一分钟没有竞争后逐步回落到配置值，多出的空闲连接由空闲检测回收。
+ * commons-pool只在空闲检测时补足最小空闲连接，调高后立即补足，不等下一次空闲检测。
+ * 集群模式下JedisCluster在内部借用连接，不经过{@link #borrow}，只按等待线程数判断竞争。
+ */
+@Slf4j
+class JedisPoolManager implements AutoCloseable {
+    private static final long SLOW_BORROW_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long ADAPT_INTERVAL_MILLIS = 10000;
+    private static final int CALM_PERIODS_BEFORE_SHRINK = 6;
+
+    private final IRedisConfig config;
+    private final Supplier<Collection<? extends GenericObjectPool<?>>> pools;
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LongAdder slowBorrows = new LongAdder();
+    /**
+     * 每个连接池的慢借用次数，主从和集群模式下只调整出现竞争的节点
+     */
+    private final Map<GenericObjectPool<?>, LongAdder> poolSlowBorrows = new ConcurrentHashMap<>();
+    private final LongAdder resizes = new LongAdder();
+    private final Map<GenericObjectPool<?>, PoolState> states = new IdentityHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param config Redis配置
+     * @param pools 当前所有节点的连接池，主从和集群模式下节点会变化，每次使用时重新获取
+     */
+    JedisPoolManager(IRedisConfig config, Supplier<Collection<? extends GenericObjectPool<?>>> pools) {
+        this.config = config;
+        this.pools = pools;
+    }
+
+    /**
+     * 按配置设置连接池参数
+     * @param poolConfig 连接池配置
+     * @param config Redis配置
+     * @return 连接池配置
+     */
+    static <T extends GenericObjectPoolConfig<?>> T configure(T poolConfig, IRedisConfig config) {
+        int maxTotal = config.getMaxConnections();
+        int maxIdle = maxIdle(config);
+        poolConfig.setMaxTotal(maxTotal);
+        poolConfig.setMaxIdle(maxIdle);
+        poolConfig.setMinIdle(minIdle(config));
+        poolConfig.setMaxWait(Duration.ofMillis(config.getPoolMaxWaitMillis() < 0 ? -1 : config.getPoolMaxWaitMillis()));
+        poolConfig.setTestOnBorrow(config.isTestOnBorrow());
+        poolConfig.setTestOnReturn(false);
+        // 空闲检测线程校验并回收空闲连接，代替每次借用前的PING
+        boolean idleCheck = config.getIdleCheckIntervalMillis() > 0;
+        poolConfig.setTestWhileIdle(idleCheck);
+        poolConfig.setTimeBetweenEvictionRuns(Duration.ofMillis(idleCheck ? config.getIdleCheckIntervalMillis() : -1));
+        poolConfig.setMinEvictableIdleTime(Duration.ofMillis(config.getMinEvictableIdleMillis()));
+        poolConfig.setNumTestsPerEvictionRun(-1);
+        return poolConfig;
+    }
+
+    /**
+     * 从连接池借用连接并记录等待耗时
+     * @param pool 连接池
+     * @return 连接
+     */
+    Jedis borrow(Pool<Jedis> pool) {
+        long start = System.nanoTime();
+        Jedis jedis = pool.getResource();
+        long elapsed = System.nanoTime() - start;
+        borrowWait.record(elapsed);
+        if (elapsed > SLOW_BORROW_NANOS) {
+            slowBorrows.increment();
+            poolSlowBorrows.computeIfAbsent(pool, key -> new LongAdder()).increment();
+        }
+        return jedis;
+    }
+
+    /**
+     * 把所有连接池预热到最小空闲连接数，失败只记录日志，连接在首次使用时再创建
+     */
+    void prewarm() {
+        for (GenericObjectPool<?> pool : pools.get()) {
+            try {
+                pool.preparePool();
+            } catch (Exception e) {
+                log.warn("Failed to prewarm Redis connection pool: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 启动自适应调整
+     */
+    synchronized void startAdaptive() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "anysdk-redis-pool-tuner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::adaptQuietly, ADAPT_INTERVAL_MILLIS, ADAPT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 获取所有连接池的统计快照
+     * @return 统计快照
+     */
+    PoolStats stats() {
+        int count = 0;
+        int active = 0;
+        int idle = 0;
+        int waiters = 0;
+        int maxIdle = maxIdle(config);
+        int minIdle = minIdle(config);
+        long created = 0;
+        long destroyed = 0;
+        long borrowed = 0;
+        for (GenericObjectPool<?> pool : pools.get()) {
+            if (count == 0) {
+                maxIdle = pool.getMaxIdle();
+                minIdle = pool.getMinIdle();
+            }
+            count++;
+            active += pool.getNumActive();
+            idle += pool.getNumIdle();
+            waiters += pool.getNumWaiters();
+            created += pool.getCreatedCount();
+            destroyed += pool.getDestroyedCount();
+            borrowed += pool.getBorrowedCount();
+        }
+        return new PoolStats(count, active, idle, waiters, config.getMaxConnections(), maxIdle, minIdle,
+                created, destroyed, borrowed, slowBorrows.sum(), resizes.sum(), borrowWait.snapshot());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void adaptQuietly() {
+        try {
+            adapt();
+        } catch (Exception e) {
+            log.warn("Failed to adapt Redis connection pool: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void adapt() {
+        int maxTotal = config.getMaxConnections();
+        int baseMaxIdle = maxIdle(config);
+        int baseMinIdle = minIdle(config);
+        int step = Math.max(1, maxTotal / 8);
+
+        Map<GenericObjectPool<?>, PoolState> current = new IdentityHashMap<>();
+        for (GenericObjectPool<?> pool : pools.get()) {
+            LongAdder poolSlow = poolSlowBorrows.get(pool);
+            long slow = poolSlow == null ? 0 : poolSlow.sum();
+            PoolState state = states.get(pool);
+            if (state == null) {
+                state = new PoolState(slow);
+            }
+            current.put(pool, state);
+
+            boolean contended = pool.getNumWaiters() > 0 || slow > state.slowBorrows;
+            state.slowBorrows = slow;
+
+            int maxIdle = pool.getMaxIdle();
+            int minIdle = pool.getMinIdle();
+            int newMaxIdle = maxIdle;
+            int newMinIdle = minIdle;
+            if (contended) {
+                state.calmPeriods = 0;
+                newMaxIdle = Math.min(maxTotal, Math.max(maxIdle, pool.getNumActive() + pool.getNumIdle()) + step);
+                newMinIdle = Math.min(newMaxIdle, minIdle + step);
+            } else if (++state.calmPeriods >= CALM_PERIODS_BEFORE_SHRINK) {
+                state.calmPeriods = 0;
+                newMinIdle = Math.max(baseMinIdle, minIdle - step);
+                newMaxIdle = Math.max(baseMaxIdle, Math.max(newMinIdle, maxIdle - step));
+            }
+            if (newMaxIdle != maxIdle || newMinIdle != minIdle) {
+                // 先调大最大空闲连接数再调大最小空闲连接数，回落时顺序相反，始终保持minIdle<=maxIdle
+                if (newMaxIdle > maxIdle) {
+                    pool.setMaxIdle(newMaxIdle);
+                    pool.setMinIdle(newMinIdle);
+                } else {
+                    pool.setMinIdle(newMinIdle);
+                    pool.setMaxIdle(newMaxIdle);
+                }
+                if (newMinIdle > minIdle) {
+                    fill(pool);
+                }
+                resizes.increment();
+                log.debug("Resized Redis connection pool: maxIdle {} -> {}, minIdle {} -> {}",
+                        maxIdle, newMaxIdle, minIdle, newMinIdle);
+            }
+        }
+        states.clear();
+        states.putAll(current);
+        // 已下线节点的连接池不再统计
+        poolSlowBorrows.keySet().retainAll(current.keySet());
+    }
+
+    /**
+     * 补足到最小空闲连接数，失败时由后续借用或空闲检测补足
+     */
+    private static void fill(GenericObjectPool<?> pool) {
+        try {
+            pool.preparePool();
+        } catch (Exception e) {
+            log.warn("Failed to grow Redis connection pool to minIdle {}: {}", pool.getMinIdle(), e.getMessage());
+        }
+    }
+
+    private static int maxIdle(IRedisConfig config) {
+        int maxTotal = config.getMaxConnections();
+        if (config.isVirtualThreads()) {
+            return maxTotal;
+        }
+        return config.getMaxIdle() < 0 ? maxTotal : Math.min(config.getMaxIdle(), maxTotal);
+    }
+
+    /**
+     * 虚拟线程模式下连接池保持满员：commons-pool创建连接时在同步块内等待，会钉住载体线程，
+     * 连接全部预先建立后借用只经过基于ReentrantLock的空闲队列
+     */
+    private static int minIdle(IRedisConfig config) {
+        if (config.isVirtualThreads()) {
+            return config.getMaxConnections();
+        }
+        return Math.max(0, Math.min(config.getMinIdle(), maxIdle(config)));
+    }
+
+    /**
+     * 单个连接池上一次检查时的计数
+     */
+    private static final class PoolState {
+        private long slowBorrows;
+        private int calmPeriods;
+
+        private PoolState(long slowBorrows) {
+            this.slowBorrows = slowBorrows;
+        }
+    }
+}
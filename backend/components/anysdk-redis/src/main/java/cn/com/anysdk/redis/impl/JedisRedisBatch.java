@@ -0,0 +1,102 @@
+package cn.com.anysdk.redis.impl;
+
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.commands.PipelineCommands;
+import redis.clients.jedis.params.RestoreParams;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于Jedis Pipeline的批量操作实现
+ * 集群模式下使用ClusterPipeline，命令按键所在节点分组发送
+ */
+class JedisRedisBatch extends AbstractRedisBatch {
+    private final JedisRedisService redisService;
+
+    JedisRedisBatch(JedisRedisService redisService, int maxBatchSize) {
+        super(maxBatchSize);
+        this.redisService = redisService;
+    }
+
+    @Override
+    protected List<?> executePipeline(List<BatchCommand> chunk) {
+        List<Response<?>> responses = new ArrayList<>(chunk.size());
+        redisService.pipelined(pipeline -> {
+            for (BatchCommand command : chunk) {
+                responses.add(queue(pipeline, command));
+            }
+        });
+
+        List<Object> replies = new ArrayList<>(responses.size());
+        for (Response<?> response : responses) {
+            replies.add(response.get());
+        }
+        return replies;
+    }
+
+    private Response<?> queue(PipelineCommands pipeline, BatchCommand command) {
+        String key = command.getKey();
+        switch (command.getType()) {
+            case SET:
+                return pipeline.set(key, command.getString(0));
+            case SET_EX:
+                return pipeline.psetex(key, command.getLong(1), command.getString(0));
+            case GET:
+                return pipeline.get(key);
+            case DELETE:
+                return pipeline.del(key);
+            case EXPIRE:
+                return pipeline.pexpire(key, command.getLong(0));
+            case HSET:
+                return pipeline.hset(key, command.getString(0), command.getString(1));
+            case HGET:
+                return pipeline.hget(key, command.getString(0));
+            case HSET_ALL:
+                Map<String, String> stringMap = new HashMap<>();
+                command.getMap(0).forEach((k, v) -> stringMap.put(k, String.valueOf(v)));
+                return pipeline.hmset(key, stringMap);
+            case LPUSH:
+                return pipeline.lpush(key, command.getString(0));
+            case RPUSH:
+                return pipeline.rpush(key, command.getString(0));
+            case SADD:
+                return pipeline.sadd(key, command.getStrings(0));
+            case INCRBY:
+                return pipeline.incrBy(key, command.getLong(0));
+            case ZADD:
+                return pipeline.zadd(key, command.getDouble(0), command.getString(1));
+            case ZINCRBY:
+                return pipeline.zincrby(key, command.getDouble(0), command.getString(1));
+            case ZREMRANGEBYSCORE:
+                return pipeline.zremrangeByScore(key, command.getDouble(0), command.getDouble(1));
+            case ZCARD:
+                return pipeline.zcard(key);
+            case XADD:
+                return pipeline.xadd(key, JedisRedisService.xAddParams(command.getLong(1)), command.getStringMap(0));
+            case XACK: {
+                String[] ids = command.getStrings(1);
+                StreamEntryID[] entryIds = new StreamEntryID[ids.length];
+                for (int i = 0; i < ids.length; i++) {
+                    entryIds[i] = JedisRedisService.entryId(ids[i]);
+                }
+                return pipeline.xack(key, command.getString(0), entryIds);
+            }
+            case HINCRBY:
+                return pipeline.hincrBy(key, command.getString(0), command.getLong(1));
+            case DUMP:
+                return pipeline.dump(key);
+            case RESTORE:
+                return command.getBoolean(2)
+                        ? pipeline.restore(key, command.getLong(0), command.getBytes(1), RestoreParams.restoreParams().replace())
+                        : pipeline.restore(key, command.getLong(0), command.getBytes(1));
+            case PTTL:
+                return pipeline.pttl(key);
+            default:
+                throw new IllegalStateException("Unsupported batch command: " + command.getType());
+        }
+    }
+}
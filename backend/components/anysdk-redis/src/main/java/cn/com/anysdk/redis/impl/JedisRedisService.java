@@ -2,205 +2,937 @@ package cn.com.anysdk.redis.impl;
 
 import cn.com.anysdk.redis.api.IRedisConfig;
 import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.RedisMessageListener;
+import cn.com.anysdk.redis.api.RedisSubscription;
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
+import cn.com.anysdk.redis.cluster.ClusterSlots;
 import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.monitor.PoolStats;
 import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.ClusterPipeline;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisSentinelPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.commands.JedisBinaryCommands;
+import redis.clients.jedis.commands.JedisCommands;
+import redis.clients.jedis.commands.PipelineBinaryCommands;
+import redis.clients.jedis.commands.PipelineCommands;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.RestoreParams;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.params.XAddParams;
+import redis.clients.jedis.params.XAutoClaimParams;
+import redis.clients.jedis.params.XReadGroupParams;
+import redis.clients.jedis.resps.ScanResult;
+import redis.clients.jedis.resps.Tuple;
+import redis.clients.jedis.util.Pool;
+import redis.clients.jedis.util.SafeEncoder;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Jedis实现的Redis服务
+ * <p>
+ * 单机模式使用{@link JedisPool}，集群模式使用{@link JedisCluster}，后者按CRC16槽位路由命令并自动跟随MOVED/ASK重定向。
+ * 集群模式下的多键操作先按槽位拆分，再通过{@link ClusterPipeline}按节点分组发送，每个节点一次往返。
+ * 哨兵模式使用{@link JedisSentinelPool}，哨兵和静态主从模式下的读命令由{@link JedisReplicaRouter}按读路由策略分发。
  */
 @Slf4j
 public class JedisRedisService implements IRedisService {
-    private final JedisPool jedisPool;
+    private final Pool<Jedis> jedisPool;
+    private final JedisCluster jedisCluster;
+    private final JedisReplicaRouter replicaRouter;
+    private final JedisPoolManager poolManager;
     private final IRedisConfig config;
 
     public JedisRedisService(IRedisConfig config) {
         this.config = config;
-        
-        JedisPoolConfig poolConfig = new JedisPoolConfig();
-        poolConfig.setMaxTotal(config.getMaxConnections());
-        poolConfig.setMaxIdle(config.getMaxConnections() / 4);
-        poolConfig.setMinIdle(1);
-        poolConfig.setTestOnBorrow(true);
-        
-        this.jedisPool = new JedisPool(
-                poolConfig,
-                config.getHost(),
-                config.getPort(),
-                config.getConnectTimeout(),
-                config.getPassword().isEmpty() ? null : config.getPassword(),
-                config.getDatabase(),
-                config.isUseSsl()
-        );
-        
-        log.info("Initialized Jedis Redis service with host: {}, port: {}", config.getHost(), config.getPort());
+
+        if (config.isClusterMode()) {
+            if (!IRedisConfig.READ_FROM_MASTER.equalsIgnoreCase(config.getReadFrom())) {
+                log.warn("JedisCluster does not support replica reads, ignoring readFrom: {}", config.getReadFrom());
+            }
+            this.jedisPool = null;
+            this.replicaRouter = null;
+            this.jedisCluster = createCluster(config);
+            this.poolManager = new JedisPoolManager(config, () -> jedisCluster.getClusterNodes().values());
+            initPool();
+            log.info("Initialized Jedis Redis cluster service with nodes: {}", config.getNodes());
+            return;
+        }
+
+        JedisPoolConfig poolConfig = JedisPoolManager.configure(new JedisPoolConfig(), config);
+
+        if (config.isSentinelMode()) {
+            // 哨兵连接池在故障转移后自动切换到新的主节点
+            this.jedisPool = new JedisSentinelPool(
+                    config.getSentinelMaster(),
+                    new HashSet<>(RedisNodes.seedNodes(config)),
+                    poolConfig,
+                    config.getConnectTimeout(),
+                    config.getPassword().isEmpty() ? null : config.getPassword(),
+                    config.getDatabase()
+            );
+        } else {
+            this.jedisPool = new JedisPool(
+                    poolConfig,
+                    config.getHost(),
+                    config.getPort(),
+                    config.getConnectTimeout(),
+                    config.getPassword().isEmpty() ? null : config.getPassword(),
+                    config.getDatabase(),
+                    config.isUseSsl()
+            );
+        }
+        this.jedisCluster = null;
+
+        boolean replicaReads = (config.isSentinelMode() || config.isMasterReplicaMode())
+                && !IRedisConfig.READ_FROM_MASTER.equalsIgnoreCase(config.getReadFrom());
+        this.replicaRouter = replicaReads ? new JedisReplicaRouter(config, poolConfig, jedisPool) : null;
+        this.poolManager = new JedisPoolManager(config, () -> {
+            List<Pool<Jedis>> pools = new ArrayList<>();
+            pools.add(jedisPool);
+            if (replicaRouter != null) {
+                pools.addAll(replicaRouter.replicaPools());
+            }
+            return pools;
+        });
+        initPool();
+
+        if (config.isSentinelMode()) {
+            log.info("Initialized Jedis Redis sentinel service with master: {}, sentinels: {}, readFrom: {}",
+                    config.getSentinelMaster(), config.getNodes(), config.getReadFrom());
+        } else if (config.isMasterReplicaMode()) {
+            log.info("Initialized Jedis Redis master-replica service with host: {}, port: {}, replicas: {}, readFrom: {}",
+                    config.getHost(), config.getPort(), config.getNodes(), config.getReadFrom());
+        } else {
+            log.info("Initialized Jedis Redis service with host: {}, port: {}", config.getHost(), config.getPort());
+        }
+    }
+
+    private static JedisCluster createCluster(IRedisConfig config) {
+        Set<HostAndPort> nodes = new HashSet<>();
+        for (String node : RedisNodes.seedNodes(config)) {
+            nodes.add(new HostAndPort(RedisNodes.host(node), RedisNodes.port(node)));
+        }
+        // 集群不支持选择数据库，忽略database配置
+        JedisClientConfig clientConfig = DefaultJedisClientConfig.builder()
+                .connectionTimeoutMillis(config.getConnectTimeout())
+                .socketTimeoutMillis(config.getOperationTimeout())
+                .password(config.getPassword().isEmpty() ? null : config.getPassword())
+                .ssl(config.isUseSsl())
+                .build();
+        ConnectionPoolConfig poolConfig = JedisPoolManager.configure(new ConnectionPoolConfig(), config);
+        return new JedisCluster(nodes, clientConfig, config.getMaxRedirects(), poolConfig);
+    }
+
+    private void initPool() {
+        // 虚拟线程模式下连接池固定满员，总是预热，不做自适应调整
+        if (config.isPrewarmPool() || config.isVirtualThreads()) {
+            poolManager.prewarm();
+        }
+        if (config.isAdaptivePool() && !config.isVirtualThreads()) {
+            poolManager.startAdaptive();
+        }
+    }
+
+    /**
+     * 获取连接池统计快照，主从和哨兵模式下包含从节点连接池
+     * 集群模式下连接由JedisCluster内部借用，不统计借用等待耗时
+     * @return 统计快照
+     */
+    public PoolStats getPoolStats() {
+        return poolManager.stats();
     }
 
     @Override
     public void set(String key, String value) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.set(key, value);
-        } catch (Exception e) {
-            throw new RedisException("Failed to set value: " + e.getMessage(), e);
-        }
+        execute("Failed to set value", jedis -> jedis.set(key, value));
     }
 
     @Override
     public void set(String key, String value, long timeout, TimeUnit unit) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.setex(key, (int) unit.toSeconds(timeout), value);
-        } catch (Exception e) {
-            throw new RedisException("Failed to set value with expiration: " + e.getMessage(), e);
-        }
+        execute("Failed to set value with expiration", jedis -> jedis.psetex(key, unit.toMillis(timeout), value));
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        return execute("Failed to set value if absent",
+                jedis -> "OK".equals(jedis.set(key, value, SetParams.setParams().nx().px(unit.toMillis(timeout)))));
     }
 
     @Override
     public String get(String key) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.get(key);
-        } catch (Exception e) {
-            throw new RedisException("Failed to get value: " + e.getMessage(), e);
-        }
+        return executeRead("Failed to get value", jedis -> jedis.get(key));
     }
 
     @Override
     public boolean delete(String key) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.del(key) > 0;
-        } catch (Exception e) {
-            throw new RedisException("Failed to delete key: " + e.getMessage(), e);
-        }
+        return execute("Failed to delete key", jedis -> jedis.del(key) > 0);
     }
 
     @Override
     public long delete(List<String> keys) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.del(keys.toArray(new String[0]));
-        } catch (Exception e) {
-            throw new RedisException("Failed to delete keys: " + e.getMessage(), e);
+        if (jedisCluster != null) {
+            // 集群模式下DEL只能操作同一槽位的键
+            return mDelete(keys);
         }
+        return execute("Failed to delete keys", jedis -> jedis.del(keys.toArray(new String[0])));
     }
 
     @Override
     public boolean expire(String key, long timeout, TimeUnit unit) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.expire(key, (int) unit.toSeconds(timeout)) == 1;
-        } catch (Exception e) {
-            throw new RedisException("Failed to set expiration: " + e.getMessage(), e);
-        }
+        return execute("Failed to set expiration", jedis -> jedis.pexpire(key, unit.toMillis(timeout)) == 1);
     }
 
     @Override
     public boolean hasKey(String key) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.exists(key);
-        } catch (Exception e) {
-            throw new RedisException("Failed to check key existence: " + e.getMessage(), e);
-        }
+        return executeRead("Failed to check key existence", jedis -> jedis.exists(key));
     }
 
     @Override
     public long getExpire(String key, TimeUnit unit) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            long seconds = jedis.ttl(key);
-            return seconds > 0 ? unit.convert(seconds, TimeUnit.SECONDS) : seconds;
-        } catch (Exception e) {
-            throw new RedisException("Failed to get expiration: " + e.getMessage(), e);
-        }
+        long millis = executeRead("Failed to get expiration", jedis -> jedis.pttl(key));
+        return millis > 0 ? unit.convert(millis, TimeUnit.MILLISECONDS) : millis;
+    }
+
+    @Override
+    public byte[] dump(String key) {
+        return executeRead("Failed to dump key", jedis -> jedis.dump(key));
+    }
+
+    @Override
+    public void restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        execute("Failed to restore key", jedis -> replace
+                ? jedis.restore(key, ttlMillis, serialized, RestoreParams.restoreParams().replace())
+                : jedis.restore(key, ttlMillis, serialized));
+    }
+
+    @Override
+    public long incr(String key) {
+        return execute("Failed to increment value", jedis -> jedis.incr(key));
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        return execute("Failed to increment value", jedis -> jedis.incrBy(key, delta));
+    }
+
+    @Override
+    public long hIncrBy(String key, String field, long delta) {
+        return execute("Failed to increment hash field", jedis -> jedis.hincrBy(key, field, delta));
     }
 
     @Override
     public void hSet(String key, String field, Object value) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.hset(key, field, String.valueOf(value));
-        } catch (Exception e) {
-            throw new RedisException("Failed to set hash field: " + e.getMessage(), e);
-        }
+        execute("Failed to set hash field", jedis -> jedis.hset(key, field, String.valueOf(value)));
     }
 
     @Override
     public Object hGet(String key, String field) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.hget(key, field);
-        } catch (Exception e) {
-            throw new RedisException("Failed to get hash field: " + e.getMessage(), e);
-        }
+        return executeRead("Failed to get hash field", jedis -> jedis.hget(key, field));
     }
 
     @Override
     public void hSetAll(String key, Map<String, Object> map) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            Map<String, String> stringMap = new HashMap<>();
-            map.forEach((k, v) -> stringMap.put(k, String.valueOf(v)));
-            jedis.hmset(key, stringMap);
-        } catch (Exception e) {
-            throw new RedisException("Failed to set all hash fields: " + e.getMessage(), e);
-        }
+        Map<String, String> stringMap = new HashMap<>();
+        map.forEach((k, v) -> stringMap.put(k, String.valueOf(v)));
+        execute("Failed to set all hash fields", jedis -> jedis.hmset(key, stringMap));
     }
 
     @Override
     public Map<Object, Object> hGetAll(String key) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            Map<String, String> map = jedis.hgetAll(key);
-            Map<Object, Object> result = new HashMap<>();
-            map.forEach(result::put);
-            return result;
-        } catch (Exception e) {
-            throw new RedisException("Failed to get all hash fields: " + e.getMessage(), e);
-        }
+        Map<String, String> map = executeRead("Failed to get all hash fields", jedis -> jedis.hgetAll(key));
+        Map<Object, Object> result = new HashMap<>();
+        map.forEach(result::put);
+        return result;
     }
 
     @Override
     public long lPush(String key, String value) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.lpush(key, value);
+        return execute("Failed to push to list", jedis -> jedis.lpush(key, value));
+    }
+
+    @Override
+    public long rPush(String key, String value) {
+        return execute("Failed to push to list", jedis -> jedis.rpush(key, value));
+    }
+
+    @Override
+    public List<String> lRange(String key, long start, long end) {
+        return executeRead("Failed to get list range", jedis -> jedis.lrange(key, start, end));
+    }
+
+    @Override
+    public long sAdd(String key, String... values) {
+        return execute("Failed to add to set", jedis -> jedis.sadd(key, values));
+    }
+
+    @Override
+    public Set<String> sMembers(String key) {
+        return executeRead("Failed to get set members", jedis -> jedis.smembers(key));
+    }
+
+    @Override
+    public long zAdd(String key, double score, String member) {
+        return execute("Failed to add to sorted set", jedis -> jedis.zadd(key, score, member));
+    }
+
+    @Override
+    public long zAdd(String key, Collection<ScoredMember> members) {
+        if (members.isEmpty()) {
+            return 0;
+        }
+        Map<String, Double> scoreMembers = new HashMap<>(members.size() * 2);
+        for (ScoredMember member : members) {
+            scoreMembers.put(member.getMember(), member.getScore());
+        }
+        return execute("Failed to add to sorted set", jedis -> jedis.zadd(key, scoreMembers));
+    }
+
+    @Override
+    public double zIncrBy(String key, double increment, String member) {
+        return execute("Failed to increment sorted set score", jedis -> jedis.zincrby(key, increment, member));
+    }
+
+    @Override
+    public Double zScore(String key, String member) {
+        return executeRead("Failed to get sorted set score", jedis -> jedis.zscore(key, member));
+    }
+
+    @Override
+    public long zRank(String key, String member) {
+        Long rank = executeRead("Failed to get sorted set rank", jedis -> jedis.zrank(key, member));
+        return rank == null ? -1 : rank;
+    }
+
+    @Override
+    public long zRevRank(String key, String member) {
+        Long rank = executeRead("Failed to get sorted set rank", jedis -> jedis.zrevrank(key, member));
+        return rank == null ? -1 : rank;
+    }
+
+    @Override
+    public long zCard(String key) {
+        return executeRead("Failed to get sorted set size", jedis -> jedis.zcard(key));
+    }
+
+    @Override
+    public List<ScoredMember> zRangeByScore(String key, double min, double max, long offset, long count) {
+        return executeRead("Failed to get sorted set range", jedis -> scoredMembers(offset == 0 && count < 0
+                ? jedis.zrangeByScoreWithScores(key, min, max)
+                : jedis.zrangeByScoreWithScores(key, min, max, (int) Math.min(offset, Integer.MAX_VALUE),
+                        (int) Math.max(-1, Math.min(count, Integer.MAX_VALUE)))));
+    }
+
+    @Override
+    public List<ScoredMember> zRevRange(String key, long start, long end) {
+        return executeRead("Failed to get sorted set range",
+                jedis -> scoredMembers(jedis.zrevrangeWithScores(key, start, end)));
+    }
+
+    @Override
+    public long zRemRangeByScore(String key, double min, double max) {
+        return execute("Failed to remove sorted set range", jedis -> jedis.zremrangeByScore(key, min, max));
+    }
+
+    @Override
+    public List<ScoredMember> zPopMin(String key, int count) {
+        return execute("Failed to pop from sorted set", jedis -> scoredMembers(jedis.zpopmin(key, count)));
+    }
+
+    @Override
+    public String xAdd(String key, Map<String, String> fields, long maxLen) {
+        return execute("Failed to add stream entry", jedis -> jedis.xadd(key, xAddParams(maxLen), fields).toString());
+    }
+
+    @Override
+    public long xLen(String key) {
+        return executeRead("Failed to get stream length", jedis -> jedis.xlen(key));
+    }
+
+    @Override
+    public boolean xGroupCreate(String key, String group, String startId) {
+        return execute("Failed to create consumer group", jedis -> {
+            try {
+                jedis.xgroupCreate(key, group, entryId(startId), true);
+                return true;
+            } catch (JedisDataException e) {
+                if (e.getMessage() != null && e.getMessage().startsWith("BUSYGROUP")) {
+                    return false;
+                }
+                throw e;
+            }
+        });
+    }
+
+    @Override
+    public List<StreamEntry> xReadGroup(String key, String group, String consumer, int count, long blockMillis) {
+        XReadGroupParams params = XReadGroupParams.xReadGroupParams().count(count);
+        if (blockMillis > 0) {
+            // 带BLOCK的命令在Jedis中不受读超时限制
+            params.block((int) Math.min(blockMillis, Integer.MAX_VALUE));
+        }
+        List<Map.Entry<String, List<redis.clients.jedis.resps.StreamEntry>>> reply = execute("Failed to read stream group",
+                jedis -> jedis.xreadGroup(group, consumer, params, Collections.singletonMap(key, StreamEntryID.UNRECEIVED_ENTRY)));
+        if (reply == null || reply.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return streamEntries(reply.get(0).getValue(), new ArrayList<>());
+    }
+
+    @Override
+    public long xAck(String key, String group, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        StreamEntryID[] entryIds = new StreamEntryID[ids.size()];
+        int i = 0;
+        for (String id : ids) {
+            entryIds[i++] = entryId(id);
+        }
+        return execute("Failed to acknowledge stream entries", jedis -> jedis.xack(key, group, entryIds));
+    }
+
+    @Override
+    public StreamClaimResult xAutoClaim(String key, String group, String consumer, long minIdleMillis, String startId, int count) {
+        Map.Entry<StreamEntryID, List<redis.clients.jedis.resps.StreamEntry>> reply = execute("Failed to claim stream entries",
+                jedis -> jedis.xautoclaim(key, group, consumer, minIdleMillis, entryId(startId),
+                        XAutoClaimParams.xAutoClaimParams().count(count)));
+        List<String> deletedIds = new ArrayList<>();
+        List<StreamEntry> entries = streamEntries(reply.getValue(), deletedIds);
+        return new StreamClaimResult(reply.getKey().toString(), entries, deletedIds);
+    }
+
+    @Override
+    public List<StreamGroupInfo> xInfoGroups(String key) {
+        // 按原始回复解析，Jedis的StreamGroupInfo不包含Redis 7.0新增的lag
+        Object reply = executeRead("Failed to get stream groups", jedis -> jedisCluster != null
+                ? jedisCluster.sendCommand(key, Protocol.Command.XINFO, "GROUPS", key)
+                : ((Jedis) jedis).sendCommand(Protocol.Command.XINFO, "GROUPS", key));
+        return StreamReplies.groupInfos((List<?>) reply);
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            // 超过批量大小（集群模式下还按槽位）拆分为多条MGET，在同一管道中发送
+            List<int[]> groups = keyGroups(keys);
+            List<Response<List<String>>> responses = new ArrayList<>(groups.size());
+            pipelinedRead(pipeline -> {
+                for (int[] group : groups) {
+                    responses.add(pipeline.mget(keysAt(keys, group)));
+                }
+            });
+
+            String[] values = new String[keys.size()];
+            for (int g = 0; g < groups.size(); g++) {
+                int[] group = groups.get(g);
+                List<String> reply = responses.get(g).get();
+                for (int i = 0; i < group.length; i++) {
+                    values[group[i]] = reply.get(i);
+                }
+            }
+            return new ArrayList<>(Arrays.asList(values));
         } catch (Exception e) {
-            throw new RedisException("Failed to push to list: " + e.getMessage(), e);
+            throw new RedisException("Failed to get values: " + e.getMessage(), e);
         }
     }
 
     @Override
-    public long rPush(String key, String value) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.rpush(key, value);
+    public void mSet(Map<String, String> map) {
+        if (map.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> keys = new ArrayList<>(map.keySet());
+            List<int[]> groups = keyGroups(keys);
+            pipelined(pipeline -> {
+                for (int[] group : groups) {
+                    String[] keysValues = new String[group.length * 2];
+                    for (int i = 0; i < group.length; i++) {
+                        String key = keys.get(group[i]);
+                        keysValues[i * 2] = key;
+                        keysValues[i * 2 + 1] = map.get(key);
+                    }
+                    pipeline.mset(keysValues);
+                }
+            });
         } catch (Exception e) {
-            throw new RedisException("Failed to push to list: " + e.getMessage(), e);
+            throw new RedisException("Failed to set values: " + e.getMessage(), e);
         }
     }
 
     @Override
-    public List<String> lRange(String key, long start, long end) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.lrange(key, start, end);
+    public long mDelete(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        try {
+            List<int[]> groups = keyGroups(keys);
+            List<Response<Long>> responses = new ArrayList<>(groups.size());
+            pipelined(pipeline -> {
+                for (int[] group : groups) {
+                    responses.add(pipeline.del(keysAt(keys, group)));
+                }
+            });
+
+            long deleted = 0;
+            for (Response<Long> response : responses) {
+                deleted += response.get();
+            }
+            return deleted;
         } catch (Exception e) {
-            throw new RedisException("Failed to get list range: " + e.getMessage(), e);
+            throw new RedisException("Failed to delete keys: " + e.getMessage(), e);
         }
     }
 
     @Override
-    public long sAdd(String key, String... values) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.sadd(key, values);
+    public RedisBatch batch() {
+        return new JedisRedisBatch(this, config.getMaxBatchSize());
+    }
+
+    @Override
+    public Stream<String> scanKeys(String pattern, int count) {
+        ScanParams params = scanParams(pattern, count);
+        if (jedisCluster == null) {
+            return ScanStreams.stream(ScanParams.SCAN_POINTER_START, cursor -> {
+                ScanResult<String> result = executeRead("Failed to scan keys", jedis -> jedis.scan((String) cursor, params));
+                return new ScanStreams.Page<>(result.getCursor(), result.getResult(), result.isCompleteIteration());
+            }, "Failed to scan keys");
+        }
+
+        // 集群模式下SCAN只遍历单个节点，需要逐个主节点遍历；每页单独借用连接，流未遍历完也不会占用连接
+        List<ConnectionPool> masters = masterPools();
+        return ScanStreams.stream(new NodeCursor(0, ScanParams.SCAN_POINTER_START), cursor -> {
+            NodeCursor nodeCursor = (NodeCursor) cursor;
+            if (nodeCursor.node >= masters.size()) {
+                return new ScanStreams.Page<String>(nodeCursor, null, true);
+            }
+            ScanResult<String> result;
+            try (Jedis jedis = new Jedis(masters.get(nodeCursor.node).getResource())) {
+                result = jedis.scan(nodeCursor.cursor, params);
+            }
+            NodeCursor next = result.isCompleteIteration()
+                    ? new NodeCursor(nodeCursor.node + 1, ScanParams.SCAN_POINTER_START)
+                    : new NodeCursor(nodeCursor.node, result.getCursor());
+            return new ScanStreams.Page<>(next, result.getResult(), next.node >= masters.size());
+        }, "Failed to scan keys");
+    }
+
+    @Override
+    public Stream<Map.Entry<String, Object>> hScan(String key, String pattern, int count) {
+        ScanParams params = scanParams(pattern, count);
+        return ScanStreams.stream(ScanParams.SCAN_POINTER_START, cursor -> {
+            ScanResult<Map.Entry<String, String>> result = executeRead("Failed to scan hash",
+                    jedis -> jedis.hscan(key, (String) cursor, params));
+            List<Map.Entry<String, Object>> entries = new ArrayList<>(result.getResult().size());
+            for (Map.Entry<String, String> entry : result.getResult()) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+            }
+            return new ScanStreams.Page<>(result.getCursor(), entries, result.isCompleteIteration());
+        }, "Failed to scan hash");
+    }
+
+    @Override
+    public Stream<String> sScan(String key, String pattern, int count) {
+        ScanParams params = scanParams(pattern, count);
+        return ScanStreams.stream(ScanParams.SCAN_POINTER_START, cursor -> {
+            ScanResult<String> result = executeRead("Failed to scan set", jedis -> jedis.sscan(key, (String) cursor, params));
+            return new ScanStreams.Page<>(result.getCursor(), result.getResult(), result.isCompleteIteration());
+        }, "Failed to scan set");
+    }
+
+    @Override
+    public Stream<ScoredMember> zScan(String key, String pattern, int count) {
+        ScanParams params = scanParams(pattern, count);
+        return ScanStreams.stream(ScanParams.SCAN_POINTER_START, cursor -> {
+            ScanResult<Tuple> result = executeRead("Failed to scan sorted set", jedis -> jedis.zscan(key, (String) cursor, params));
+            List<ScoredMember> members = new ArrayList<>(result.getResult().size());
+            for (Tuple tuple : result.getResult()) {
+                members.add(new ScoredMember(tuple.getElement(), tuple.getScore()));
+            }
+            return new ScanStreams.Page<>(result.getCursor(), members, result.isCompleteIteration());
+        }, "Failed to scan sorted set");
+    }
+
+    IRedisConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public long publish(String channel, String message) {
+        // PUBLISH不在JedisCommands接口中，集群模式下任一节点都会把消息广播到整个集群
+        return execute("Failed to publish message", jedis -> jedisCluster != null
+                ? jedisCluster.publish(channel, message) : ((Jedis) jedis).publish(channel, message));
+    }
+
+    @Override
+    public RedisSubscription subscribe(RedisMessageListener listener, String... channels) {
+        if (jedisCluster != null) {
+            return new JedisSubscription(listener, channels, pubSub -> jedisCluster.subscribe(pubSub, channels),
+                    config.getOperationTimeout());
+        }
+        return new JedisSubscription(listener, channels, () -> poolManager.borrow(jedisPool), config.getOperationTimeout());
+    }
+
+    @Override
+    public String scriptLoad(String script) {
+        if (jedisCluster == null) {
+            return execute("Failed to load script", jedis -> ((Jedis) jedis).scriptLoad(script));
+        }
+        // 脚本缓存是节点本地的，加载到所有节点（包括从节点），故障转移后新的主节点也能直接执行
+        String sha1 = null;
+        for (ConnectionPool pool : jedisCluster.getClusterNodes().values()) {
+            try (Jedis jedis = new Jedis(pool.getResource())) {
+                sha1 = jedis.scriptLoad(script);
+            } catch (Exception e) {
+                log.warn("Skipping unreachable cluster node while loading script: {}", e.getMessage());
+            }
+        }
+        if (sha1 == null) {
+            throw new RedisException("Failed to load script: no reachable cluster node");
+        }
+        return sha1;
+    }
+
+    @Override
+    public Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args) {
+        Object result = execute("Failed to evaluate script", jedis -> jedis.evalsha(sha1, keys, args));
+        return convertScriptResult(result, returnType);
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        return executeBinaryRead("Failed to get bytes", jedis -> jedis.get(SafeEncoder.encode(key)));
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value) {
+        executeBinary("Failed to set bytes", jedis -> jedis.set(SafeEncoder.encode(key), value));
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        executeBinary("Failed to set bytes with expiration",
+                jedis -> jedis.psetex(SafeEncoder.encode(key), unit.toMillis(timeout), value));
+    }
+
+    @Override
+    public List<byte[]> mGetBytes(List<String> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            List<int[]> groups = keyGroups(keys);
+            List<Response<List<byte[]>>> responses = new ArrayList<>(groups.size());
+            pipelinedRead(pipeline -> {
+                // Pipeline和ClusterPipeline同时实现了字符串和二进制命令接口
+                PipelineBinaryCommands binaryPipeline = (PipelineBinaryCommands) pipeline;
+                for (int[] group : groups) {
+                    responses.add(binaryPipeline.mget(SafeEncoder.encodeMany(keysAt(keys, group))));
+                }
+            });
+
+            byte[][] values = new byte[keys.size()][];
+            for (int g = 0; g < groups.size(); g++) {
+                int[] group = groups.get(g);
+                List<byte[]> reply = responses.get(g).get();
+                for (int i = 0; i < group.length; i++) {
+                    values[group[i]] = reply.get(i);
+                }
+            }
+            return new ArrayList<>(Arrays.asList(values));
         } catch (Exception e) {
-            throw new RedisException("Failed to add to set: " + e.getMessage(), e);
+            throw new RedisException("Failed to get bytes: " + e.getMessage(), e);
         }
     }
 
     @Override
-    public Set<String> sMembers(String key) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.smembers(key);
+    public byte[] hGetBytes(String key, String field) {
+        return executeBinaryRead("Failed to get hash field bytes",
+                jedis -> jedis.hget(SafeEncoder.encode(key), SafeEncoder.encode(field)));
+    }
+
+    @Override
+    public void hSetBytes(String key, String field, byte[] value) {
+        executeBinary("Failed to set hash field bytes",
+                jedis -> jedis.hset(SafeEncoder.encode(key), SafeEncoder.encode(field), value));
+    }
+
+    @Override
+    public Map<String, byte[]> hGetAllBytes(String key) {
+        Map<byte[], byte[]> map = executeBinaryRead("Failed to get all hash field bytes",
+                jedis -> jedis.hgetAll(SafeEncoder.encode(key)));
+        Map<String, byte[]> result = new HashMap<>(map.size() * 4 / 3 + 1);
+        map.forEach((field, value) -> result.put(SafeEncoder.encode(field), value));
+        return result;
+    }
+
+    private static List<ScoredMember> scoredMembers(List<Tuple> tuples) {
+        List<ScoredMember> members = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            members.add(new ScoredMember(tuple.getElement(), tuple.getScore()));
+        }
+        return members;
+    }
+
+    private static List<StreamEntry> streamEntries(List<redis.clients.jedis.resps.StreamEntry> entries, List<String> deletedIds) {
+        List<StreamEntry> result = new ArrayList<>(entries.size());
+        for (redis.clients.jedis.resps.StreamEntry entry : entries) {
+            if (entry == null) {
+                continue;
+            }
+            if (entry.getFields() == null) {
+                // Redis 6.2的XAUTOCLAIM对已删除的消息返回空字段
+                deletedIds.add(entry.getID().toString());
+            } else {
+                result.add(new StreamEntry(entry.getID().toString(), entry.getFields()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 转换消息ID，支持$、>和只有毫秒时间戳部分的ID
+     */
+    static StreamEntryID entryId(String id) {
+        switch (id) {
+            case "$":
+                return StreamEntryID.LAST_ENTRY;
+            case ">":
+                return StreamEntryID.UNRECEIVED_ENTRY;
+            default:
+                return new StreamEntryID(StreamReplies.fullId(id));
+        }
+    }
+
+    static XAddParams xAddParams(long maxLen) {
+        XAddParams params = XAddParams.xAddParams();
+        return maxLen > 0 ? params.maxLen(maxLen).approximateTrimming() : params;
+    }
+
+    /**
+     * 获取一条连接执行命令，集群模式下直接由JedisCluster路由
+     * @param errorMessage 失败时的错误信息
+     * @param action 命令
+     * @return 命令结果
+     */
+    private <T> T execute(String errorMessage, Function<JedisCommands, T> action) {
+        if (jedisCluster != null) {
+            try {
+                return action.apply(jedisCluster);
+            } catch (Exception e) {
+                throw new RedisException(errorMessage + ": " + e.getMessage(), e);
+            }
+        }
+        try (Jedis jedis = poolManager.borrow(jedisPool)) {
+            return action.apply(jedis);
         } catch (Exception e) {
-            throw new RedisException("Failed to get set members: " + e.getMessage(), e);
+            throw new RedisException(errorMessage + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 执行只读命令，配置了读路由时发往选中的节点，从节点连接失败时回退到主节点
+     * @param errorMessage 失败时的错误信息
+     * @param action 命令
+     * @return 命令结果
+     */
+    private <T> T executeRead(String errorMessage, Function<JedisCommands, T> action) {
+        Pool<Jedis> pool = replicaRouter == null ? jedisPool : replicaRouter.select();
+        if (pool == jedisPool) {
+            return execute(errorMessage, action);
+        }
+        try (Jedis jedis = poolManager.borrow(pool)) {
+            return action.apply(jedis);
+        } catch (JedisConnectionException e) {
+            replicaRouter.markFailed(pool);
+            return execute(errorMessage, action);
+        } catch (Exception e) {
+            throw new RedisException(errorMessage + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 执行二进制命令，Jedis和JedisCluster同时实现了字符串和二进制命令接口
+     * @param errorMessage 失败时的错误信息
+     * @param action 命令
+     * @return 命令结果
+     */
+    private <T> T executeBinary(String errorMessage, Function<JedisBinaryCommands, T> action) {
+        return execute(errorMessage, jedis -> action.apply((JedisBinaryCommands) jedis));
+    }
+
+    private <T> T executeBinaryRead(String errorMessage, Function<JedisBinaryCommands, T> action) {
+        return executeRead(errorMessage, jedis -> action.apply((JedisBinaryCommands) jedis));
+    }
+
+    /**
+     * 在管道中执行命令，返回前完成同步，之后即可读取各命令的响应
+     * 集群模式下每条命令必须只涉及一个槽位
+     * @param queue 写入命令
+     */
+    void pipelined(Consumer<PipelineCommands> queue) {
+        if (jedisCluster != null) {
+            try (ClusterPipeline pipeline = jedisCluster.pipelined()) {
+                queue.accept(pipeline);
+                pipeline.sync();
+            }
+            return;
+        }
+        pipelined(jedisPool, queue);
+    }
+
+    /**
+     * 在管道中执行只读命令，配置了读路由时发往选中的节点
+     * @param queue 写入命令
+     */
+    private void pipelinedRead(Consumer<PipelineCommands> queue) {
+        Pool<Jedis> pool = replicaRouter == null ? null : replicaRouter.select();
+        if (pool == null || pool == jedisPool) {
+            pipelined(queue);
+            return;
+        }
+        try {
+            pipelined(pool, queue);
+        } catch (JedisConnectionException e) {
+            replicaRouter.markFailed(pool);
+            pipelined(queue);
+        }
+    }
+
+    private void pipelined(Pool<Jedis> pool, Consumer<PipelineCommands> queue) {
+        try (Jedis jedis = poolManager.borrow(pool)) {
+            Pipeline pipeline = jedis.pipelined();
+            queue.accept(pipeline);
+            pipeline.sync();
+        }
+    }
+
+    /**
+     * 将键按批量大小拆分，集群模式下先按槽位分组
+     * @param keys 键列表
+     * @return 每组键在原列表中的下标
+     */
+    private List<int[]> keyGroups(List<String> keys) {
+        int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+        List<int[]> groups = new ArrayList<>();
+        if (jedisCluster == null) {
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                int[] group = new int[Math.min(batchSize, keys.size() - from)];
+                for (int i = 0; i < group.length; i++) {
+                    group[i] = from + i;
+                }
+                groups.add(group);
+            }
+            return groups;
+        }
+        for (List<Integer> slotGroup : ClusterSlots.groupBySlot(keys).values()) {
+            for (int from = 0; from < slotGroup.size(); from += batchSize) {
+                int[] group = new int[Math.min(batchSize, slotGroup.size() - from)];
+                for (int i = 0; i < group.length; i++) {
+                    group[i] = slotGroup.get(from + i);
+                }
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    private List<ConnectionPool> masterPools() {
+        List<ConnectionPool> masters = new ArrayList<>();
+        for (ConnectionPool pool : jedisCluster.getClusterNodes().values()) {
+            try (Jedis jedis = new Jedis(pool.getResource())) {
+                if (jedis.info("replication").contains("role:master")) {
+                    masters.add(pool);
+                }
+            } catch (Exception e) {
+                log.warn("Skipping unreachable cluster node while scanning keys: {}", e.getMessage());
+            }
+        }
+        return masters;
+    }
+
+    /**
+     * 把Jedis返回的原始回复转换为约定的返回值类型
+     * Lua的true和false分别返回整数1和nil
+     */
+    private static Object convertScriptResult(Object result, ScriptReturnType returnType) {
+        switch (returnType) {
+            case BOOLEAN:
+                return result instanceof Long ? (Long) result == 1L : result != null;
+            case INTEGER:
+                return result;
+            case STATUS:
+            case VALUE:
+                return result instanceof byte[] ? SafeEncoder.encode((byte[]) result) : result;
+            case MULTI:
+            default:
+                return result;
+        }
+    }
+
+    private static ScanParams scanParams(String pattern, int count) {
+        ScanParams params = new ScanParams().count(count);
+        if (pattern != null) {
+            params.match(pattern);
+        }
+        return params;
+    }
+
+    private static String[] keysAt(List<String> keys, int[] group) {
+        String[] result = new String[group.length];
+        for (int i = 0; i < group.length; i++) {
+            result[i] = keys.get(group[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 集群键遍历游标：当前主节点下标及该节点上的SCAN游标
+     */
+    private static final class NodeCursor {
+        private final int node;
+        private final String cursor;
+
+        private NodeCursor(int node, String cursor) {
+            this.node = node;
+            this.cursor = cursor;
         }
     }
 }
\ No newline at end of file
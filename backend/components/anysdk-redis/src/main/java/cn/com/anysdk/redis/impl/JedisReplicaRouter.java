@@ -0,0 +1,213 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.exception.RedisException;
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.util.Pool;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Jedis读操作路由
+ * <p>
+ * 维护从节点连接池并按读路由策略选择读操作使用的连接池：
+ * <ul>
+ *     <li>replica-preferred：在可用从节点间轮询，没有可用从节点时使用主节点</li>
+ *     <li>nearest：定期PING主节点和从节点，选择平滑后延迟最低的节点</li>
+ * </ul>
+ * 哨兵模式下定期通过SENTINEL REPLICAS刷新从节点列表，静态主从模式使用配置的从节点。
+ * 从节点连接失败后在下一次探测成功前不再被选中。
+ */
+@Slf4j
+class JedisReplicaRouter implements AutoCloseable {
+    private static final long REFRESH_INTERVAL_MILLIS = 5000;
+
+    private final IRedisConfig config;
+    private final JedisPoolConfig poolConfig;
+    private final Node primary;
+    private final boolean nearest;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+    private volatile List<Node> replicas = new ArrayList<>();
+
+    JedisReplicaRouter(IRedisConfig config, JedisPoolConfig poolConfig, Pool<Jedis> primaryPool) {
+        this.config = config;
+        this.poolConfig = poolConfig;
+        this.primary = new Node("primary", primaryPool);
+        this.nearest = IRedisConfig.READ_FROM_NEAREST.equalsIgnoreCase(config.getReadFrom());
+
+        refresh();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "anysdk-redis-replica-router");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, REFRESH_INTERVAL_MILLIS, REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 选择读操作使用的连接池
+     * @return 连接池
+     */
+    Pool<Jedis> select() {
+        List<Node> current = replicas;
+        if (nearest) {
+            Node best = primary;
+            for (Node node : current) {
+                if (node.healthy && node.latencyNanos < best.latencyNanos) {
+                    best = node;
+                }
+            }
+            return best.pool;
+        }
+        int size = current.size();
+        int start = roundRobin.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Node node = current.get((start + i) % size);
+            if (node.healthy) {
+                return node.pool;
+            }
+        }
+        return primary.pool;
+    }
+
+    /**
+     * 标记连接池不可用，直到下一次探测成功
+     * @param pool 连接池
+     */
+    void markFailed(Pool<Jedis> pool) {
+        for (Node node : replicas) {
+            if (node.pool == pool) {
+                node.healthy = false;
+                log.warn("Redis replica {} marked unavailable for reads", node.address);
+            }
+        }
+    }
+
+    /**
+     * 获取当前所有从节点的连接池
+     * @return 从节点连接池
+     */
+    List<Pool<Jedis>> replicaPools() {
+        List<Pool<Jedis>> pools = new ArrayList<>();
+        for (Node node : replicas) {
+            pools.add(node.pool);
+        }
+        return pools;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (Node node : replicas) {
+            node.pool.close();
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Failed to refresh Redis replicas: {}", e.getMessage());
+        }
+    }
+
+    private void refresh() {
+        List<String> addresses = config.isSentinelMode() ? discoverReplicas() : RedisNodes.seedNodes(config);
+
+        Map<String, Node> existing = new LinkedHashMap<>();
+        for (Node node : replicas) {
+            existing.put(node.address, node);
+        }
+        List<Node> updated = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            Node node = existing.remove(address);
+            if (node == null) {
+                node = new Node(address, createPool(address));
+                log.info("Added Redis replica {} for reads", address);
+            }
+            updated.add(node);
+        }
+        replicas = updated;
+        for (Node removed : existing.values()) {
+            log.info("Removed Redis replica {} from reads", removed.address);
+            removed.pool.close();
+        }
+
+        if (nearest) {
+            probe(primary);
+        }
+        for (Node node : updated) {
+            probe(node);
+        }
+    }
+
+    private List<String> discoverReplicas() {
+        for (String sentinel : RedisNodes.seedNodes(config)) {
+            try (Jedis jedis = new Jedis(new HostAndPort(RedisNodes.host(sentinel), RedisNodes.port(sentinel)),
+                    config.getConnectTimeout())) {
+                List<String> addresses = new ArrayList<>();
+                for (Map<String, String> replica : jedis.sentinelReplicas(config.getSentinelMaster())) {
+                    String flags = replica.getOrDefault("flags", "");
+                    if (flags.contains("s_down") || flags.contains("o_down") || flags.contains("disconnected")) {
+                        continue;
+                    }
+                    addresses.add(replica.get("ip") + ":" + replica.get("port"));
+                }
+                return addresses;
+            } catch (Exception e) {
+                log.debug("Failed to query sentinel {}: {}", sentinel, e.getMessage());
+            }
+        }
+        throw new RedisException("Failed to discover replicas from sentinels: " + config.getNodes());
+    }
+
+    private void probe(Node node) {
+        long start = System.nanoTime();
+        try (Jedis jedis = node.pool.getResource()) {
+            jedis.ping();
+            long sample = System.nanoTime() - start;
+            // 指数加权平均，避免单次抖动导致频繁切换节点
+            node.latencyNanos = node.latencyNanos == Long.MAX_VALUE ? sample : (node.latencyNanos * 7 + sample) / 8;
+            node.healthy = true;
+        } catch (Exception e) {
+            node.latencyNanos = Long.MAX_VALUE;
+            node.healthy = false;
+        }
+    }
+
+    private JedisPool createPool(String address) {
+        return new JedisPool(
+                poolConfig,
+                RedisNodes.host(address),
+                RedisNodes.port(address),
+                config.getConnectTimeout(),
+                config.getPassword().isEmpty() ? null : config.getPassword(),
+                config.getDatabase(),
+                config.isUseSsl()
+        );
+    }
+
+    private static final class Node {
+        private final String address;
+        private final Pool<Jedis> pool;
+        private volatile long latencyNanos = Long.MAX_VALUE;
+        private volatile boolean healthy;
+
+        private Node(String address, Pool<Jedis> pool) {
+            this.address = address;
+            this.pool = pool;
+        }
+    }
+}
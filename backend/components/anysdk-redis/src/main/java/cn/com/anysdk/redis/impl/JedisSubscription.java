@@ -0,0 +1,175 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.RedisMessageListener;
+import cn.com.anysdk.redis.api.RedisSubscription;
+import cn.com.anysdk.redis.exception.RedisException;
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Jedis订阅句柄
+ * Jedis的SUBSCRIBE会阻塞调用线程直到取消订阅，这里在独立的守护线程上执行，连接断开后间隔重连并重新订阅。
+ * 与Lettuce、Redisson一致，构造时等待所有频道订阅成功后才返回。
+ * 中断不能唤醒阻塞在套接字上的读取，关闭时先取消订阅，订阅线程未及时退出时断开其持有的连接
+ */
+@Slf4j
+class JedisSubscription implements RedisSubscription {
+    private static final long RECONNECT_INTERVAL_MILLIS = 1000;
+
+    private final String[] channels;
+    private final JedisPubSub pubSub;
+    private final Supplier<Jedis> connections;
+    private final Consumer<JedisPubSub> clusterSubscriber;
+    private final long timeoutMillis;
+    private final CountDownLatch subscribed = new CountDownLatch(1);
+    private final Thread worker;
+    private volatile boolean running = true;
+    private volatile Jedis connection;
+
+    /**
+     * 单机、主从和哨兵模式：每次订阅从连接池借用一条连接
+     * @param listener 消息监听器
+     * @param channels 频道
+     * @param connections 借用订阅连接
+     * @param timeoutMillis 等待订阅成功和关闭的超时时间
+     */
+    JedisSubscription(RedisMessageListener listener, String[] channels, Supplier<Jedis> connections, long timeoutMillis) {
+        this(listener, channels, connections, null, timeoutMillis);
+    }
+
+    /**
+     * 集群模式：由JedisCluster选择节点执行阻塞订阅
+     * @param listener 消息监听器
+     * @param channels 频道
+     * @param clusterSubscriber 在连接上执行阻塞订阅
+     * @param timeoutMillis 等待订阅成功和关闭的超时时间
+     */
+    JedisSubscription(RedisMessageListener listener, String[] channels, Consumer<JedisPubSub> clusterSubscriber,
+                      long timeoutMillis) {
+        this(listener, channels, null, clusterSubscriber, timeoutMillis);
+    }
+
+    private JedisSubscription(RedisMessageListener listener, String[] channels, Supplier<Jedis> connections,
+                              Consumer<JedisPubSub> clusterSubscriber, long timeoutMillis) {
+        this.channels = channels;
+        this.connections = connections;
+        this.clusterSubscriber = clusterSubscriber;
+        this.timeoutMillis = timeoutMillis;
+        this.pubSub = new JedisPubSub() {
+            @Override
+            public void onMessage(String channel, String message) {
+                try {
+                    listener.onMessage(channel, message);
+                } catch (Exception e) {
+                    log.warn("Redis message listener failed on channel: {}: {}", channel, e.getMessage());
+                }
+            }
+
+            @Override
+            public void onSubscribe(String channel, int subscribedChannels) {
+                if (!running) {
+                    // 订阅确认之前已关闭，close()中的取消订阅被跳过，在这里补上
+                    unsubscribe();
+                } else if (subscribedChannels >= channels.length) {
+                    subscribed.countDown();
+                }
+            }
+        };
+        this.worker = new Thread(this::runLoop, "anysdk-redis-subscriber");
+        this.worker.setDaemon(true);
+        this.worker.start();
+        awaitSubscribed();
+    }
+
+    private void awaitSubscribed() {
+        boolean active;
+        try {
+            active = subscribed.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new RedisException("Failed to subscribe: interrupted", e);
+        }
+        if (!active) {
+            close();
+            throw new RedisException("Failed to subscribe: no confirmation for " + Arrays.toString(channels)
+                    + " within " + timeoutMillis + "ms");
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                if (clusterSubscriber != null) {
+                    clusterSubscriber.accept(pubSub);
+                } else {
+                    subscribe();
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Subscription to {} lost, reconnecting in {}ms: {}",
+                        Arrays.toString(channels), RECONNECT_INTERVAL_MILLIS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_INTERVAL_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 订阅期间占用一条连接池连接
+     */
+    private void subscribe() {
+        try (Jedis jedis = connections.get()) {
+            connection = jedis;
+            // 借用连接期间可能已关闭
+            if (running) {
+                jedis.subscribe(pubSub, channels);
+            }
+        } finally {
+            connection = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (pubSub.isSubscribed()) {
+            try {
+                pubSub.unsubscribe();
+            } catch (Exception e) {
+                log.debug("Failed to unsubscribe from {}: {}", Arrays.toString(channels), e.getMessage());
+            }
+        }
+        worker.interrupt();
+        if (Thread.currentThread() == worker) {
+            return;
+        }
+        try {
+            worker.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Jedis current = connection;
+        if (worker.isAlive() && current != null) {
+            // 取消订阅未生效（如连接无响应），断开连接使阻塞的读取失败
+            try {
+                current.disconnect();
+            } catch (Exception e) {
+                log.debug("Failed to disconnect subscription to {}: {}", Arrays.toString(channels), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.cache.InvalidationSource;
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于Jedis RESP2重定向的失效通知来源
+ * <p>
+ * Jedis 4.x只支持RESP2，因此使用两条连接：订阅连接订阅__redis__:invalidate频道，
+ * 跟踪连接以广播模式开启CLIENT TRACKING并把通知重定向到订阅连接。
+ * 失效消息的负载是键数组，JedisPubSub无法解析，这里直接在订阅连接上读取原始回复。
+ * 任一连接断开时清空本地缓存并重建跟踪关系。跟踪连接平时空闲，断开时服务端静默取消跟踪且不会产生任何通知，
+ * 因此由检查线程定期PING跟踪连接，失败时关闭订阅连接，让读取线程按连接断开处理。
+ */
+@Slf4j
+public class JedisTrackingInvalidationSource implements InvalidationSource {
+    private static final String INVALIDATE_CHANNEL = "__redis__:invalidate";
+    private static final long RECONNECT_INTERVAL_MILLIS = 1000;
+    private static final long HEALTH_CHECK_INTERVAL_MILLIS = 5000;
+
+    private final IRedisConfig config;
+    private final List<String> prefixes;
+    private volatile boolean running;
+    private volatile Jedis subscriber;
+    private volatile Jedis tracker;
+    private volatile boolean tracking;
+    private Thread worker;
+    private Thread healthChecker;
+
+    public JedisTrackingInvalidationSource(IRedisConfig config, List<String> prefixes) {
+        this.config = config;
+        this.prefixes = prefixes == null ? new ArrayList<>() : new ArrayList<>(prefixes);
+    }
+
+    @Override
+    public void start(InvalidationListener listener) {
+        running = true;
+        worker = new Thread(() -> runLoop(listener), "anysdk-redis-tracking");
+        worker.setDaemon(true);
+        worker.start();
+        healthChecker = new Thread(this::healthCheckLoop, "anysdk-redis-tracking-health");
+        healthChecker.setDaemon(true);
+        healthChecker.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        closeQuietly(subscriber);
+        closeQuietly(tracker);
+        if (worker != null) {
+            worker.interrupt();
+        }
+        if (healthChecker != null) {
+            healthChecker.interrupt();
+        }
+    }
+
+    private void runLoop(InvalidationListener listener) {
+        while (running) {
+            tracking = false;
+            try (Jedis subscriberConnection = connect(0); Jedis trackerConnection = connect(config.getOperationTimeout())) {
+                subscriber = subscriberConnection;
+                tracker = trackerConnection;
+
+                long clientId = subscriberConnection.clientId();
+                Connection connection = subscriberConnection.getConnection();
+                connection.sendCommand(Protocol.Command.SUBSCRIBE, INVALIDATE_CHANNEL);
+                connection.getObjectMultiBulkReply();
+                trackerConnection.sendCommand(Protocol.Command.CLIENT, trackingArgs(clientId));
+                // 跟踪建立之前的修改无法感知，清空一次本地缓存
+                listener.onInvalidateAll();
+                log.info("Enabled Jedis client tracking on host: {}, port: {}, prefixes: {}",
+                        config.getHost(), config.getPort(), prefixes);
+                tracking = true;
+
+                while (running) {
+                    dispatch(connection.getUnflushedObjectMultiBulkReply(), listener);
+                }
+            } catch (Exception e) {
+                tracking = false;
+                if (!running) {
+                    break;
+                }
+                listener.onInvalidateAll();
+                log.warn("Client tracking connection lost, reconnecting in {}ms: {}", RECONNECT_INTERVAL_MILLIS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_INTERVAL_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 定期检查跟踪连接，失败时关闭订阅连接触发重连
+     */
+    private void healthCheckLoop() {
+        while (running) {
+            try {
+                Thread.sleep(HEALTH_CHECK_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Jedis trackerConnection = tracker;
+            Jedis subscriberConnection = subscriber;
+            if (!running || !tracking || trackerConnection == null) {
+                continue;
+            }
+            try {
+                trackerConnection.ping();
+            } catch (Exception e) {
+                if (running && tracking && tracker == trackerConnection) {
+                    log.warn("Client tracking connection failed health check: {}", e.getMessage());
+                    closeQuietly(subscriberConnection);
+                }
+            }
+        }
+    }
+
+    private void dispatch(List<Object> reply, InvalidationListener listener) {
+        if (reply == null || reply.size() < 3 || !"message".equals(SafeEncoder.encode((byte[]) reply.get(0)))) {
+            return;
+        }
+        Object payload = reply.get(2);
+        if (payload instanceof List) {
+            for (Object key : (List<?>) payload) {
+                listener.onInvalidate(SafeEncoder.encode((byte[]) key));
+            }
+        } else {
+            listener.onInvalidateAll();
+        }
+    }
+
+    private String[] trackingArgs(long clientId) {
+        List<String> args = new ArrayList<>();
+        args.add("TRACKING");
+        args.add("ON");
+        args.add("REDIRECT");
+        args.add(String.valueOf(clientId));
+        args.add("BCAST");
+        for (String prefix : prefixes) {
+            args.add("PREFIX");
+            args.add(prefix);
+        }
+        return args.toArray(new String[0]);
+    }
+
+    private Jedis connect(int socketTimeoutMillis) {
+        return new Jedis(new HostAndPort(config.getHost(), config.getPort()), DefaultJedisClientConfig.builder()
+                .connectionTimeoutMillis(config.getConnectTimeout())
+                .socketTimeoutMillis(socketTimeoutMillis)
+                .password(config.getPassword().isEmpty() ? null : config.getPassword())
+                .database(config.getDatabase())
+                .ssl(config.isUseSsl())
+                .build());
+    }
+
+    private static void closeQuietly(Jedis jedis) {
+        if (jedis != null) {
+            try {
+                jedis.close();
+            } catch (Exception ignored) {
+                // 关闭过程中的异常无需处理
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IAsyncRedisService;
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.exception.RedisException;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lettuce实现的异步Redis服务
+ * 直接使用Lettuce原生异步API，与同步服务共享连接组，每条命令按connectionAssignment选择连接
+ */
+@Slf4j
+public class LettuceAsyncRedisService implements IAsyncRedisService {
+    private final LettuceRedisService redisService;
+    private final IRedisConfig config;
+
+    public LettuceAsyncRedisService(IRedisConfig config) {
+        this(new LettuceRedisService(config));
+    }
+
+    public LettuceAsyncRedisService(LettuceRedisService redisService) {
+        if (redisService == null) {
+            throw new RedisException("Redis service cannot be null");
+        }
+        this.redisService = redisService;
+        this.config = redisService.getConfig();
+
+        log.info("Initialized Lettuce async Redis service with host: {}, port: {}", config.getHost(), config.getPort());
+    }
+
+    @Override
+    public CompletableFuture<Void> set(String key, String value) {
+        return AsyncResults.wrap(commands().set(key, value), "Failed to set value")
+                .thenApply(reply -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> set(String key, String value, long timeout, TimeUnit unit) {
+        SetArgs args = SetArgs.Builder.px(unit.toMillis(timeout));
+        return AsyncResults.wrap(commands().set(key, value, args), "Failed to set value with expiration")
+                .thenApply(reply -> null);
+    }
+
+    @Override
+    public CompletableFuture<String> get(String key) {
+        return AsyncResults.wrap(commands().get(key), "Failed to get value");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delete(String key) {
+        return AsyncResults.wrap(commands().del(key), "Failed to delete key")
+                .thenApply(count -> count > 0);
+    }
+
+    @Override
+    public CompletableFuture<Long> delete(List<String> keys) {
+        return AsyncResults.wrap(commands().del(keys.toArray(new String[0])), "Failed to delete keys");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        return AsyncResults.wrap(commands().pexpire(key, unit.toMillis(timeout)), "Failed to set expiration");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasKey(String key) {
+        return AsyncResults.wrap(commands().exists(key), "Failed to check key existence")
+                .thenApply(count -> count > 0);
+    }
+
+    @Override
+    public CompletableFuture<Long> getExpire(String key, TimeUnit unit) {
+        return AsyncResults.wrap(commands().pttl(key), "Failed to get expiration")
+                .thenApply(millis -> millis > 0 ? unit.convert(millis, TimeUnit.MILLISECONDS) : millis);
+    }
+
+    @Override
+    public CompletableFuture<Void> hSet(String key, String field, Object value) {
+        return AsyncResults.wrap(commands().hset(key, field, String.valueOf(value)), "Failed to set hash field")
+                .thenApply(reply -> null);
+    }
+
+    @Override
+    public CompletableFuture<Object> hGet(String key, String field) {
+        return AsyncResults.wrap(commands().hget(key, field), "Failed to get hash field")
+                .thenApply(value -> (Object) value);
+    }
+
+    @Override
+    public CompletableFuture<Void> hSetAll(String key, Map<String, Object> map) {
+        Map<String, String> stringMap = new HashMap<>();
+        map.forEach((k, v) -> stringMap.put(k, String.valueOf(v)));
+        return AsyncResults.wrap(commands().hmset(key, stringMap), "Failed to set all hash fields")
+                .thenApply(reply -> null);
+    }
+
+    @Override
+    public CompletableFuture<Map<Object, Object>> hGetAll(String key) {
+        return AsyncResults.wrap(commands().hgetall(key), "Failed to get all hash fields")
+                .thenApply(map -> new HashMap<Object, Object>(map));
+    }
+
+    @Override
+    public CompletableFuture<Long> lPush(String key, String value) {
+        return AsyncResults.wrap(commands().lpush(key, value), "Failed to push to list");
+    }
+
+    @Override
+    public CompletableFuture<Long> rPush(String key, String value) {
+        return AsyncResults.wrap(commands().rpush(key, value), "Failed to push to list");
+    }
+
+    @Override
+    public CompletableFuture<List<String>> lRange(String key, long start, long end) {
+        return AsyncResults.wrap(commands().lrange(key, start, end), "Failed to get list range");
+    }
+
+    @Override
+    public CompletableFuture<Long> sAdd(String key, String... values) {
+        return AsyncResults.wrap(commands().sadd(key, values), "Failed to add to set");
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> sMembers(String key) {
+        return AsyncResults.wrap(commands().smembers(key), "Failed to get set members");
+    }
+
+    @Override
+    public CompletableFuture<List<String>> mGet(List<String> keys) {
+        int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+        List<CompletableFuture<List<KeyValue<String, String>>>> futures = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<String> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            futures.add(AsyncResults.wrap(commands().mget(chunk.toArray(new String[0])), "Failed to get values"));
+        }
+        return AsyncResults.allOf(futures).thenApply(chunks -> {
+            List<String> values = new ArrayList<>(keys.size());
+            for (List<KeyValue<String, String>> chunk : chunks) {
+                for (KeyValue<String, String> keyValue : chunk) {
+                    values.add(keyValue.getValueOrElse(null));
+                }
+            }
+            return values;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> mSet(Map<String, String> map) {
+        int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        Map<String, String> chunk = new HashMap<>();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() >= batchSize) {
+                futures.add(AsyncResults.wrap(commands().mset(chunk), "Failed to set values"));
+                chunk = new HashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            futures.add(AsyncResults.wrap(commands().mset(chunk), "Failed to set values"));
+        }
+        return AsyncResults.allOf(futures).thenApply(replies -> null);
+    }
+
+    @Override
+    public CompletableFuture<Long> mDelete(List<String> keys) {
+        int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<String> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            futures.add(AsyncResults.wrap(commands().del(chunk.toArray(new String[0])), "Failed to delete keys"));
+        }
+        return AsyncResults.allOf(futures)
+                .thenApply(counts -> counts.stream().mapToLong(Long::longValue).sum());
+    }
+
+    private RedisClusterAsyncCommands<String, String> commands() {
+        return redisService.getAsyncCommands();
+    }
+}
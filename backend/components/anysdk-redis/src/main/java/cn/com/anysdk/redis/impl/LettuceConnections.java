@@ -0,0 +1,105 @@
+package cn.com.anysdk.redis.impl;
+
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 一组使用相同编解码器的多路复用连接
+ * <p>
+ * 同步调用会在自己的往返完成前阻塞调用线程，单条连接上所有命令由一个事件循环线程编解码，
+ * 调用线程很多时该线程成为瓶颈。多条连接分布在不同的事件循环线程上，
+ * 按轮询或线程亲和选择连接；线程亲和保证同一线程先后发出的命令在同一条连接上按序执行。
+ */
+final class LettuceConnections<V> implements AutoCloseable {
+    private final List<StatefulConnection<String, V>> connections;
+    private final List<RedisClusterCommands<String, V>> syncCommands;
+    private final List<RedisClusterAsyncCommands<String, V>> asyncCommands;
+    private final boolean threadAffinity;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param count 连接数
+     * @param threadAffinity 是否按线程固定连接
+     * @param connector 建立一条连接
+     */
+    LettuceConnections(int count, boolean threadAffinity, Supplier<StatefulConnection<String, V>> connector) {
+        int size = Math.max(1, count);
+        this.connections = new ArrayList<>(size);
+        this.syncCommands = new ArrayList<>(size);
+        this.asyncCommands = new ArrayList<>(size);
+        this.threadAffinity = threadAffinity;
+        try {
+            for (int i = 0; i < size; i++) {
+                StatefulConnection<String, V> connection = connector.get();
+                connections.add(connection);
+                syncCommands.add(sync(connection));
+                asyncCommands.add(async(connection));
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 选择一条连接的同步命令接口
+     * @return 同步命令接口
+     */
+    RedisClusterCommands<String, V> sync() {
+        return syncCommands.get(select());
+    }
+
+    /**
+     * 选择一条连接的异步命令接口
+     * @return 异步命令接口
+     */
+    RedisClusterAsyncCommands<String, V> async() {
+        return asyncCommands.get(select());
+    }
+
+    int size() {
+        return connections.size();
+    }
+
+    @Override
+    public void close() {
+        for (StatefulConnection<String, V> connection : connections) {
+            connection.close();
+        }
+    }
+
+    private int select() {
+        int size = connections.size();
+        if (size == 1) {
+            return 0;
+        }
+        if (threadAffinity) {
+            return (int) (Thread.currentThread().getId() % size);
+        }
+        return (next.getAndIncrement() & Integer.MAX_VALUE) % size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> RedisClusterCommands<String, V> sync(StatefulConnection<String, V> connection) {
+        if (connection instanceof StatefulRedisClusterConnection) {
+            return ((StatefulRedisClusterConnection<String, V>) connection).sync();
+        }
+        return ((StatefulRedisConnection<String, V>) connection).sync();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> RedisClusterAsyncCommands<String, V> async(StatefulConnection<String, V> connection) {
+        if (connection instanceof StatefulRedisClusterConnection) {
+            return ((StatefulRedisClusterConnection<String, V>) connection).async();
+        }
+        return ((StatefulRedisConnection<String, V>) connection).async();
+    }
+}
@@ -0,0 +1,119 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.exception.RedisException;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.Range;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RestoreArgs;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 基于Lettuce手动刷新的批量操作实现
+ * 使用关闭自动刷新的专用连接，命令全部写入缓冲区后一次性刷出
+ */
+class LettuceRedisBatch extends AbstractRedisBatch {
+    private final StatefulConnection<String, String> batchConnection;
+    private final RedisClusterAsyncCommands<String, String> batchCommands;
+    private final Lock batchLock;
+    private final long timeoutMillis;
+
+    LettuceRedisBatch(StatefulConnection<String, String> batchConnection,
+                      RedisClusterAsyncCommands<String, String> batchCommands, Lock batchLock,
+                      int maxBatchSize, long timeoutMillis) {
+        super(maxBatchSize);
+        this.batchConnection = batchConnection;
+        this.batchCommands = batchCommands;
+        this.batchLock = batchLock;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    protected List<?> executePipeline(List<BatchCommand> chunk) throws Exception {
+        List<RedisFuture<?>> futures = new ArrayList<>(chunk.size());
+        // 专用连接关闭了自动刷新，必须串行使用，避免不同批次的命令交叉刷出
+        batchLock.lock();
+        try {
+            for (BatchCommand command : chunk) {
+                futures.add(queue(batchCommands, command));
+            }
+            batchConnection.flushCommands();
+        } finally {
+            batchLock.unlock();
+        }
+
+        RedisFuture<?>[] futureArray = futures.toArray(new RedisFuture<?>[0]);
+        if (!LettuceFutures.awaitAll(timeoutMillis, TimeUnit.MILLISECONDS, futureArray)) {
+            throw new RedisException("Batch execution timed out after " + timeoutMillis + "ms");
+        }
+
+        List<Object> replies = new ArrayList<>(futures.size());
+        for (RedisFuture<?> future : futures) {
+            replies.add(future.get());
+        }
+        return replies;
+    }
+
+    private RedisFuture<?> queue(RedisClusterAsyncCommands<String, String> async, BatchCommand command) {
+        String key = command.getKey();
+        switch (command.getType()) {
+            case SET:
+                return async.set(key, command.getString(0));
+            case SET_EX:
+                return async.set(key, command.getString(0), SetArgs.Builder.px(command.getLong(1)));
+            case GET:
+                return async.get(key);
+            case DELETE:
+                return async.del(key);
+            case EXPIRE:
+                return async.pexpire(key, command.getLong(0));
+            case HSET:
+                return async.hset(key, command.getString(0), command.getString(1));
+            case HGET:
+                return async.hget(key, command.getString(0));
+            case HSET_ALL:
+                Map<String, String> stringMap = new HashMap<>();
+                command.getMap(0).forEach((k, v) -> stringMap.put(k, String.valueOf(v)));
+                return async.hmset(key, stringMap);
+            case LPUSH:
+                return async.lpush(key, command.getString(0));
+            case RPUSH:
+                return async.rpush(key, command.getString(0));
+            case SADD:
+                return async.sadd(key, command.getStrings(0));
+            case INCRBY:
+                return async.incrby(key, command.getLong(0));
+            case ZADD:
+                return async.zadd(key, command.getDouble(0), command.getString(1));
+            case ZINCRBY:
+                return async.zincrby(key, command.getDouble(0), command.getString(1));
+            case ZREMRANGEBYSCORE:
+                return async.zremrangebyscore(key, Range.create(command.getDouble(0), command.getDouble(1)));
+            case ZCARD:
+                return async.zcard(key);
+            case XADD:
+                return async.xadd(key, LettuceRedisService.xAddArgs(command.getLong(1)), command.getStringMap(0));
+            case XACK:
+                return async.xack(key, command.getString(0), command.getStrings(1));
+            case HINCRBY:
+                return async.hincrby(key, command.getString(0), command.getLong(1));
+            case DUMP:
+                return async.dump(key);
+            case RESTORE:
+                return async.restore(key, command.getBytes(1),
+                        new RestoreArgs().ttl(command.getLong(0)).replace(command.getBoolean(2)));
+            case PTTL:
+                return async.pttl(key);
+            default:
+                throw new IllegalStateException("Unsupported batch command: " + command.getType());
+        }
+    }
+}
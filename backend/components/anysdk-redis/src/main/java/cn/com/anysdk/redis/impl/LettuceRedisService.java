@@ -2,58 +2,251 @@ package cn.com.anysdk.redis.impl;
 
 import cn.com.anysdk.redis.api.IRedisConfig;
 import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.RedisMessageListener;
+import cn.com.anysdk.redis.api.RedisSubscription;
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
 import cn.com.anysdk.redis.exception.RedisException;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.ClaimedMessages;
+import io.lettuce.core.Consumer;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.Limit;
+import io.lettuce.core.MapScanCursor;
+import io.lettuce.core.Range;
+import io.lettuce.core.ReadFrom;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisFuture;
 import io.lettuce.core.RedisURI;
+import io.lettuce.core.RestoreArgs;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.ScoredValue;
+import io.lettuce.core.ScoredValueScanCursor;
+import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.SetArgs;
-import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.ValueScanCursor;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.XAutoClaimArgs;
+import io.lettuce.core.XGroupCreateArgs;
+import io.lettuce.core.XReadArgs;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.masterreplica.MasterReplica;
+import io.lettuce.core.masterreplica.StatefulRedisMasterReplicaConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.lettuce.core.resource.ClientResources;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Lettuce实现的Redis服务
+ * <p>
+ * 单机模式使用{@link RedisClient}，集群模式使用{@link RedisClusterClient}。
+ * 两种连接的命令接口都实现了{@link RedisClusterCommands}，因此命令代码相同；
+ * 集群连接会按槽位路由、跟随MOVED/ASK重定向，并把跨槽位的MGET/MSET/DEL拆分后并行发往各节点。
+ * 哨兵和静态主从模式使用{@link MasterReplica}连接，集群、哨兵、主从模式下的读命令都按{@link ReadFrom}策略路由。
+ * 字符串和字节命令各使用connectionCount条多路复用连接，见{@link LettuceConnections}；
+ * 事件循环线程默认在同一进程的服务实例间共享，见{@link LettuceResources}；不再使用时调用{@link #close()}释放。
  */
 @Slf4j
-public class LettuceRedisService implements IRedisService {
-    private final RedisClient redisClient;
-    private final StatefulRedisConnection<String, String> connection;
-    private final RedisCommands<String, String> commands;
+public class LettuceRedisService implements IRedisService, AutoCloseable {
+    private final ClientResources clientResources;
+    private final boolean ownsClientResources;
+    private final AbstractRedisClient redisClient;
+    private final LettuceConnections<String> connections;
+    private final StatefulConnection<String, String> batchConnection;
+    private final RedisClusterAsyncCommands<String, String> batchCommands;
+    private final LettuceConnections<byte[]> binaryConnections;
+    private final Queue<StatefulConnection<String, String>> blockingConnections = new ConcurrentLinkedQueue<>();
+    private final Lock batchLock = new ReentrantLock();
     private final IRedisConfig config;
+    private boolean closed;
 
     public LettuceRedisService(IRedisConfig config) {
+        this(config, LettuceResources.acquire(config.isSharedClientResources(), config.isCommandCoalescing()), true);
+    }
+
+    /**
+     * 使用调用方提供的客户端资源，多个服务实例可共用同一组事件循环和定时器线程
+     * 资源由调用方负责关闭，commandCoalescing配置不生效
+     * @param config Redis配置
+     * @param clientResources 客户端资源
+     */
+    public LettuceRedisService(IRedisConfig config, ClientResources clientResources) {
+        this(config, clientResources, false);
+    }
+
+    private LettuceRedisService(IRedisConfig config, ClientResources clientResources, boolean ownsClientResources) {
         this.config = config;
-        
-        RedisURI redisURI = RedisURI.builder()
-                .withHost(config.getHost())
-                .withPort(config.getPort())
+        this.clientResources = clientResources;
+        this.ownsClientResources = ownsClientResources;
+        if (config.isClusterMode()) {
+            this.redisClient = createClusterClient(config, clientResources);
+        } else if (config.isSentinelMode() || config.isMasterReplicaMode()) {
+            this.redisClient = RedisClient.create(clientResources);
+        } else {
+            this.redisClient = RedisClient.create(clientResources, buildRedisURI(config));
+        }
+
+        boolean threadAffinity = IRedisConfig.CONNECTION_ASSIGNMENT_THREAD_AFFINITY.equalsIgnoreCase(config.getConnectionAssignment());
+        this.connections = new LettuceConnections<>(config.getConnectionCount(), threadAffinity,
+                () -> connect(StringCodec.UTF8));
+        // 批量操作使用关闭自动刷新的专用连接，避免影响共享连接上的其他命令
+        this.batchConnection = connect(StringCodec.UTF8);
+        this.batchCommands = LettuceConnections.async(batchConnection);
+        this.batchConnection.setAutoFlushCommands(false);
+        // 字节接口使用值编解码器为ByteArrayCodec的连接，值原样收发，不经过字符串编解码
+        this.binaryConnections = new LettuceConnections<>(config.getConnectionCount(), threadAffinity,
+                () -> connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE)));
+
+        if (config.isClusterMode()) {
+            log.info("Initialized Lettuce Redis cluster service with nodes: {}, readFrom: {}", config.getNodes(), config.getReadFrom());
+        } else if (config.isSentinelMode()) {
+            log.info("Initialized Lettuce Redis sentinel service with master: {}, sentinels: {}, readFrom: {}",
+                    config.getSentinelMaster(), config.getNodes(), config.getReadFrom());
+        } else if (config.isMasterReplicaMode()) {
+            log.info("Initialized Lettuce Redis master-replica service with host: {}, port: {}, replicas: {}, readFrom: {}",
+                    config.getHost(), config.getPort(), config.getNodes(), config.getReadFrom());
+        } else {
+            log.info("Initialized Lettuce Redis service with host: {}, port: {}", config.getHost(), config.getPort());
+        }
+    }
+
+    /**
+     * 按部署模式建立一条使用指定编解码器的连接
+     * @param codec 编解码器
+     * @return 连接
+     */
+    private <V> StatefulConnection<String, V> connect(RedisCodec<String, V> codec) {
+        if (redisClient instanceof RedisClusterClient) {
+            StatefulRedisClusterConnection<String, V> clusterConnection = ((RedisClusterClient) redisClient).connect(codec);
+            clusterConnection.setReadFrom(readFrom(config));
+            return clusterConnection;
+        }
+        RedisClient client = (RedisClient) redisClient;
+        if (config.isSentinelMode() || config.isMasterReplicaMode()) {
+            return connectMasterReplica(client, config, codec);
+        }
+        return client.connect(codec);
+    }
+
+    /**
+     * 建立主从连接，读命令按readFrom策略路由，写命令始终发往主节点
+     * 哨兵模式从哨兵发现主从拓扑并在故障转移后自动切换；静态主从模式使用配置的主节点和从节点
+     */
+    private static <V> StatefulRedisMasterReplicaConnection<String, V> connectMasterReplica(RedisClient client, IRedisConfig config,
+                                                                                            RedisCodec<String, V> codec) {
+        StatefulRedisMasterReplicaConnection<String, V> masterReplicaConnection;
+        if (config.isSentinelMode()) {
+            masterReplicaConnection = MasterReplica.connect(client, codec, sentinelURI(config));
+        } else {
+            List<RedisURI> nodeUris = new ArrayList<>();
+            nodeUris.add(buildRedisURI(config));
+            for (String node : RedisNodes.seedNodes(config)) {
+                nodeUris.add(buildRedisURI(config, RedisNodes.host(node), RedisNodes.port(node)));
+            }
+            masterReplicaConnection = MasterReplica.connect(client, codec, nodeUris);
+        }
+        masterReplicaConnection.setReadFrom(readFrom(config));
+        return masterReplicaConnection;
+    }
+
+    private static RedisURI sentinelURI(IRedisConfig config) {
+        RedisURI.Builder builder = RedisURI.builder()
+                .withSentinelMasterId(config.getSentinelMaster())
                 .withDatabase(config.getDatabase())
                 .withTimeout(Duration.ofMillis(config.getOperationTimeout()))
-                .withSsl(config.isUseSsl())
-                .build();
-                
+                .withSsl(config.isUseSsl());
+        for (String node : RedisNodes.seedNodes(config)) {
+            builder.withSentinel(RedisNodes.host(node), RedisNodes.port(node));
+        }
+        RedisURI sentinelURI = builder.build();
         if (!config.getPassword().isEmpty()) {
-            redisURI.setPassword(config.getPassword());
+            sentinelURI.setPassword(config.getPassword());
+        }
+        return sentinelURI;
+    }
+
+    /**
+     * 将配置的读路由策略转换为Lettuce的ReadFrom
+     */
+    static ReadFrom readFrom(IRedisConfig config) {
+        String readFrom = config.getReadFrom() == null ? IRedisConfig.READ_FROM_MASTER : config.getReadFrom();
+        switch (readFrom.toLowerCase()) {
+            case IRedisConfig.READ_FROM_MASTER:
+                return ReadFrom.MASTER;
+            case IRedisConfig.READ_FROM_REPLICA_PREFERRED:
+                return ReadFrom.REPLICA_PREFERRED;
+            case IRedisConfig.READ_FROM_NEAREST:
+                return ReadFrom.LOWEST_LATENCY;
+            default:
+                throw new RedisException("Unsupported read routing policy: " + readFrom);
         }
-        
-        this.redisClient = RedisClient.create(redisURI);
-        this.connection = redisClient.connect();
-        this.commands = connection.sync();
-        
-        log.info("Initialized Lettuce Redis service with host: {}, port: {}", config.getHost(), config.getPort());
+    }
+
+    private static RedisClusterClient createClusterClient(IRedisConfig config, ClientResources clientResources) {
+        List<RedisURI> seedUris = new ArrayList<>();
+        for (String node : RedisNodes.seedNodes(config)) {
+            RedisURI redisURI = RedisURI.builder()
+                    .withHost(RedisNodes.host(node))
+                    .withPort(RedisNodes.port(node))
+                    .withTimeout(Duration.ofMillis(config.getOperationTimeout()))
+                    .withSsl(config.isUseSsl())
+                    .build();
+            if (!config.getPassword().isEmpty()) {
+                redisURI.setPassword(config.getPassword());
+            }
+            seedUris.add(redisURI);
+        }
+
+        RedisClusterClient clusterClient = RedisClusterClient.create(clientResources, seedUris);
+        // 收到MOVED/ASK或持续重连时刷新拓扑，避免槽位迁移后反复重定向
+        clusterClient.setOptions(ClusterClientOptions.builder()
+                .maxRedirects(config.getMaxRedirects())
+                .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                        .enableAllAdaptiveRefreshTriggers()
+                        .build())
+                .build());
+        return clusterClient;
     }
 
     @Override
     public void set(String key, String value) {
         try {
-            commands.set(key, value);
+            connections.sync().set(key, value);
         } catch (Exception e) {
             throw new RedisException("Failed to set value: " + e.getMessage(), e);
         }
@@ -63,16 +256,25 @@ public class LettuceRedisService implements IRedisService {
     public void set(String key, String value, long timeout, TimeUnit unit) {
         try {
             SetArgs args = SetArgs.Builder.px(unit.toMillis(timeout));
-            commands.set(key, value, args);
+            connections.sync().set(key, value, args);
         } catch (Exception e) {
             throw new RedisException("Failed to set value with expiration: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        try {
+            return "OK".equals(connections.sync().set(key, value, SetArgs.Builder.nx().px(unit.toMillis(timeout))));
+        } catch (Exception e) {
+            throw new RedisException("Failed to set value if absent: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public String get(String key) {
         try {
-            return commands.get(key);
+            return connections.sync().get(key);
         } catch (Exception e) {
             throw new RedisException("Failed to get value: " + e.getMessage(), e);
         }
@@ -81,7 +283,7 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public boolean delete(String key) {
         try {
-            return commands.del(key) > 0;
+            return connections.sync().del(key) > 0;
         } catch (Exception e) {
             throw new RedisException("Failed to delete key: " + e.getMessage(), e);
         }
@@ -90,7 +292,7 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public long delete(List<String> keys) {
         try {
-            return commands.del(keys.toArray(new String[0]));
+            return connections.sync().del(keys.toArray(new String[0]));
         } catch (Exception e) {
             throw new RedisException("Failed to delete keys: " + e.getMessage(), e);
         }
@@ -99,7 +301,7 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public boolean expire(String key, long timeout, TimeUnit unit) {
         try {
-            return commands.expire(key, unit.toSeconds(timeout));
+            return connections.sync().pexpire(key, unit.toMillis(timeout));
         } catch (Exception e) {
             throw new RedisException("Failed to set expiration: " + e.getMessage(), e);
         }
@@ -108,7 +310,7 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public boolean hasKey(String key) {
         try {
-            return commands.exists(key) > 0;
+            return connections.sync().exists(key) > 0;
         } catch (Exception e) {
             throw new RedisException("Failed to check key existence: " + e.getMessage(), e);
         }
@@ -117,17 +319,62 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public long getExpire(String key, TimeUnit unit) {
         try {
-            long seconds = commands.ttl(key);
-            return seconds > 0 ? unit.convert(seconds, TimeUnit.SECONDS) : seconds;
+            long millis = connections.sync().pttl(key);
+            return millis > 0 ? unit.convert(millis, TimeUnit.MILLISECONDS) : millis;
         } catch (Exception e) {
             throw new RedisException("Failed to get expiration: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public byte[] dump(String key) {
+        try {
+            return connections.sync().dump(key);
+        } catch (Exception e) {
+            throw new RedisException("Failed to dump key: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        try {
+            connections.sync().restore(key, serialized, new RestoreArgs().ttl(ttlMillis).replace(replace));
+        } catch (Exception e) {
+            throw new RedisException("Failed to restore key: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long incr(String key) {
+        try {
+            return connections.sync().incr(key);
+        } catch (Exception e) {
+            throw new RedisException("Failed to increment value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        try {
+            return connections.sync().incrby(key, delta);
+        } catch (Exception e) {
+            throw new RedisException("Failed to increment value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long hIncrBy(String key, String field, long delta) {
+        try {
+            return connections.sync().hincrby(key, field, delta);
+        } catch (Exception e) {
+            throw new RedisException("Failed to increment hash field: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public void hSet(String key, String field, Object value) {
         try {
-            commands.hset(key, field, String.valueOf(value));
+            connections.sync().hset(key, field, String.valueOf(value));
         } catch (Exception e) {
             throw new RedisException("Failed to set hash field: " + e.getMessage(), e);
         }
@@ -136,7 +383,7 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public Object hGet(String key, String field) {
         try {
-            return commands.hget(key, field);
+            return connections.sync().hget(key, field);
         } catch (Exception e) {
             throw new RedisException("Failed to get hash field: " + e.getMessage(), e);
         }
@@ -147,7 +394,7 @@ public class LettuceRedisService implements IRedisService {
         try {
             Map<String, String> stringMap = new HashMap<>();
             map.forEach((k, v) -> stringMap.put(k, String.valueOf(v)));
-            commands.hmset(key, stringMap);
+            connections.sync().hmset(key, stringMap);
         } catch (Exception e) {
             throw new RedisException("Failed to set all hash fields: " + e.getMessage(), e);
         }
@@ -156,7 +403,7 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public Map<Object, Object> hGetAll(String key) {
         try {
-            Map<String, String> map = commands.hgetall(key);
+            Map<String, String> map = connections.sync().hgetall(key);
             Map<Object, Object> result = new HashMap<>();
             map.forEach(result::put);
             return result;
@@ -168,7 +415,7 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public long lPush(String key, String value) {
         try {
-            return commands.lpush(key, value);
+            return connections.sync().lpush(key, value);
         } catch (Exception e) {
             throw new RedisException("Failed to push to list: " + e.getMessage(), e);
         }
@@ -177,7 +424,7 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public long rPush(String key, String value) {
         try {
-            return commands.rpush(key, value);
+            return connections.sync().rpush(key, value);
         } catch (Exception e) {
             throw new RedisException("Failed to push to list: " + e.getMessage(), e);
         }
@@ -186,7 +433,7 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public List<String> lRange(String key, long start, long end) {
         try {
-            return commands.lrange(key, start, end);
+            return connections.sync().lrange(key, start, end);
         } catch (Exception e) {
             throw new RedisException("Failed to get list range: " + e.getMessage(), e);
         }
@@ -195,7 +442,7 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public long sAdd(String key, String... values) {
         try {
-            return commands.sadd(key, values);
+            return connections.sync().sadd(key, values);
         } catch (Exception e) {
             throw new RedisException("Failed to add to set: " + e.getMessage(), e);
         }
@@ -204,23 +451,596 @@ public class LettuceRedisService implements IRedisService {
     @Override
     public Set<String> sMembers(String key) {
         try {
-            return commands.smembers(key);
+            return connections.sync().smembers(key);
         } catch (Exception e) {
             throw new RedisException("Failed to get set members: " + e.getMessage(), e);
         }
     }
-    
+
+    @Override
+    public long zAdd(String key, double score, String member) {
+        try {
+            return connections.sync().zadd(key, score, member);
+        } catch (Exception e) {
+            throw new RedisException("Failed to add to sorted set: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long zAdd(String key, Collection<ScoredMember> members) {
+        if (members.isEmpty()) {
+            return 0;
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            ScoredValue<String>[] values = new ScoredValue[members.size()];
+            int index = 0;
+            for (ScoredMember member : members) {
+                values[index++] = ScoredValue.just(member.getScore(), member.getMember());
+            }
+            return connections.sync().zadd(key, values);
+        } catch (Exception e) {
+            throw new RedisException("Failed to add to sorted set: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public double zIncrBy(String key, double increment, String member) {
+        try {
+            return connections.sync().zincrby(key, increment, member);
+        } catch (Exception e) {
+            throw new RedisException("Failed to increment sorted set score: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Double zScore(String key, String member) {
+        try {
+            return connections.sync().zscore(key, member);
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set score: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long zRank(String key, String member) {
+        try {
+            Long rank = connections.sync().zrank(key, member);
+            return rank == null ? -1 : rank;
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set rank: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long zRevRank(String key, String member) {
+        try {
+            Long rank = connections.sync().zrevrank(key, member);
+            return rank == null ? -1 : rank;
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set rank: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long zCard(String key) {
+        try {
+            return connections.sync().zcard(key);
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set size: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zRangeByScore(String key, double min, double max, long offset, long count) {
+        try {
+            Limit limit = offset == 0 && count < 0 ? Limit.unlimited() : Limit.create(offset, count);
+            return scoredMembers(connections.sync().zrangebyscoreWithScores(key, Range.create(min, max), limit));
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set range: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zRevRange(String key, long start, long end) {
+        try {
+            return scoredMembers(connections.sync().zrevrangeWithScores(key, start, end));
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set range: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long zRemRangeByScore(String key, double min, double max) {
+        try {
+            return connections.sync().zremrangebyscore(key, Range.create(min, max));
+        } catch (Exception e) {
+            throw new RedisException("Failed to remove sorted set range: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zPopMin(String key, int count) {
+        try {
+            return scoredMembers(connections.sync().zpopmin(key, count));
+        } catch (Exception e) {
+            throw new RedisException("Failed to pop from sorted set: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String xAdd(String key, Map<String, String> fields, long maxLen) {
+        try {
+            return connections.sync().xadd(key, xAddArgs(maxLen), fields);
+        } catch (Exception e) {
+            throw new RedisException("Failed to add stream entry: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long xLen(String key) {
+        try {
+            return connections.sync().xlen(key);
+        } catch (Exception e) {
+            throw new RedisException("Failed to get stream length: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean xGroupCreate(String key, String group, String startId) {
+        try {
+            connections.sync().xgroupCreate(XReadArgs.StreamOffset.from(key, startId), group,
+                    XGroupCreateArgs.Builder.mkstream());
+            return true;
+        } catch (RedisCommandExecutionException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith("BUSYGROUP")) {
+                return false;
+            }
+            throw new RedisException("Failed to create consumer group: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new RedisException("Failed to create consumer group: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<StreamEntry> xReadGroup(String key, String group, String consumer, int count, long blockMillis) {
+        XReadArgs args = XReadArgs.Builder.count(count);
+        try {
+            List<StreamMessage<String, String>> messages;
+            if (blockMillis > 0) {
+                args.block(blockMillis);
+                messages = blocking(blockMillis, commands -> commands.xreadgroup(Consumer.from(group, consumer), args,
+                        XReadArgs.StreamOffset.lastConsumed(key)));
+            } else {
+                messages = connections.sync().xreadgroup(Consumer.from(group, consumer), args, XReadArgs.StreamOffset.lastConsumed(key));
+            }
+            return streamEntries(messages, new ArrayList<>());
+        } catch (Exception e) {
+            throw new RedisException("Failed to read stream group: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long xAck(String key, String group, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try {
+            return connections.sync().xack(key, group, ids.toArray(new String[0]));
+        } catch (Exception e) {
+            throw new RedisException("Failed to acknowledge stream entries: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public StreamClaimResult xAutoClaim(String key, String group, String consumer, long minIdleMillis, String startId, int count) {
+        try {
+            ClaimedMessages<String, String> claimed = connections.sync().xautoclaim(key, XAutoClaimArgs.Builder
+                    .xautoclaim(Consumer.from(group, consumer), Duration.ofMillis(minIdleMillis), StreamReplies.fullId(startId))
+                    .count(count));
+            List<String> deletedIds = new ArrayList<>();
+            List<StreamEntry> entries = streamEntries(claimed.getMessages(), deletedIds);
+            return new StreamClaimResult(claimed.getId(), entries, deletedIds);
+        } catch (Exception e) {
+            throw new RedisException("Failed to claim stream entries: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<StreamGroupInfo> xInfoGroups(String key) {
+        try {
+            return StreamReplies.groupInfos(connections.sync().xinfoGroups(key));
+        } catch (Exception e) {
+            throw new RedisException("Failed to get stream groups: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            // 连接是多路复用的，拆分后的MGET异步发出即自然形成管道
+            int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+            List<RedisFuture<List<KeyValue<String, String>>>> futures = new ArrayList<>();
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<String> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+                futures.add(connections.async().mget(chunk.toArray(new String[0])));
+            }
+
+            List<String> values = new ArrayList<>(keys.size());
+            for (RedisFuture<List<KeyValue<String, String>>> future : futures) {
+                for (KeyValue<String, String> keyValue : future.get(config.getOperationTimeout(), TimeUnit.MILLISECONDS)) {
+                    values.add(keyValue.getValueOrElse(null));
+                }
+            }
+            return values;
+        } catch (Exception e) {
+            throw new RedisException("Failed to get values: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void mSet(Map<String, String> map) {
+        if (map.isEmpty()) {
+            return;
+        }
+        try {
+            int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+            List<RedisFuture<String>> futures = new ArrayList<>();
+            Map<String, String> chunk = new HashMap<>();
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                chunk.put(entry.getKey(), entry.getValue());
+                if (chunk.size() >= batchSize) {
+                    futures.add(connections.async().mset(chunk));
+                    chunk = new HashMap<>();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                futures.add(connections.async().mset(chunk));
+            }
+            for (RedisFuture<String> future : futures) {
+                future.get(config.getOperationTimeout(), TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            throw new RedisException("Failed to set values: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long mDelete(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        try {
+            int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+            List<RedisFuture<Long>> futures = new ArrayList<>();
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<String> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+                futures.add(connections.async().del(chunk.toArray(new String[0])));
+            }
+
+            long deleted = 0;
+            for (RedisFuture<Long> future : futures) {
+                deleted += future.get(config.getOperationTimeout(), TimeUnit.MILLISECONDS);
+            }
+            return deleted;
+        } catch (Exception e) {
+            throw new RedisException("Failed to delete keys: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long publish(String channel, String message) {
+        try {
+            return connections.sync().publish(channel, message);
+        } catch (Exception e) {
+            throw new RedisException("Failed to publish message: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public RedisSubscription subscribe(RedisMessageListener listener, String... channels) {
+        try {
+            StatefulRedisPubSubConnection<String, String> pubSubConnection;
+            if (redisClient instanceof RedisClusterClient) {
+                pubSubConnection = ((RedisClusterClient) redisClient).connectPubSub();
+            } else {
+                // 哨兵模式连接当前主节点，静态主从模式连接配置的主节点
+                RedisURI uri = config.isSentinelMode() ? sentinelURI(config) : buildRedisURI(config);
+                pubSubConnection = ((RedisClient) redisClient).connectPubSub(uri);
+            }
+            pubSubConnection.addListener(new RedisPubSubAdapter<String, String>() {
+                @Override
+                public void message(String channel, String message) {
+                    try {
+                        listener.onMessage(channel, message);
+                    } catch (Exception e) {
+                        log.warn("Redis message listener failed on channel: {}: {}", channel, e.getMessage());
+                    }
+                }
+            });
+            // Lettuce在重连后会自动重新订阅
+            pubSubConnection.sync().subscribe(channels);
+            return pubSubConnection::close;
+        } catch (Exception e) {
+            throw new RedisException("Failed to subscribe: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String scriptLoad(String script) {
+        try {
+            // 集群连接会把SCRIPT LOAD广播到所有节点
+            return connections.sync().scriptLoad(script);
+        } catch (Exception e) {
+            throw new RedisException("Failed to load script: " + e.getMessage(), e);
+        }
+    }
+
     @Override
-    protected void finalize() throws Throwable {
+    public Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args) {
         try {
-            if (connection != null) {
+            return connections.sync().evalsha(sha1, ScriptOutputType.valueOf(returnType.name()),
+                    keys.toArray(new String[0]), args.toArray(new String[0]));
+        } catch (Exception e) {
+            throw new RedisException("Failed to evaluate script: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        try {
+            return binaryConnections.sync().get(key);
+        } catch (Exception e) {
+            throw new RedisException("Failed to get bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value) {
+        try {
+            binaryConnections.sync().set(key, value);
+        } catch (Exception e) {
+            throw new RedisException("Failed to set bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        try {
+            binaryConnections.sync().set(key, value, SetArgs.Builder.px(unit.toMillis(timeout)));
+        } catch (Exception e) {
+            throw new RedisException("Failed to set bytes with expiration: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<byte[]> mGetBytes(List<String> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+            List<RedisFuture<List<KeyValue<String, byte[]>>>> futures = new ArrayList<>();
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<String> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+                futures.add(binaryConnections.async().mget(chunk.toArray(new String[0])));
+            }
+
+            List<byte[]> values = new ArrayList<>(keys.size());
+            for (RedisFuture<List<KeyValue<String, byte[]>>> future : futures) {
+                for (KeyValue<String, byte[]> keyValue : future.get(config.getOperationTimeout(), TimeUnit.MILLISECONDS)) {
+                    values.add(keyValue.getValueOrElse(null));
+                }
+            }
+            return values;
+        } catch (Exception e) {
+            throw new RedisException("Failed to get bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] hGetBytes(String key, String field) {
+        try {
+            return binaryConnections.sync().hget(key, field);
+        } catch (Exception e) {
+            throw new RedisException("Failed to get hash field bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void hSetBytes(String key, String field, byte[] value) {
+        try {
+            binaryConnections.sync().hset(key, field, value);
+        } catch (Exception e) {
+            throw new RedisException("Failed to set hash field bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, byte[]> hGetAllBytes(String key) {
+        try {
+            return binaryConnections.sync().hgetall(key);
+        } catch (Exception e) {
+            throw new RedisException("Failed to get all hash field bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return new LettuceRedisBatch(batchConnection, batchCommands, batchLock,
+                config.getMaxBatchSize(), config.getOperationTimeout());
+    }
+
+    @Override
+    public Stream<String> scanKeys(String pattern, int count) {
+        // 集群连接的SCAN会依次遍历所有主节点，游标对象需原样传回
+        ScanArgs args = scanArgs(pattern, count);
+        return ScanStreams.stream(ScanCursor.INITIAL, cursor -> {
+            KeyScanCursor<String> result = connections.sync().scan((ScanCursor) cursor, args);
+            return new ScanStreams.Page<>(result, result.getKeys(), result.isFinished());
+        }, "Failed to scan keys");
+    }
+
+    @Override
+    public Stream<Map.Entry<String, Object>> hScan(String key, String pattern, int count) {
+        ScanArgs args = scanArgs(pattern, count);
+        return ScanStreams.stream(ScanCursor.INITIAL, cursor -> {
+            MapScanCursor<String, String> result = connections.sync().hscan(key, (ScanCursor) cursor, args);
+            List<Map.Entry<String, Object>> entries = new ArrayList<>(result.getMap().size());
+            for (Map.Entry<String, String> entry : result.getMap().entrySet()) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+            }
+            return new ScanStreams.Page<>(result, entries, result.isFinished());
+        }, "Failed to scan hash");
+    }
+
+    @Override
+    public Stream<String> sScan(String key, String pattern, int count) {
+        ScanArgs args = scanArgs(pattern, count);
+        return ScanStreams.stream(ScanCursor.INITIAL, cursor -> {
+            ValueScanCursor<String> result = connections.sync().sscan(key, (ScanCursor) cursor, args);
+            return new ScanStreams.Page<>(result, result.getValues(), result.isFinished());
+        }, "Failed to scan set");
+    }
+
+    @Override
+    public Stream<ScoredMember> zScan(String key, String pattern, int count) {
+        ScanArgs args = scanArgs(pattern, count);
+        return ScanStreams.stream(ScanCursor.INITIAL, cursor -> {
+            ScoredValueScanCursor<String> result = connections.sync().zscan(key, (ScanCursor) cursor, args);
+            List<ScoredMember> members = new ArrayList<>(result.getValues().size());
+            for (ScoredValue<String> value : result.getValues()) {
+                members.add(new ScoredMember(value.getValue(), value.getScore()));
+            }
+            return new ScanStreams.Page<>(result, members, result.isFinished());
+        }, "Failed to scan sorted set");
+    }
+
+    /**
+     * 在专用连接上执行阻塞命令
+     * 阻塞命令会占住整条连接，不能在多路复用的共享连接上执行；专用连接用完后放回空闲队列复用，
+     * 命令超时时间为阻塞时间加上配置的操作超时
+     */
+    private <T> T blocking(long blockMillis, Function<RedisClusterCommands<String, String>, T> action) {
+        StatefulConnection<String, String> connection = blockingConnections.poll();
+        if (connection == null) {
+            connection = connect(StringCodec.UTF8);
+        }
+        boolean reusable = false;
+        try {
+            connection.setTimeout(Duration.ofMillis(config.getOperationTimeout() + blockMillis));
+            T result = action.apply(LettuceConnections.sync(connection));
+            reusable = true;
+            return result;
+        } finally {
+            if (reusable && connection.isOpen()) {
+                blockingConnections.offer(connection);
+            } else {
                 connection.close();
             }
+        }
+    }
+
+    private static List<StreamEntry> streamEntries(List<StreamMessage<String, String>> messages, List<String> deletedIds) {
+        List<StreamEntry> entries = new ArrayList<>(messages.size());
+        for (StreamMessage<String, String> message : messages) {
+            if (message.getBody() == null) {
+                // Redis 6.2的XAUTOCLAIM对已删除的消息返回空字段
+                deletedIds.add(message.getId());
+            } else {
+                entries.add(new StreamEntry(message.getId(), message.getBody()));
+            }
+        }
+        return entries;
+    }
+
+    static XAddArgs xAddArgs(long maxLen) {
+        XAddArgs args = new XAddArgs();
+        return maxLen > 0 ? args.maxlen(maxLen).approximateTrimming() : args;
+    }
+
+    private static List<ScoredMember> scoredMembers(List<ScoredValue<String>> values) {
+        List<ScoredMember> members = new ArrayList<>(values.size());
+        for (ScoredValue<String> value : values) {
+            members.add(new ScoredMember(value.getValue(), value.getScore()));
+        }
+        return members;
+    }
+
+    private static ScanArgs scanArgs(String pattern, int count) {
+        ScanArgs args = ScanArgs.Builder.limit(count);
+        if (pattern != null) {
+            args.match(pattern);
+        }
+        return args;
+    }
+
+    /**
+     * 根据配置构建连接地址
+     * @param config Redis配置
+     * @return 连接地址
+     */
+    static RedisURI buildRedisURI(IRedisConfig config) {
+        return buildRedisURI(config, config.getHost(), config.getPort());
+    }
+
+    private static RedisURI buildRedisURI(IRedisConfig config, String host, int port) {
+        RedisURI redisURI = RedisURI.builder()
+                .withHost(host)
+                .withPort(port)
+                .withDatabase(config.getDatabase())
+                .withTimeout(Duration.ofMillis(config.getOperationTimeout()))
+                .withSsl(config.isUseSsl())
+                .build();
+
+        if (!config.getPassword().isEmpty()) {
+            redisURI.setPassword(config.getPassword());
+        }
+        return redisURI;
+    }
+
+    IRedisConfig getConfig() {
+        return config;
+    }
+
+    RedisClusterAsyncCommands<String, String> getAsyncCommands() {
+        return connections.async();
+    }
+
+    /**
+     * 关闭所有连接和客户端，并释放客户端资源（共享资源在最后一个使用者关闭时释放）；重复调用无效
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (connections != null) {
+                connections.close();
+            }
+            if (batchConnection != null) {
+                batchConnection.close();
+            }
+            if (binaryConnections != null) {
+                binaryConnections.close();
+            }
+            StatefulConnection<String, String> blockingConnection;
+            while ((blockingConnection = blockingConnections.poll()) != null) {
+                blockingConnection.close();
+            }
             if (redisClient != null) {
                 redisClient.shutdown();
             }
         } finally {
-            super.finalize();
+            if (ownsClientResources && clientResources != null) {
+                LettuceResources.release(clientResources, config.isSharedClientResources());
+            }
         }
+        log.info("Closed Lettuce Redis service with host: {}, port: {}", config.getHost(), config.getPort());
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package cn.com.anysdk.redis.impl;
+
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.lettuce.core.resource.NettyCustomizer;
+import io.netty.channel.Channel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lettuce客户端资源（事件循环和定时器线程）
+ * <p>
+ * 共享模式下同一进程内的服务实例按是否合并刷新共用两份资源，按引用计数在最后一个使用者关闭时释放；
+ * 不共享时每个服务实例创建自己的资源。
+ * <p>
+ * 合并刷新在每条连接的Netty管道最前面加入{@link FlushConsolidationHandler}：
+ * 其他线程提交的命令在事件循环中依次写出，同一轮事件循环内的刷新合并为一次，
+ * 读取进行中时刷新推迟到读取结束，最多累积{@link #EXPLICIT_FLUSH_AFTER_FLUSHES}次刷新后强制写出。
+ */
+@Slf4j
+final class LettuceResources {
+    private static final int EXPLICIT_FLUSH_AFTER_FLUSHES = 256;
+
+    private static final Shared SHARED = new Shared(false);
+    private static final Shared SHARED_COALESCING = new Shared(true);
+
+    private LettuceResources() {
+    }
+
+    /**
+     * 获取客户端资源，使用完毕后调用{@link #release(ClientResources, boolean)}
+     * @param shared 是否共享
+     * @param coalescing 是否合并刷新
+     * @return 客户端资源
+     */
+    static ClientResources acquire(boolean shared, boolean coalescing) {
+        if (!shared) {
+            return create(coalescing);
+        }
+        return (coalescing ? SHARED_COALESCING : SHARED).acquire();
+    }
+
+    /**
+     * 释放客户端资源
+     * @param resources 客户端资源
+     * @param shared 获取时是否共享
+     */
+    static void release(ClientResources resources, boolean shared) {
+        if (!shared) {
+            resources.shutdown();
+            return;
+        }
+        if (!SHARED.release(resources)) {
+            SHARED_COALESCING.release(resources);
+        }
+    }
+
+    static ClientResources create(boolean coalescing) {
+        DefaultClientResources.Builder builder = DefaultClientResources.builder();
+        if (coalescing) {
+            builder.nettyCustomizer(new NettyCustomizer() {
+                @Override
+                public void afterChannelInitialized(Channel channel) {
+                    channel.pipeline().addFirst(new FlushConsolidationHandler(EXPLICIT_FLUSH_AFTER_FLUSHES, true));
+                }
+            });
+        }
+        return builder.build();
+    }
+
+    /**
+     * 按引用计数共享的一份资源
+     */
+    private static final class Shared {
+        private final boolean coalescing;
+        private ClientResources resources;
+        private int references;
+
+        private Shared(boolean coalescing) {
+            this.coalescing = coalescing;
+        }
+
+        synchronized ClientResources acquire() {
+            if (resources == null) {
+                resources = create(coalescing);
+                log.info("Created shared Lettuce client resources, commandCoalescing: {}", coalescing);
+            }
+            references++;
+            return resources;
+        }
+
+        synchronized boolean release(ClientResources released) {
+            if (resources != released) {
+                return false;
+            }
+            if (--references == 0) {
+                resources.shutdown();
+                resources = null;
+                log.info("Shut down shared Lettuce client resources, commandCoalescing: {}", coalescing);
+            }
+            return true;
+        }
+    }
+}
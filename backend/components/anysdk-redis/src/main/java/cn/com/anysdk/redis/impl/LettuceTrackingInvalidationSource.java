@@ -0,0 +1,107 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.cache.InvalidationSource;
+import cn.com.anysdk.redis.exception.RedisException;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateAdapter;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于Lettuce RESP3推送消息的失效通知来源
+ * 使用独立连接以广播模式（BCAST）开启CLIENT TRACKING，与数据读取走哪个客户端无关。
+ * 连接断开期间可能丢失通知，因此断开时清空本地缓存，重连后重新开启跟踪。
+ */
+@Slf4j
+public class LettuceTrackingInvalidationSource implements InvalidationSource {
+    private final IRedisConfig config;
+    private final List<String> prefixes;
+    private RedisClient redisClient;
+    private volatile StatefulRedisConnection<String, String> connection;
+    private volatile boolean closed;
+
+    public LettuceTrackingInvalidationSource(IRedisConfig config, List<String> prefixes) {
+        this.config = config;
+        this.prefixes = prefixes == null ? new ArrayList<>() : new ArrayList<>(prefixes);
+    }
+
+    @Override
+    public void start(InvalidationListener listener) {
+        try {
+            redisClient = RedisClient.create(LettuceRedisService.buildRedisURI(config));
+            redisClient.setOptions(ClientOptions.builder()
+                    .protocolVersion(ProtocolVersion.RESP3)
+                    .build());
+            redisClient.addListener(new RedisConnectionStateAdapter() {
+                @Override
+                public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress socketAddress) {
+                    StatefulRedisConnection<String, String> current = connection;
+                    if (current != null && !closed) {
+                        // 重连后的新连接没有跟踪状态，需要重新开启
+                        current.async().clientTracking(trackingArgs());
+                    }
+                }
+
+                @Override
+                public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                    if (!closed) {
+                        listener.onInvalidateAll();
+                    }
+                }
+            });
+
+            StatefulRedisConnection<String, String> trackingConnection = redisClient.connect();
+            trackingConnection.addListener(message -> {
+                if (!"invalidate".equals(message.getType())) {
+                    return;
+                }
+                List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+                Object keys = content.size() > 1 ? content.get(1) : null;
+                if (keys instanceof List) {
+                    for (Object key : (List<?>) keys) {
+                        listener.onInvalidate(String.valueOf(key));
+                    }
+                } else {
+                    listener.onInvalidateAll();
+                }
+            });
+            trackingConnection.sync().clientTracking(trackingArgs());
+            this.connection = trackingConnection;
+
+            log.info("Enabled Lettuce client tracking on host: {}, port: {}, prefixes: {}",
+                    config.getHost(), config.getPort(), prefixes);
+        } catch (Exception e) {
+            close();
+            throw new RedisException("Failed to enable client tracking: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (connection != null) {
+            connection.close();
+        }
+        if (redisClient != null) {
+            redisClient.shutdown();
+        }
+    }
+
+    private TrackingArgs trackingArgs() {
+        TrackingArgs args = TrackingArgs.Builder.enabled().bcast();
+        if (!prefixes.isEmpty()) {
+            args.prefixes(prefixes.toArray(new String[0]));
+        }
+        return args;
+    }
+}
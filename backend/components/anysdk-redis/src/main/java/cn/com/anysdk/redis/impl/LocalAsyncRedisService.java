@@ -0,0 +1,153 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IAsyncRedisService;
+import cn.com.anysdk.redis.exception.RedisException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 本地提供商的异步Redis服务
+ * 命令没有网络往返，在调用线程上直接执行并返回已完成的Future
+ */
+@Slf4j
+public class LocalAsyncRedisService implements IAsyncRedisService {
+    private final LocalRedisService redisService;
+
+    public LocalAsyncRedisService(LocalRedisService redisService) {
+        if (redisService == null) {
+            throw new RedisException("Redis service cannot be null");
+        }
+        this.redisService = redisService;
+
+        log.info("Initialized local async Redis service");
+    }
+
+    @Override
+    public CompletableFuture<Void> set(String key, String value) {
+        return run(() -> {
+            redisService.set(key, value);
+            return null;
+        }, "Failed to set value");
+    }
+
+    @Override
+    public CompletableFuture<Void> set(String key, String value, long timeout, TimeUnit unit) {
+        return run(() -> {
+            redisService.set(key, value, timeout, unit);
+            return null;
+        }, "Failed to set value with expiration");
+    }
+
+    @Override
+    public CompletableFuture<String> get(String key) {
+        return run(() -> redisService.get(key), "Failed to get value");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delete(String key) {
+        return run(() -> redisService.delete(key), "Failed to delete key");
+    }
+
+    @Override
+    public CompletableFuture<Long> delete(List<String> keys) {
+        return run(() -> redisService.delete(keys), "Failed to delete keys");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        return run(() -> redisService.expire(key, timeout, unit), "Failed to set expiration");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasKey(String key) {
+        return run(() -> redisService.hasKey(key), "Failed to check key existence");
+    }
+
+    @Override
+    public CompletableFuture<Long> getExpire(String key, TimeUnit unit) {
+        return run(() -> redisService.getExpire(key, unit), "Failed to get expiration");
+    }
+
+    @Override
+    public CompletableFuture<Void> hSet(String key, String field, Object value) {
+        return run(() -> {
+            redisService.hSet(key, field, value);
+            return null;
+        }, "Failed to set hash field");
+    }
+
+    @Override
+    public CompletableFuture<Object> hGet(String key, String field) {
+        return run(() -> redisService.hGet(key, field), "Failed to get hash field");
+    }
+
+    @Override
+    public CompletableFuture<Void> hSetAll(String key, Map<String, Object> map) {
+        return run(() -> {
+            redisService.hSetAll(key, map);
+            return null;
+        }, "Failed to set hash fields");
+    }
+
+    @Override
+    public CompletableFuture<Map<Object, Object>> hGetAll(String key) {
+        return run(() -> redisService.hGetAll(key), "Failed to get all hash fields");
+    }
+
+    @Override
+    public CompletableFuture<Long> lPush(String key, String value) {
+        return run(() -> redisService.lPush(key, value), "Failed to push to list");
+    }
+
+    @Override
+    public CompletableFuture<Long> rPush(String key, String value) {
+        return run(() -> redisService.rPush(key, value), "Failed to push to list");
+    }
+
+    @Override
+    public CompletableFuture<List<String>> lRange(String key, long start, long end) {
+        return run(() -> redisService.lRange(key, start, end), "Failed to get list range");
+    }
+
+    @Override
+    public CompletableFuture<Long> sAdd(String key, String... values) {
+        return run(() -> redisService.sAdd(key, values), "Failed to add to set");
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> sMembers(String key) {
+        return run(() -> redisService.sMembers(key), "Failed to get set members");
+    }
+
+    @Override
+    public CompletableFuture<List<String>> mGet(List<String> keys) {
+        return run(() -> redisService.mGet(keys), "Failed to get multiple values");
+    }
+
+    @Override
+    public CompletableFuture<Void> mSet(Map<String, String> map) {
+        return run(() -> {
+            redisService.mSet(map);
+            return null;
+        }, "Failed to set multiple values");
+    }
+
+    @Override
+    public CompletableFuture<Long> mDelete(List<String> keys) {
+        return run(() -> redisService.mDelete(keys), "Failed to delete multiple keys");
+    }
+
+    private static <T> CompletableFuture<T> run(Supplier<T> command, String message) {
+        try {
+            return CompletableFuture.completedFuture(command.get());
+        } catch (Exception e) {
+            return AsyncResults.failed(e, message);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package cn.com.anysdk.redis.impl;
+
+/**
+ * 本地键空间中的集合类型值，集合为空时所在的键被删除（流除外），与Redis一致
+ */
+interface LocalCollection {
+    /**
+     * 元素个数
+     */
+    int size();
+
+    /**
+     * 估算占用的字节数，由实现随修改增量维护
+     */
+    long weight();
+
+    /**
+     * 为空时是否删除所在的键
+     */
+    default boolean deleteWhenEmpty() {
+        return true;
+    }
+}
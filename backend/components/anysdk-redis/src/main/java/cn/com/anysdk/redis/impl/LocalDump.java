@@ -0,0 +1,223 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.exception.RedisErrorCodes;
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * 本地提供商DUMP/RESTORE的序列化格式
+ * <p>
+ * 格式与Redis的RDB不同，只能在本地服务之间互相恢复：
+ * 格式标识（1字节）、版本（1字节）、值类型（1字节）、值、CRC32校验和（4字节）。
+ * 字符串和字段名按UTF-8编码，长度均为4字节前缀。
+ */
+final class LocalDump {
+    private static final byte MAGIC = 'L';
+    private static final byte VERSION = 1;
+
+    private static final byte TYPE_STRING = 0;
+    private static final byte TYPE_LONG = 1;
+    private static final byte TYPE_BYTES = 2;
+    private static final byte TYPE_HASH = 3;
+    private static final byte TYPE_LIST = 4;
+    private static final byte TYPE_SET = 5;
+    private static final byte TYPE_ZSET = 6;
+    private static final byte TYPE_STREAM = 7;
+
+    private LocalDump() {
+    }
+
+    /**
+     * 序列化键的值，只在持有所在分段的锁时调用
+     */
+    static byte[] serialize(Object value) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(buffer);
+        try {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            if (value instanceof LocalHash) {
+                LocalHash hash = (LocalHash) value;
+                out.writeByte(TYPE_HASH);
+                out.writeInt(hash.size());
+                hash.forEach((field, fieldValue) -> {
+                    writeString(out, field);
+                    writeScalar(out, fieldValue);
+                });
+            } else if (value instanceof LocalList) {
+                LocalList list = (LocalList) value;
+                out.writeByte(TYPE_LIST);
+                out.writeInt(list.size());
+                for (String element : list.range(0, -1)) {
+                    writeString(out, element);
+                }
+            } else if (value instanceof LocalSet) {
+                LocalSet set = (LocalSet) value;
+                out.writeByte(TYPE_SET);
+                out.writeInt(set.size());
+                set.forEach(member -> writeString(out, member));
+            } else if (value instanceof LocalZSet) {
+                LocalZSet zset = (LocalZSet) value;
+                out.writeByte(TYPE_ZSET);
+                out.writeInt(zset.size());
+                zset.forEach((member, score) -> {
+                    writeString(out, member);
+                    writeDouble(out, score);
+                });
+            } else if (value instanceof LocalStream) {
+                out.writeByte(TYPE_STREAM);
+                ((LocalStream) value).writeTo(out);
+            } else {
+                writeScalar(out, value);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.toByteArray());
+            out.writeInt((int) crc.getValue());
+            out.flush();
+        } catch (IOException | UncheckedIOException e) {
+            throw new RedisException("Failed to dump local value: " + e.getMessage(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 反序列化为新的值，不持有锁调用
+     * @throws RedisException 格式、版本或校验和不正确
+     */
+    static Object deserialize(byte[] serialized) {
+        if (serialized == null || serialized.length < 7 || serialized[0] != MAGIC || serialized[1] != VERSION) {
+            throw badPayload();
+        }
+        int bodyLength = serialized.length - 4;
+        CRC32 crc = new CRC32();
+        crc.update(serialized, 0, bodyLength);
+        if ((int) crc.getValue() != ByteBuffer.wrap(serialized, bodyLength, 4).getInt()) {
+            throw badPayload();
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(serialized, 2, bodyLength - 2));
+        try {
+            byte type = in.readByte();
+            switch (type) {
+                case TYPE_HASH: {
+                    LocalHash hash = new LocalHash();
+                    int size = readSize(in);
+                    for (int i = 0; i < size; i++) {
+                        String field = readString(in);
+                        hash.put(field, readScalar(in, in.readByte()));
+                    }
+                    return hash;
+                }
+                case TYPE_LIST: {
+                    LocalList list = new LocalList();
+                    int size = readSize(in);
+                    for (int i = 0; i < size; i++) {
+                        list.pushRight(readString(in));
+                    }
+                    return list;
+                }
+                case TYPE_SET: {
+                    LocalSet set = new LocalSet();
+                    int size = readSize(in);
+                    for (int i = 0; i < size; i++) {
+                        set.add(readString(in));
+                    }
+                    return set;
+                }
+                case TYPE_ZSET: {
+                    LocalZSet zset = new LocalZSet();
+                    int size = readSize(in);
+                    for (int i = 0; i < size; i++) {
+                        String member = readString(in);
+                        zset.add(member, in.readDouble());
+                    }
+                    return zset;
+                }
+                case TYPE_STREAM:
+                    return LocalStream.readFrom(in);
+                default:
+                    return readScalar(in, type);
+            }
+        } catch (IOException e) {
+            throw badPayload();
+        }
+    }
+
+    private static void writeScalar(DataOutputStream out, Object value) {
+        try {
+            if (value instanceof Long) {
+                out.writeByte(TYPE_LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof byte[]) {
+                out.writeByte(TYPE_BYTES);
+                out.writeInt(((byte[]) value).length);
+                out.write((byte[]) value);
+            } else {
+                out.writeByte(TYPE_STRING);
+                writeString(out, (String) value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object readScalar(DataInputStream in, byte type) throws IOException {
+        switch (type) {
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_BYTES: {
+                byte[] bytes = new byte[readSize(in)];
+                in.readFully(bytes);
+                return bytes;
+            }
+            default:
+                throw badPayload();
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) {
+        try {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeDouble(DataOutputStream out, double value) {
+        try {
+            out.writeDouble(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readSize(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int readSize(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0 || size > in.available()) {
+            throw badPayload();
+        }
+        return size;
+    }
+
+    private static RedisException badPayload() {
+        return new RedisException(RedisErrorCodes.ERR, "ERR DUMP payload version or checksum are wrong");
+    }
+}
@@ -0,0 +1,103 @@
+package cn.com.anysdk.redis.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 本地键空间中的一个键
+ * <p>
+ * 值的编码：字符串为String、byte[]或Long（可以表示为整数的字符串，与Redis的int编码一致），
+ * 哈希、列表、集合、有序集合、流分别为{@link LocalHash}、{@link LocalList}、{@link LocalSet}、{@link LocalZSet}、{@link LocalStream}。
+ * 所有字段只在持有所在分段的锁时访问。
+ */
+final class LocalEntry {
+    /**
+     * 键和条目的固定开销（估算字节数）
+     */
+    static final long OVERHEAD = 96;
+
+    private static final int LFU_INIT_VAL = 5;
+    private static final int LFU_LOG_FACTOR = 10;
+    private static final int LFU_MAX = 255;
+    private static final long LFU_DECAY_NANOS = 60_000_000_000L;
+
+    final String key;
+    Object value;
+
+    /**
+     * 过期时间（System.nanoTime()），0表示不过期
+     */
+    long expireAt;
+
+    /**
+     * 估算占用的字节数
+     */
+    long weight;
+
+    /**
+     * 最近访问时间（System.nanoTime()）
+     */
+    long accessTime;
+
+    /**
+     * 对数访问频率计数器，与Redis的LFU计数器相同：越大越难继续增长，每分钟未访问衰减1
+     */
+    int frequency = LFU_INIT_VAL;
+    private long frequencyDecayedAt;
+
+    /**
+     * 在所在分段的带过期时间键列表中的位置，-1表示不在列表中
+     */
+    int volatileIndex = -1;
+
+    LocalEntry(String key, Object value, long now) {
+        this.key = key;
+        this.value = value;
+        this.accessTime = now;
+        this.frequencyDecayedAt = now;
+    }
+
+    boolean isExpired(long now) {
+        return expireAt != 0 && now - expireAt >= 0;
+    }
+
+    void touch(long now) {
+        accessTime = now;
+        int counter = decayedFrequency(now);
+        if (counter < LFU_MAX) {
+            double base = Math.max(0, counter - LFU_INIT_VAL);
+            if (ThreadLocalRandom.current().nextDouble() < 1.0 / (base * LFU_LOG_FACTOR + 1)) {
+                counter++;
+            }
+        }
+        frequency = counter;
+    }
+
+    /**
+     * 按距上次衰减经过的分钟数衰减后的访问频率
+     */
+    int decayedFrequency(long now) {
+        long periods = (now - frequencyDecayedAt) / LFU_DECAY_NANOS;
+        if (periods > 0) {
+            frequency = (int) Math.max(0, frequency - periods);
+            frequencyDecayedAt += periods * LFU_DECAY_NANOS;
+        }
+        return frequency;
+    }
+
+    long computeWeight() {
+        return OVERHEAD + key.length() + weigh(value);
+    }
+
+    static long weigh(Object value) {
+        if (value instanceof String) {
+            return 40 + ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        }
+        if (value instanceof LocalCollection) {
+            return ((LocalCollection) value).weight();
+        }
+        return 16;
+    }
+}
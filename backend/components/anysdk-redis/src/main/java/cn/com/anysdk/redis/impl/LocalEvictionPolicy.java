@@ -0,0 +1,72 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.exception.RedisException;
+
+/**
+ * 本地提供商的内存淘汰策略，与Redis的maxmemory-policy一一对应
+ */
+enum LocalEvictionPolicy {
+    NOEVICTION(IRedisConfig.MAXMEMORY_POLICY_NOEVICTION, false),
+    ALLKEYS_LRU(IRedisConfig.MAXMEMORY_POLICY_ALLKEYS_LRU, false),
+    ALLKEYS_LFU(IRedisConfig.MAXMEMORY_POLICY_ALLKEYS_LFU, false),
+    ALLKEYS_RANDOM(IRedisConfig.MAXMEMORY_POLICY_ALLKEYS_RANDOM, false),
+    VOLATILE_LRU(IRedisConfig.MAXMEMORY_POLICY_VOLATILE_LRU, true),
+    VOLATILE_LFU(IRedisConfig.MAXMEMORY_POLICY_VOLATILE_LFU, true),
+    VOLATILE_RANDOM(IRedisConfig.MAXMEMORY_POLICY_VOLATILE_RANDOM, true),
+    VOLATILE_TTL(IRedisConfig.MAXMEMORY_POLICY_VOLATILE_TTL, true);
+
+    private final String policyName;
+    private final boolean volatileOnly;
+
+    LocalEvictionPolicy(String policyName, boolean volatileOnly) {
+        this.policyName = policyName;
+        this.volatileOnly = volatileOnly;
+    }
+
+    /**
+     * 是否只淘汰设置了过期时间的键
+     */
+    boolean isVolatileOnly() {
+        return volatileOnly;
+    }
+
+    /**
+     * 候选键的淘汰优先级，越大越先淘汰
+     * @param entry 候选键
+     * @param now 当前时间（System.nanoTime()）
+     * @param random 随机数，随机策略使用
+     * @return 优先级
+     */
+    long score(LocalEntry entry, long now, long random) {
+        switch (this) {
+            case ALLKEYS_LRU:
+            case VOLATILE_LRU:
+                return now - entry.accessTime;
+            case ALLKEYS_LFU:
+            case VOLATILE_LFU:
+                return 255 - entry.decayedFrequency(now);
+            case VOLATILE_TTL:
+                return now - entry.expireAt;
+            default:
+                return random;
+        }
+    }
+
+    static LocalEvictionPolicy of(String policyName) {
+        if (policyName == null || policyName.isEmpty()) {
+            return NOEVICTION;
+        }
+        for (LocalEvictionPolicy policy : values()) {
+            if (policy.policyName.equalsIgnoreCase(policyName)) {
+                return policy;
+            }
+        }
+        throw new RedisException("Unsupported maxmemory policy: " + policyName);
+    }
+
+    @Override
+    public String toString() {
+        return policyName;
+    }
+}
@@ -0,0 +1,132 @@
+package cn.com.anysdk.redis.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 本地哈希表
+ * <p>
+ * 与Redis的listpack编码相同的思路：字段数和值都较小时，字段和值保存在两个平行数组中按顺序查找，
+ * 没有每个字段的节点开销；超过{@link #COMPACT_MAX_ENTRIES}个字段或值超过{@link #COMPACT_MAX_VALUE}时转为HashMap。
+ * 字段值为String或byte[]。
+ */
+final class LocalHash implements LocalCollection {
+    static final int COMPACT_MAX_ENTRIES = 128;
+    static final int COMPACT_MAX_VALUE = 64;
+
+    private String[] fields = new String[4];
+    private Object[] values = new Object[4];
+    private int size;
+    private Map<String, Object> table;
+    private long weight = 64;
+
+    @Override
+    public int size() {
+        return table != null ? table.size() : size;
+    }
+
+    @Override
+    public long weight() {
+        return weight;
+    }
+
+    Object get(String field) {
+        if (table != null) {
+            return table.get(field);
+        }
+        int index = indexOf(field);
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * 设置字段值
+     * @return 是否为新字段
+     */
+    boolean put(String field, Object value) {
+        if (table == null && (size >= COMPACT_MAX_ENTRIES || LocalEntry.weigh(value) > COMPACT_MAX_VALUE + 40)) {
+            convert();
+        }
+        if (table != null) {
+            Object previous = table.put(field, value);
+            if (previous == null) {
+                weight += LocalEntry.weigh(value) + 32 + field.length();
+                return true;
+            }
+            weight += LocalEntry.weigh(value) - LocalEntry.weigh(previous);
+            return false;
+        }
+        int index = indexOf(field);
+        if (index >= 0) {
+            weight += LocalEntry.weigh(value) - LocalEntry.weigh(values[index]);
+            values[index] = value;
+            return false;
+        }
+        if (size == fields.length) {
+            fields = Arrays.copyOf(fields, size << 1);
+            values = Arrays.copyOf(values, size << 1);
+        }
+        fields[size] = field;
+        values[size] = value;
+        size++;
+        weight += LocalEntry.weigh(value) + 8 + field.length();
+        return true;
+    }
+
+    /**
+     * 删除字段
+     * @return 字段是否存在
+     */
+    boolean remove(String field) {
+        if (table != null) {
+            Object previous = table.remove(field);
+            if (previous == null) {
+                return false;
+            }
+            weight -= LocalEntry.weigh(previous) + 32 + field.length();
+            return true;
+        }
+        int index = indexOf(field);
+        if (index < 0) {
+            return false;
+        }
+        weight -= LocalEntry.weigh(values[index]) + 8 + field.length();
+        size--;
+        System.arraycopy(fields, index + 1, fields, index, size - index);
+        System.arraycopy(values, index + 1, values, index, size - index);
+        fields[size] = null;
+        values[size] = null;
+        return true;
+    }
+
+    void forEach(BiConsumer<String, Object> action) {
+        if (table != null) {
+            table.forEach(action);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            action.accept(fields[i], values[i]);
+        }
+    }
+
+    private int indexOf(String field) {
+        for (int i = 0; i < size; i++) {
+            if (fields[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void convert() {
+        table = new HashMap<>(Math.max(16, size * 2));
+        for (int i = 0; i < size; i++) {
+            table.put(fields[i], values[i]);
+            weight += 24;
+        }
+        fields = null;
+        values = null;
+        size = 0;
+    }
+}
@@ -0,0 +1,577 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.exception.RedisErrorCodes;
+import cn.com.anysdk.redis.exception.RedisException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 进程内键空间
+ * <p>
+ * 键按哈希分到固定数量的分段，每段一把{@link ReentrantLock}和一个访问顺序的LinkedHashMap，
+ * 不同分段上的命令完全并行。过期与Redis相同分两种：访问时发现已过期立即删除（惰性过期），
+ * 后台线程每100毫秒从各分段带过期时间的键中随机抽样20个，删除其中已过期的，
+ * 过期比例超过25%时在同一分段继续抽样，每轮最多占用25毫秒（定期过期）。
+ * <p>
+ * 设置了内存上限时，会增加内存的写命令执行前检查估算的已用内存，超过上限按淘汰策略淘汰键：
+ * 随机选几个分段，每段按策略给出一个候选（LRU取段内最久未访问的键，LFU比较访问频率计数器，
+ * volatile-*策略只从带过期时间的键中随机抽样），淘汰其中优先级最高的，直到低于上限；
+ * 与Redis一样是近似算法。noeviction或没有可淘汰的键时抛出错误码为OOM的异常。
+ * 淘汰时只尝试获取分段锁，不会与持有分段锁的线程互相等待。
+ */
+@Slf4j
+final class LocalKeyspace {
+    private static final int STRIPES = 64;
+    private static final int EVICTION_SAMPLE_STRIPES = 5;
+    private static final int EVICTION_SAMPLES = 5;
+    private static final int EVICTION_ROUNDS = 3;
+    private static final int EXPIRE_SAMPLES = 20;
+    private static final long EXPIRE_CYCLE_INTERVAL_MILLIS = 100;
+    private static final long EXPIRE_CYCLE_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(25);
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long maxMemory;
+    private final LocalEvictionPolicy policy;
+    private final LongAdder usedMemory = new LongAdder();
+    private final LongAdder keyCount = new LongAdder();
+    private final LongAdder evictedKeys = new LongAdder();
+    private final LongAdder expiredKeys = new LongAdder();
+    private int expireCursor;
+
+    LocalKeyspace(long maxMemory, LocalEvictionPolicy policy) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxMemory = maxMemory;
+        this.policy = policy;
+        ExpireCycle.schedule(this);
+    }
+
+    /**
+     * 在键所在分段的锁内读取
+     */
+    <T> T read(String key, Function<Slot, T> reader) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            return reader.apply(new Slot(stripe, key, System.nanoTime()));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 在键所在分段的锁内修改，修改前按内存上限淘汰
+     */
+    <T> T write(String key, Function<Slot, T> writer) {
+        reserve();
+        return modify(key, writer);
+    }
+
+    /**
+     * 在键所在分段的锁内修改，不检查内存上限，用于不增加内存的命令和已通过{@link #lockAll}检查过的多键命令
+     */
+    <T> T modify(String key, Function<Slot, T> writer) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Slot slot = new Slot(stripe, key, System.nanoTime());
+            try {
+                return writer.apply(slot);
+            } finally {
+                // 命令中途失败时同样更新内存占用，不留下空集合
+                slot.commit();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 删除键，不检查内存上限
+     */
+    boolean delete(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            return new Slot(stripe, key, System.nanoTime()).delete();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 按分段顺序锁住多个键所在的分段，保证多键操作的原子性且不会死锁；锁是可重入的，
+     * 持有期间对这些键的{@link #read}和{@link #modify}直接进入
+     * @param keys 键
+     * @return 已锁住的分段下标，传给{@link #unlockAll(int[])}
+     */
+    int[] lockAll(Collection<String> keys) {
+        reserve();
+        boolean[] selected = new boolean[STRIPES];
+        int count = 0;
+        for (String key : keys) {
+            int index = indexFor(key);
+            if (!selected[index]) {
+                selected[index] = true;
+                count++;
+            }
+        }
+        int[] locked = new int[count];
+        int n = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            if (selected[i]) {
+                stripes[i].lock.lock();
+                locked[n++] = i;
+            }
+        }
+        return locked;
+    }
+
+    void unlockAll(int[] locked) {
+        for (int i = locked.length - 1; i >= 0; i--) {
+            stripes[locked[i]].lock.unlock();
+        }
+    }
+
+    int stripeCount() {
+        return STRIPES;
+    }
+
+    /**
+     * 获取一个分段中匹配的未过期键
+     * @param index 分段下标
+     * @param pattern 匹配的正则表达式，null表示全部
+     * @return 键列表
+     */
+    List<String> keys(int index, Pattern pattern) {
+        Stripe stripe = stripes[index];
+        stripe.lock.lock();
+        try {
+            long now = System.nanoTime();
+            List<String> keys = new ArrayList<>(stripe.entries.size());
+            for (LocalEntry entry : stripe.entries.values()) {
+                if (!entry.isExpired(now) && (pattern == null || pattern.matcher(entry.key).matches())) {
+                    keys.add(entry.key);
+                }
+            }
+            return keys;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 删除所有键
+     */
+    void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (LocalEntry entry : stripe.entries.values()) {
+                    usedMemory.add(-entry.weight);
+                    keyCount.decrement();
+                }
+                stripe.entries.clear();
+                stripe.volatileEntries.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    long size() {
+        return keyCount.sum();
+    }
+
+    long usedMemory() {
+        return usedMemory.sum();
+    }
+
+    long maxMemory() {
+        return maxMemory;
+    }
+
+    LocalEvictionPolicy policy() {
+        return policy;
+    }
+
+    long evictedKeys() {
+        return evictedKeys.sum();
+    }
+
+    long expiredKeys() {
+        return expiredKeys.sum();
+    }
+
+    /**
+     * 定期过期：从上次停下的分段继续，每段随机抽样带过期时间的键
+     */
+    void activeExpireCycle() {
+        long deadline = System.nanoTime() + EXPIRE_CYCLE_BUDGET_NANOS;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < STRIPES; i++) {
+            Stripe stripe = stripes[expireCursor];
+            expireCursor = (expireCursor + 1) & (STRIPES - 1);
+            stripe.lock.lock();
+            try {
+                int expired;
+                do {
+                    expired = 0;
+                    long now = System.nanoTime();
+                    for (int sample = 0; sample < EXPIRE_SAMPLES && !stripe.volatileEntries.isEmpty(); sample++) {
+                        LocalEntry entry = stripe.volatileEntries.get(random.nextInt(stripe.volatileEntries.size()));
+                        if (entry.isExpired(now)) {
+                            stripe.remove(entry);
+                            expiredKeys.increment();
+                            expired++;
+                        }
+                    }
+                } while (expired > EXPIRE_SAMPLES / 4 && System.nanoTime() - deadline < 0);
+            } finally {
+                stripe.lock.unlock();
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+    }
+
+    private void reserve() {
+        if (maxMemory <= 0) {
+            return;
+        }
+        while (usedMemory.sum() > maxMemory) {
+            if (policy == LocalEvictionPolicy.NOEVICTION || !evictOne()) {
+                throw new RedisException(RedisErrorCodes.OOM, "OOM command not allowed when used memory > 'maxmemory'.");
+            }
+        }
+    }
+
+    private boolean evictOne() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int round = 0; round < EVICTION_ROUNDS; round++) {
+            long now = System.nanoTime();
+            Stripe bestStripe = null;
+            LocalEntry best = null;
+            long bestScore = Long.MIN_VALUE;
+            int sampled = 0;
+            int busy = 0;
+            int start = random.nextInt(STRIPES);
+            for (int i = 0; i < STRIPES && sampled < EVICTION_SAMPLE_STRIPES; i++) {
+                Stripe stripe = stripes[(start + i) & (STRIPES - 1)];
+                if (!stripe.lock.tryLock()) {
+                    busy++;
+                    continue;
+                }
+                try {
+                    LocalEntry candidate = stripe.candidate(now, random);
+                    if (candidate == null) {
+                        continue;
+                    }
+                    sampled++;
+                    long score = policy.score(candidate, now, random.nextLong());
+                    if (best == null || score > bestScore) {
+                        best = candidate;
+                        bestStripe = stripe;
+                        bestScore = score;
+                    }
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+            if (best == null) {
+                if (busy == 0) {
+                    return false;
+                }
+                continue;
+            }
+            if (bestStripe.lock.tryLock()) {
+                try {
+                    if (bestStripe.entries.get(best.key) == best) {
+                        bestStripe.remove(best);
+                        evictedKeys.increment();
+                        return true;
+                    }
+                } finally {
+                    bestStripe.lock.unlock();
+                }
+            }
+        }
+        return false;
+    }
+
+    private Stripe stripeFor(String key) {
+        return stripes[indexFor(key)];
+    }
+
+    private static int indexFor(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * 键空间的一个分段
+     */
+    private final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, LocalEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        final ArrayList<LocalEntry> volatileEntries = new ArrayList<>();
+
+        void remove(LocalEntry entry) {
+            entries.remove(entry.key);
+            untrackExpire(entry);
+            usedMemory.add(-entry.weight);
+            keyCount.decrement();
+        }
+
+        void trackExpire(LocalEntry entry) {
+            if (entry.expireAt != 0 && entry.volatileIndex < 0) {
+                entry.volatileIndex = volatileEntries.size();
+                volatileEntries.add(entry);
+            } else if (entry.expireAt == 0) {
+                untrackExpire(entry);
+            }
+        }
+
+        void untrackExpire(LocalEntry entry) {
+            int index = entry.volatileIndex;
+            if (index < 0) {
+                return;
+            }
+            LocalEntry last = volatileEntries.remove(volatileEntries.size() - 1);
+            if (last != entry) {
+                volatileEntries.set(index, last);
+                last.volatileIndex = index;
+            }
+            entry.volatileIndex = -1;
+        }
+
+        /**
+         * 按淘汰策略给出本段的候选键
+         */
+        LocalEntry candidate(long now, ThreadLocalRandom random) {
+            if (policy.isVolatileOnly()) {
+                LocalEntry best = null;
+                long bestScore = Long.MIN_VALUE;
+                for (int i = 0; i < EVICTION_SAMPLES && !volatileEntries.isEmpty(); i++) {
+                    LocalEntry entry = volatileEntries.get(random.nextInt(volatileEntries.size()));
+                    long score = policy.score(entry, now, random.nextLong());
+                    if (best == null || score > bestScore) {
+                        best = entry;
+                        bestScore = score;
+                    }
+                }
+                return best;
+            }
+            if (entries.isEmpty()) {
+                return null;
+            }
+            Iterator<LocalEntry> iterator = entries.values().iterator();
+            if (policy == LocalEvictionPolicy.ALLKEYS_LRU) {
+                // 访问顺序的第一个即段内最久未访问的键
+                return iterator.next();
+            }
+            int limit = policy == LocalEvictionPolicy.ALLKEYS_RANDOM
+                    ? random.nextInt(Math.min(entries.size(), EVICTION_SAMPLES * 4)) + 1 : EVICTION_SAMPLES;
+            LocalEntry best = null;
+            long bestScore = Long.MIN_VALUE;
+            for (int i = 0; i < limit && iterator.hasNext(); i++) {
+                LocalEntry entry = iterator.next();
+                long score = policy == LocalEvictionPolicy.ALLKEYS_RANDOM ? i : policy.score(entry, now, 0);
+                if (best == null || score > bestScore) {
+                    best = entry;
+                    bestScore = score;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * 一条命令对单个键的访问，只在持有分段锁时使用
+     */
+    final class Slot {
+        private final Stripe stripe;
+        private final String key;
+        private final long now;
+        private LocalEntry entry;
+
+        private Slot(Stripe stripe, String key, long now) {
+            this.stripe = stripe;
+            this.key = key;
+            this.now = now;
+            LocalEntry existing = stripe.entries.get(key);
+            if (existing != null && existing.isExpired(now)) {
+                stripe.remove(existing);
+                expiredKeys.increment();
+                existing = null;
+            }
+            if (existing != null) {
+                existing.touch(now);
+            }
+            this.entry = existing;
+        }
+
+        long now() {
+            return now;
+        }
+
+        boolean exists() {
+            return entry != null;
+        }
+
+        Object value() {
+            return entry == null ? null : entry.value;
+        }
+
+        /**
+         * 过期时间（System.nanoTime()），0表示不过期；键不存在时调用方需先检查{@link #exists()}
+         */
+        long expireAt() {
+            return entry.expireAt;
+        }
+
+        /**
+         * 写入字符串值并替换过期时间
+         * @param value 值
+         * @param expireAt 过期时间（System.nanoTime()），0表示不过期
+         */
+        void set(Object value, long expireAt) {
+            if (entry == null) {
+                create(value);
+            } else {
+                entry.value = value;
+            }
+            entry.expireAt = expireAt;
+        }
+
+        /**
+         * 替换值并保留过期时间
+         */
+        void update(Object value) {
+            if (entry == null) {
+                create(value);
+            } else {
+                entry.value = value;
+            }
+        }
+
+        /**
+         * 获取集合类型的值，键不存在时按需创建
+         * @param type 值类型
+         * @param factory 键不存在时创建值，为null时不创建并返回null
+         * @return 值
+         */
+        <C extends LocalCollection> C collection(Class<C> type, Supplier<C> factory) {
+            if (entry == null) {
+                if (factory == null) {
+                    return null;
+                }
+                create(factory.get());
+            }
+            if (!type.isInstance(entry.value)) {
+                throw wrongType();
+            }
+            return type.cast(entry.value);
+        }
+
+        void expireAt(long expireAt) {
+            entry.expireAt = expireAt;
+        }
+
+        boolean delete() {
+            if (entry == null) {
+                return false;
+            }
+            stripe.remove(entry);
+            entry = null;
+            return true;
+        }
+
+        private void create(Object value) {
+            entry = new LocalEntry(key, value, now);
+            stripe.entries.put(key, entry);
+            keyCount.increment();
+        }
+
+        /**
+         * 更新内存占用和过期键列表，集合为空时删除键
+         */
+        private void commit() {
+            if (entry == null) {
+                return;
+            }
+            if (entry.value instanceof LocalCollection && ((LocalCollection) entry.value).size() == 0
+                    && ((LocalCollection) entry.value).deleteWhenEmpty()) {
+                delete();
+                return;
+            }
+            long weight = entry.computeWeight();
+            usedMemory.add(weight - entry.weight);
+            entry.weight = weight;
+            stripe.trackExpire(entry);
+        }
+    }
+
+    static RedisException wrongType() {
+        return new RedisException(RedisErrorCodes.WRONGTYPE, "WRONGTYPE Operation against a key holding the wrong kind of value");
+    }
+
+    /**
+     * 定期过期任务，所有键空间共用一个守护线程；只弱引用键空间，键空间不再使用时任务自行取消
+     */
+    private static final class ExpireCycle implements Runnable {
+        private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "anysdk-local-redis-expire");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private final WeakReference<LocalKeyspace> keyspace;
+        private volatile ScheduledFuture<?> future;
+
+        private ExpireCycle(LocalKeyspace keyspace) {
+            this.keyspace = new WeakReference<>(keyspace);
+        }
+
+        static void schedule(LocalKeyspace keyspace) {
+            ExpireCycle cycle = new ExpireCycle(keyspace);
+            cycle.future = EXECUTOR.scheduleWithFixedDelay(cycle, EXPIRE_CYCLE_INTERVAL_MILLIS,
+                    EXPIRE_CYCLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            LocalKeyspace current = keyspace.get();
+            if (current == null) {
+                ScheduledFuture<?> scheduled = future;
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                }
+                return;
+            }
+            try {
+                current.activeExpireCycle();
+            } catch (RuntimeException e) {
+                log.warn("Local Redis expire cycle failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package cn.com.anysdk.redis.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 本地列表，基于环形数组，两端插入和按下标访问都是O(1)
+ */
+final class LocalList implements LocalCollection {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] elements = new String[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+    private long weight = 64;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long weight() {
+        return weight;
+    }
+
+    long pushLeft(String value) {
+        ensureCapacity();
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = value;
+        size++;
+        weight += elementWeight(value);
+        return size;
+    }
+
+    long pushRight(String value) {
+        ensureCapacity();
+        elements[(head + size) & (elements.length - 1)] = value;
+        size++;
+        weight += elementWeight(value);
+        return size;
+    }
+
+    /**
+     * 按LRANGE语义获取范围内的元素，负数下标从末尾计算，结束下标包含在内
+     */
+    List<String> range(long start, long end) {
+        if (start < 0) {
+            start = Math.max(0, size + start);
+        }
+        if (end < 0) {
+            end = size + end;
+        }
+        end = Math.min(end, size - 1L);
+        if (start > end) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>((int) (end - start + 1));
+        int mask = elements.length - 1;
+        for (long i = start; i <= end; i++) {
+            result.add(elements[(int) ((head + i) & mask)]);
+        }
+        return result;
+    }
+
+    private void ensureCapacity() {
+        if (size < elements.length) {
+            return;
+        }
+        String[] grown = new String[elements.length << 1];
+        int mask = elements.length - 1;
+        for (int i = 0; i < size; i++) {
+            grown[i] = elements[(head + i) & mask];
+        }
+        elements = grown;
+        head = 0;
+    }
+
+    private static long elementWeight(String value) {
+        return 8 + value.length();
+    }
+}
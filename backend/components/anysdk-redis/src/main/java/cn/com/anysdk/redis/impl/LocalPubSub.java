@@ -0,0 +1,84 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.RedisMessageListener;
+import cn.com.anysdk.redis.api.RedisSubscription;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 进程内发布订阅
+ * 消息在所有本地服务共用的一个守护线程上按发布顺序回调监听器，发布方不会被监听器阻塞
+ */
+@Slf4j
+final class LocalPubSub {
+    private static final ExecutorService DISPATCHER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "anysdk-local-redis-subscriber");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Subscriber>> channels = new ConcurrentHashMap<>();
+
+    long publish(String channel, String message) {
+        List<Subscriber> subscribers = channels.get(channel);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return 0;
+        }
+        DISPATCHER.execute(() -> {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.deliver(channel, message);
+            }
+        });
+        return subscribers.size();
+    }
+
+    RedisSubscription subscribe(RedisMessageListener listener, String... channelNames) {
+        Subscriber subscriber = new Subscriber(listener, channelNames);
+        for (String channel : channelNames) {
+            channels.compute(channel, (c, subscribers) -> {
+                CopyOnWriteArrayList<Subscriber> list = subscribers == null ? new CopyOnWriteArrayList<>() : subscribers;
+                list.add(subscriber);
+                return list;
+            });
+        }
+        return subscriber;
+    }
+
+    private final class Subscriber implements RedisSubscription {
+        private final RedisMessageListener listener;
+        private final String[] channelNames;
+        private volatile boolean closed;
+
+        private Subscriber(RedisMessageListener listener, String[] channelNames) {
+            this.listener = listener;
+            this.channelNames = channelNames;
+        }
+
+        void deliver(String channel, String message) {
+            if (closed) {
+                return;
+            }
+            try {
+                listener.onMessage(channel, message);
+            } catch (Exception e) {
+                log.warn("Redis message listener failed on channel: {}: {}", channel, e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            for (String channel : channelNames) {
+                channels.computeIfPresent(channel, (c, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            }
+        }
+    }
+}
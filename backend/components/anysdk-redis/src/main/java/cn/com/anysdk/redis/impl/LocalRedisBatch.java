@@ -0,0 +1,84 @@
+package cn.com.anysdk.redis.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地提供商的批量操作实现，按顺序直接执行每条命令
+ */
+class LocalRedisBatch extends AbstractRedisBatch {
+    private final LocalRedisService redisService;
+
+    LocalRedisBatch(LocalRedisService redisService, int maxBatchSize) {
+        super(maxBatchSize);
+        this.redisService = redisService;
+    }
+
+    @Override
+    protected List<?> executePipeline(List<BatchCommand> chunk) {
+        List<Object> replies = new ArrayList<>(chunk.size());
+        for (BatchCommand command : chunk) {
+            replies.add(execute(command));
+        }
+        return replies;
+    }
+
+    private Object execute(BatchCommand command) {
+        String key = command.getKey();
+        switch (command.getType()) {
+            case SET:
+                redisService.set(key, command.getString(0));
+                return null;
+            case SET_EX:
+                redisService.set(key, command.getString(0), command.getLong(1), TimeUnit.MILLISECONDS);
+                return null;
+            case GET:
+                return redisService.get(key);
+            case DELETE:
+                return redisService.delete(key);
+            case EXPIRE:
+                return redisService.expire(key, command.getLong(0), TimeUnit.MILLISECONDS);
+            case HSET:
+                redisService.hSet(key, command.getString(0), command.getArg(1));
+                return null;
+            case HGET:
+                return redisService.hGet(key, command.getString(0));
+            case HSET_ALL:
+                redisService.hSetAll(key, command.getMap(0));
+                return null;
+            case LPUSH:
+                return redisService.lPush(key, command.getString(0));
+            case RPUSH:
+                return redisService.rPush(key, command.getString(0));
+            case SADD:
+                return redisService.sAdd(key, command.getStrings(0));
+            case INCRBY:
+                return redisService.incrBy(key, command.getLong(0));
+            case HINCRBY:
+                return redisService.hIncrBy(key, command.getString(0), command.getLong(1));
+            case ZADD:
+                return redisService.zAdd(key, command.getDouble(0), command.getString(1));
+            case ZINCRBY:
+                return redisService.zIncrBy(key, command.getDouble(0), command.getString(1));
+            case ZREMRANGEBYSCORE:
+                return redisService.zRemRangeByScore(key, command.getDouble(0), command.getDouble(1));
+            case ZCARD:
+                return redisService.zCard(key);
+            case XADD:
+                return redisService.xAdd(key, command.getStringMap(0), command.getLong(1));
+            case XACK:
+                return redisService.xAck(key, command.getString(0), Arrays.asList(command.getStrings(1)));
+            case DUMP:
+                return redisService.dump(key);
+            case RESTORE:
+                redisService.restore(key, command.getLong(0), command.getBytes(1), command.getBoolean(2));
+                return null;
+            case PTTL:
+                return redisService.getExpire(key, TimeUnit.MILLISECONDS);
+            default:
+                throw new IllegalStateException("Unsupported batch command: " + command.getType());
+        }
+    }
+}
@@ -0,0 +1,986 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.RedisMessageListener;
+import cn.com.anysdk.redis.api.RedisSubscription;
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
+import cn.com.anysdk.redis.exception.RedisErrorCodes;
+import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.monitor.LocalKeyspaceStats;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 进程内的Redis服务实现（提供商local）
+ * <p>
+ * 不需要Redis服务端，数据保存在本进程的{@link LocalKeyspace}中，语义与Redis一致：键过期、WRONGTYPE错误、
+ * 空集合自动删除键、INCR保留过期时间而SET清除过期时间。适合不需要跨实例共享数据的边缘实例做零网络开销的缓存，
+ * 也可以作为测试和基准测试中结果确定的替身。
+ * <p>
+ * 设置{@link IRedisConfig#getMaxMemory()}后按{@link IRedisConfig#getMaxMemoryPolicy()}淘汰键，
+ * 内存按键和值的大小估算。字符串按原样保存，可以表示为整数的字符串保存为Long；
+ * 小的哈希和集合保存在数组中，列表保存在环形数组中。
+ * <p>
+ * 流的阻塞读取在任意流有新消息时被唤醒后重新读取。发布订阅只在同一服务实例内传递。Lua脚本需要注册等价的Java实现：
+ * 组件内置的脚本（原子操作、分布式锁和信号量、限流）由各自的类通过{@link #registerBuiltinScript(String, LocalScript)}注册，
+ * 其他脚本用{@link #registerScript(String, LocalScript)}注册；未注册的脚本可以加载，执行时抛出错误码为ERR的异常。
+ */
+@Slf4j
+public class LocalRedisService implements IRedisService {
+    private static final Map<String, LocalScript> BUILTIN_SCRIPTS = new ConcurrentHashMap<>();
+
+    private final IRedisConfig config;
+    private final LocalKeyspace keyspace;
+    private final LocalPubSub pubSub = new LocalPubSub();
+    private final Map<String, LocalScript> scriptImplementations = new ConcurrentHashMap<>();
+    private final Set<String> loadedScripts = ConcurrentHashMap.newKeySet();
+    private final Lock streamLock = new ReentrantLock();
+    private final Condition streamAppended = streamLock.newCondition();
+    private long streamAppends;
+
+    public LocalRedisService(IRedisConfig config) {
+        if (config == null) {
+            throw new RedisException("Redis config cannot be null");
+        }
+        this.config = config;
+        this.keyspace = new LocalKeyspace(config.getMaxMemory(), LocalEvictionPolicy.of(config.getMaxMemoryPolicy()));
+
+        log.info("Initialized local Redis service with maxMemory: {}, maxMemoryPolicy: {}",
+                config.getMaxMemory(), keyspace.policy());
+    }
+
+    /**
+     * 注册脚本的Java实现，注册后仍需像Redis一样先加载（或由{@link cn.com.anysdk.redis.script.RedisScriptExecutor}按需加载）
+     * @param script 脚本源码
+     * @param implementation 等价的Java实现
+     * @return 脚本的SHA1摘要
+     */
+    public String registerScript(String script, LocalScript implementation) {
+        String sha1 = sha1Hex(script);
+        scriptImplementations.put(sha1, implementation);
+        return sha1;
+    }
+
+    /**
+     * 注册所有实例共用的脚本实现，用于组件内置的脚本，实例上用{@link #registerScript(String, LocalScript)}注册的实现优先
+     * @param script 脚本源码
+     * @param implementation 等价的Java实现
+     * @return 脚本的SHA1摘要
+     */
+    public static String registerBuiltinScript(String script, LocalScript implementation) {
+        String sha1 = sha1Hex(script);
+        BUILTIN_SCRIPTS.put(sha1, implementation);
+        return sha1;
+    }
+
+    /**
+     * 删除有序集合成员，供{@link LocalScript}实现ZREM
+     * @param key 键
+     * @param members 成员
+     * @return 删除的成员数
+     */
+    public long zRem(String key, String... members) {
+        return keyspace.modify(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, null);
+            if (zset == null) {
+                return 0L;
+            }
+            long removed = 0;
+            for (String member : members) {
+                if (zset.remove(member)) {
+                    removed++;
+                }
+            }
+            return removed;
+        });
+    }
+
+    /**
+     * 删除哈希字段，供{@link LocalScript}实现HDEL
+     * @param key 键
+     * @param fields 字段
+     * @return 删除的字段数
+     */
+    public long hDel(String key, String... fields) {
+        return keyspace.modify(key, slot -> {
+            LocalHash hash = slot.collection(LocalHash.class, null);
+            if (hash == null) {
+                return 0L;
+            }
+            long removed = 0;
+            for (String field : fields) {
+                if (hash.remove(field)) {
+                    removed++;
+                }
+            }
+            return removed;
+        });
+    }
+
+    /**
+     * 删除所有键
+     */
+    public void flushAll() {
+        keyspace.clear();
+    }
+
+    /**
+     * 获取键的数量，包括已过期但尚未删除的键
+     * @return 键的数量
+     */
+    public long dbSize() {
+        return keyspace.size();
+    }
+
+    /**
+     * 获取键空间统计快照
+     * @return 统计快照
+     */
+    public LocalKeyspaceStats getStats() {
+        return new LocalKeyspaceStats(keyspace.size(), keyspace.usedMemory(), keyspace.maxMemory(),
+                keyspace.policy().toString(), keyspace.evictedKeys(), keyspace.expiredKeys());
+    }
+
+    @Override
+    public void set(String key, String value) {
+        keyspace.write(key, slot -> {
+            slot.set(encode(value), 0);
+            return null;
+        });
+    }
+
+    @Override
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        long ttlNanos = ttlNanos(timeout, unit, "set");
+        keyspace.write(key, slot -> {
+            slot.set(encode(value), deadline(slot.now(), ttlNanos));
+            return null;
+        });
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        long ttlNanos = ttlNanos(timeout, unit, "set");
+        return keyspace.write(key, slot -> {
+            if (slot.exists()) {
+                return false;
+            }
+            slot.set(encode(value), deadline(slot.now(), ttlNanos));
+            return true;
+        });
+    }
+
+    @Override
+    public String get(String key) {
+        return keyspace.read(key, slot -> stringValue(slot.value(), true));
+    }
+
+    @Override
+    public boolean delete(String key) {
+        return keyspace.delete(key);
+    }
+
+    @Override
+    public long delete(List<String> keys) {
+        long deleted = 0;
+        for (String key : keys) {
+            if (keyspace.delete(key)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        long ttlNanos = unit.toNanos(timeout);
+        return keyspace.modify(key, slot -> {
+            if (!slot.exists()) {
+                return false;
+            }
+            if (ttlNanos <= 0) {
+                // 与PEXPIRE一致，非正数的过期时间立即删除键
+                return slot.delete();
+            }
+            slot.expireAt(deadline(slot.now(), ttlNanos));
+            return true;
+        });
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return keyspace.read(key, LocalKeyspace.Slot::exists);
+    }
+
+    @Override
+    public long getExpire(String key, TimeUnit unit) {
+        long millis = keyspace.read(key, slot -> {
+            if (!slot.exists()) {
+                return -2L;
+            }
+            if (slot.expireAt() == 0) {
+                return -1L;
+            }
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(slot.expireAt() - slot.now()));
+        });
+        return millis > 0 ? unit.convert(millis, TimeUnit.MILLISECONDS) : millis;
+    }
+
+    @Override
+    public byte[] dump(String key) {
+        return keyspace.read(key, slot -> slot.exists() ? LocalDump.serialize(slot.value()) : null);
+    }
+
+    @Override
+    public void restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        if (ttlMillis < 0) {
+            throw new RedisException(RedisErrorCodes.ERR, "ERR Invalid TTL value, must be >= 0");
+        }
+        Object value = LocalDump.deserialize(serialized);
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        keyspace.write(key, slot -> {
+            if (slot.exists()) {
+                if (!replace) {
+                    throw new RedisException(RedisErrorCodes.BUSYKEY, "BUSYKEY Target key name already exists.");
+                }
+                slot.delete();
+            }
+            slot.set(value, ttlNanos == 0 ? 0 : deadline(slot.now(), ttlNanos));
+            return null;
+        });
+    }
+
+    @Override
+    public long incr(String key) {
+        return incrBy(key, 1);
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        return keyspace.write(key, slot -> {
+            Object value = slot.value();
+            long current = 0;
+            if (value != null) {
+                Long parsed = parseLong(value);
+                if (parsed == null) {
+                    throw new RedisException(RedisErrorCodes.ERR, "ERR value is not an integer or out of range");
+                }
+                current = parsed;
+            }
+            long result = add(current, delta);
+            slot.update(result);
+            return result;
+        });
+    }
+
+    @Override
+    public long hIncrBy(String key, String field, long delta) {
+        return keyspace.write(key, slot -> {
+            LocalHash hash = slot.collection(LocalHash.class, LocalHash::new);
+            Object value = hash.get(field);
+            long current = 0;
+            if (value != null) {
+                Long parsed = parseLong(value);
+                if (parsed == null) {
+                    throw new RedisException(RedisErrorCodes.ERR, "ERR hash value is not an integer");
+                }
+                current = parsed;
+            }
+            long result = add(current, delta);
+            hash.put(field, Long.toString(result));
+            return result;
+        });
+    }
+
+    @Override
+    public void hSet(String key, String field, Object value) {
+        keyspace.write(key, slot -> slot.collection(LocalHash.class, LocalHash::new).put(field, String.valueOf(value)));
+    }
+
+    @Override
+    public Object hGet(String key, String field) {
+        return keyspace.read(key, slot -> {
+            LocalHash hash = slot.collection(LocalHash.class, null);
+            return hash == null ? null : stringValue(hash.get(field), false);
+        });
+    }
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map) {
+        keyspace.write(key, slot -> {
+            LocalHash hash = slot.collection(LocalHash.class, LocalHash::new);
+            map.forEach((field, value) -> hash.put(field, String.valueOf(value)));
+            return null;
+        });
+    }
+
+    @Override
+    public Map<Object, Object> hGetAll(String key) {
+        return keyspace.read(key, slot -> {
+            LocalHash hash = slot.collection(LocalHash.class, null);
+            Map<Object, Object> result = new HashMap<>();
+            if (hash != null) {
+                hash.forEach((field, value) -> result.put(field, stringValue(value, false)));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public long lPush(String key, String value) {
+        return keyspace.write(key, slot -> slot.collection(LocalList.class, LocalList::new).pushLeft(value));
+    }
+
+    @Override
+    public long rPush(String key, String value) {
+        return keyspace.write(key, slot -> slot.collection(LocalList.class, LocalList::new).pushRight(value));
+    }
+
+    @Override
+    public List<String> lRange(String key, long start, long end) {
+        return keyspace.read(key, slot -> {
+            LocalList list = slot.collection(LocalList.class, null);
+            return list == null ? new ArrayList<>() : list.range(start, end);
+        });
+    }
+
+    @Override
+    public long sAdd(String key, String... values) {
+        return keyspace.write(key, slot -> {
+            LocalSet set = slot.collection(LocalSet.class, LocalSet::new);
+            long added = 0;
+            for (String value : values) {
+                if (set.add(value)) {
+                    added++;
+                }
+            }
+            return added;
+        });
+    }
+
+    @Override
+    public Set<String> sMembers(String key) {
+        return keyspace.read(key, slot -> {
+            LocalSet set = slot.collection(LocalSet.class, null);
+            Set<String> result = new HashSet<>();
+            if (set != null) {
+                set.forEach(result::add);
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public long zAdd(String key, double score, String member) {
+        checkScore(score);
+        return keyspace.write(key, slot -> slot.collection(LocalZSet.class, LocalZSet::new).add(member, score) ? 1L : 0L);
+    }
+
+    @Override
+    public long zAdd(String key, Collection<ScoredMember> members) {
+        if (members.isEmpty()) {
+            return 0;
+        }
+        for (ScoredMember member : members) {
+            checkScore(member.getScore());
+        }
+        return keyspace.write(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, LocalZSet::new);
+            long added = 0;
+            for (ScoredMember member : members) {
+                if (zset.add(member.getMember(), member.getScore())) {
+                    added++;
+                }
+            }
+            return added;
+        });
+    }
+
+    @Override
+    public double zIncrBy(String key, double increment, String member) {
+        checkScore(increment);
+        return keyspace.write(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, LocalZSet::new);
+            Double current = zset.score(member);
+            double score = (current == null ? 0 : current) + increment;
+            if (Double.isNaN(score)) {
+                throw new RedisException(RedisErrorCodes.ERR, "ERR resulting score is not a number (NaN)");
+            }
+            zset.add(member, score);
+            return score;
+        });
+    }
+
+    @Override
+    public Double zScore(String key, String member) {
+        return keyspace.read(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, null);
+            return zset == null ? null : zset.score(member);
+        });
+    }
+
+    @Override
+    public long zRank(String key, String member) {
+        return keyspace.read(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, null);
+            return zset == null ? -1L : zset.rank(member, false);
+        });
+    }
+
+    @Override
+    public long zRevRank(String key, String member) {
+        return keyspace.read(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, null);
+            return zset == null ? -1L : zset.rank(member, true);
+        });
+    }
+
+    @Override
+    public long zCard(String key) {
+        return keyspace.read(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, null);
+            return zset == null ? 0L : zset.size();
+        });
+    }
+
+    @Override
+    public List<ScoredMember> zRangeByScore(String key, double min, double max, long offset, long count) {
+        checkRange(min, max);
+        return keyspace.read(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, null);
+            return zset == null ? new ArrayList<>() : zset.rangeByScore(min, max, offset, count);
+        });
+    }
+
+    @Override
+    public List<ScoredMember> zRevRange(String key, long start, long end) {
+        return keyspace.read(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, null);
+            return zset == null ? new ArrayList<>() : zset.revRange(start, end);
+        });
+    }
+
+    @Override
+    public long zRemRangeByScore(String key, double min, double max) {
+        checkRange(min, max);
+        return keyspace.modify(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, null);
+            return zset == null ? 0L : zset.removeRangeByScore(min, max);
+        });
+    }
+
+    @Override
+    public List<ScoredMember> zPopMin(String key, int count) {
+        if (count < 0) {
+            throw new RedisException(RedisErrorCodes.ERR, "ERR value is out of range, must be positive");
+        }
+        return keyspace.modify(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, null);
+            return zset == null ? new ArrayList<>() : zset.popMin(count);
+        });
+    }
+
+    @Override
+    public String xAdd(String key, Map<String, String> fields, long maxLen) {
+        if (fields.isEmpty()) {
+            throw new RedisException(RedisErrorCodes.ERR, "ERR wrong number of arguments for 'xadd' command");
+        }
+        String id = keyspace.write(key, slot -> slot.collection(LocalStream.class, LocalStream::new)
+                .add(fields, maxLen, System.currentTimeMillis()));
+        streamLock.lock();
+        try {
+            streamAppends++;
+            streamAppended.signalAll();
+        } finally {
+            streamLock.unlock();
+        }
+        return id;
+    }
+
+    @Override
+    public long xLen(String key) {
+        return keyspace.read(key, slot -> {
+            LocalStream stream = slot.collection(LocalStream.class, null);
+            return stream == null ? 0L : stream.size();
+        });
+    }
+
+    @Override
+    public boolean xGroupCreate(String key, String group, String startId) {
+        LocalStream.checkId(startId);
+        return keyspace.write(key, slot -> slot.collection(LocalStream.class, LocalStream::new).createGroup(group, startId));
+    }
+
+    @Override
+    public List<StreamEntry> xReadGroup(String key, String group, String consumer, int count, long blockMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockMillis);
+        while (true) {
+            long appends = streamAppends();
+            List<StreamEntry> entries = keyspace.write(key, slot -> {
+                LocalStream stream = slot.collection(LocalStream.class, null);
+                if (stream == null) {
+                    throw new RedisException(RedisErrorCodes.NOGROUP,
+                            "NOGROUP No such key '" + key + "' or consumer group '" + group + "' in XREADGROUP with GROUP option");
+                }
+                return stream.readGroup(key, group, consumer, count, System.currentTimeMillis());
+            });
+            if (!entries.isEmpty() || blockMillis <= 0 || !awaitAppend(appends, deadline)) {
+                return entries;
+            }
+        }
+    }
+
+    @Override
+    public long xAck(String key, String group, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String[] idArray = ids.toArray(new String[0]);
+        return keyspace.modify(key, slot -> {
+            LocalStream stream = slot.collection(LocalStream.class, null);
+            return stream == null ? 0L : stream.ack(group, idArray);
+        });
+    }
+
+    @Override
+    public StreamClaimResult xAutoClaim(String key, String group, String consumer, long minIdleMillis, String startId, int count) {
+        return keyspace.modify(key, slot -> {
+            LocalStream stream = slot.collection(LocalStream.class, null);
+            if (stream == null) {
+                throw new RedisException(RedisErrorCodes.NOGROUP,
+                        "NOGROUP No such key '" + key + "' or consumer group '" + group + "' in XAUTOCLAIM with GROUP option");
+            }
+            return stream.autoClaim(key, group, consumer, minIdleMillis, startId, count, System.currentTimeMillis());
+        });
+    }
+
+    @Override
+    public List<StreamGroupInfo> xInfoGroups(String key) {
+        return keyspace.read(key, slot -> {
+            LocalStream stream = slot.collection(LocalStream.class, null);
+            if (stream == null) {
+                throw new RedisException(RedisErrorCodes.ERR, "ERR no such key");
+            }
+            return stream.groupInfos();
+        });
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        List<String> values = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            // 与MGET一致，非字符串类型的键返回null而不是报错
+            values.add(keyspace.read(key, slot -> stringValue(slot.value(), false)));
+        }
+        return values;
+    }
+
+    @Override
+    public void mSet(Map<String, String> map) {
+        int[] locked = keyspace.lockAll(map.keySet());
+        try {
+            map.forEach((key, value) -> keyspace.modify(key, slot -> {
+                slot.set(encode(value), 0);
+                return null;
+            }));
+        } finally {
+            keyspace.unlockAll(locked);
+        }
+    }
+
+    @Override
+    public long mDelete(List<String> keys) {
+        return delete(keys);
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return new LocalRedisBatch(this, config.getMaxBatchSize());
+    }
+
+    @Override
+    public Stream<String> scanKeys(String pattern, int count) {
+        Pattern regex = ScanStreams.globToPattern(pattern);
+        // 每页是一个分段中匹配的键
+        return ScanStreams.stream(0, cursor -> {
+            int index = (Integer) cursor;
+            return new ScanStreams.Page<>(index + 1, keyspace.keys(index, regex), index + 1 >= keyspace.stripeCount());
+        }, "Failed to scan keys");
+    }
+
+    @Override
+    public Stream<Map.Entry<String, Object>> hScan(String key, String pattern, int count) {
+        Pattern regex = ScanStreams.globToPattern(pattern);
+        List<Map.Entry<String, Object>> entries = keyspace.read(key, slot -> {
+            LocalHash hash = slot.collection(LocalHash.class, null);
+            List<Map.Entry<String, Object>> result = new ArrayList<>();
+            if (hash != null) {
+                hash.forEach((field, value) -> {
+                    if (regex == null || regex.matcher(field).matches()) {
+                        result.add(new AbstractMap.SimpleImmutableEntry<>(field, stringValue(value, false)));
+                    }
+                });
+            }
+            return result;
+        });
+        return entries.stream();
+    }
+
+    @Override
+    public Stream<String> sScan(String key, String pattern, int count) {
+        Pattern regex = ScanStreams.globToPattern(pattern);
+        List<String> members = keyspace.read(key, slot -> {
+            LocalSet set = slot.collection(LocalSet.class, null);
+            List<String> result = new ArrayList<>();
+            if (set != null) {
+                set.forEach(member -> {
+                    if (regex == null || regex.matcher(member).matches()) {
+                        result.add(member);
+                    }
+                });
+            }
+            return result;
+        });
+        return members.stream();
+    }
+
+    @Override
+    public Stream<ScoredMember> zScan(String key, String pattern, int count) {
+        Pattern regex = ScanStreams.globToPattern(pattern);
+        List<ScoredMember> members = keyspace.read(key, slot -> {
+            LocalZSet zset = slot.collection(LocalZSet.class, null);
+            List<ScoredMember> result = new ArrayList<>();
+            if (zset != null) {
+                zset.forEach((member, score) -> {
+                    if (regex == null || regex.matcher(member).matches()) {
+                        result.add(new ScoredMember(member, score));
+                    }
+                });
+            }
+            return result;
+        });
+        return members.stream();
+    }
+
+    @Override
+    public long publish(String channel, String message) {
+        return pubSub.publish(channel, message);
+    }
+
+    @Override
+    public RedisSubscription subscribe(RedisMessageListener listener, String... channels) {
+        return pubSub.subscribe(listener, channels);
+    }
+
+    @Override
+    public String scriptLoad(String script) {
+        String sha1 = sha1Hex(script);
+        loadedScripts.add(sha1);
+        return sha1;
+    }
+
+    @Override
+    public Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args) {
+        String normalized = sha1.toLowerCase();
+        if (!loadedScripts.contains(normalized)) {
+            throw new RedisException(RedisErrorCodes.NOSCRIPT, "NOSCRIPT No matching script. Please use EVAL.");
+        }
+        LocalScript script = scriptImplementations.get(normalized);
+        if (script == null) {
+            script = BUILTIN_SCRIPTS.get(normalized);
+        }
+        if (script == null) {
+            throw new RedisException(RedisErrorCodes.ERR,
+                    "ERR Lua scripts are not supported by the local provider, register a LocalScript for: " + normalized);
+        }
+        int[] locked = keyspace.lockAll(keys);
+        try {
+            return scriptResult(script.execute(this, keys, args), returnType);
+        } finally {
+            keyspace.unlockAll(locked);
+        }
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        return keyspace.read(key, slot -> bytesValue(slot.value(), true));
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value) {
+        byte[] copy = value.clone();
+        keyspace.write(key, slot -> {
+            slot.set(copy, 0);
+            return null;
+        });
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        long ttlNanos = ttlNanos(timeout, unit, "set");
+        byte[] copy = value.clone();
+        keyspace.write(key, slot -> {
+            slot.set(copy, deadline(slot.now(), ttlNanos));
+            return null;
+        });
+    }
+
+    @Override
+    public List<byte[]> mGetBytes(List<String> keys) {
+        List<byte[]> values = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            values.add(keyspace.read(key, slot -> bytesValue(slot.value(), false)));
+        }
+        return values;
+    }
+
+    @Override
+    public byte[] hGetBytes(String key, String field) {
+        return keyspace.read(key, slot -> {
+            LocalHash hash = slot.collection(LocalHash.class, null);
+            return hash == null ? null : bytesValue(hash.get(field), false);
+        });
+    }
+
+    @Override
+    public void hSetBytes(String key, String field, byte[] value) {
+        byte[] copy = value.clone();
+        keyspace.write(key, slot -> slot.collection(LocalHash.class, LocalHash::new).put(field, copy));
+    }
+
+    @Override
+    public Map<String, byte[]> hGetAllBytes(String key) {
+        return keyspace.read(key, slot -> {
+            LocalHash hash = slot.collection(LocalHash.class, null);
+            Map<String, byte[]> result = new HashMap<>();
+            if (hash != null) {
+                hash.forEach((field, value) -> result.put(field, bytesValue(value, false)));
+            }
+            return result;
+        });
+    }
+
+    IRedisConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 可以无损表示为整数的字符串按Long保存，与Redis的int编码一致
+     */
+    private static Object encode(String value) {
+        if (value == null) {
+            throw new RedisException("Value cannot be null");
+        }
+        int length = value.length();
+        if (length == 0 || length > 19) {
+            return value;
+        }
+        Long parsed = parseCanonicalLong(value);
+        return parsed != null ? parsed : value;
+    }
+
+    /**
+     * 转换为字符串值
+     * @param value 保存的值
+     * @param strict 不是字符串类型时是否报WRONGTYPE，否则返回null
+     */
+    private static String stringValue(Object value, boolean strict) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof Long) {
+            return value.toString();
+        }
+        if (value instanceof byte[]) {
+            return new String((byte[]) value, StandardCharsets.UTF_8);
+        }
+        if (strict) {
+            throw LocalKeyspace.wrongType();
+        }
+        return null;
+    }
+
+    private static byte[] bytesValue(Object value, boolean strict) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        if (value instanceof String || value instanceof Long) {
+            return value.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        if (strict) {
+            throw LocalKeyspace.wrongType();
+        }
+        return null;
+    }
+
+    private static Long parseLong(Object value) {
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        if (value instanceof String) {
+            return parseCanonicalLong((String) value);
+        }
+        if (value instanceof byte[]) {
+            return parseCanonicalLong(new String((byte[]) value, StandardCharsets.UTF_8));
+        }
+        throw LocalKeyspace.wrongType();
+    }
+
+    /**
+     * 按Redis的规则解析整数：不允许前导零、正号和空白
+     */
+    private static Long parseCanonicalLong(String value) {
+        int length = value.length();
+        if (length == 0 || length > 20) {
+            return null;
+        }
+        char first = value.charAt(0);
+        int digitsFrom = first == '-' ? 1 : 0;
+        if (digitsFrom == length) {
+            return null;
+        }
+        if (value.charAt(digitsFrom) == '0' && (length - digitsFrom > 1 || digitsFrom == 1)) {
+            return null;
+        }
+        for (int i = digitsFrom; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long add(long current, long delta) {
+        try {
+            return Math.addExact(current, delta);
+        } catch (ArithmeticException e) {
+            throw new RedisException(RedisErrorCodes.ERR, "ERR increment or decrement would overflow");
+        }
+    }
+
+    private static long ttlNanos(long timeout, TimeUnit unit, String command) {
+        long nanos = unit.toNanos(timeout);
+        if (nanos <= 0) {
+            throw new RedisException(RedisErrorCodes.ERR, "ERR invalid expire time in '" + command + "' command");
+        }
+        return nanos;
+    }
+
+    private long streamAppends() {
+        streamLock.lock();
+        try {
+            return streamAppends;
+        } finally {
+            streamLock.unlock();
+        }
+    }
+
+    /**
+     * 等待任意流追加消息
+     * @param appends 读取前的追加次数
+     * @param deadline 截止时间（System.nanoTime）
+     * @return 是否有新追加，超时或被中断时返回false
+     */
+    private boolean awaitAppend(long appends, long deadline) {
+        streamLock.lock();
+        try {
+            long remaining = deadline - System.nanoTime();
+            while (streamAppends == appends) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = streamAppended.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            streamLock.unlock();
+        }
+    }
+
+    private static void checkScore(double score) {
+        if (Double.isNaN(score)) {
+            throw new RedisException(RedisErrorCodes.ERR, "ERR value is not a valid float");
+        }
+    }
+
+    private static void checkRange(double min, double max) {
+        if (Double.isNaN(min) || Double.isNaN(max)) {
+            throw new RedisException(RedisErrorCodes.ERR, "ERR min or max is not a float");
+        }
+    }
+
+    private static long deadline(long now, long ttlNanos) {
+        long deadline = now + ttlNanos;
+        // 0表示不过期
+        return deadline == 0 ? 1 : deadline;
+    }
+
+    private static Object scriptResult(Object result, ScriptReturnType returnType) {
+        switch (returnType) {
+            case BOOLEAN:
+                if (result instanceof Boolean) {
+                    return result;
+                }
+                return result instanceof Number && ((Number) result).longValue() == 1;
+            case INTEGER:
+                if (result instanceof Boolean) {
+                    return (Boolean) result ? 1L : 0L;
+                }
+                return result instanceof Number ? ((Number) result).longValue() : result;
+            case STATUS:
+            case VALUE:
+                return result == null || result instanceof String ? result : String.valueOf(result);
+            default:
+                return result instanceof List ? result : result == null ? null : Collections.singletonList(result);
+        }
+    }
+
+    private static String sha1Hex(String script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package cn.com.anysdk.redis.impl;
+
+import java.util.List;
+
+/**
+ * 本地提供商执行的脚本
+ * <p>
+ * 本地提供商不内嵌Lua解释器，需要通过EVALSHA执行的脚本用{@link LocalRedisService#registerScript(String, LocalScript)}
+ * 按源码注册等价的Java实现。执行期间持有所有声明的键所在分段的锁，与Lua脚本一样对这些键原子执行；
+ * 实现中只能访问声明的键，IRedisService没有的命令（如ZREM、HDEL）由{@link LocalRedisService}提供。
+ */
+@FunctionalInterface
+public interface LocalScript {
+    /**
+     * 执行脚本
+     * @param redis 本地服务
+     * @param keys 键
+     * @param args 参数
+     * @return 返回值：整数用Long，字符串用String，数组用List，nil用null
+     */
+    Object execute(LocalRedisService redis, List<String> keys, List<String> args);
+}
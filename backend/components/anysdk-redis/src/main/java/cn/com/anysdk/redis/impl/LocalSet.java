@@ -0,0 +1,81 @@
+package cn.com.anysdk.redis.impl;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 本地集合
+ * <p>
+ * 成员不超过{@link #COMPACT_MAX_ENTRIES}个时保存在数组中按顺序查找，超过后转为HashSet，与Redis的listpack/hashtable编码对应。
+ */
+final class LocalSet implements LocalCollection {
+    static final int COMPACT_MAX_ENTRIES = 128;
+
+    private String[] members = new String[4];
+    private int size;
+    private Set<String> table;
+    private long weight = 64;
+
+    @Override
+    public int size() {
+        return table != null ? table.size() : size;
+    }
+
+    @Override
+    public long weight() {
+        return weight;
+    }
+
+    /**
+     * 添加成员
+     * @return 是否为新成员
+     */
+    boolean add(String member) {
+        if (table == null && size >= COMPACT_MAX_ENTRIES && !contains(member)) {
+            table = new HashSet<>(Arrays.asList(members).subList(0, size));
+            weight += 24L * size;
+            members = null;
+            size = 0;
+        }
+        if (table != null) {
+            if (table.add(member)) {
+                weight += 32 + member.length();
+                return true;
+            }
+            return false;
+        }
+        if (contains(member)) {
+            return false;
+        }
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size << 1);
+        }
+        members[size++] = member;
+        weight += 8 + member.length();
+        return true;
+    }
+
+    boolean contains(String member) {
+        if (table != null) {
+            return table.contains(member);
+        }
+        for (int i = 0; i < size; i++) {
+            if (members[i].equals(member)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void forEach(Consumer<String> action) {
+        if (table != null) {
+            table.forEach(action);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            action.accept(members[i]);
+        }
+    }
+}
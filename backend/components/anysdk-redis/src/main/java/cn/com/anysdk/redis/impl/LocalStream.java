@@ -0,0 +1,343 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
+import cn.com.anysdk.redis.exception.RedisErrorCodes;
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 本地流
+ * <p>
+ * 消息按ID保存在TreeMap中，每个消费者组记录最后投递的ID和按ID排序的待确认列表。
+ * 与Redis一致，流在消息被裁剪或删除完之后仍然保留。MAXLEN ~按精确长度裁剪，满足近似裁剪的语义。
+ */
+final class LocalStream implements LocalCollection {
+    private final TreeMap<Id, Map<String, String>> entries = new TreeMap<>();
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+    private Id lastId = Id.ZERO;
+    private long entriesAdded;
+    private long weight = 64;
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public long weight() {
+        return weight;
+    }
+
+    @Override
+    public boolean deleteWhenEmpty() {
+        return false;
+    }
+
+    /**
+     * 追加消息，ID取当前毫秒时间戳，时钟回拨或同一毫秒内递增序号
+     * @param maxLen 大于0时裁剪到该长度
+     * @return 消息ID
+     */
+    String add(Map<String, String> fields, long maxLen, long nowMillis) {
+        Id id = nowMillis > lastId.millis ? new Id(nowMillis, 0) : new Id(lastId.millis, lastId.sequence + 1);
+        Map<String, String> copy = new HashMap<>(fields);
+        entries.put(id, copy);
+        weight += entryWeight(copy);
+        lastId = id;
+        entriesAdded++;
+        while (maxLen > 0 && entries.size() > maxLen) {
+            weight -= entryWeight(entries.pollFirstEntry().getValue());
+        }
+        return id.toString();
+    }
+
+    /**
+     * 创建消费者组
+     * @return 是否新建
+     */
+    boolean createGroup(String name, String startId) {
+        if (groups.containsKey(name)) {
+            return false;
+        }
+        Id start = "$".equals(startId) ? lastId : Id.parse(startId);
+        long entriesRead = start.equals(lastId) ? entriesAdded : start.equals(Id.ZERO) ? 0 : -1;
+        groups.put(name, new Group(start, entriesRead));
+        weight += 128 + name.length();
+        return true;
+    }
+
+    /**
+     * 检查消息ID的格式，$表示最后一条消息
+     * @throws RedisException ID格式不正确
+     */
+    static void checkId(String id) {
+        if (!"$".equals(id)) {
+            Id.parse(id);
+        }
+    }
+
+    /**
+     * 读取尚未投递给该组的消息，与XREADGROUP ... &gt;一致
+     */
+    List<StreamEntry> readGroup(String key, String groupName, String consumer, int count, long nowMillis) {
+        Group group = group(key, groupName, "XREADGROUP");
+        group.consumers.add(consumer);
+        List<StreamEntry> result = new ArrayList<>(Math.min(count, 64));
+        Iterator<Map.Entry<Id, Map<String, String>>> iterator = entries.tailMap(group.lastDeliveredId, false).entrySet().iterator();
+        while (result.size() < count && iterator.hasNext()) {
+            Map.Entry<Id, Map<String, String>> entry = iterator.next();
+            group.lastDeliveredId = entry.getKey();
+            if (group.entriesRead >= 0) {
+                group.entriesRead++;
+            }
+            group.pending.put(entry.getKey(), new Pending(consumer, nowMillis));
+            weight += Pending.WEIGHT;
+            result.add(new StreamEntry(entry.getKey().toString(), new HashMap<>(entry.getValue())));
+        }
+        return result;
+    }
+
+    /**
+     * 确认消息，组不存在时返回0
+     */
+    long ack(String groupName, String[] ids) {
+        Group group = groups.get(groupName);
+        if (group == null) {
+            return 0;
+        }
+        long acked = 0;
+        for (String id : ids) {
+            if (group.pending.remove(Id.parse(id)) != null) {
+                weight -= Pending.WEIGHT;
+                acked++;
+            }
+        }
+        return acked;
+    }
+
+    /**
+     * 转移空闲的待确认消息，与Redis 7.0的XAUTOCLAIM一致：已删除的消息从待确认列表中移除并在deletedIds中返回
+     */
+    StreamClaimResult autoClaim(String key, String groupName, String consumer, long minIdleMillis, String startId,
+                                int count, long nowMillis) {
+        Group group = group(key, groupName, "XAUTOCLAIM");
+        group.consumers.add(consumer);
+        List<StreamEntry> claimed = new ArrayList<>();
+        List<String> deletedIds = new ArrayList<>();
+        // 与Redis相同，最多检查count的10倍条待确认消息，避免单次调用耗时过长
+        long attempts = (long) count * 10;
+        Iterator<Map.Entry<Id, Pending>> iterator = group.pending.tailMap(Id.parse(startId), true).entrySet().iterator();
+        while (claimed.size() < count && attempts-- > 0 && iterator.hasNext()) {
+            Map.Entry<Id, Pending> pending = iterator.next();
+            Map<String, String> fields = entries.get(pending.getKey());
+            if (fields == null) {
+                iterator.remove();
+                weight -= Pending.WEIGHT;
+                deletedIds.add(pending.getKey().toString());
+                continue;
+            }
+            if (nowMillis - pending.getValue().deliveryTime < minIdleMillis) {
+                continue;
+            }
+            pending.getValue().consumer = consumer;
+            pending.getValue().deliveryTime = nowMillis;
+            pending.getValue().deliveryCount++;
+            claimed.add(new StreamEntry(pending.getKey().toString(), new HashMap<>(fields)));
+        }
+        String nextId = iterator.hasNext() ? iterator.next().getKey().toString() : Id.ZERO.toString();
+        return new StreamClaimResult(nextId, claimed, deletedIds);
+    }
+
+    List<StreamGroupInfo> groupInfos() {
+        List<StreamGroupInfo> infos = new ArrayList<>(groups.size());
+        groups.forEach((name, group) -> infos.add(new StreamGroupInfo(name, group.consumers.size(), group.pending.size(),
+                group.lastDeliveredId.toString(), group.entriesRead, entries.tailMap(group.lastDeliveredId, false).size())));
+        return infos;
+    }
+
+    /**
+     * 按LocalDump的格式写出消息、组、消费者和待确认列表
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        lastId.writeTo(out);
+        out.writeLong(entriesAdded);
+        out.writeInt(entries.size());
+        for (Map.Entry<Id, Map<String, String>> entry : entries.entrySet()) {
+            entry.getKey().writeTo(out);
+            out.writeInt(entry.getValue().size());
+            for (Map.Entry<String, String> field : entry.getValue().entrySet()) {
+                LocalDump.writeString(out, field.getKey());
+                LocalDump.writeString(out, field.getValue());
+            }
+        }
+        out.writeInt(groups.size());
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            Group group = entry.getValue();
+            LocalDump.writeString(out, entry.getKey());
+            group.lastDeliveredId.writeTo(out);
+            out.writeLong(group.entriesRead);
+            out.writeInt(group.consumers.size());
+            for (String consumer : group.consumers) {
+                LocalDump.writeString(out, consumer);
+            }
+            out.writeInt(group.pending.size());
+            for (Map.Entry<Id, Pending> pending : group.pending.entrySet()) {
+                pending.getKey().writeTo(out);
+                LocalDump.writeString(out, pending.getValue().consumer);
+                out.writeLong(pending.getValue().deliveryTime);
+                out.writeLong(pending.getValue().deliveryCount);
+            }
+        }
+    }
+
+    static LocalStream readFrom(DataInputStream in) throws IOException {
+        LocalStream stream = new LocalStream();
+        stream.lastId = Id.readFrom(in);
+        stream.entriesAdded = in.readLong();
+        int size = LocalDump.readSize(in);
+        for (int i = 0; i < size; i++) {
+            Id id = Id.readFrom(in);
+            int fieldCount = LocalDump.readSize(in);
+            Map<String, String> fields = new HashMap<>(fieldCount * 4 / 3 + 1);
+            for (int j = 0; j < fieldCount; j++) {
+                String field = LocalDump.readString(in);
+                fields.put(field, LocalDump.readString(in));
+            }
+            stream.entries.put(id, fields);
+            stream.weight += entryWeight(fields);
+        }
+        int groupCount = LocalDump.readSize(in);
+        for (int i = 0; i < groupCount; i++) {
+            String name = LocalDump.readString(in);
+            Group group = new Group(Id.readFrom(in), in.readLong());
+            int consumerCount = LocalDump.readSize(in);
+            for (int j = 0; j < consumerCount; j++) {
+                group.consumers.add(LocalDump.readString(in));
+            }
+            int pendingCount = LocalDump.readSize(in);
+            for (int j = 0; j < pendingCount; j++) {
+                Id id = Id.readFrom(in);
+                Pending pending = new Pending(LocalDump.readString(in), in.readLong());
+                pending.deliveryCount = in.readLong();
+                group.pending.put(id, pending);
+            }
+            stream.groups.put(name, group);
+            stream.weight += 128 + name.length() + (long) Pending.WEIGHT * pendingCount;
+        }
+        return stream;
+    }
+
+    private Group group(String key, String groupName, String command) {
+        Group group = groups.get(groupName);
+        if (group == null) {
+            throw new RedisException(RedisErrorCodes.NOGROUP,
+                    "NOGROUP No such key '" + key + "' or consumer group '" + groupName + "' in " + command + " with GROUP option");
+        }
+        return group;
+    }
+
+    private static long entryWeight(Map<String, String> fields) {
+        long weight = 64;
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            weight += 32 + field.getKey().length() + field.getValue().length();
+        }
+        return weight;
+    }
+
+    /**
+     * 消息ID，毫秒时间戳-序号
+     */
+    private static final class Id implements Comparable<Id> {
+        static final Id ZERO = new Id(0, 0);
+
+        final long millis;
+        final long sequence;
+
+        Id(long millis, long sequence) {
+            this.millis = millis;
+            this.sequence = sequence;
+        }
+
+        static Id parse(String id) {
+            try {
+                int separator = id.indexOf('-');
+                if (separator < 0) {
+                    return new Id(Long.parseUnsignedLong(id), 0);
+                }
+                return new Id(Long.parseUnsignedLong(id.substring(0, separator)), Long.parseUnsignedLong(id.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new RedisException(RedisErrorCodes.ERR, "ERR Invalid stream ID specified as stream command argument");
+            }
+        }
+
+        static Id readFrom(DataInputStream in) throws IOException {
+            return new Id(in.readLong(), in.readLong());
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeLong(millis);
+            out.writeLong(sequence);
+        }
+
+        @Override
+        public int compareTo(Id other) {
+            int result = Long.compareUnsigned(millis, other.millis);
+            return result != 0 ? result : Long.compareUnsigned(sequence, other.sequence);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Id && compareTo((Id) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(millis) * 31 + Long.hashCode(sequence);
+        }
+
+        @Override
+        public String toString() {
+            return Long.toUnsignedString(millis) + "-" + Long.toUnsignedString(sequence);
+        }
+    }
+
+    private static final class Group {
+        private final NavigableMap<Id, Pending> pending = new TreeMap<>();
+        private final Set<String> consumers = new HashSet<>();
+        private Id lastDeliveredId;
+        private long entriesRead;
+
+        private Group(Id lastDeliveredId, long entriesRead) {
+            this.lastDeliveredId = lastDeliveredId;
+            this.entriesRead = entriesRead;
+        }
+    }
+
+    private static final class Pending {
+        private static final int WEIGHT = 64;
+
+        private String consumer;
+        private long deliveryTime;
+        private long deliveryCount = 1;
+
+        private Pending(String consumer, long deliveryTime) {
+            this.consumer = consumer;
+            this.deliveryTime = deliveryTime;
+        }
+    }
+}
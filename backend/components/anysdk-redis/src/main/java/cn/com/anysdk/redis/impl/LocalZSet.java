@@ -0,0 +1,344 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.ScoredMember;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * 本地有序集合
+ * <p>
+ * 与Redis的skiplist编码相同：成员到节点的HashMap加带跨度的跳表，按分数、分数相同时按成员排序，
+ * 查分数O(1)，插入、删除、按分数定位和按排名定位都是O(log N)。
+ */
+final class LocalZSet implements LocalCollection {
+    private static final int MAX_LEVEL = 32;
+
+    private final Map<String, Node> dict = new HashMap<>();
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private Node tail;
+    private int level = 1;
+    private int length;
+    private long weight = 64;
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    @Override
+    public long weight() {
+        return weight;
+    }
+
+    Double score(String member) {
+        Node node = dict.get(member);
+        return node == null ? null : node.score;
+    }
+
+    /**
+     * 添加成员或更新分数
+     * @return 是否为新成员
+     */
+    boolean add(String member, double score) {
+        Node node = dict.get(member);
+        if (node == null) {
+            dict.put(member, insert(score, member));
+            weight += 64 + member.length();
+            return true;
+        }
+        if (node.score != score) {
+            updateScore(node, score);
+        }
+        return false;
+    }
+
+    /**
+     * 按排名获取成员，与ZRANK/ZREVRANK一致
+     * @return 从0开始的排名，成员不存在时返回-1
+     */
+    long rank(String member, boolean reverse) {
+        Node node = dict.get(member);
+        if (node == null) {
+            return -1;
+        }
+        long rank = rankOf(node.score, member);
+        return reverse ? length - rank : rank - 1;
+    }
+
+    /**
+     * 按ZRANGEBYSCORE ... LIMIT语义获取分数范围内的成员
+     */
+    List<ScoredMember> rangeByScore(double min, double max, long offset, long count) {
+        Node node = firstInRange(min, max);
+        List<ScoredMember> result = new ArrayList<>();
+        for (long skipped = 0; node != null && skipped < offset; skipped++) {
+            node = node.forward[0];
+        }
+        while (node != null && node.score <= max && (count < 0 || result.size() < count)) {
+            result.add(new ScoredMember(node.member, node.score));
+            node = node.forward[0];
+        }
+        return result;
+    }
+
+    /**
+     * 按ZREVRANGE语义获取排名范围内的成员，负数下标从末尾计算，结束下标包含在内
+     */
+    List<ScoredMember> revRange(long start, long end) {
+        if (start < 0) {
+            start = Math.max(0, length + start);
+        }
+        if (end < 0) {
+            end = length + end;
+        }
+        end = Math.min(end, length - 1L);
+        if (start > end) {
+            return Collections.emptyList();
+        }
+        List<ScoredMember> result = new ArrayList<>((int) (end - start + 1));
+        Node node = byRank(length - start);
+        for (long i = start; i <= end; i++) {
+            result.add(new ScoredMember(node.member, node.score));
+            node = node.backward;
+        }
+        return result;
+    }
+
+    /**
+     * 删除成员
+     * @return 成员是否存在
+     */
+    boolean remove(String member) {
+        Node node = dict.get(member);
+        if (node == null) {
+            return false;
+        }
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.forward[i] != null && x.forward[i] != node && precedes(x.forward[i], node.score, node.member)) {
+                x = x.forward[i];
+            }
+            update[i] = x;
+        }
+        remove(node, update);
+        return true;
+    }
+
+    long removeRangeByScore(double min, double max) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.forward[i] != null && node.forward[i].score < min) {
+                node = node.forward[i];
+            }
+            update[i] = node;
+        }
+        node = node.forward[0];
+        long removed = 0;
+        while (node != null && node.score <= max) {
+            Node next = node.forward[0];
+            remove(node, update);
+            removed++;
+            node = next;
+        }
+        return removed;
+    }
+
+    List<ScoredMember> popMin(int count) {
+        List<ScoredMember> result = new ArrayList<>(Math.min(count, length));
+        Node[] update = new Node[MAX_LEVEL];
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            update[i] = head;
+        }
+        while (result.size() < count && head.forward[0] != null) {
+            Node node = head.forward[0];
+            result.add(new ScoredMember(node.member, node.score));
+            remove(node, update);
+        }
+        return result;
+    }
+
+    /**
+     * 按分数升序遍历
+     */
+    void forEach(ObjDoubleConsumer<String> action) {
+        for (Node node = head.forward[0]; node != null; node = node.forward[0]) {
+            action.accept(node.member, node.score);
+        }
+    }
+
+    private void updateScore(Node node, double score) {
+        // 新分数仍在前后节点之间时原地更新，否则删除后重新插入
+        if ((node.backward == null || node.backward.score < score)
+                && (node.forward[0] == null || node.forward[0].score > score)) {
+            node.score = score;
+            return;
+        }
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.forward[i] != null && x.forward[i] != node && precedes(x.forward[i], node.score, node.member)) {
+                x = x.forward[i];
+            }
+            update[i] = x;
+        }
+        unlink(node, update);
+        dict.put(node.member, insert(score, node.member));
+    }
+
+    private Node insert(double score, String member) {
+        Node[] update = new Node[MAX_LEVEL];
+        long[] rank = new long[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.forward[i] != null && precedes(x.forward[i], score, member)) {
+                rank[i] += x.span[i];
+                x = x.forward[i];
+            }
+            update[i] = x;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = length;
+            }
+            level = nodeLevel;
+        }
+        x = new Node(member, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            x.forward[i] = update[i].forward[i];
+            update[i].forward[i] = x;
+            x.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        x.backward = update[0] == head ? null : update[0];
+        if (x.forward[0] != null) {
+            x.forward[0].backward = x;
+        } else {
+            tail = x;
+        }
+        length++;
+        return x;
+    }
+
+    /**
+     * 删除节点，update为每一层中节点的前驱
+     */
+    private void remove(Node node, Node[] update) {
+        unlink(node, update);
+        dict.remove(node.member);
+        weight -= 64 + node.member.length();
+    }
+
+    private void unlink(Node node, Node[] update) {
+        for (int i = 0; i < level; i++) {
+            if (update[i].forward[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].forward[i] = node.forward[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        if (node.forward[0] != null) {
+            node.forward[0].backward = node.backward;
+        } else {
+            tail = node.backward;
+        }
+        while (level > 1 && head.forward[level - 1] == null) {
+            level--;
+        }
+        length--;
+    }
+
+    /**
+     * 从1开始的排名
+     */
+    private long rankOf(double score, String member) {
+        long rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.forward[i] != null && (x.forward[i].score < score
+                    || (x.forward[i].score == score && x.forward[i].member.compareTo(member) <= 0))) {
+                rank += x.span[i];
+                x = x.forward[i];
+            }
+            if (x != head && x.member.equals(member)) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 按从1开始的排名获取节点
+     */
+    private Node byRank(long rank) {
+        long traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.forward[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.forward[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private Node firstInRange(double min, double max) {
+        if (min > max || tail == null || tail.score < min) {
+            return null;
+        }
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.forward[i] != null && x.forward[i].score < min) {
+                x = x.forward[i];
+            }
+        }
+        x = x.forward[0];
+        return x != null && x.score <= max ? x : null;
+    }
+
+    private static boolean precedes(Node node, double score, String member) {
+        return node.score < score || (node.score == score && node.member.compareTo(member) < 0);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        // 与Redis相同，每层的概率为1/4
+        while (nodeLevel < MAX_LEVEL && (ThreadLocalRandom.current().nextInt() & 3) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+        private final String member;
+        private double score;
+        private Node backward;
+        private final Node[] forward;
+        private final long[] span;
+
+        private Node(String member, double score, int level) {
+            this.member = member;
+            this.score = score;
+            this.forward = new Node[level];
+            this.span = new long[level];
+        }
+    }
+}
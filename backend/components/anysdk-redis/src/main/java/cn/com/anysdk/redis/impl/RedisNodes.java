@@ -0,0 +1,58 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.util.List;
+
+/**
+ * 节点地址解析工具
+ */
+final class RedisNodes {
+
+    private RedisNodes() {
+    }
+
+    /**
+     * 获取配置的节点地址，未配置时抛出异常
+     * @param config Redis配置
+     * @return 节点地址列表（集群种子节点或哨兵节点）
+     */
+    static List<String> seedNodes(IRedisConfig config) {
+        List<String> nodes = config.getNodes();
+        if (nodes == null || nodes.isEmpty()) {
+            throw new RedisException("Redis mode " + config.getMode() + " requires at least one node address");
+        }
+        return nodes;
+    }
+
+    /**
+     * 解析主机地址，端口以最后一个冒号分隔，兼容IPv6地址
+     * @param node host:port格式的节点地址
+     * @return 主机地址
+     */
+    static String host(String node) {
+        return node.substring(0, separator(node));
+    }
+
+    /**
+     * 解析端口
+     * @param node host:port格式的节点地址
+     * @return 端口
+     */
+    static int port(String node) {
+        try {
+            return Integer.parseInt(node.substring(separator(node) + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new RedisException("Invalid node address: " + node, e);
+        }
+    }
+
+    private static int separator(String node) {
+        int index = node.lastIndexOf(':');
+        if (index <= 0 || index == node.length() - 1) {
+            throw new RedisException("Invalid node address: " + node);
+        }
+        return index;
+    }
+}
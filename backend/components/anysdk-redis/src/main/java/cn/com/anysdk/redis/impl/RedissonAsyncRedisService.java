@@ -0,0 +1,191 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IAsyncRedisService;
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.exception.RedisException;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RDeque;
+import org.redisson.api.RMap;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redisson实现的异步Redis服务
+ * 直接使用Redisson原生RFuture，与同步服务共享同一个客户端
+ */
+@Slf4j
+public class RedissonAsyncRedisService implements IAsyncRedisService {
+    private final RedissonClient redissonClient;
+    private final IRedisConfig config;
+
+    public RedissonAsyncRedisService(IRedisConfig config) {
+        this(new RedissonRedisService(config));
+    }
+
+    public RedissonAsyncRedisService(RedissonRedisService redisService) {
+        if (redisService == null) {
+            throw new RedisException("Redis service cannot be null");
+        }
+        this.redissonClient = redisService.getRedissonClient();
+        this.config = redisService.getConfig();
+
+        log.info("Initialized Redisson async Redis service with host: {}, port: {}", config.getHost(), config.getPort());
+    }
+
+    @Override
+    public CompletableFuture<Void> set(String key, String value) {
+        return AsyncResults.wrap(redissonClient.<String>getBucket(key).setAsync(value), "Failed to set value");
+    }
+
+    @Override
+    public CompletableFuture<Void> set(String key, String value, long timeout, TimeUnit unit) {
+        return AsyncResults.wrap(redissonClient.<String>getBucket(key).setAsync(value, timeout, unit),
+                "Failed to set value with expiration");
+    }
+
+    @Override
+    public CompletableFuture<String> get(String key) {
+        return AsyncResults.wrap(redissonClient.<String>getBucket(key).getAsync(), "Failed to get value");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delete(String key) {
+        return AsyncResults.wrap(redissonClient.getBucket(key).deleteAsync(), "Failed to delete key");
+    }
+
+    @Override
+    public CompletableFuture<Long> delete(List<String> keys) {
+        return AsyncResults.wrap(redissonClient.getKeys().deleteAsync(keys.toArray(new String[0])), "Failed to delete keys");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        return AsyncResults.wrap(redissonClient.getBucket(key).expireAsync(timeout, unit), "Failed to set expiration");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasKey(String key) {
+        return AsyncResults.wrap(redissonClient.getBucket(key).isExistsAsync(), "Failed to check key existence");
+    }
+
+    @Override
+    public CompletableFuture<Long> getExpire(String key, TimeUnit unit) {
+        return AsyncResults.wrap(redissonClient.getBucket(key).remainTimeToLiveAsync(), "Failed to get expiration")
+                .thenApply(millis -> millis > 0 ? unit.convert(millis, TimeUnit.MILLISECONDS) : millis);
+    }
+
+    @Override
+    public CompletableFuture<Void> hSet(String key, String field, Object value) {
+        RMap<String, Object> map = redissonClient.getMap(key);
+        return AsyncResults.wrap(map.fastPutAsync(field, value), "Failed to set hash field")
+                .thenApply(added -> null);
+    }
+
+    @Override
+    public CompletableFuture<Object> hGet(String key, String field) {
+        RMap<String, Object> map = redissonClient.getMap(key);
+        return AsyncResults.wrap(map.getAsync(field), "Failed to get hash field");
+    }
+
+    @Override
+    public CompletableFuture<Void> hSetAll(String key, Map<String, Object> map) {
+        RMap<String, Object> rMap = redissonClient.getMap(key);
+        return AsyncResults.wrap(rMap.putAllAsync(map), "Failed to set all hash fields");
+    }
+
+    @Override
+    public CompletableFuture<Map<Object, Object>> hGetAll(String key) {
+        RMap<Object, Object> map = redissonClient.getMap(key);
+        return AsyncResults.wrap(map.readAllMapAsync(), "Failed to get all hash fields");
+    }
+
+    @Override
+    public CompletableFuture<Long> lPush(String key, String value) {
+        RDeque<String> deque = redissonClient.getDeque(key);
+        return AsyncResults.wrap(deque.addFirstAsync(value).thenCompose(ignored -> deque.sizeAsync()), "Failed to push to list")
+                .thenApply(Integer::longValue);
+    }
+
+    @Override
+    public CompletableFuture<Long> rPush(String key, String value) {
+        RDeque<String> deque = redissonClient.getDeque(key);
+        return AsyncResults.wrap(deque.addLastAsync(value).thenCompose(ignored -> deque.sizeAsync()), "Failed to push to list")
+                .thenApply(Integer::longValue);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> lRange(String key, long start, long end) {
+        return AsyncResults.wrap(redissonClient.<String>getList(key).rangeAsync((int) start, (int) end), "Failed to get list range");
+    }
+
+    @Override
+    public CompletableFuture<Long> sAdd(String key, String... values) {
+        RSet<String> set = redissonClient.getSet(key);
+        return AsyncResults.wrap(set.addAllCountedAsync(Arrays.asList(values)), "Failed to add to set")
+                .thenApply(Integer::longValue);
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> sMembers(String key) {
+        RSet<String> set = redissonClient.getSet(key);
+        return AsyncResults.wrap(set.readAllAsync(), "Failed to get set members");
+    }
+
+    @Override
+    public CompletableFuture<List<String>> mGet(List<String> keys) {
+        int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+        List<CompletableFuture<Map<String, String>>> futures = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<String> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            futures.add(AsyncResults.wrap(redissonClient.getBuckets().getAsync(chunk.toArray(new String[0])), "Failed to get values"));
+        }
+        return AsyncResults.allOf(futures).thenApply(chunks -> {
+            Map<String, String> found = new HashMap<>();
+            chunks.forEach(found::putAll);
+            List<String> values = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                values.add(found.get(key));
+            }
+            return values;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> mSet(Map<String, String> map) {
+        int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        Map<String, String> chunk = new HashMap<>();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() >= batchSize) {
+                futures.add(AsyncResults.wrap(redissonClient.getBuckets().setAsync(chunk), "Failed to set values"));
+                chunk = new HashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            futures.add(AsyncResults.wrap(redissonClient.getBuckets().setAsync(chunk), "Failed to set values"));
+        }
+        return AsyncResults.allOf(futures).thenApply(replies -> null);
+    }
+
+    @Override
+    public CompletableFuture<Long> mDelete(List<String> keys) {
+        int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<String> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            futures.add(AsyncResults.wrap(redissonClient.getKeys().deleteAsync(chunk.toArray(new String[0])), "Failed to delete keys"));
+        }
+        return AsyncResults.allOf(futures)
+                .thenApply(counts -> counts.stream().mapToLong(Long::longValue).sum());
+    }
+}
@@ -0,0 +1,117 @@
+package cn.com.anysdk.redis.impl;
+
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RDequeAsync;
+import org.redisson.api.RFuture;
+import org.redisson.api.RMapAsync;
+import org.redisson.api.RedissonClient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redisson RBatch的批量操作实现
+ */
+class RedissonRedisBatch extends AbstractRedisBatch {
+    private final RedissonClient redissonClient;
+    private final long timeoutMillis;
+
+    RedissonRedisBatch(RedissonClient redissonClient, int maxBatchSize, long timeoutMillis) {
+        super(maxBatchSize);
+        this.redissonClient = redissonClient;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    protected List<?> executePipeline(List<BatchCommand> chunk) {
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults()
+                .responseTimeout(timeoutMillis, TimeUnit.MILLISECONDS));
+        List<RFuture<?>> futures = new ArrayList<>(chunk.size());
+        for (BatchCommand command : chunk) {
+            futures.add(queue(batch, command));
+        }
+        batch.execute();
+
+        List<Object> replies = new ArrayList<>(futures.size());
+        for (RFuture<?> future : futures) {
+            replies.add(future.toCompletableFuture().join());
+        }
+        return replies;
+    }
+
+    private RFuture<?> queue(RBatch batch, BatchCommand command) {
+        String key = command.getKey();
+        switch (command.getType()) {
+            case SET:
+                return batch.getBucket(key).setAsync(command.getString(0));
+            case SET_EX:
+                return batch.getBucket(key).setAsync(command.getString(0), command.getLong(1), TimeUnit.MILLISECONDS);
+            case GET:
+                return batch.getBucket(key).getAsync();
+            case DELETE:
+                return batch.getBucket(key).deleteAsync();
+            case EXPIRE:
+                return batch.getBucket(key).expireAsync(command.getLong(0), TimeUnit.MILLISECONDS);
+            case HSET: {
+                RMapAsync<String, Object> map = batch.getMap(key);
+                return map.fastPutAsync(command.getString(0), command.getArg(1));
+            }
+            case HGET: {
+                RMapAsync<String, Object> map = batch.getMap(key);
+                return map.getAsync(command.getString(0));
+            }
+            case HSET_ALL: {
+                RMapAsync<String, Object> map = batch.getMap(key);
+                return map.putAllAsync(command.getMap(0));
+            }
+            case LPUSH: {
+                // 与同步实现保持一致，返回入队后的列表长度
+                RDequeAsync<String> deque = batch.getDeque(key);
+                deque.addFirstAsync(command.getString(0));
+                return deque.sizeAsync();
+            }
+            case RPUSH: {
+                RDequeAsync<String> deque = batch.getDeque(key);
+                deque.addLastAsync(command.getString(0));
+                return deque.sizeAsync();
+            }
+            case SADD:
+                return batch.<String>getSet(key).addAllCountedAsync(Arrays.asList(command.getStrings(0)));
+            case INCRBY:
+                return batch.getAtomicLong(key).addAndGetAsync(command.getLong(0));
+            case ZADD:
+                return batch.<String>getScoredSortedSet(key).addAsync(command.getDouble(0), command.getString(1));
+            case ZINCRBY:
+                return batch.<String>getScoredSortedSet(key).addScoreAsync(command.getString(1), command.getDouble(0));
+            case ZREMRANGEBYSCORE:
+                return batch.getScoredSortedSet(key)
+                        .removeRangeByScoreAsync(command.getDouble(0), true, command.getDouble(1), true);
+            case ZCARD:
+                return batch.getScoredSortedSet(key).sizeAsync();
+            case XADD:
+                return batch.<String, String>getStream(key)
+                        .addAsync(RedissonRedisService.streamAddArgs(command.getStringMap(0), command.getLong(1)));
+            case XACK:
+                return batch.getStream(key).ackAsync(command.getString(0),
+                        RedissonRedisService.messageIds(Arrays.asList(command.getStrings(1))));
+            case HINCRBY: {
+                // Redisson的addAndGet使用HINCRBYFLOAT，整数结果以字符串返回，由normalize转换
+                RMapAsync<String, Object> map = batch.getMap(key);
+                return map.addAndGetAsync(command.getString(0), command.getLong(1));
+            }
+            case DUMP:
+                return batch.getBucket(key).dumpAsync();
+            case RESTORE:
+                return command.getBoolean(2)
+                        ? batch.getBucket(key).restoreAndReplaceAsync(command.getBytes(1), command.getLong(0), TimeUnit.MILLISECONDS)
+                        : batch.getBucket(key).restoreAsync(command.getBytes(1), command.getLong(0), TimeUnit.MILLISECONDS);
+            case PTTL:
+                return batch.getBucket(key).remainTimeToLiveAsync();
+            default:
+                throw new IllegalStateException("Unsupported batch command: " + command.getType());
+        }
+    }
+}
@@ -2,29 +2,72 @@ package cn.com.anysdk.redis.impl;
 
 import cn.com.anysdk.redis.api.IRedisConfig;
 import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.RedisMessageListener;
+import cn.com.anysdk.redis.api.RedisSubscription;
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
 import cn.com.anysdk.redis.exception.RedisException;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.Redisson;
+import org.redisson.api.AutoClaimResult;
 import org.redisson.api.RBucket;
+import org.redisson.api.RBuckets;
 import org.redisson.api.RList;
 import org.redisson.api.RMap;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScript;
 import org.redisson.api.RSet;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.ScoredEntry;
+import org.redisson.codec.CompositeCodec;
+import org.redisson.config.ClusterServersConfig;
 import org.redisson.config.Config;
+import org.redisson.config.MasterSlaveServersConfig;
+import org.redisson.config.ReadMode;
+import org.redisson.config.SentinelServersConfig;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Redisson实现的Redis服务
+ * <p>
+ * 默认编解码器为UTF-8字符串，写入的字节与Jedis、Lettuce一致，同一个键可以由不同实现读写；
+ * 字节接口使用{@link ByteArrayCodec}原样读写值，哈希字段名仍按UTF-8编码。
  */
 @Slf4j
 public class RedissonRedisService implements IRedisService {
+    private static final Codec HASH_BYTES_CODEC = new CompositeCodec(StringCodec.INSTANCE, ByteArrayCodec.INSTANCE);
+    private static final String ZPOPMIN_SCRIPT = "return redis.call('ZPOPMIN', KEYS[1], ARGV[1])";
+    private static final String XGROUP_CREATE_SCRIPT =
+            "local reply = redis.pcall('XGROUP', 'CREATE', KEYS[1], ARGV[1], ARGV[2], 'MKSTREAM') "
+                    + "if type(reply) == 'table' and reply.err then "
+                    + "if string.sub(reply.err, 1, 9) == 'BUSYGROUP' then return 0 end "
+                    + "return redis.error_reply(reply.err) end "
+                    + "return 1";
+    private static final String XINFO_GROUPS_SCRIPT = "return redis.call('XINFO', 'GROUPS', KEYS[1])";
+
     private final RedissonClient redissonClient;
     private final IRedisConfig config;
 
@@ -32,25 +75,119 @@ public class RedissonRedisService implements IRedisService {
         this.config = config;
         
         Config redissonConfig = new Config();
-        String address = "redis://" + config.getHost() + ":" + config.getPort();
-        
-        if (config.isUseSsl()) {
-            address = "rediss://" + config.getHost() + ":" + config.getPort();
-        }
-        
-        redissonConfig.useSingleServer()
-                .setAddress(address)
-                .setDatabase(config.getDatabase())
-                .setConnectTimeout(config.getConnectTimeout())
-                .setConnectionPoolSize(config.getMaxConnections());
-                
-        if (!config.getPassword().isEmpty()) {
-            redissonConfig.useSingleServer().setPassword(config.getPassword());
+        // 不使用Redisson默认的对象序列化，保证各实现之间的线上字节一致
+        redissonConfig.setCodec(StringCodec.INSTANCE);
+        String scheme = config.isUseSsl() ? "rediss://" : "redis://";
+
+        if (config.isClusterMode()) {
+            // 集群模式由Redisson按槽位路由并处理MOVED/ASK，RBuckets和RKeys的多键操作会按槽位拆分
+            ClusterServersConfig clusterConfig = redissonConfig.useClusterServers()
+                    .setConnectTimeout(config.getConnectTimeout())
+                    .setTimeout(config.getOperationTimeout())
+                    .setMasterConnectionPoolSize(config.getMaxConnections())
+                    .setSlaveConnectionPoolSize(config.getMaxConnections())
+                    .setMasterConnectionMinimumIdleSize(minimumIdle(config))
+                    .setSlaveConnectionMinimumIdleSize(minimumIdle(config))
+                    .setIdleConnectionTimeout(idleConnectionTimeout(config));
+            for (String node : RedisNodes.seedNodes(config)) {
+                clusterConfig.addNodeAddress(scheme + RedisNodes.host(node) + ":" + RedisNodes.port(node));
+            }
+            if (!config.getPassword().isEmpty()) {
+                clusterConfig.setPassword(config.getPassword());
+            }
+            clusterConfig.setReadMode(readMode(config));
+        } else if (config.isSentinelMode()) {
+            SentinelServersConfig sentinelConfig = redissonConfig.useSentinelServers()
+                    .setMasterName(config.getSentinelMaster())
+                    .setDatabase(config.getDatabase())
+                    .setConnectTimeout(config.getConnectTimeout())
+                    .setTimeout(config.getOperationTimeout())
+                    .setMasterConnectionPoolSize(config.getMaxConnections())
+                    .setSlaveConnectionPoolSize(config.getMaxConnections())
+                    .setMasterConnectionMinimumIdleSize(minimumIdle(config))
+                    .setSlaveConnectionMinimumIdleSize(minimumIdle(config))
+                    .setIdleConnectionTimeout(idleConnectionTimeout(config))
+                    .setReadMode(readMode(config));
+            for (String node : RedisNodes.seedNodes(config)) {
+                sentinelConfig.addSentinelAddress(scheme + RedisNodes.host(node) + ":" + RedisNodes.port(node));
+            }
+            if (!config.getPassword().isEmpty()) {
+                sentinelConfig.setPassword(config.getPassword());
+            }
+        } else if (config.isMasterReplicaMode()) {
+            MasterSlaveServersConfig masterSlaveConfig = redissonConfig.useMasterSlaveServers()
+                    .setMasterAddress(scheme + config.getHost() + ":" + config.getPort())
+                    .setDatabase(config.getDatabase())
+                    .setConnectTimeout(config.getConnectTimeout())
+                    .setTimeout(config.getOperationTimeout())
+                    .setMasterConnectionPoolSize(config.getMaxConnections())
+                    .setSlaveConnectionPoolSize(config.getMaxConnections())
+                    .setMasterConnectionMinimumIdleSize(minimumIdle(config))
+                    .setSlaveConnectionMinimumIdleSize(minimumIdle(config))
+                    .setIdleConnectionTimeout(idleConnectionTimeout(config))
+                    .setReadMode(readMode(config));
+            for (String node : RedisNodes.seedNodes(config)) {
+                masterSlaveConfig.addSlaveAddress(scheme + RedisNodes.host(node) + ":" + RedisNodes.port(node));
+            }
+            if (!config.getPassword().isEmpty()) {
+                masterSlaveConfig.setPassword(config.getPassword());
+            }
+        } else {
+            redissonConfig.useSingleServer()
+                    .setAddress(scheme + config.getHost() + ":" + config.getPort())
+                    .setDatabase(config.getDatabase())
+                    .setConnectTimeout(config.getConnectTimeout())
+                    .setConnectionPoolSize(config.getMaxConnections())
+                    .setConnectionMinimumIdleSize(minimumIdle(config))
+                    .setIdleConnectionTimeout(idleConnectionTimeout(config));
+
+            if (!config.getPassword().isEmpty()) {
+                redissonConfig.useSingleServer().setPassword(config.getPassword());
+            }
         }
         
         this.redissonClient = Redisson.create(redissonConfig);
-        
-        log.info("Initialized Redisson Redis service with host: {}, port: {}", config.getHost(), config.getPort());
+
+        if (config.isClusterMode()) {
+            log.info("Initialized Redisson Redis cluster service with nodes: {}, readFrom: {}", config.getNodes(), config.getReadFrom());
+        } else if (config.isSentinelMode()) {
+            log.info("Initialized Redisson Redis sentinel service with master: {}, sentinels: {}, readFrom: {}",
+                    config.getSentinelMaster(), config.getNodes(), config.getReadFrom());
+        } else if (config.isMasterReplicaMode()) {
+            log.info("Initialized Redisson Redis master-replica service with host: {}, port: {}, replicas: {}, readFrom: {}",
+                    config.getHost(), config.getPort(), config.getNodes(), config.getReadFrom());
+        } else {
+            log.info("Initialized Redisson Redis service with host: {}, port: {}", config.getHost(), config.getPort());
+        }
+    }
+
+    /**
+     * 将配置的读路由策略转换为Redisson的ReadMode
+     * Redisson没有按延迟选择节点的策略，nearest映射为MASTER_SLAVE，读请求在主从节点间负载均衡
+     */
+    private static ReadMode readMode(IRedisConfig config) {
+        String readFrom = config.getReadFrom() == null ? IRedisConfig.READ_FROM_MASTER : config.getReadFrom();
+        switch (readFrom.toLowerCase()) {
+            case IRedisConfig.READ_FROM_MASTER:
+                return ReadMode.MASTER;
+            case IRedisConfig.READ_FROM_REPLICA_PREFERRED:
+                return ReadMode.SLAVE;
+            case IRedisConfig.READ_FROM_NEAREST:
+                return ReadMode.MASTER_SLAVE;
+            default:
+                throw new RedisException("Unsupported read routing policy: " + readFrom);
+        }
+    }
+
+    /**
+     * Redisson默认每个节点保持24条空闲连接，超过默认最大连接数，按minIdle配置并且不超过最大连接数
+     */
+    private static int minimumIdle(IRedisConfig config) {
+        return Math.max(0, Math.min(config.getMinIdle(), config.getMaxConnections()));
+    }
+
+    private static int idleConnectionTimeout(IRedisConfig config) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, config.getMinEvictableIdleMillis()));
     }
 
     @Override
@@ -73,6 +210,16 @@ public class RedissonRedisService implements IRedisService {
         }
     }
 
+    @Override
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        try {
+            RBucket<String> bucket = redissonClient.getBucket(key);
+            return bucket.trySet(value, timeout, unit);
+        } catch (Exception e) {
+            throw new RedisException("Failed to set value if absent: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public String get(String key) {
         try {
@@ -122,17 +269,70 @@ public class RedissonRedisService implements IRedisService {
     @Override
     public long getExpire(String key, TimeUnit unit) {
         try {
-            return redissonClient.getBucket(key).remainTimeToLive(unit);
+            long millis = redissonClient.getBucket(key).remainTimeToLive();
+            return millis > 0 ? unit.convert(millis, TimeUnit.MILLISECONDS) : millis;
         } catch (Exception e) {
             throw new RedisException("Failed to get expiration: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public byte[] dump(String key) {
+        try {
+            return redissonClient.getBucket(key).dump();
+        } catch (Exception e) {
+            throw new RedisException("Failed to dump key: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        try {
+            RBucket<Object> bucket = redissonClient.getBucket(key);
+            if (replace) {
+                bucket.restoreAndReplace(serialized, ttlMillis, TimeUnit.MILLISECONDS);
+            } else {
+                bucket.restore(serialized, ttlMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            throw new RedisException("Failed to restore key: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long incr(String key) {
+        try {
+            return redissonClient.getAtomicLong(key).incrementAndGet();
+        } catch (Exception e) {
+            throw new RedisException("Failed to increment value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        try {
+            return redissonClient.getAtomicLong(key).addAndGet(delta);
+        } catch (Exception e) {
+            throw new RedisException("Failed to increment value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long hIncrBy(String key, String field, long delta) {
+        try {
+            // Redisson的addAndGet使用HINCRBYFLOAT，整数增量的结果仍是整数字符串
+            RMap<String, String> map = redissonClient.getMap(key);
+            return Long.parseLong(String.valueOf(map.addAndGet(field, delta)));
+        } catch (Exception e) {
+            throw new RedisException("Failed to increment hash field: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public void hSet(String key, String field, Object value) {
         try {
-            RMap<String, Object> map = redissonClient.getMap(key);
-            map.put(field, value);
+            RMap<String, String> map = redissonClient.getMap(key);
+            map.fastPut(field, String.valueOf(value));
         } catch (Exception e) {
             throw new RedisException("Failed to set hash field: " + e.getMessage(), e);
         }
@@ -151,8 +351,10 @@ public class RedissonRedisService implements IRedisService {
     @Override
     public void hSetAll(String key, Map<String, Object> map) {
         try {
-            RMap<String, Object> rMap = redissonClient.getMap(key);
-            rMap.putAll(map);
+            RMap<String, String> rMap = redissonClient.getMap(key);
+            Map<String, String> stringMap = new HashMap<>();
+            map.forEach((k, v) -> stringMap.put(k, String.valueOf(v)));
+            rMap.putAll(stringMap);
         } catch (Exception e) {
             throw new RedisException("Failed to set all hash fields: " + e.getMessage(), e);
         }
@@ -162,7 +364,8 @@ public class RedissonRedisService implements IRedisService {
     public Map<Object, Object> hGetAll(String key) {
         try {
             RMap<Object, Object> map = redissonClient.getMap(key);
-            return new HashMap<>(map);
+            // readAllMap通过一条HGETALL读取并返回新的Map，无需再复制
+            return map.readAllMap();
         } catch (Exception e) {
             throw new RedisException("Failed to get all hash fields: " + e.getMessage(), e);
         }
@@ -234,6 +437,479 @@ public class RedissonRedisService implements IRedisService {
             throw new RedisException("Failed to get set members: " + e.getMessage(), e);
         }
     }
+
+    @Override
+    public long zAdd(String key, double score, String member) {
+        try {
+            RScoredSortedSet<String> sortedSet = redissonClient.getScoredSortedSet(key);
+            return sortedSet.add(score, member) ? 1 : 0;
+        } catch (Exception e) {
+            throw new RedisException("Failed to add to sorted set: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long zAdd(String key, Collection<ScoredMember> members) {
+        if (members.isEmpty()) {
+            return 0;
+        }
+        try {
+            Map<String, Double> scoreMembers = new HashMap<>(members.size() * 2);
+            for (ScoredMember member : members) {
+                scoreMembers.put(member.getMember(), member.getScore());
+            }
+            RScoredSortedSet<String> sortedSet = redissonClient.getScoredSortedSet(key);
+            return sortedSet.addAll(scoreMembers);
+        } catch (Exception e) {
+            throw new RedisException("Failed to add to sorted set: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public double zIncrBy(String key, double increment, String member) {
+        try {
+            RScoredSortedSet<String> sortedSet = redissonClient.getScoredSortedSet(key);
+            return sortedSet.addScore(member, increment);
+        } catch (Exception e) {
+            throw new RedisException("Failed to increment sorted set score: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Double zScore(String key, String member) {
+        try {
+            RScoredSortedSet<String> sortedSet = redissonClient.getScoredSortedSet(key);
+            return sortedSet.getScore(member);
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set score: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long zRank(String key, String member) {
+        try {
+            RScoredSortedSet<String> sortedSet = redissonClient.getScoredSortedSet(key);
+            Integer rank = sortedSet.rank(member);
+            return rank == null ? -1 : rank;
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set rank: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long zRevRank(String key, String member) {
+        try {
+            RScoredSortedSet<String> sortedSet = redissonClient.getScoredSortedSet(key);
+            Integer rank = sortedSet.revRank(member);
+            return rank == null ? -1 : rank;
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set rank: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long zCard(String key) {
+        try {
+            return redissonClient.getScoredSortedSet(key).size();
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set size: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zRangeByScore(String key, double min, double max, long offset, long count) {
+        try {
+            RScoredSortedSet<String> sortedSet = redissonClient.getScoredSortedSet(key);
+            return scoredMembers(offset == 0 && count < 0
+                    ? sortedSet.entryRange(min, true, max, true)
+                    : sortedSet.entryRange(min, true, max, true, (int) Math.min(offset, Integer.MAX_VALUE),
+                            (int) Math.max(-1, Math.min(count, Integer.MAX_VALUE))));
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set range: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zRevRange(String key, long start, long end) {
+        try {
+            RScoredSortedSet<String> sortedSet = redissonClient.getScoredSortedSet(key);
+            return scoredMembers(sortedSet.entryRangeReversed(toIndex(start), toIndex(end)));
+        } catch (Exception e) {
+            throw new RedisException("Failed to get sorted set range: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long zRemRangeByScore(String key, double min, double max) {
+        try {
+            return redissonClient.getScoredSortedSet(key).removeRangeByScore(min, true, max, true);
+        } catch (Exception e) {
+            throw new RedisException("Failed to remove sorted set range: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zPopMin(String key, int count) {
+        try {
+            // RScoredSortedSet.pollFirst(count)不返回分数，这里通过脚本执行ZPOPMIN
+            List<Object> reply = redissonClient.getScript(StringCodec.INSTANCE).eval(key, RScript.Mode.READ_WRITE,
+                    ZPOPMIN_SCRIPT, RScript.ReturnType.MULTI, Collections.singletonList(key), count);
+            List<ScoredMember> members = new ArrayList<>(reply.size() / 2);
+            for (int i = 0; i + 1 < reply.size(); i += 2) {
+                double score = Double.parseDouble(String.valueOf(reply.get(i + 1)));
+                members.add(new ScoredMember(String.valueOf(reply.get(i)), score));
+            }
+            return members;
+        } catch (Exception e) {
+            throw new RedisException("Failed to pop from sorted set: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String xAdd(String key, Map<String, String> fields, long maxLen) {
+        try {
+            return redissonClient.<String, String>getStream(key).add(streamAddArgs(fields, maxLen)).toString();
+        } catch (Exception e) {
+            throw new RedisException("Failed to add stream entry: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long xLen(String key) {
+        try {
+            return redissonClient.getStream(key).size();
+        } catch (Exception e) {
+            throw new RedisException("Failed to get stream length: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean xGroupCreate(String key, String group, String startId) {
+        try {
+            // RStream.createGroup不支持MKSTREAM，组已存在时的BUSYGROUP错误也在脚本中转换为返回值
+            Long created = redissonClient.getScript(StringCodec.INSTANCE).eval(key, RScript.Mode.READ_WRITE,
+                    XGROUP_CREATE_SCRIPT, RScript.ReturnType.INTEGER, Collections.singletonList(key), group, startId);
+            return created != null && created == 1;
+        } catch (Exception e) {
+            throw new RedisException("Failed to create consumer group: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<StreamEntry> xReadGroup(String key, String group, String consumer, int count, long blockMillis) {
+        try {
+            StreamReadGroupArgs args = StreamReadGroupArgs.neverDelivered().count(count);
+            if (blockMillis > 0) {
+                // Redisson在独立的连接上执行阻塞命令，并按阻塞时间延长响应超时
+                args = args.timeout(Duration.ofMillis(blockMillis));
+            }
+            return streamEntries(redissonClient.<String, String>getStream(key).readGroup(group, consumer, args), new ArrayList<>());
+        } catch (Exception e) {
+            throw new RedisException("Failed to read stream group: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long xAck(String key, String group, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try {
+            return redissonClient.getStream(key).ack(group, messageIds(ids));
+        } catch (Exception e) {
+            throw new RedisException("Failed to acknowledge stream entries: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public StreamClaimResult xAutoClaim(String key, String group, String consumer, long minIdleMillis, String startId, int count) {
+        try {
+            AutoClaimResult<String, String> claimed = redissonClient.<String, String>getStream(key)
+                    .autoClaim(group, consumer, minIdleMillis, TimeUnit.MILLISECONDS, messageId(startId), count);
+            List<String> deletedIds = new ArrayList<>();
+            List<StreamEntry> entries = streamEntries(claimed.getMessages(), deletedIds);
+            return new StreamClaimResult(claimed.getNextId().toString(), entries, deletedIds);
+        } catch (Exception e) {
+            throw new RedisException("Failed to claim stream entries: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<StreamGroupInfo> xInfoGroups(String key) {
+        try {
+            // RStream.listGroups不包含Redis 7.0新增的lag，这里通过脚本读取原始回复
+            List<Object> reply = redissonClient.getScript(StringCodec.INSTANCE).eval(key, RScript.Mode.READ_ONLY,
+                    XINFO_GROUPS_SCRIPT, RScript.ReturnType.MULTI, Collections.singletonList(key));
+            return StreamReplies.groupInfos(reply);
+        } catch (Exception e) {
+            throw new RedisException("Failed to get stream groups: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            RBuckets buckets = redissonClient.getBuckets();
+            int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+            List<String> values = new ArrayList<>(keys.size());
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<String> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+                Map<String, String> found = buckets.get(chunk.toArray(new String[0]));
+                for (String key : chunk) {
+                    values.add(found.get(key));
+                }
+            }
+            return values;
+        } catch (Exception e) {
+            throw new RedisException("Failed to get values: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void mSet(Map<String, String> map) {
+        if (map.isEmpty()) {
+            return;
+        }
+        try {
+            RBuckets buckets = redissonClient.getBuckets();
+            int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+            Map<String, String> chunk = new HashMap<>();
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                chunk.put(entry.getKey(), entry.getValue());
+                if (chunk.size() >= batchSize) {
+                    buckets.set(chunk);
+                    chunk = new HashMap<>();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                buckets.set(chunk);
+            }
+        } catch (Exception e) {
+            throw new RedisException("Failed to set values: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long mDelete(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        try {
+            int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+            long deleted = 0;
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<String> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+                deleted += redissonClient.getKeys().delete(chunk.toArray(new String[0]));
+            }
+            return deleted;
+        } catch (Exception e) {
+            throw new RedisException("Failed to delete keys: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Stream<String> scanKeys(String pattern, int count) {
+        try {
+            // Redisson按SCAN游标惰性迭代，集群模式下依次遍历所有主节点
+            return redissonClient.getKeys().getKeysStreamByPattern(pattern == null ? "*" : pattern, count);
+        } catch (Exception e) {
+            throw new RedisException("Failed to scan keys: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Stream<Map.Entry<String, Object>> hScan(String key, String pattern, int count) {
+        try {
+            RMap<String, Object> map = redissonClient.getMap(key);
+            return map.entrySet(pattern == null ? "*" : pattern, count).stream();
+        } catch (Exception e) {
+            throw new RedisException("Failed to scan hash: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Stream<String> sScan(String key, String pattern, int count) {
+        try {
+            RSet<String> set = redissonClient.getSet(key);
+            return set.stream(pattern == null ? "*" : pattern, count);
+        } catch (Exception e) {
+            throw new RedisException("Failed to scan set: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Stream<ScoredMember> zScan(String key, String pattern, int count) {
+        // RScoredSortedSet的迭代器不返回分数，这里按排名分页读取，匹配模式在客户端过滤
+        RScoredSortedSet<String> sortedSet = redissonClient.getScoredSortedSet(key);
+        Pattern regex = ScanStreams.globToPattern(pattern);
+        int pageSize = Math.max(1, count);
+        return ScanStreams.stream(0, cursor -> {
+            int start = (Integer) cursor;
+            Collection<ScoredEntry<String>> entries = sortedSet.entryRange(start, start + pageSize - 1);
+            List<ScoredMember> members = new ArrayList<>(entries.size());
+            for (ScoredEntry<String> entry : entries) {
+                if (regex == null || regex.matcher(entry.getValue()).matches()) {
+                    members.add(new ScoredMember(entry.getValue(), entry.getScore()));
+                }
+            }
+            return new ScanStreams.Page<>(start + pageSize, members, entries.size() < pageSize);
+        }, "Failed to scan sorted set");
+    }
+
+    @Override
+    public long publish(String channel, String message) {
+        try {
+            return redissonClient.getTopic(channel).publish(message);
+        } catch (Exception e) {
+            throw new RedisException("Failed to publish message: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public RedisSubscription subscribe(RedisMessageListener listener, String... channels) {
+        try {
+            // 所有主题共享Redisson的订阅连接，断线后由Redisson重新订阅
+            List<RTopic> topics = new ArrayList<>(channels.length);
+            List<Integer> listenerIds = new ArrayList<>(channels.length);
+            for (String channel : channels) {
+                RTopic topic = redissonClient.getTopic(channel);
+                listenerIds.add(topic.addListener(String.class, (topicChannel, message) -> {
+                    try {
+                        listener.onMessage(topicChannel.toString(), message);
+                    } catch (Exception e) {
+                        log.warn("Redis message listener failed on channel: {}: {}", topicChannel, e.getMessage());
+                    }
+                }));
+                topics.add(topic);
+            }
+            return () -> {
+                for (int i = 0; i < topics.size(); i++) {
+                    topics.get(i).removeListener(listenerIds.get(i));
+                }
+            };
+        } catch (Exception e) {
+            throw new RedisException("Failed to subscribe: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String scriptLoad(String script) {
+        try {
+            // Redisson会把脚本加载到所有主节点
+            return redissonClient.getScript(StringCodec.INSTANCE).scriptLoad(script);
+        } catch (Exception e) {
+            throw new RedisException("Failed to load script: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args) {
+        try {
+            RScript script = redissonClient.getScript(StringCodec.INSTANCE);
+            return script.evalSha(RScript.Mode.READ_WRITE, sha1, RScript.ReturnType.valueOf(returnType.name()),
+                    new ArrayList<Object>(keys), args.toArray());
+        } catch (Exception e) {
+            throw new RedisException("Failed to evaluate script: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        try {
+            RBucket<byte[]> bucket = redissonClient.getBucket(key, ByteArrayCodec.INSTANCE);
+            return bucket.get();
+        } catch (Exception e) {
+            throw new RedisException("Failed to get bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value) {
+        try {
+            RBucket<byte[]> bucket = redissonClient.getBucket(key, ByteArrayCodec.INSTANCE);
+            bucket.set(value);
+        } catch (Exception e) {
+            throw new RedisException("Failed to set bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        try {
+            RBucket<byte[]> bucket = redissonClient.getBucket(key, ByteArrayCodec.INSTANCE);
+            bucket.set(value, timeout, unit);
+        } catch (Exception e) {
+            throw new RedisException("Failed to set bytes with expiration: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<byte[]> mGetBytes(List<String> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            RBuckets buckets = redissonClient.getBuckets(ByteArrayCodec.INSTANCE);
+            int batchSize = AbstractRedisBatch.batchSize(config.getMaxBatchSize());
+            List<byte[]> values = new ArrayList<>(keys.size());
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<String> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+                Map<String, byte[]> found = buckets.get(chunk.toArray(new String[0]));
+                for (String key : chunk) {
+                    values.add(found.get(key));
+                }
+            }
+            return values;
+        } catch (Exception e) {
+            throw new RedisException("Failed to get bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] hGetBytes(String key, String field) {
+        try {
+            RMap<String, byte[]> map = redissonClient.getMap(key, HASH_BYTES_CODEC);
+            return map.get(field);
+        } catch (Exception e) {
+            throw new RedisException("Failed to get hash field bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void hSetBytes(String key, String field, byte[] value) {
+        try {
+            RMap<String, byte[]> map = redissonClient.getMap(key, HASH_BYTES_CODEC);
+            map.fastPut(field, value);
+        } catch (Exception e) {
+            throw new RedisException("Failed to set hash field bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, byte[]> hGetAllBytes(String key) {
+        try {
+            RMap<String, byte[]> map = redissonClient.getMap(key, HASH_BYTES_CODEC);
+            return map.readAllMap();
+        } catch (Exception e) {
+            throw new RedisException("Failed to get all hash field bytes: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return new RedissonRedisBatch(redissonClient, config.getMaxBatchSize(), config.getOperationTimeout());
+    }
+
+    IRedisConfig getConfig() {
+        return config;
+    }
+
+    RedissonClient getRedissonClient() {
+        return redissonClient;
+    }
     
     @Override
     protected void finalize() throws Throwable {
@@ -245,4 +921,60 @@ public class RedissonRedisService implements IRedisService {
             super.finalize();
         }
     }
+
+    private static List<ScoredMember> scoredMembers(Collection<ScoredEntry<String>> entries) {
+        List<ScoredMember> members = new ArrayList<>(entries.size());
+        for (ScoredEntry<String> entry : entries) {
+            members.add(new ScoredMember(entry.getValue(), entry.getScore()));
+        }
+        return members;
+    }
+
+    private static int toIndex(long index) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(index, Integer.MAX_VALUE));
+    }
+
+    private static List<StreamEntry> streamEntries(Map<StreamMessageId, Map<String, String>> messages, List<String> deletedIds) {
+        List<StreamEntry> entries = new ArrayList<>(messages.size());
+        messages.forEach((id, fields) -> {
+            if (fields == null) {
+                // Redis 6.2的XAUTOCLAIM对已删除的消息返回空字段
+                deletedIds.add(id.toString());
+            } else {
+                entries.add(new StreamEntry(id.toString(), fields));
+            }
+        });
+        return entries;
+    }
+
+    static StreamAddArgs<String, String> streamAddArgs(Map<String, String> fields, long maxLen) {
+        StreamAddArgs<String, String> args = StreamAddArgs.entries(fields);
+        return maxLen > 0 ? args.trimNonStrict().maxLen(toIndex(maxLen)).noLimit() : args;
+    }
+
+    /**
+     * 转换消息ID，支持$、>和只有毫秒时间戳部分的ID
+     */
+    static StreamMessageId messageId(String id) {
+        switch (id) {
+            case "$":
+                return StreamMessageId.NEWEST;
+            case ">":
+                return StreamMessageId.NEVER_DELIVERED;
+            default:
+                String fullId = StreamReplies.fullId(id);
+                int separator = fullId.indexOf('-');
+                return new StreamMessageId(Long.parseLong(fullId.substring(0, separator)),
+                        Long.parseLong(fullId.substring(separator + 1)));
+        }
+    }
+
+    static StreamMessageId[] messageIds(Collection<String> ids) {
+        StreamMessageId[] messageIds = new StreamMessageId[ids.size()];
+        int i = 0;
+        for (String id : ids) {
+            messageIds[i++] = messageId(id);
+        }
+        return messageIds;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 游标遍历工具
+ * 将SCAN系列命令的分页结果包装为惰性流，任何时刻只持有一页数据
+ */
+final class ScanStreams {
+
+    private ScanStreams() {
+    }
+
+    /**
+     * 创建按游标逐页拉取的惰性流
+     * @param initialCursor 初始游标
+     * @param fetcher 按游标拉取一页数据
+     * @param errorMessage 拉取失败时的错误信息
+     * @return 惰性流
+     */
+    static <T> Stream<T> stream(Object initialCursor, PageFetcher<T> fetcher, String errorMessage) {
+        Iterator<T> iterator = new CursorIterator<>(initialCursor, fetcher, errorMessage);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * 将glob风格的匹配模式转换为正则表达式，供不支持服务端匹配的遍历方式在客户端过滤
+     * @param glob 匹配模式，null表示全部
+     * @return 正则表达式，null表示不过滤
+     */
+    static Pattern globToPattern(String glob) {
+        if (glob == null || "*".equals(glob)) {
+            return null;
+        }
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*':
+                    regex.append(".*");
+                    break;
+                case '?':
+                    regex.append('.');
+                    break;
+                case '[':
+                    int close = glob.indexOf(']', i + 1);
+                    if (close < 0) {
+                        regex.append("\\[");
+                        break;
+                    }
+                    regex.append('[');
+                    for (int j = i + 1; j < close; j++) {
+                        char r = glob.charAt(j);
+                        if ((r == '^' && j == i + 1) || (r == '-' && j > i + 1 && j < close - 1) || Character.isLetterOrDigit(r)) {
+                            regex.append(r);
+                        } else {
+                            regex.append('\\').append(r);
+                        }
+                    }
+                    regex.append(']');
+                    i = close;
+                    break;
+                case '\\':
+                    if (i + 1 < glob.length()) {
+                        regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                    }
+                    break;
+                default:
+                    regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * 一页遍历结果
+     */
+    static final class Page<T> {
+        private final Object cursor;
+        private final List<T> items;
+        private final boolean finished;
+
+        Page(Object cursor, List<T> items, boolean finished) {
+            this.cursor = cursor;
+            this.items = items == null ? Collections.emptyList() : items;
+            this.finished = finished;
+        }
+    }
+
+    /**
+     * 按游标拉取一页数据
+     */
+    interface PageFetcher<T> {
+        Page<T> fetch(Object cursor) throws Exception;
+    }
+
+    private static final class CursorIterator<T> implements Iterator<T> {
+        private final PageFetcher<T> fetcher;
+        private final String errorMessage;
+        private Object cursor;
+        private Iterator<T> current = Collections.emptyIterator();
+        private boolean finished;
+
+        private CursorIterator(Object initialCursor, PageFetcher<T> fetcher, String errorMessage) {
+            this.cursor = initialCursor;
+            this.fetcher = fetcher;
+            this.errorMessage = errorMessage;
+        }
+
+        @Override
+        public boolean hasNext() {
+            // 服务端可能返回空页但游标未结束，需要继续拉取
+            while (!current.hasNext() && !finished) {
+                Page<T> page;
+                try {
+                    page = fetcher.fetch(cursor);
+                } catch (RedisException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RedisException(errorMessage + ": " + e.getMessage(), e);
+                }
+                cursor = page.cursor;
+                current = page.items.iterator();
+                finished = page.finished;
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.StreamGroupInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流命令回复的解析工具
+ * XINFO GROUPS的字段随Redis版本增加（7.0起有entries-read和lag），各客户端对其封装不一，统一按原始回复解析
+ */
+final class StreamReplies {
+
+    private StreamReplies() {
+    }
+
+    /**
+     * 解析XINFO GROUPS的原始回复
+     * @param reply 每个组一个字段名与值交替排列的列表，字符串可以是String或byte[]
+     * @return 消费者组信息
+     */
+    static List<StreamGroupInfo> groupInfos(List<?> reply) {
+        if (reply == null) {
+            return new ArrayList<>();
+        }
+        List<StreamGroupInfo> groups = new ArrayList<>(reply.size());
+        for (Object group : reply) {
+            List<?> fields = (List<?>) group;
+            String name = null;
+            String lastDeliveredId = null;
+            long consumers = 0;
+            long pending = 0;
+            long entriesRead = -1;
+            long lag = -1;
+            for (int i = 0; i + 1 < fields.size(); i += 2) {
+                Object value = fields.get(i + 1);
+                switch (string(fields.get(i))) {
+                    case "name":
+                        name = string(value);
+                        break;
+                    case "consumers":
+                        consumers = number(value, 0);
+                        break;
+                    case "pending":
+                        pending = number(value, 0);
+                        break;
+                    case "last-delivered-id":
+                        lastDeliveredId = string(value);
+                        break;
+                    case "entries-read":
+                        entriesRead = number(value, -1);
+                        break;
+                    case "lag":
+                        lag = number(value, -1);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            groups.add(new StreamGroupInfo(name, consumers, pending, lastDeliveredId, entriesRead, lag));
+        }
+        return groups;
+    }
+
+    /**
+     * 补全消息ID，只有毫秒时间戳部分时序号为0
+     * @param id 消息ID
+     * @return 毫秒时间戳-序号形式的ID
+     */
+    static String fullId(String id) {
+        return id.indexOf('-') < 0 ? id + "-0" : id;
+    }
+
+    private static String string(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof byte[] ? new String((byte[]) value, StandardCharsets.UTF_8) : String.valueOf(value);
+    }
+
+    private static long number(Object value, long absent) {
+        // lag在无法计算时为nil
+        if (value == null) {
+            return absent;
+        }
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(string(value));
+    }
+}
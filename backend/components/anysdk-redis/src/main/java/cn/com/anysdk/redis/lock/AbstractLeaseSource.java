@@ -0,0 +1,85 @@
+package cn.com.anysdk.redis.lock;
+
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 锁与信号量的公共获取流程：尝试一次，失败后等待释放通知或当前持有者的租期结束，再重试
+ */
+abstract class AbstractLeaseSource {
+    protected final RedisLockFactory factory;
+    protected final String name;
+    protected final String key;
+    protected final String fenceKey;
+
+    AbstractLeaseSource(RedisLockFactory factory, String name, String key) {
+        this.factory = factory;
+        this.name = name;
+        this.key = key;
+        this.fenceKey = key + ":fence";
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * 尝试获取一次
+     * @return 成功时返回正数围栏令牌，失败时返回负数，绝对值为建议等待的毫秒数
+     */
+    abstract long tryAcquireOnce(String token, long leaseMillis);
+
+    abstract boolean renew(String token, long leaseMillis);
+
+    abstract boolean release(String token);
+
+    abstract boolean isHeldBy(String token);
+
+    /**
+     * 获取并在需要时启动看门狗
+     * @param waitMillis 最长等待时间，小于0表示一直等待
+     * @param leaseTime 租期，小于等于0时由看门狗续期
+     * @param unit 租期时间单位
+     * @return 持有凭证，超时返回null
+     */
+    protected LockLease acquire(long waitMillis, long leaseTime, TimeUnit unit) {
+        boolean watchdog = leaseTime <= 0;
+        long leaseMillis = watchdog ? factory.getConfig().getWatchdogLeaseMillis() : unit.toMillis(leaseTime);
+        String token = UUID.randomUUID().toString();
+        long deadline = waitMillis < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + waitMillis;
+
+        LockNotifier.Waiters waiters = null;
+        try {
+            while (true) {
+                long version = waiters == null ? 0 : waiters.version();
+                long result = tryAcquireOnce(token, leaseMillis);
+                if (result > 0) {
+                    RedisLockLease lease = new RedisLockLease(this, token, result);
+                    if (watchdog) {
+                        lease.startWatchdog(factory.getScheduler(), leaseMillis);
+                    }
+                    return lease;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return null;
+                }
+                if (waiters == null) {
+                    // 先登记再重试一次，登记之前发生的释放不会被错过
+                    waiters = factory.getNotifier().register(key);
+                    continue;
+                }
+                waiters.await(version, Math.min(remaining, Math.max(1, -result)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException("Interrupted while acquiring: " + key, e);
+        } finally {
+            if (waiters != null) {
+                factory.getNotifier().unregister(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package cn.com.anysdk.redis.lock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式互斥锁
+ * <p>
+ * 获取通过一次SET NX PX原子完成，释放时在Lua脚本中校验持有者后删除，不会误删他人持有的锁。
+ * 锁不可重入，每次获取返回独立的{@link LockLease}。
+ */
+public interface IDistributedLock {
+    /**
+     * 获取锁名称
+     * @return 锁名称
+     */
+    String getName();
+
+    /**
+     * 尝试获取锁，不等待，由看门狗自动续期
+     * @return 持有凭证，锁已被占用时返回null
+     */
+    LockLease tryLock();
+
+    /**
+     * 在等待时间内获取锁，由看门狗自动续期
+     * @param waitTime 最长等待时间
+     * @param unit 时间单位
+     * @return 持有凭证，超时返回null
+     */
+    LockLease tryLock(long waitTime, TimeUnit unit);
+
+    /**
+     * 在等待时间内获取锁
+     * @param waitTime 最长等待时间
+     * @param leaseTime 租期，到期自动释放；小于等于0时由看门狗自动续期
+     * @param unit 时间单位
+     * @return 持有凭证，超时返回null
+     */
+    LockLease tryLock(long waitTime, long leaseTime, TimeUnit unit);
+
+    /**
+     * 获取锁，一直等待直到成功，由看门狗自动续期
+     * @return 持有凭证
+     */
+    LockLease lock();
+
+    /**
+     * 锁当前是否被任意持有者持有
+     * @return 是否被持有
+     */
+    boolean isLocked();
+}
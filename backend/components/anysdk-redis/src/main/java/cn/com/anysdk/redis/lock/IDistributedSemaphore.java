@@ -0,0 +1,49 @@
+package cn.com.anysdk.redis.lock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式信号量
+ * <p>
+ * 每个许可都有独立的租期，持有者宕机后许可在租期结束时自动回收，不会永久泄漏。
+ */
+public interface IDistributedSemaphore {
+    /**
+     * 获取信号量名称
+     * @return 信号量名称
+     */
+    String getName();
+
+    /**
+     * 获取许可总数
+     * @return 许可总数
+     */
+    int getPermits();
+
+    /**
+     * 尝试获取一个许可，不等待，由看门狗自动续期
+     * @return 持有凭证，没有可用许可时返回null
+     */
+    LockLease tryAcquire();
+
+    /**
+     * 在等待时间内获取一个许可
+     * @param waitTime 最长等待时间
+     * @param leaseTime 租期，到期自动回收；小于等于0时由看门狗自动续期
+     * @param unit 时间单位
+     * @return 持有凭证，超时返回null
+     */
+    LockLease tryAcquire(long waitTime, long leaseTime, TimeUnit unit);
+
+    /**
+     * 获取一个许可，一直等待直到成功，由看门狗自动续期
+     * @return 持有凭证
+     */
+    LockLease acquire();
+
+    /**
+     * 获取当前可用许可数
+     * @return 可用许可数
+     */
+    int availablePermits();
+}
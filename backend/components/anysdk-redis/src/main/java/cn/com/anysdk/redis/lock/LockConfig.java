@@ -0,0 +1,39 @@
+package cn.com.anysdk.redis.lock;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 分布式锁配置
+ */
+@Data
+@Accessors(chain = true)
+public class LockConfig {
+    /**
+     * 锁键前缀，完整的键为前缀 + {名称}
+     */
+    private String lockPrefix = "lock:";
+
+    /**
+     * 信号量键前缀
+     */
+    private String semaphorePrefix = "semaphore:";
+
+    /**
+     * 未指定租期时的看门狗租期（毫秒），持有期间每隔三分之一租期续期一次
+     */
+    private long watchdogLeaseMillis = 30000;
+
+    /**
+     * 释放通知频道，所有锁和信号量共用一个频道，消息内容为被释放的键
+     */
+    private String notificationChannel = "anysdk:lock:released";
+
+    /**
+     * 创建默认配置
+     * @return 默认配置
+     */
+    public static LockConfig createDefault() {
+        return new LockConfig();
+    }
+}
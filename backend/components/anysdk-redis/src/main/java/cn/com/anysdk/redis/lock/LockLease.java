@@ -0,0 +1,32 @@
+package cn.com.anysdk.redis.lock;
+
+/**
+ * 锁或信号量许可的持有凭证，关闭即释放
+ */
+public interface LockLease extends AutoCloseable {
+    /**
+     * 获取围栏令牌
+     * 同一个锁每次获取得到的令牌单调递增，下游存储可拒绝令牌小于已见最大值的写入，
+     * 防止因GC停顿或网络分区导致租期过期的旧持有者覆盖新持有者的数据
+     * @return 围栏令牌
+     */
+    long getFencingToken();
+
+    /**
+     * 查询服务端确认当前是否仍持有
+     * @return 是否仍持有
+     */
+    boolean isHeld();
+
+    /**
+     * 看门狗续期是否失败过，失败说明租期可能已被他人接管
+     * @return 是否已丢失
+     */
+    boolean isLost();
+
+    /**
+     * 释放，停止续期；已过期或已释放时不做任何操作
+     */
+    @Override
+    void close();
+}
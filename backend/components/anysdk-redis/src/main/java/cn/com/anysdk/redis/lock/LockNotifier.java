@@ -0,0 +1,140 @@
+package cn.com.anysdk.redis.lock;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisMessageListener;
+import cn.com.anysdk.redis.api.RedisSubscription;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 释放通知分发器
+ * <p>
+ * 整个工厂只订阅一个频道，有等待者时才订阅。收到释放消息后唤醒等待同一个键的线程，
+ * 等待者用版本号判断在上次尝试之后是否有过释放，避免尝试与开始等待之间的通知丢失。
+ * 发布订阅不保证送达，等待时间最长不超过当前持有者的剩余租期，丢失通知也只会推迟到租期结束。
+ */
+@Slf4j
+class LockNotifier implements RedisMessageListener, AutoCloseable {
+    private final IRedisService redisService;
+    private final String channel;
+    private final ConcurrentMap<String, Waiters> waiters = new ConcurrentHashMap<>();
+    private final Lock subscriptionLock = new ReentrantLock();
+    private RedisSubscription subscription;
+
+    LockNotifier(IRedisService redisService, String channel) {
+        this.redisService = redisService;
+        this.channel = channel;
+    }
+
+    /**
+     * 登记等待者，必须与{@link #unregister}成对调用
+     */
+    Waiters register(String key) {
+        ensureSubscribed();
+        return waiters.compute(key, (k, existing) -> {
+            Waiters result = existing == null ? new Waiters() : existing;
+            result.references++;
+            return result;
+        });
+    }
+
+    void unregister(String key) {
+        waiters.computeIfPresent(key, (k, existing) -> --existing.references == 0 ? null : existing);
+    }
+
+    void publish(String key) {
+        redisService.publish(channel, key);
+    }
+
+    String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void onMessage(String channel, String message) {
+        Waiters target = waiters.get(message);
+        if (target != null) {
+            target.signal();
+        }
+    }
+
+    @Override
+    public void close() {
+        subscriptionLock.lock();
+        try {
+            if (subscription != null) {
+                subscription.close();
+                subscription = null;
+            }
+        } finally {
+            subscriptionLock.unlock();
+        }
+    }
+
+    private void ensureSubscribed() {
+        subscriptionLock.lock();
+        try {
+            if (subscription != null) {
+                return;
+            }
+            subscription = redisService.subscribe(this, channel);
+        } catch (RuntimeException e) {
+            // 订阅失败时等待者退化为按剩余租期等待
+            log.warn("Failed to subscribe lock notification channel: {}: {}", channel, e.getMessage());
+        } finally {
+            subscriptionLock.unlock();
+        }
+    }
+
+    /**
+     * 等待同一个键的线程集合
+     */
+    static final class Waiters {
+        private final Lock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private int references;
+        private long version;
+
+        long version() {
+            lock.lock();
+            try {
+                return version;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void signal() {
+            lock.lock();
+            try {
+                version++;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 等待版本号变化或超时
+         * @param expectedVersion 上次尝试前读取的版本号
+         * @param timeoutMillis 最长等待时间
+         */
+        void await(long expectedVersion, long timeoutMillis) throws InterruptedException {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            lock.lock();
+            try {
+                while (version == expectedVersion && remaining > 0) {
+                    remaining = changed.awaitNanos(remaining);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cn.com.anysdk.redis.lock;
+
+import cn.com.anysdk.redis.impl.LocalRedisService;
+import cn.com.anysdk.redis.script.RedisScript;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于SET NX PX的分布式锁
+ * <p>
+ * 锁键的值为本次获取的随机令牌；获取成功时在同一脚本内自增围栏计数器，
+ * 锁键与计数器键使用相同的{hashtag}，集群模式下位于同一槽位。释放时发布通知唤醒等待者。
+ */
+class RedisDistributedLock extends AbstractLeaseSource implements IDistributedLock {
+    private static final RedisScript<Long> ACQUIRE = RedisScript.ofLong(
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return redis.call('INCR', KEYS[2]) end "
+                    + "local ttl = redis.call('PTTL', KEYS[1]) "
+                    + "if ttl == -2 then return -1 end "
+                    + "if ttl == -1 then return -1000 end "
+                    + "return -ttl");
+
+    private static final RedisScript<Boolean> RENEW = RedisScript.ofBoolean(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end return 0");
+
+    private static final RedisScript<Boolean> RELEASE = RedisScript.ofBoolean(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "redis.call('PUBLISH', ARGV[2], KEYS[1]) "
+                    + "return 1");
+
+    // 本地提供商执行的等价实现
+    static {
+        LocalRedisService.registerBuiltinScript(ACQUIRE.getSource(), (redis, keys, args) -> {
+            if (redis.setIfAbsent(keys.get(0), args.get(0), Long.parseLong(args.get(1)), TimeUnit.MILLISECONDS)) {
+                return redis.incr(keys.get(1));
+            }
+            long ttl = redis.getExpire(keys.get(0), TimeUnit.MILLISECONDS);
+            if (ttl == -2) {
+                return -1L;
+            }
+            return ttl == -1 ? -1000L : -ttl;
+        });
+        LocalRedisService.registerBuiltinScript(RENEW.getSource(), (redis, keys, args) ->
+                args.get(0).equals(redis.get(keys.get(0)))
+                        && redis.expire(keys.get(0), Long.parseLong(args.get(1)), TimeUnit.MILLISECONDS) ? 1L : 0L);
+        LocalRedisService.registerBuiltinScript(RELEASE.getSource(), (redis, keys, args) -> {
+            if (!args.get(0).equals(redis.get(keys.get(0)))) {
+                return 0L;
+            }
+            redis.delete(keys.get(0));
+            redis.publish(args.get(1), keys.get(0));
+            return 1L;
+        });
+    }
+
+    private final List<String> keys;
+
+    RedisDistributedLock(RedisLockFactory factory, String name, String key) {
+        super(factory, name, key);
+        this.keys = Arrays.asList(key, fenceKey);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public LockLease tryLock() {
+        return acquire(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public LockLease tryLock(long waitTime, TimeUnit unit) {
+        return acquire(unit.toMillis(waitTime), 0, unit);
+    }
+
+    @Override
+    public LockLease tryLock(long waitTime, long leaseTime, TimeUnit unit) {
+        return acquire(unit.toMillis(waitTime), leaseTime, unit);
+    }
+
+    @Override
+    public LockLease lock() {
+        return acquire(-1, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean isLocked() {
+        return factory.getRedisService().hasKey(key);
+    }
+
+    @Override
+    long tryAcquireOnce(String token, long leaseMillis) {
+        return factory.getScriptExecutor().execute(ACQUIRE, keys, token, leaseMillis);
+    }
+
+    @Override
+    boolean renew(String token, long leaseMillis) {
+        return factory.getScriptExecutor().execute(RENEW, Collections.singletonList(key), token, leaseMillis);
+    }
+
+    @Override
+    boolean release(String token) {
+        return factory.getScriptExecutor().execute(RELEASE, Collections.singletonList(key), token,
+                factory.getNotifier().getChannel());
+    }
+
+    @Override
+    boolean isHeldBy(String token) {
+        return token.equals(factory.getRedisService().get(key));
+    }
+
+    @Override
+    public String toString() {
+        return "RedisDistributedLock(key=" + key + ")";
+    }
+}
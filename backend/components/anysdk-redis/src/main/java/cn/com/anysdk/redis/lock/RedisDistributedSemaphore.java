@@ -0,0 +1,167 @@
+package cn.com.anysdk.redis.lock;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.impl.LocalRedisService;
+import cn.com.anysdk.redis.script.RedisScript;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于有序集合的分布式信号量
+ * <p>
+ * 成员为持有者令牌，分数为租期到期时间；每次获取先清理已到期的许可，再判断数量是否小于许可总数。
+ * 到期时间使用客户端时钟，各节点时钟偏差会相应地提前或推迟许可回收。
+ */
+class RedisDistributedSemaphore extends AbstractLeaseSource implements IDistributedSemaphore {
+    private static final RedisScript<Long> ACQUIRE = RedisScript.ofLong(
+            "local now = tonumber(ARGV[3]) "
+                    + "local lease = tonumber(ARGV[4]) "
+                    + "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now) "
+                    + "if redis.call('ZCARD', KEYS[1]) < tonumber(ARGV[2]) then "
+                    + "redis.call('ZADD', KEYS[1], now + lease, ARGV[1]) "
+                    + "if redis.call('PTTL', KEYS[1]) < lease then redis.call('PEXPIRE', KEYS[1], lease) end "
+                    + "return redis.call('INCR', KEYS[2]) end "
+                    + "local first = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES') "
+                    + "return -math.max(1, tonumber(first[2]) - now)");
+
+    private static final RedisScript<Boolean> RENEW = RedisScript.ofBoolean(
+            "local score = redis.call('ZSCORE', KEYS[1], ARGV[1]) "
+                    + "local now = tonumber(ARGV[2]) "
+                    + "local lease = tonumber(ARGV[3]) "
+                    + "if not score or tonumber(score) < now then return 0 end "
+                    + "redis.call('ZADD', KEYS[1], now + lease, ARGV[1]) "
+                    + "if redis.call('PTTL', KEYS[1]) < lease then redis.call('PEXPIRE', KEYS[1], lease) end "
+                    + "return 1");
+
+    private static final RedisScript<Boolean> RELEASE = RedisScript.ofBoolean(
+            "if redis.call('ZREM', KEYS[1], ARGV[1]) == 0 then return 0 end "
+                    + "redis.call('PUBLISH', ARGV[2], KEYS[1]) "
+                    + "return 1");
+
+    private static final RedisScript<Boolean> HELD = RedisScript.ofBoolean(
+            "local score = redis.call('ZSCORE', KEYS[1], ARGV[1]) "
+                    + "if score and tonumber(score) >= tonumber(ARGV[2]) then return 1 end return 0");
+
+    private static final RedisScript<Long> AVAILABLE = RedisScript.ofLong(
+            "return tonumber(ARGV[1]) - redis.call('ZCOUNT', KEYS[1], '(' .. ARGV[2], '+inf')");
+
+    // 本地提供商执行的等价实现
+    static {
+        LocalRedisService.registerBuiltinScript(ACQUIRE.getSource(), (redis, keys, args) -> {
+            String key = keys.get(0);
+            long now = Long.parseLong(args.get(2));
+            long lease = Long.parseLong(args.get(3));
+            redis.zRemRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+            if (redis.zCard(key) < Long.parseLong(args.get(1))) {
+                redis.zAdd(key, now + lease, args.get(0));
+                extendExpire(redis, key, lease);
+                return redis.incr(keys.get(1));
+            }
+            List<ScoredMember> first = redis.zRangeByScore(key, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0, 1);
+            return first.isEmpty() ? -1L : -Math.max(1L, (long) first.get(0).getScore() - now);
+        });
+        LocalRedisService.registerBuiltinScript(RENEW.getSource(), (redis, keys, args) -> {
+            Double score = redis.zScore(keys.get(0), args.get(0));
+            long now = Long.parseLong(args.get(1));
+            long lease = Long.parseLong(args.get(2));
+            if (score == null || score < now) {
+                return 0L;
+            }
+            redis.zAdd(keys.get(0), now + lease, args.get(0));
+            extendExpire(redis, keys.get(0), lease);
+            return 1L;
+        });
+        LocalRedisService.registerBuiltinScript(RELEASE.getSource(), (redis, keys, args) -> {
+            if (redis.zRem(keys.get(0), args.get(0)) == 0) {
+                return 0L;
+            }
+            redis.publish(args.get(1), keys.get(0));
+            return 1L;
+        });
+        LocalRedisService.registerBuiltinScript(HELD.getSource(), (redis, keys, args) -> {
+            Double score = redis.zScore(keys.get(0), args.get(0));
+            return score != null && score >= Double.parseDouble(args.get(1)) ? 1L : 0L;
+        });
+        LocalRedisService.registerBuiltinScript(AVAILABLE.getSource(), (redis, keys, args) ->
+                Long.parseLong(args.get(0)) - redis.zRangeByScore(keys.get(0),
+                        Math.nextUp(Double.parseDouble(args.get(1))), Double.POSITIVE_INFINITY, 0, -1).size());
+    }
+
+    private final int permits;
+    private final List<String> keys;
+
+    RedisDistributedSemaphore(RedisLockFactory factory, String name, String key, int permits) {
+        super(factory, name, key);
+        this.permits = permits;
+        this.keys = Arrays.asList(key, fenceKey);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getPermits() {
+        return permits;
+    }
+
+    @Override
+    public LockLease tryAcquire() {
+        return acquire(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public LockLease tryAcquire(long waitTime, long leaseTime, TimeUnit unit) {
+        return acquire(unit.toMillis(waitTime), leaseTime, unit);
+    }
+
+    @Override
+    public LockLease acquire() {
+        return acquire(-1, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int availablePermits() {
+        long available = factory.getScriptExecutor().execute(AVAILABLE, Collections.singletonList(key),
+                permits, System.currentTimeMillis());
+        return (int) Math.max(0, available);
+    }
+
+    @Override
+    long tryAcquireOnce(String token, long leaseMillis) {
+        return factory.getScriptExecutor().execute(ACQUIRE, keys, token, permits, System.currentTimeMillis(), leaseMillis);
+    }
+
+    @Override
+    boolean renew(String token, long leaseMillis) {
+        return factory.getScriptExecutor().execute(RENEW, Collections.singletonList(key), token,
+                System.currentTimeMillis(), leaseMillis);
+    }
+
+    @Override
+    boolean release(String token) {
+        return factory.getScriptExecutor().execute(RELEASE, Collections.singletonList(key), token,
+                factory.getNotifier().getChannel());
+    }
+
+    @Override
+    boolean isHeldBy(String token) {
+        return factory.getScriptExecutor().execute(HELD, Collections.singletonList(key), token, System.currentTimeMillis());
+    }
+
+    @Override
+    public String toString() {
+        return "RedisDistributedSemaphore(key=" + key + ", permits=" + permits + ")";
+    }
+
+    private static void extendExpire(IRedisService redis, String key, long lease) {
+        if (redis.getExpire(key, TimeUnit.MILLISECONDS) < lease) {
+            redis.expire(key, lease, TimeUnit.MILLISECONDS);
+        }
+    }
+}
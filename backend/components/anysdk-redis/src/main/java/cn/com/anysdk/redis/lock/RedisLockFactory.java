@@ -0,0 +1,86 @@
+package cn.com.anysdk.redis.lock;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.script.RedisScriptExecutor;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * 分布式锁与信号量工厂
+ * <p>
+ * 工厂持有共享的看门狗线程、脚本执行器和释放通知订阅，应在应用内作为单例使用，关闭时停止续期并取消订阅。
+ * 锁与信号量基于{@link IRedisService}的脚本接口实现，三种客户端行为一致。
+ */
+public class RedisLockFactory implements AutoCloseable {
+    private final IRedisService redisService;
+    private final LockConfig config;
+    private final RedisScriptExecutor scriptExecutor;
+    private final LockNotifier notifier;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    public RedisLockFactory(IRedisService redisService) {
+        this(redisService, LockConfig.createDefault());
+    }
+
+    public RedisLockFactory(IRedisService redisService, LockConfig config) {
+        this.redisService = redisService;
+        this.config = config;
+        this.scriptExecutor = new RedisScriptExecutor(redisService);
+        this.notifier = new LockNotifier(redisService, config.getNotificationChannel());
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "anysdk-redis-lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 获取分布式锁，锁对象无状态，可重复获取或缓存复用
+     * @param name 锁名称
+     * @return 分布式锁
+     */
+    public IDistributedLock getLock(String name) {
+        return new RedisDistributedLock(this, name, config.getLockPrefix() + "{" + name + "}");
+    }
+
+    /**
+     * 获取分布式信号量，同名信号量的许可数应保持一致
+     * @param name 信号量名称
+     * @param permits 许可总数
+     * @return 分布式信号量
+     */
+    public IDistributedSemaphore getSemaphore(String name, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        return new RedisDistributedSemaphore(this, name, config.getSemaphorePrefix() + "{" + name + "}", permits);
+    }
+
+    @Override
+    public void close() {
+        notifier.close();
+        scheduler.shutdownNow();
+    }
+
+    IRedisService getRedisService() {
+        return redisService;
+    }
+
+    LockConfig getConfig() {
+        return config;
+    }
+
+    RedisScriptExecutor getScriptExecutor() {
+        return scriptExecutor;
+    }
+
+    LockNotifier getNotifier() {
+        return notifier;
+    }
+
+    ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+}
@@ -0,0 +1,86 @@
+package cn.com.anysdk.redis.lock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 锁与信号量共用的持有凭证，开启看门狗时按三分之一租期定时续期
+ */
+@Slf4j
+final class RedisLockLease implements LockLease {
+    private final AbstractLeaseSource source;
+    private final String token;
+    private final long fencingToken;
+    private volatile ScheduledFuture<?> renewal;
+    private volatile boolean lost;
+    private volatile boolean released;
+
+    RedisLockLease(AbstractLeaseSource source, String token, long fencingToken) {
+        this.source = source;
+        this.token = token;
+        this.fencingToken = fencingToken;
+    }
+
+    void startWatchdog(ScheduledExecutorService scheduler, long leaseMillis) {
+        long interval = Math.max(1, leaseMillis / 3);
+        renewal = scheduler.scheduleAtFixedRate(() -> renew(leaseMillis), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void renew(long leaseMillis) {
+        if (released) {
+            return;
+        }
+        try {
+            if (!source.renew(token, leaseMillis)) {
+                lost = true;
+                stopWatchdog();
+                log.warn("Lease lost on key: {}, fencing token: {}", source.getKey(), fencingToken);
+            }
+        } catch (RuntimeException e) {
+            // 暂时性故障时继续尝试，租期内恢复即可保住持有权
+            log.warn("Failed to renew lease on key: {}: {}", source.getKey(), e.getMessage());
+        }
+    }
+
+    @Override
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    @Override
+    public boolean isHeld() {
+        return !released && source.isHeldBy(token);
+    }
+
+    @Override
+    public boolean isLost() {
+        return lost;
+    }
+
+    @Override
+    public void close() {
+        if (released) {
+            return;
+        }
+        released = true;
+        stopWatchdog();
+        if (!source.release(token)) {
+            log.warn("Lease on key: {} had already expired before release, fencing token: {}", source.getKey(), fencingToken);
+        }
+    }
+
+    private void stopWatchdog() {
+        ScheduledFuture<?> current = renewal;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RedisLockLease(key=" + source.getKey() + ", fencingToken=" + fencingToken + ")";
+    }
+}
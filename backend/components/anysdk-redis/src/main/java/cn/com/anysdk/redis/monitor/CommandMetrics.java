@@ -0,0 +1,66 @@
+package cn.com.anysdk.redis.monitor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个Redis命令的运行指标
+ * 包含延迟直方图、失败次数和当前并发执行数
+ */
+public class CommandMetrics {
+    private final String command;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    public CommandMetrics(String command) {
+        this.command = command;
+    }
+
+    /**
+     * 标记命令开始执行
+     * @return 开始时间（纳秒）
+     */
+    public long begin() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * 标记命令执行结束
+     * @param startNanos 开始时间（纳秒）
+     * @return 耗时（纳秒）
+     */
+    public long end(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        inFlight.decrement();
+        latency.record(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * 记录一次失败
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+}
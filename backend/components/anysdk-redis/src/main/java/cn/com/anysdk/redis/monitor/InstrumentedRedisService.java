@@ -0,0 +1,914 @@
+package cn.com.anysdk.redis.monitor;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
+import cn.com.anysdk.redis.exception.RedisErrorCodes;
+import cn.com.anysdk.redis.impl.DelegatingRedisBatch;
+import cn.com.anysdk.redis.impl.DelegatingRedisService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带监控的Redis服务
+ * <p>
+ * 直接调用被装饰的服务，不经过反射，也不装箱参数。每个命令的指标对象在构造时解析好，
+ * 调用路径上只有两次{@link System#nanoTime()}和若干原子计数操作。
+ * 耗时超过慢操作阈值时输出警告日志，失败时记录错误次数并输出错误日志后原样抛出。
+ */
+@Slf4j
+public class InstrumentedRedisService extends DelegatingRedisService {
+    private static final long DEFAULT_SLOW_OPERATION_THRESHOLD = 100;
+
+    private final RedisMetrics metrics;
+    private final long slowThresholdNanos;
+
+    private final CommandMetrics setMetrics;
+    private final CommandMetrics setExMetrics;
+    private final CommandMetrics setIfAbsentMetrics;
+    private final CommandMetrics getMetrics;
+    private final CommandMetrics deleteMetrics;
+    private final CommandMetrics deleteKeysMetrics;
+    private final CommandMetrics expireMetrics;
+    private final CommandMetrics hasKeyMetrics;
+    private final CommandMetrics getExpireMetrics;
+    private final CommandMetrics dumpMetrics;
+    private final CommandMetrics restoreMetrics;
+    private final CommandMetrics incrMetrics;
+    private final CommandMetrics incrByMetrics;
+    private final CommandMetrics hIncrByMetrics;
+    private final CommandMetrics hSetMetrics;
+    private final CommandMetrics hGetMetrics;
+    private final CommandMetrics hSetAllMetrics;
+    private final CommandMetrics hGetAllMetrics;
+    private final CommandMetrics lPushMetrics;
+    private final CommandMetrics rPushMetrics;
+    private final CommandMetrics lRangeMetrics;
+    private final CommandMetrics sAddMetrics;
+    private final CommandMetrics sMembersMetrics;
+    private final CommandMetrics zAddMetrics;
+    private final CommandMetrics zAddAllMetrics;
+    private final CommandMetrics zIncrByMetrics;
+    private final CommandMetrics zScoreMetrics;
+    private final CommandMetrics zRankMetrics;
+    private final CommandMetrics zRevRankMetrics;
+    private final CommandMetrics zCardMetrics;
+    private final CommandMetrics zRangeByScoreMetrics;
+    private final CommandMetrics zRevRangeMetrics;
+    private final CommandMetrics zRemRangeByScoreMetrics;
+    private final CommandMetrics zPopMinMetrics;
+    private final CommandMetrics xAddMetrics;
+    private final CommandMetrics xLenMetrics;
+    private final CommandMetrics xGroupCreateMetrics;
+    private final CommandMetrics xReadGroupMetrics;
+    private final CommandMetrics xAckMetrics;
+    private final CommandMetrics xAutoClaimMetrics;
+    private final CommandMetrics xInfoGroupsMetrics;
+    private final CommandMetrics mGetMetrics;
+    private final CommandMetrics mSetMetrics;
+    private final CommandMetrics mDeleteMetrics;
+    private final CommandMetrics batchMetrics;
+    private final CommandMetrics publishMetrics;
+    private final CommandMetrics scriptLoadMetrics;
+    private final CommandMetrics evalShaMetrics;
+    private final CommandMetrics getBytesMetrics;
+    private final CommandMetrics setBytesMetrics;
+    private final CommandMetrics setBytesExMetrics;
+    private final CommandMetrics mGetBytesMetrics;
+    private final CommandMetrics hGetBytesMetrics;
+    private final CommandMetrics hSetBytesMetrics;
+    private final CommandMetrics hGetAllBytesMetrics;
+
+    public InstrumentedRedisService(IRedisService delegate) {
+        this(delegate, new RedisMetrics(), DEFAULT_SLOW_OPERATION_THRESHOLD);
+    }
+
+    /**
+     * @param delegate 被装饰的服务
+     * @param metrics 指标注册表，可在多个服务间共享
+     * @param slowOperationThreshold 慢操作阈值（毫秒）
+     */
+    public InstrumentedRedisService(IRedisService delegate, RedisMetrics metrics, long slowOperationThreshold) {
+        super(delegate);
+        this.metrics = metrics;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowOperationThreshold);
+        this.setMetrics = metrics.command("set");
+        this.setExMetrics = metrics.command("setEx");
+        this.setIfAbsentMetrics = metrics.command("setIfAbsent");
+        this.getMetrics = metrics.command("get");
+        this.deleteMetrics = metrics.command("delete");
+        this.deleteKeysMetrics = metrics.command("deleteKeys");
+        this.expireMetrics = metrics.command("expire");
+        this.hasKeyMetrics = metrics.command("hasKey");
+        this.getExpireMetrics = metrics.command("getExpire");
+        this.dumpMetrics = metrics.command("dump");
+        this.restoreMetrics = metrics.command("restore");
+        this.incrMetrics = metrics.command("incr");
+        this.incrByMetrics = metrics.command("incrBy");
+        this.hIncrByMetrics = metrics.command("hIncrBy");
+        this.hSetMetrics = metrics.command("hSet");
+        this.hGetMetrics = metrics.command("hGet");
+        this.hSetAllMetrics = metrics.command("hSetAll");
+        this.hGetAllMetrics = metrics.command("hGetAll");
+        this.lPushMetrics = metrics.command("lPush");
+        this.rPushMetrics = metrics.command("rPush");
+        this.lRangeMetrics = metrics.command("lRange");
+        this.sAddMetrics = metrics.command("sAdd");
+        this.sMembersMetrics = metrics.command("sMembers");
+        this.zAddMetrics = metrics.command("zAdd");
+        this.zAddAllMetrics = metrics.command("zAddAll");
+        this.zIncrByMetrics = metrics.command("zIncrBy");
+        this.zScoreMetrics = metrics.command("zScore");
+        this.zRankMetrics = metrics.command("zRank");
+        this.zRevRankMetrics = metrics.command("zRevRank");
+        this.zCardMetrics = metrics.command("zCard");
+        this.zRangeByScoreMetrics = metrics.command("zRangeByScore");
+        this.zRevRangeMetrics = metrics.command("zRevRange");
+        this.zRemRangeByScoreMetrics = metrics.command("zRemRangeByScore");
+        this.zPopMinMetrics = metrics.command("zPopMin");
+        this.xAddMetrics = metrics.command("xAdd");
+        this.xLenMetrics = metrics.command("xLen");
+        this.xGroupCreateMetrics = metrics.command("xGroupCreate");
+        this.xReadGroupMetrics = metrics.command("xReadGroup");
+        this.xAckMetrics = metrics.command("xAck");
+        this.xAutoClaimMetrics = metrics.command("xAutoClaim");
+        this.xInfoGroupsMetrics = metrics.command("xInfoGroups");
+        this.mGetMetrics = metrics.command("mGet");
+        this.mSetMetrics = metrics.command("mSet");
+        this.mDeleteMetrics = metrics.command("mDelete");
+        this.batchMetrics = metrics.command("batch");
+        this.publishMetrics = metrics.command("publish");
+        this.scriptLoadMetrics = metrics.command("scriptLoad");
+        this.evalShaMetrics = metrics.command("evalSha");
+        this.getBytesMetrics = metrics.command("getBytes");
+        this.setBytesMetrics = metrics.command("setBytes");
+        this.setBytesExMetrics = metrics.command("setBytesEx");
+        this.mGetBytesMetrics = metrics.command("mGetBytes");
+        this.hGetBytesMetrics = metrics.command("hGetBytes");
+        this.hSetBytesMetrics = metrics.command("hSetBytes");
+        this.hGetAllBytesMetrics = metrics.command("hGetAllBytes");
+    }
+
+    /**
+     * 获取指标注册表
+     * @return 指标注册表
+     */
+    public RedisMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void set(String key, String value) {
+        long startNanos = setMetrics.begin();
+        try {
+            delegate.set(key, value);
+        } catch (RuntimeException e) {
+            onError(setMetrics, e);
+            throw e;
+        } finally {
+            onComplete(setMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        long startNanos = setExMetrics.begin();
+        try {
+            delegate.set(key, value, timeout, unit);
+        } catch (RuntimeException e) {
+            onError(setExMetrics, e);
+            throw e;
+        } finally {
+            onComplete(setExMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        long startNanos = setIfAbsentMetrics.begin();
+        try {
+            return delegate.setIfAbsent(key, value, timeout, unit);
+        } catch (RuntimeException e) {
+            onError(setIfAbsentMetrics, e);
+            throw e;
+        } finally {
+            onComplete(setIfAbsentMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        long startNanos = getMetrics.begin();
+        try {
+            return delegate.get(key);
+        } catch (RuntimeException e) {
+            onError(getMetrics, e);
+            throw e;
+        } finally {
+            onComplete(getMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) {
+        long startNanos = deleteMetrics.begin();
+        try {
+            return delegate.delete(key);
+        } catch (RuntimeException e) {
+            onError(deleteMetrics, e);
+            throw e;
+        } finally {
+            onComplete(deleteMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long delete(List<String> keys) {
+        long startNanos = deleteKeysMetrics.begin();
+        try {
+            return delegate.delete(keys);
+        } catch (RuntimeException e) {
+            onError(deleteKeysMetrics, e);
+            throw e;
+        } finally {
+            onComplete(deleteKeysMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        long startNanos = expireMetrics.begin();
+        try {
+            return delegate.expire(key, timeout, unit);
+        } catch (RuntimeException e) {
+            onError(expireMetrics, e);
+            throw e;
+        } finally {
+            onComplete(expireMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        long startNanos = hasKeyMetrics.begin();
+        try {
+            return delegate.hasKey(key);
+        } catch (RuntimeException e) {
+            onError(hasKeyMetrics, e);
+            throw e;
+        } finally {
+            onComplete(hasKeyMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long getExpire(String key, TimeUnit unit) {
+        long startNanos = getExpireMetrics.begin();
+        try {
+            return delegate.getExpire(key, unit);
+        } catch (RuntimeException e) {
+            onError(getExpireMetrics, e);
+            throw e;
+        } finally {
+            onComplete(getExpireMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public byte[] dump(String key) {
+        long startNanos = dumpMetrics.begin();
+        try {
+            return delegate.dump(key);
+        } catch (RuntimeException e) {
+            onError(dumpMetrics, e);
+            throw e;
+        } finally {
+            onComplete(dumpMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public void restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        long startNanos = restoreMetrics.begin();
+        try {
+            delegate.restore(key, ttlMillis, serialized, replace);
+        } catch (RuntimeException e) {
+            onError(restoreMetrics, e);
+            throw e;
+        } finally {
+            onComplete(restoreMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long incr(String key) {
+        long startNanos = incrMetrics.begin();
+        try {
+            return delegate.incr(key);
+        } catch (RuntimeException e) {
+            onError(incrMetrics, e);
+            throw e;
+        } finally {
+            onComplete(incrMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        long startNanos = incrByMetrics.begin();
+        try {
+            return delegate.incrBy(key, delta);
+        } catch (RuntimeException e) {
+            onError(incrByMetrics, e);
+            throw e;
+        } finally {
+            onComplete(incrByMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long hIncrBy(String key, String field, long delta) {
+        long startNanos = hIncrByMetrics.begin();
+        try {
+            return delegate.hIncrBy(key, field, delta);
+        } catch (RuntimeException e) {
+            onError(hIncrByMetrics, e);
+            throw e;
+        } finally {
+            onComplete(hIncrByMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public void hSet(String key, String field, Object value) {
+        long startNanos = hSetMetrics.begin();
+        try {
+            delegate.hSet(key, field, value);
+        } catch (RuntimeException e) {
+            onError(hSetMetrics, e);
+            throw e;
+        } finally {
+            onComplete(hSetMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public Object hGet(String key, String field) {
+        long startNanos = hGetMetrics.begin();
+        try {
+            return delegate.hGet(key, field);
+        } catch (RuntimeException e) {
+            onError(hGetMetrics, e);
+            throw e;
+        } finally {
+            onComplete(hGetMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map) {
+        long startNanos = hSetAllMetrics.begin();
+        try {
+            delegate.hSetAll(key, map);
+        } catch (RuntimeException e) {
+            onError(hSetAllMetrics, e);
+            throw e;
+        } finally {
+            onComplete(hSetAllMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public Map<Object, Object> hGetAll(String key) {
+        long startNanos = hGetAllMetrics.begin();
+        try {
+            return delegate.hGetAll(key);
+        } catch (RuntimeException e) {
+            onError(hGetAllMetrics, e);
+            throw e;
+        } finally {
+            onComplete(hGetAllMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long lPush(String key, String value) {
+        long startNanos = lPushMetrics.begin();
+        try {
+            return delegate.lPush(key, value);
+        } catch (RuntimeException e) {
+            onError(lPushMetrics, e);
+            throw e;
+        } finally {
+            onComplete(lPushMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long rPush(String key, String value) {
+        long startNanos = rPushMetrics.begin();
+        try {
+            return delegate.rPush(key, value);
+        } catch (RuntimeException e) {
+            onError(rPushMetrics, e);
+            throw e;
+        } finally {
+            onComplete(rPushMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public List<String> lRange(String key, long start, long end) {
+        long startNanos = lRangeMetrics.begin();
+        try {
+            return delegate.lRange(key, start, end);
+        } catch (RuntimeException e) {
+            onError(lRangeMetrics, e);
+            throw e;
+        } finally {
+            onComplete(lRangeMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long sAdd(String key, String... values) {
+        long startNanos = sAddMetrics.begin();
+        try {
+            return delegate.sAdd(key, values);
+        } catch (RuntimeException e) {
+            onError(sAddMetrics, e);
+            throw e;
+        } finally {
+            onComplete(sAddMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public Set<String> sMembers(String key) {
+        long startNanos = sMembersMetrics.begin();
+        try {
+            return delegate.sMembers(key);
+        } catch (RuntimeException e) {
+            onError(sMembersMetrics, e);
+            throw e;
+        } finally {
+            onComplete(sMembersMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long zAdd(String key, double score, String member) {
+        long startNanos = zAddMetrics.begin();
+        try {
+            return delegate.zAdd(key, score, member);
+        } catch (RuntimeException e) {
+            onError(zAddMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zAddMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long zAdd(String key, Collection<ScoredMember> members) {
+        long startNanos = zAddAllMetrics.begin();
+        try {
+            return delegate.zAdd(key, members);
+        } catch (RuntimeException e) {
+            onError(zAddAllMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zAddAllMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public double zIncrBy(String key, double increment, String member) {
+        long startNanos = zIncrByMetrics.begin();
+        try {
+            return delegate.zIncrBy(key, increment, member);
+        } catch (RuntimeException e) {
+            onError(zIncrByMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zIncrByMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public Double zScore(String key, String member) {
+        long startNanos = zScoreMetrics.begin();
+        try {
+            return delegate.zScore(key, member);
+        } catch (RuntimeException e) {
+            onError(zScoreMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zScoreMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long zRank(String key, String member) {
+        long startNanos = zRankMetrics.begin();
+        try {
+            return delegate.zRank(key, member);
+        } catch (RuntimeException e) {
+            onError(zRankMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zRankMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long zRevRank(String key, String member) {
+        long startNanos = zRevRankMetrics.begin();
+        try {
+            return delegate.zRevRank(key, member);
+        } catch (RuntimeException e) {
+            onError(zRevRankMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zRevRankMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long zCard(String key) {
+        long startNanos = zCardMetrics.begin();
+        try {
+            return delegate.zCard(key);
+        } catch (RuntimeException e) {
+            onError(zCardMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zCardMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zRangeByScore(String key, double min, double max, long offset, long count) {
+        long startNanos = zRangeByScoreMetrics.begin();
+        try {
+            return delegate.zRangeByScore(key, min, max, offset, count);
+        } catch (RuntimeException e) {
+            onError(zRangeByScoreMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zRangeByScoreMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zRevRange(String key, long start, long end) {
+        long startNanos = zRevRangeMetrics.begin();
+        try {
+            return delegate.zRevRange(key, start, end);
+        } catch (RuntimeException e) {
+            onError(zRevRangeMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zRevRangeMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long zRemRangeByScore(String key, double min, double max) {
+        long startNanos = zRemRangeByScoreMetrics.begin();
+        try {
+            return delegate.zRemRangeByScore(key, min, max);
+        } catch (RuntimeException e) {
+            onError(zRemRangeByScoreMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zRemRangeByScoreMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public List<ScoredMember> zPopMin(String key, int count) {
+        long startNanos = zPopMinMetrics.begin();
+        try {
+            return delegate.zPopMin(key, count);
+        } catch (RuntimeException e) {
+            onError(zPopMinMetrics, e);
+            throw e;
+        } finally {
+            onComplete(zPopMinMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public String xAdd(String key, Map<String, String> fields, long maxLen) {
+        long startNanos = xAddMetrics.begin();
+        try {
+            return delegate.xAdd(key, fields, maxLen);
+        } catch (RuntimeException e) {
+            onError(xAddMetrics, e);
+            throw e;
+        } finally {
+            onComplete(xAddMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long xLen(String key) {
+        long startNanos = xLenMetrics.begin();
+        try {
+            return delegate.xLen(key);
+        } catch (RuntimeException e) {
+            onError(xLenMetrics, e);
+            throw e;
+        } finally {
+            onComplete(xLenMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public boolean xGroupCreate(String key, String group, String startId) {
+        long startNanos = xGroupCreateMetrics.begin();
+        try {
+            return delegate.xGroupCreate(key, group, startId);
+        } catch (RuntimeException e) {
+            onError(xGroupCreateMetrics, e);
+            throw e;
+        } finally {
+            onComplete(xGroupCreateMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public List<StreamEntry> xReadGroup(String key, String group, String consumer, int count, long blockMillis) {
+        long startNanos = xReadGroupMetrics.begin();
+        try {
+            return delegate.xReadGroup(key, group, consumer, count, blockMillis);
+        } catch (RuntimeException e) {
+            onError(xReadGroupMetrics, e);
+            throw e;
+        } finally {
+            onComplete(xReadGroupMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long xAck(String key, String group, Collection<String> ids) {
+        long startNanos = xAckMetrics.begin();
+        try {
+            return delegate.xAck(key, group, ids);
+        } catch (RuntimeException e) {
+            onError(xAckMetrics, e);
+            throw e;
+        } finally {
+            onComplete(xAckMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public StreamClaimResult xAutoClaim(String key, String group, String consumer, long minIdleMillis, String startId, int count) {
+        long startNanos = xAutoClaimMetrics.begin();
+        try {
+            return delegate.xAutoClaim(key, group, consumer, minIdleMillis, startId, count);
+        } catch (RuntimeException e) {
+            onError(xAutoClaimMetrics, e);
+            throw e;
+        } finally {
+            onComplete(xAutoClaimMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public List<StreamGroupInfo> xInfoGroups(String key) {
+        long startNanos = xInfoGroupsMetrics.begin();
+        try {
+            return delegate.xInfoGroups(key);
+        } catch (RuntimeException e) {
+            onError(xInfoGroupsMetrics, e);
+            throw e;
+        } finally {
+            onComplete(xInfoGroupsMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        long startNanos = mGetMetrics.begin();
+        try {
+            return delegate.mGet(keys);
+        } catch (RuntimeException e) {
+            onError(mGetMetrics, e);
+            throw e;
+        } finally {
+            onComplete(mGetMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public void mSet(Map<String, String> map) {
+        long startNanos = mSetMetrics.begin();
+        try {
+            delegate.mSet(map);
+        } catch (RuntimeException e) {
+            onError(mSetMetrics, e);
+            throw e;
+        } finally {
+            onComplete(mSetMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public long mDelete(List<String> keys) {
+        long startNanos = mDeleteMetrics.begin();
+        try {
+            return delegate.mDelete(keys);
+        } catch (RuntimeException e) {
+            onError(mDeleteMetrics, e);
+            throw e;
+        } finally {
+            onComplete(mDeleteMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return new InstrumentedBatch(delegate.batch());
+    }
+
+    @Override
+    public long publish(String channel, String message) {
+        long startNanos = publishMetrics.begin();
+        try {
+            return delegate.publish(channel, message);
+        } catch (RuntimeException e) {
+            onError(publishMetrics, e);
+            throw e;
+        } finally {
+            onComplete(publishMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public String scriptLoad(String script) {
+        long startNanos = scriptLoadMetrics.begin();
+        try {
+            return delegate.scriptLoad(script);
+        } catch (RuntimeException e) {
+            onError(scriptLoadMetrics, e);
+            throw e;
+        } finally {
+            onComplete(scriptLoadMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args) {
+        long startNanos = evalShaMetrics.begin();
+        try {
+            return delegate.evalSha(sha1, returnType, keys, args);
+        } catch (RuntimeException e) {
+            if (RedisErrorCodes.isNoScript(e)) {
+                // 脚本缓存丢失由调用方重新加载，不算作故障
+                evalShaMetrics.recordError();
+            } else {
+                onError(evalShaMetrics, e);
+            }
+            throw e;
+        } finally {
+            onComplete(evalShaMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        long startNanos = getBytesMetrics.begin();
+        try {
+            return delegate.getBytes(key);
+        } catch (RuntimeException e) {
+            onError(getBytesMetrics, e);
+            throw e;
+        } finally {
+            onComplete(getBytesMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value) {
+        long startNanos = setBytesMetrics.begin();
+        try {
+            delegate.setBytes(key, value);
+        } catch (RuntimeException e) {
+            onError(setBytesMetrics, e);
+            throw e;
+        } finally {
+            onComplete(setBytesMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        long startNanos = setBytesExMetrics.begin();
+        try {
+            delegate.setBytes(key, value, timeout, unit);
+        } catch (RuntimeException e) {
+            onError(setBytesExMetrics, e);
+            throw e;
+        } finally {
+            onComplete(setBytesExMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public List<byte[]> mGetBytes(List<String> keys) {
+        long startNanos = mGetBytesMetrics.begin();
+        try {
+            return delegate.mGetBytes(keys);
+        } catch (RuntimeException e) {
+            onError(mGetBytesMetrics, e);
+            throw e;
+        } finally {
+            onComplete(mGetBytesMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public byte[] hGetBytes(String key, String field) {
+        long startNanos = hGetBytesMetrics.begin();
+        try {
+            return delegate.hGetBytes(key, field);
+        } catch (RuntimeException e) {
+            onError(hGetBytesMetrics, e);
+            throw e;
+        } finally {
+            onComplete(hGetBytesMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public void hSetBytes(String key, String field, byte[] value) {
+        long startNanos = hSetBytesMetrics.begin();
+        try {
+            delegate.hSetBytes(key, field, value);
+        } catch (RuntimeException e) {
+            onError(hSetBytesMetrics, e);
+            throw e;
+        } finally {
+            onComplete(hSetBytesMetrics, startNanos);
+        }
+    }
+
+    @Override
+    public Map<String, byte[]> hGetAllBytes(String key) {
+        long startNanos = hGetAllBytesMetrics.begin();
+        try {
+            return delegate.hGetAllBytes(key);
+        } catch (RuntimeException e) {
+            onError(hGetAllBytesMetrics, e);
+            throw e;
+        } finally {
+            onComplete(hGetAllBytesMetrics, startNanos);
+        }
+    }
+
+    private void onComplete(CommandMetrics commandMetrics, long startNanos) {
+        long elapsed = commandMetrics.end(startNanos);
+        if (elapsed > slowThresholdNanos) {
+            log.warn("Redis operation [{}] took {}ms to execute", commandMetrics.getCommand(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private void onError(CommandMetrics commandMetrics, RuntimeException e) {
+        commandMetrics.recordError();
+        log.error("Redis operation [{}] failed: {}", commandMetrics.getCommand(), e.getMessage());
+    }
+
+    /**
+     * 带监控的批量操作，只统计execute的整体耗时
+     */
+    private class InstrumentedBatch extends DelegatingRedisBatch {
+        InstrumentedBatch(RedisBatch delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public List<Object> execute() {
+            long startNanos = batchMetrics.begin();
+            try {
+                return delegate.execute();
+            } catch (RuntimeException e) {
+                onError(batchMetrics, e);
+                throw e;
+            } finally {
+                onComplete(batchMetrics, startNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package cn.com.anysdk.redis.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁延迟直方图
+ * <p>
+ * 采用与HdrHistogram相同的对数-线性分桶：小于64纳秒的值逐纳秒计数，
+ * 更大的值在每个2的幂区间内再等分为32个子桶，相对误差不超过约3%。
+ * 记录只是一次数组下标计算加一次原子自增，不分配对象、不加锁。
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int LINEAR_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = LINEAR_BUCKETS / 2;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + (63 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucketIndex(nanos));
+        totalCount.increment();
+        totalNanos.add(nanos);
+        long currentMax = maxNanos.get();
+        while (nanos > currentMax && !maxNanos.compareAndSet(currentMax, nanos)) {
+            currentMax = maxNanos.get();
+        }
+    }
+
+    /**
+     * 获取记录总数
+     * @return 记录总数
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * 获取指定分位的耗时
+     * @param percentile 分位，取值0到1之间，例如0.99
+     * @return 耗时（纳秒），没有记录时返回0
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        return valueAtPercentile(snapshot, total, percentile);
+    }
+
+    /**
+     * 获取统计快照
+     * @return 统计快照
+     */
+    public Snapshot snapshot() {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        long sum = totalNanos.sum();
+        return new Snapshot(total,
+                total == 0 ? 0 : sum / total,
+                valueAtPercentile(snapshot, total, 0.5),
+                valueAtPercentile(snapshot, total, 0.99),
+                valueAtPercentile(snapshot, total, 0.999),
+                maxNanos.get());
+    }
+
+    /**
+     * 清空所有记录
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift) - HALF_SUB_BUCKETS;
+        return LINEAR_BUCKETS + (magnitude - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketMidpoint(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int offset = index - LINEAR_BUCKETS;
+        int magnitude = offset / HALF_SUB_BUCKETS + SUB_BUCKET_BITS;
+        long top = offset % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        int shift = magnitude - (SUB_BUCKET_BITS - 1);
+        long lower = top << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+
+    private static long valueAtPercentile(long[] snapshot, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(1.0, Math.max(0.0, percentile))));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return bucketMidpoint(i);
+            }
+        }
+        return bucketMidpoint(snapshot.length - 1);
+    }
+
+    /**
+     * 直方图统计快照，耗时单位均为纳秒
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long mean;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        Snapshot(long count, long mean, long p50, long p99, long p999, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot(count=" + count + ", mean=" + mean + ", p50=" + p50 + ", p99=" + p99
+                    + ", p999=" + p999 + ", max=" + max + ")";
+        }
+    }
+}
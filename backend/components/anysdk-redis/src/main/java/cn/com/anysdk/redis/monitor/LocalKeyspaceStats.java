@@ -0,0 +1,43 @@
+package cn.com.anysdk.redis.monitor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 本地提供商键空间统计快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class LocalKeyspaceStats {
+    /**
+     * 键的数量，包括已过期但尚未删除的键
+     */
+    private final long keys;
+
+    /**
+     * 估算的已用内存（字节）
+     */
+    private final long usedMemory;
+
+    /**
+     * 内存上限（字节），0表示不限制
+     */
+    private final long maxMemory;
+
+    /**
+     * 淘汰策略
+     */
+    private final String maxMemoryPolicy;
+
+    /**
+     * 累计淘汰的键数
+     */
+    private final long evictedKeys;
+
+    /**
+     * 累计过期删除的键数
+     */
+    private final long expiredKeys;
+}
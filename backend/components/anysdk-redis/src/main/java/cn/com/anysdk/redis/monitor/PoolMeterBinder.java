@@ -0,0 +1,69 @@
+package cn.com.anysdk.redis.monitor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 将连接池统计绑定到Micrometer
+ * <p>
+ * 注册借出、空闲、等待连接数，当前空闲连接上下限，创建、销毁、借用和慢借用次数，以及借用等待的p99和最大耗时。
+ * 每次读取指标时重新获取快照，例如{@code new PoolMeterBinder(jedisRedisService::getPoolStats)}。
+ */
+public class PoolMeterBinder implements MeterBinder {
+    private static final String PREFIX = "anysdk.redis.pool";
+
+    private final Supplier<PoolStats> stats;
+    private final Iterable<Tag> tags;
+
+    public PoolMeterBinder(Supplier<PoolStats> stats) {
+        this(stats, Tags.empty());
+    }
+
+    public PoolMeterBinder(Supplier<PoolStats> stats, Iterable<Tag> tags) {
+        this.stats = stats;
+        this.tags = tags;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "active", "已借出的连接数", PoolStats::getActive);
+        gauge(registry, "idle", "空闲连接数", PoolStats::getIdle);
+        gauge(registry, "waiters", "等待借用连接的线程数", PoolStats::getWaiters);
+        gauge(registry, "max.idle", "最大空闲连接数", PoolStats::getMaxIdle);
+        gauge(registry, "min.idle", "最小空闲连接数", PoolStats::getMinIdle);
+        counter(registry, "created", "创建的连接数", PoolStats::getCreatedCount);
+        counter(registry, "destroyed", "销毁的连接数", PoolStats::getDestroyedCount);
+        counter(registry, "borrowed", "借用次数", PoolStats::getBorrowedCount);
+        counter(registry, "slow.borrows", "借用等待超过1毫秒的次数", PoolStats::getSlowBorrowCount);
+        counter(registry, "resizes", "自适应调整次数", PoolStats::getResizeCount);
+        TimeGauge.builder(PREFIX + ".borrow.wait", stats, TimeUnit.NANOSECONDS, s -> s.get().getBorrowWait().getP99())
+                .tags(Tags.concat(tags, "quantile", "p99"))
+                .register(registry);
+        TimeGauge.builder(PREFIX + ".borrow.wait.max", stats, TimeUnit.NANOSECONDS, s -> s.get().getBorrowWait().getMax())
+                .tags(tags)
+                .register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder(PREFIX + "." + name, stats, s -> value.applyAsDouble(s.get()))
+                .tags(tags)
+                .description(description)
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<PoolStats> value) {
+        FunctionCounter.builder(PREFIX + "." + name, stats, s -> value.applyAsDouble(s.get()))
+                .tags(tags)
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,79 @@
+package cn.com.anysdk.redis.monitor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 连接池统计快照
+ * 主从、哨兵和集群模式下为所有节点连接池的合计
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PoolStats {
+    /**
+     * 连接池个数
+     */
+    private final int poolCount;
+
+    /**
+     * 已借出的连接数
+     */
+    private final int active;
+
+    /**
+     * 空闲连接数
+     */
+    private final int idle;
+
+    /**
+     * 正在等待借用连接的线程数
+     */
+    private final int waiters;
+
+    /**
+     * 单个连接池的最大连接数
+     */
+    private final int maxTotal;
+
+    /**
+     * 单个连接池当前的最大空闲连接数，自适应模式下随负载调整
+     */
+    private final int maxIdle;
+
+    /**
+     * 单个连接池当前的最小空闲连接数，自适应模式下随负载调整
+     */
+    private final int minIdle;
+
+    /**
+     * 累计创建的连接数
+     */
+    private final long createdCount;
+
+    /**
+     * 累计销毁的连接数
+     */
+    private final long destroyedCount;
+
+    /**
+     * 累计借用次数
+     */
+    private final long borrowedCount;
+
+    /**
+     * 借用等待超过1毫秒的次数
+     */
+    private final long slowBorrowCount;
+
+    /**
+     * 自适应模式下调整连接池大小的次数
+     */
+    private final long resizeCount;
+
+    /**
+     * 借用等待耗时分布（纳秒）
+     */
+    private final LatencyHistogram.Snapshot borrowWait;
+}
@@ -0,0 +1,68 @@
+package cn.com.anysdk.redis.monitor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 将Redis命令指标绑定到Micrometer
+ * <p>
+ * 每个命令注册调用次数、失败次数、并发执行数以及p50/p99/p999/max耗时，均以command标签区分。
+ * 只绑定调用{@link #bindTo(MeterRegistry)}时已存在的命令，{@link InstrumentedRedisService}在构造时已注册全部命令。
+ * micrometer-core为可选依赖，不使用本类时无需引入。
+ */
+public class RedisMeterBinder implements MeterBinder {
+    private static final String PREFIX = "anysdk.redis.command";
+
+    private final RedisMetrics metrics;
+    private final Iterable<Tag> tags;
+
+    public RedisMeterBinder(RedisMetrics metrics) {
+        this(metrics, Tags.empty());
+    }
+
+    public RedisMeterBinder(RedisMetrics metrics, Iterable<Tag> tags) {
+        this.metrics = metrics;
+        this.tags = tags;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (CommandMetrics command : metrics.getCommands()) {
+            Tags commandTags = Tags.concat(tags, "command", command.getCommand());
+            FunctionCounter.builder(PREFIX + ".calls", command, CommandMetrics::getCount)
+                    .tags(commandTags)
+                    .description("Redis命令调用次数")
+                    .register(registry);
+            FunctionCounter.builder(PREFIX + ".errors", command, CommandMetrics::getErrorCount)
+                    .tags(commandTags)
+                    .description("Redis命令失败次数")
+                    .register(registry);
+            Gauge.builder(PREFIX + ".in.flight", command, CommandMetrics::getInFlight)
+                    .tags(commandTags)
+                    .description("正在执行的Redis命令数")
+                    .register(registry);
+            registerLatency(registry, command, commandTags, "p50", 0.5);
+            registerLatency(registry, command, commandTags, "p99", 0.99);
+            registerLatency(registry, command, commandTags, "p999", 0.999);
+            TimeGauge.builder(PREFIX + ".latency.max", command, TimeUnit.NANOSECONDS,
+                            c -> c.getLatency().snapshot().getMax())
+                    .tags(commandTags)
+                    .register(registry);
+        }
+    }
+
+    private void registerLatency(MeterRegistry registry, CommandMetrics command, Tags commandTags,
+                                 String name, double percentile) {
+        TimeGauge.builder(PREFIX + ".latency", command, TimeUnit.NANOSECONDS,
+                        c -> c.getLatency().getValueAtPercentile(percentile))
+                .tags(commandTags.and("quantile", name))
+                .register(registry);
+    }
+}
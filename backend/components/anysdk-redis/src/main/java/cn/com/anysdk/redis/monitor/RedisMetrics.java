@@ -0,0 +1,50 @@
+package cn.com.anysdk.redis.monitor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Redis命令指标注册表
+ * 每个命令名对应一个{@link CommandMetrics}，供监控系统（例如Micrometer）读取
+ */
+public class RedisMetrics {
+    private final ConcurrentMap<String, CommandMetrics> commands = new ConcurrentHashMap<>();
+
+    /**
+     * 获取或创建命令指标
+     * @param command 命令名
+     * @return 命令指标
+     */
+    public CommandMetrics command(String command) {
+        return commands.computeIfAbsent(command, CommandMetrics::new);
+    }
+
+    /**
+     * 获取全部命令指标
+     * @return 命令指标集合
+     */
+    public Collection<CommandMetrics> getCommands() {
+        return Collections.unmodifiableCollection(commands.values());
+    }
+
+    /**
+     * 获取所有命令的延迟快照
+     * @return 命令名到延迟快照的映射
+     */
+    public Map<String, LatencyHistogram.Snapshot> snapshot() {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new LinkedHashMap<>();
+        commands.forEach((name, metrics) -> snapshots.put(name, metrics.getLatency().snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * 清空所有命令的延迟记录
+     */
+    public void reset() {
+        commands.values().forEach(metrics -> metrics.getLatency().reset());
+    }
+}
@@ -0,0 +1,38 @@
+package cn.com.anysdk.redis.profile;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 大键
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BigKey {
+    /**
+     * 发现大键的命令名称
+     */
+    private final String command;
+
+    /**
+     * 键
+     */
+    private final String key;
+
+    /**
+     * 返回值的大小（字节），集合为所有字段、值或元素的合计
+     */
+    private final long bytes;
+
+    /**
+     * 返回的元素个数，字符串为-1；lRange只统计返回的范围
+     */
+    private final long elements;
+
+    /**
+     * 最近一次发现的时间（毫秒时间戳）
+     */
+    private final long detectedAt;
+}
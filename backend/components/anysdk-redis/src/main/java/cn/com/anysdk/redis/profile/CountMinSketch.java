@@ -0,0 +1,62 @@
+package cn.com.anysdk.redis.profile;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的Count-Min Sketch
+ * 每行一个哈希函数（由键的hashCode双重哈希得到），计数器是原子数组中的元素，估算值取各行计数的最小值，只会高估不会低估
+ */
+final class CountMinSketch {
+    private final AtomicLongArray counters;
+    private final int depth;
+    private final int width;
+    private final int mask;
+
+    CountMinSketch(int width, int depth) {
+        int size = Integer.highestOneBit(Math.max(16, width) - 1) << 1;
+        this.width = size;
+        this.mask = size - 1;
+        this.depth = Math.max(1, depth);
+        this.counters = new AtomicLongArray(this.width * this.depth);
+    }
+
+    /**
+     * 计数加一
+     * @param key 键
+     * @return 计数后的估算值
+     */
+    long increment(String key) {
+        int hash = key.hashCode();
+        int h1 = spread(hash);
+        int h2 = spread(hash * 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((h1 + row * h2) & mask);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+        }
+        return estimate;
+    }
+
+    /**
+     * 所有计数减半
+     */
+    void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,33 @@
+package cn.com.anysdk.redis.profile;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 热点键
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class HotKey {
+    /**
+     * 命令名称，与监控指标的命令名称一致
+     */
+    private final String command;
+
+    /**
+     * 键（发布命令为频道）
+     */
+    private final String key;
+
+    /**
+     * 被采样的次数（Count-Min Sketch估算值，只会偏高），按衰减间隔减半
+     */
+    private final long sampledCount;
+
+    /**
+     * 按采样比例换算的调用次数
+     */
+    private final long estimatedCalls;
+}
@@ -0,0 +1,178 @@
+package cn.com.anysdk.redis.profile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 单个命令的热点键统计
+ * <p>
+ * 计数记在{@link CountMinSketch}中，不需要为每个键分配对象；排名由一个容量为K的最小堆维护（Space-Saving）：
+ * 估算值超过堆顶时替换堆顶。堆满后估算值不超过堆顶的键只读一次volatile门槛就返回，
+ * 只有可能进入前K的键才获取锁，冷键的开销只是几次原子自增。
+ */
+final class HotKeyTracker {
+    private final String command;
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter[] heap;
+    private final Map<String, Counter> index = new HashMap<>();
+    private final LongAdder sampled = new LongAdder();
+    private int size;
+    private volatile long threshold;
+
+    HotKeyTracker(String command, ProfilerConfig config) {
+        this.command = command;
+        this.sketch = new CountMinSketch(config.getSketchWidth(), config.getSketchDepth());
+        this.capacity = Math.max(1, config.getTopK());
+        this.heap = new Counter[capacity];
+    }
+
+    String getCommand() {
+        return command;
+    }
+
+    long getSampled() {
+        return sampled.sum();
+    }
+
+    void record(String key) {
+        if (key == null) {
+            return;
+        }
+        sampled.increment();
+        long estimate = sketch.increment(key);
+        if (estimate <= threshold) {
+            return;
+        }
+        lock.lock();
+        try {
+            Counter counter = index.get(key);
+            if (counter != null) {
+                if (estimate > counter.count) {
+                    counter.count = estimate;
+                    siftDown(counter.position);
+                }
+            } else if (size < capacity) {
+                counter = new Counter(key, estimate);
+                counter.position = size;
+                heap[size++] = counter;
+                index.put(key, counter);
+                siftUp(counter.position);
+            } else if (estimate > heap[0].count) {
+                Counter evicted = heap[0];
+                index.remove(evicted.key);
+                counter = new Counter(key, estimate);
+                counter.position = 0;
+                heap[0] = counter;
+                index.put(key, counter);
+                siftDown(0);
+            }
+            threshold = size < capacity ? 0 : heap[0].count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 所有计数减半，减半不改变堆的顺序
+     */
+    void decay() {
+        sketch.halve();
+        lock.lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                heap[i].count >>>= 1;
+            }
+            threshold = size < capacity ? 0 : heap[0].count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void reset() {
+        lock.lock();
+        try {
+            sketch.clear();
+            for (int i = 0; i < size; i++) {
+                heap[i] = null;
+            }
+            index.clear();
+            size = 0;
+            threshold = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取热点键，按计数从高到低排列
+     * @param sampleRate 采样比例，用于把采样计数换算为调用次数
+     * @return 热点键
+     */
+    List<HotKey> snapshot(double sampleRate) {
+        List<HotKey> hotKeys = new ArrayList<>(size);
+        lock.lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                Counter counter = heap[i];
+                hotKeys.add(new HotKey(command, counter.key, counter.count, Math.round(counter.count / sampleRate)));
+            }
+        } finally {
+            lock.unlock();
+        }
+        hotKeys.sort((a, b) -> Long.compare(b.getSampledCount(), a.getSampledCount()));
+        return hotKeys;
+    }
+
+    private void siftUp(int position) {
+        Counter counter = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(counter, position);
+    }
+
+    private void siftDown(int position) {
+        Counter counter = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count) {
+                child = right;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], position);
+            position = child;
+        }
+        place(counter, position);
+    }
+
+    private void place(Counter counter, int position) {
+        heap[position] = counter;
+        counter.position = position;
+    }
+
+    private static final class Counter {
+        private final String key;
+        private long count;
+        private int position;
+
+        private Counter(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package cn.com.anysdk.redis.profile;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 热点键与大键分析配置
+ */
+@Data
+@Accessors(chain = true)
+public class ProfilerConfig {
+    /**
+     * 参与热点统计的调用比例，0到1之间
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * 每个命令保留的热点键个数
+     */
+    private int topK = 20;
+
+    /**
+     * Count-Min Sketch每行的计数器个数，向上取整为2的幂
+     */
+    private int sketchWidth = 1024;
+
+    /**
+     * Count-Min Sketch的行数（哈希函数个数）
+     */
+    private int sketchDepth = 4;
+
+    /**
+     * 计数衰减间隔（毫秒），每个间隔所有计数减半，热点排名反映最近的访问
+     */
+    private long decayIntervalMillis = 60_000;
+
+    /**
+     * 字符串值或集合总大小超过该字节数时记为大键
+     */
+    private long bigValueBytes = 10 * 1024;
+
+    /**
+     * 集合元素个数超过该值时记为大键
+     */
+    private int bigCollectionElements = 5_000;
+
+    /**
+     * 最多保留的大键个数，超出时丢弃最早发现的
+     */
+    private int maxBigKeys = 100;
+
+    /**
+     * 定期输出分析日志的间隔（毫秒），小于等于0表示不输出
+     */
+    private long reportIntervalMillis = 60_000;
+
+    /**
+     * 创建默认配置
+     * @return 默认配置
+     */
+    public static ProfilerConfig createDefault() {
+        return new ProfilerConfig();
+    }
+}
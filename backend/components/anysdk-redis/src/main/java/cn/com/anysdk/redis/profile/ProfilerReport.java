@@ -0,0 +1,36 @@
+package cn.com.anysdk.redis.profile;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热点键与大键分析快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProfilerReport {
+    /**
+     * 各命令的热点键，按计数从高到低排列，没有采样到的命令不包含在内
+     */
+    private final Map<String, List<HotKey>> hotKeys;
+
+    /**
+     * 发现的大键，按大小从大到小排列
+     */
+    private final List<BigKey> bigKeys;
+
+    /**
+     * 累计采样的调用次数
+     */
+    private final long sampledCalls;
+
+    /**
+     * 采样比例
+     */
+    private final double sampleRate;
+}
@@ -0,0 +1,948 @@
+package cn.com.anysdk.redis.profile;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
+import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.impl.DelegatingRedisBatch;
+import cn.com.anysdk.redis.impl.DelegatingRedisService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 热点键与大键分析
+ * <p>
+ * 按{@link ProfilerConfig#getSampleRate()}随机采样调用，被采样调用的键记入该命令的{@link HotKeyTracker}
+ * （Count-Min Sketch加容量为K的最小堆），未被采样的调用只多一次线程本地随机数。
+ * 计数每个衰减间隔减半，排名反映最近的访问。
+ * <p>
+ * get、getBytes、hGetAll、hGetAllBytes、lRange、sMembers、zRangeByScore、zRevRange的返回值每次都检查大小：字符串先按字符数估计上下界，
+ * 只有可能超过阈值时才计算UTF-8字节数；集合先比较元素个数。超过阈值的键记为大键，首次发现时输出警告日志。
+ * <p>
+ * 分析结果通过{@link #getReport()}获取，也可以按间隔输出到日志。不再使用时调用{@link #close()}停止定时任务，定时任务只弱引用装饰器，未关闭的装饰器被回收后任务自行取消。
+ */
+@Slf4j
+public class ProfilingRedisService extends DelegatingRedisService implements AutoCloseable {
+    private static final int SAMPLE_SCALE = 1 << 24;
+    private static final int REPORT_LIMIT = 10;
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "anysdk-redis-profiler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final double sampleRate;
+    private final int sampleBound;
+    private final long bigValueBytes;
+    private final int bigCollectionElements;
+    private final int maxBigKeys;
+    private final Map<String, HotKeyTracker> trackers = new LinkedHashMap<>();
+    private final ReentrantLock bigKeyLock = new ReentrantLock();
+    private final LinkedHashMap<String, BigKey> bigKeys = new LinkedHashMap<>();
+    private final List<ScheduledFuture<?>> tasks = new ArrayList<>(2);
+
+    private final HotKeyTracker setTracker;
+    private final HotKeyTracker setExTracker;
+    private final HotKeyTracker setIfAbsentTracker;
+    private final HotKeyTracker getTracker;
+    private final HotKeyTracker deleteTracker;
+    private final HotKeyTracker deleteKeysTracker;
+    private final HotKeyTracker expireTracker;
+    private final HotKeyTracker hasKeyTracker;
+    private final HotKeyTracker getExpireTracker;
+    private final HotKeyTracker dumpTracker;
+    private final HotKeyTracker restoreTracker;
+    private final HotKeyTracker incrTracker;
+    private final HotKeyTracker incrByTracker;
+    private final HotKeyTracker hIncrByTracker;
+    private final HotKeyTracker hSetTracker;
+    private final HotKeyTracker hGetTracker;
+    private final HotKeyTracker hSetAllTracker;
+    private final HotKeyTracker hGetAllTracker;
+    private final HotKeyTracker lPushTracker;
+    private final HotKeyTracker rPushTracker;
+    private final HotKeyTracker lRangeTracker;
+    private final HotKeyTracker sAddTracker;
+    private final HotKeyTracker sMembersTracker;
+    private final HotKeyTracker zAddTracker;
+    private final HotKeyTracker zAddAllTracker;
+    private final HotKeyTracker zIncrByTracker;
+    private final HotKeyTracker zScoreTracker;
+    private final HotKeyTracker zRankTracker;
+    private final HotKeyTracker zRevRankTracker;
+    private final HotKeyTracker zCardTracker;
+    private final HotKeyTracker zRangeByScoreTracker;
+    private final HotKeyTracker zRevRangeTracker;
+    private final HotKeyTracker zRemRangeByScoreTracker;
+    private final HotKeyTracker zPopMinTracker;
+    private final HotKeyTracker xAddTracker;
+    private final HotKeyTracker xLenTracker;
+    private final HotKeyTracker xGroupCreateTracker;
+    private final HotKeyTracker xReadGroupTracker;
+    private final HotKeyTracker xAckTracker;
+    private final HotKeyTracker xAutoClaimTracker;
+    private final HotKeyTracker xInfoGroupsTracker;
+    private final HotKeyTracker mGetTracker;
+    private final HotKeyTracker mSetTracker;
+    private final HotKeyTracker mDeleteTracker;
+    private final HotKeyTracker publishTracker;
+    private final HotKeyTracker evalShaTracker;
+    private final HotKeyTracker getBytesTracker;
+    private final HotKeyTracker setBytesTracker;
+    private final HotKeyTracker setBytesExTracker;
+    private final HotKeyTracker mGetBytesTracker;
+    private final HotKeyTracker hGetBytesTracker;
+    private final HotKeyTracker hSetBytesTracker;
+    private final HotKeyTracker hGetAllBytesTracker;
+
+    public ProfilingRedisService(IRedisService delegate) {
+        this(delegate, ProfilerConfig.createDefault());
+    }
+
+    /**
+     * @param delegate 被装饰的服务
+     * @param config 分析配置
+     */
+    public ProfilingRedisService(IRedisService delegate, ProfilerConfig config) {
+        super(delegate);
+        if (config == null) {
+            throw new RedisException("Profiler config cannot be null");
+        }
+        if (!(config.getSampleRate() > 0 && config.getSampleRate() <= 1)) {
+            throw new RedisException("Profiler sample rate must be in (0, 1]: " + config.getSampleRate());
+        }
+        this.sampleRate = config.getSampleRate();
+        this.sampleBound = (int) Math.ceil(sampleRate * SAMPLE_SCALE);
+        this.bigValueBytes = config.getBigValueBytes();
+        this.bigCollectionElements = config.getBigCollectionElements();
+        this.maxBigKeys = Math.max(1, config.getMaxBigKeys());
+
+        this.setTracker = tracker("set", config);
+        this.setExTracker = tracker("setEx", config);
+        this.setIfAbsentTracker = tracker("setIfAbsent", config);
+        this.getTracker = tracker("get", config);
+        this.deleteTracker = tracker("delete", config);
+        this.deleteKeysTracker = tracker("deleteKeys", config);
+        this.expireTracker = tracker("expire", config);
+        this.hasKeyTracker = tracker("hasKey", config);
+        this.getExpireTracker = tracker("getExpire", config);
+        this.dumpTracker = tracker("dump", config);
+        this.restoreTracker = tracker("restore", config);
+        this.incrTracker = tracker("incr", config);
+        this.incrByTracker = tracker("incrBy", config);
+        this.hIncrByTracker = tracker("hIncrBy", config);
+        this.hSetTracker = tracker("hSet", config);
+        this.hGetTracker = tracker("hGet", config);
+        this.hSetAllTracker = tracker("hSetAll", config);
+        this.hGetAllTracker = tracker("hGetAll", config);
+        this.lPushTracker = tracker("lPush", config);
+        this.rPushTracker = tracker("rPush", config);
+        this.lRangeTracker = tracker("lRange", config);
+        this.sAddTracker = tracker("sAdd", config);
+        this.sMembersTracker = tracker("sMembers", config);
+        this.zAddTracker = tracker("zAdd", config);
+        this.zAddAllTracker = tracker("zAddAll", config);
+        this.zIncrByTracker = tracker("zIncrBy", config);
+        this.zScoreTracker = tracker("zScore", config);
+        this.zRankTracker = tracker("zRank", config);
+        this.zRevRankTracker = tracker("zRevRank", config);
+        this.zCardTracker = tracker("zCard", config);
+        this.zRangeByScoreTracker = tracker("zRangeByScore", config);
+        this.zRevRangeTracker = tracker("zRevRange", config);
+        this.zRemRangeByScoreTracker = tracker("zRemRangeByScore", config);
+        this.zPopMinTracker = tracker("zPopMin", config);
+        this.xAddTracker = tracker("xAdd", config);
+        this.xLenTracker = tracker("xLen", config);
+        this.xGroupCreateTracker = tracker("xGroupCreate", config);
+        this.xReadGroupTracker = tracker("xReadGroup", config);
+        this.xAckTracker = tracker("xAck", config);
+        this.xAutoClaimTracker = tracker("xAutoClaim", config);
+        this.xInfoGroupsTracker = tracker("xInfoGroups", config);
+        this.mGetTracker = tracker("mGet", config);
+        this.mSetTracker = tracker("mSet", config);
+        this.mDeleteTracker = tracker("mDelete", config);
+        this.publishTracker = tracker("publish", config);
+        this.evalShaTracker = tracker("evalSha", config);
+        this.getBytesTracker = tracker("getBytes", config);
+        this.setBytesTracker = tracker("setBytes", config);
+        this.setBytesExTracker = tracker("setBytesEx", config);
+        this.mGetBytesTracker = tracker("mGetBytes", config);
+        this.hGetBytesTracker = tracker("hGetBytes", config);
+        this.hSetBytesTracker = tracker("hSetBytes", config);
+        this.hGetAllBytesTracker = tracker("hGetAllBytes", config);
+
+        if (config.getDecayIntervalMillis() > 0) {
+            tasks.add(WeakTask.schedule(this, ProfilingRedisService::decay, config.getDecayIntervalMillis()));
+        }
+        if (config.getReportIntervalMillis() > 0) {
+            tasks.add(WeakTask.schedule(this, ProfilingRedisService::logReport, config.getReportIntervalMillis()));
+        }
+    }
+
+    /**
+     * 获取分析快照
+     * @return 分析快照
+     */
+    public ProfilerReport getReport() {
+        Map<String, List<HotKey>> hotKeys = new LinkedHashMap<>();
+        long sampledCalls = 0;
+        for (HotKeyTracker tracker : trackers.values()) {
+            long sampled = tracker.getSampled();
+            if (sampled > 0) {
+                sampledCalls += sampled;
+                List<HotKey> keys = tracker.snapshot(sampleRate);
+                if (!keys.isEmpty()) {
+                    hotKeys.put(tracker.getCommand(), keys);
+                }
+            }
+        }
+        return new ProfilerReport(hotKeys, getBigKeys(), sampledCalls, sampleRate);
+    }
+
+    /**
+     * 获取指定命令的热点键
+     * @param command 命令名称，与监控指标的命令名称一致，例如get、hGetAll
+     * @return 热点键，按计数从高到低排列
+     */
+    public List<HotKey> getHotKeys(String command) {
+        HotKeyTracker tracker = trackers.get(command);
+        if (tracker == null) {
+            throw new RedisException("Unknown command: " + command);
+        }
+        return tracker.snapshot(sampleRate);
+    }
+
+    /**
+     * 获取发现的大键
+     * @return 大键，按大小从大到小排列
+     */
+    public List<BigKey> getBigKeys() {
+        List<BigKey> result;
+        bigKeyLock.lock();
+        try {
+            result = new ArrayList<>(bigKeys.values());
+        } finally {
+            bigKeyLock.unlock();
+        }
+        result.sort((a, b) -> a.getBytes() != b.getBytes()
+                ? Long.compare(b.getBytes(), a.getBytes())
+                : Long.compare(b.getElements(), a.getElements()));
+        return result;
+    }
+
+    /**
+     * 清空热点计数和大键记录
+     */
+    public void reset() {
+        for (HotKeyTracker tracker : trackers.values()) {
+            tracker.reset();
+        }
+        bigKeyLock.lock();
+        try {
+            bigKeys.clear();
+        } finally {
+            bigKeyLock.unlock();
+        }
+    }
+
+    /**
+     * 停止计数衰减和日志输出
+     */
+    @Override
+    public void close() {
+        for (ScheduledFuture<?> task : tasks) {
+            task.cancel(false);
+        }
+    }
+
+    @Override
+    public void set(String key, String value) {
+        sample(setTracker, key);
+        delegate.set(key, value);
+    }
+
+    @Override
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        sample(setExTracker, key);
+        delegate.set(key, value, timeout, unit);
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        sample(setIfAbsentTracker, key);
+        return delegate.setIfAbsent(key, value, timeout, unit);
+    }
+
+    @Override
+    public String get(String key) {
+        sample(getTracker, key);
+        String value = delegate.get(key);
+        checkString("get", key, value);
+        return value;
+    }
+
+    @Override
+    public boolean delete(String key) {
+        sample(deleteTracker, key);
+        return delegate.delete(key);
+    }
+
+    @Override
+    public long delete(List<String> keys) {
+        sample(deleteKeysTracker, keys);
+        return delegate.delete(keys);
+    }
+
+    @Override
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        sample(expireTracker, key);
+        return delegate.expire(key, timeout, unit);
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        sample(hasKeyTracker, key);
+        return delegate.hasKey(key);
+    }
+
+    @Override
+    public long getExpire(String key, TimeUnit unit) {
+        sample(getExpireTracker, key);
+        return delegate.getExpire(key, unit);
+    }
+
+    @Override
+    public byte[] dump(String key) {
+        sample(dumpTracker, key);
+        return delegate.dump(key);
+    }
+
+    @Override
+    public void restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        sample(restoreTracker, key);
+        delegate.restore(key, ttlMillis, serialized, replace);
+    }
+
+    @Override
+    public long incr(String key) {
+        sample(incrTracker, key);
+        return delegate.incr(key);
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        sample(incrByTracker, key);
+        return delegate.incrBy(key, delta);
+    }
+
+    @Override
+    public long hIncrBy(String key, String field, long delta) {
+        sample(hIncrByTracker, key);
+        return delegate.hIncrBy(key, field, delta);
+    }
+
+    @Override
+    public void hSet(String key, String field, Object value) {
+        sample(hSetTracker, key);
+        delegate.hSet(key, field, value);
+    }
+
+    @Override
+    public Object hGet(String key, String field) {
+        sample(hGetTracker, key);
+        return delegate.hGet(key, field);
+    }
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map) {
+        sample(hSetAllTracker, key);
+        delegate.hSetAll(key, map);
+    }
+
+    @Override
+    public Map<Object, Object> hGetAll(String key) {
+        sample(hGetAllTracker, key);
+        Map<Object, Object> value = delegate.hGetAll(key);
+        if (value != null) {
+            checkCollection("hGetAll", key, value.size(), value.entrySet());
+        }
+        return value;
+    }
+
+    @Override
+    public long lPush(String key, String value) {
+        sample(lPushTracker, key);
+        return delegate.lPush(key, value);
+    }
+
+    @Override
+    public long rPush(String key, String value) {
+        sample(rPushTracker, key);
+        return delegate.rPush(key, value);
+    }
+
+    @Override
+    public List<String> lRange(String key, long start, long end) {
+        sample(lRangeTracker, key);
+        List<String> value = delegate.lRange(key, start, end);
+        if (value != null) {
+            checkCollection("lRange", key, value.size(), value);
+        }
+        return value;
+    }
+
+    @Override
+    public long sAdd(String key, String... values) {
+        sample(sAddTracker, key);
+        return delegate.sAdd(key, values);
+    }
+
+    @Override
+    public Set<String> sMembers(String key) {
+        sample(sMembersTracker, key);
+        Set<String> value = delegate.sMembers(key);
+        if (value != null) {
+            checkCollection("sMembers", key, value.size(), value);
+        }
+        return value;
+    }
+
+    @Override
+    public long zAdd(String key, double score, String member) {
+        sample(zAddTracker, key);
+        return delegate.zAdd(key, score, member);
+    }
+
+    @Override
+    public long zAdd(String key, Collection<ScoredMember> members) {
+        sample(zAddAllTracker, key);
+        return delegate.zAdd(key, members);
+    }
+
+    @Override
+    public double zIncrBy(String key, double increment, String member) {
+        sample(zIncrByTracker, key);
+        return delegate.zIncrBy(key, increment, member);
+    }
+
+    @Override
+    public Double zScore(String key, String member) {
+        sample(zScoreTracker, key);
+        return delegate.zScore(key, member);
+    }
+
+    @Override
+    public long zRank(String key, String member) {
+        sample(zRankTracker, key);
+        return delegate.zRank(key, member);
+    }
+
+    @Override
+    public long zRevRank(String key, String member) {
+        sample(zRevRankTracker, key);
+        return delegate.zRevRank(key, member);
+    }
+
+    @Override
+    public long zCard(String key) {
+        sample(zCardTracker, key);
+        return delegate.zCard(key);
+    }
+
+    @Override
+    public List<ScoredMember> zRangeByScore(String key, double min, double max, long offset, long count) {
+        sample(zRangeByScoreTracker, key);
+        List<ScoredMember> value = delegate.zRangeByScore(key, min, max, offset, count);
+        if (value != null) {
+            checkCollection("zRangeByScore", key, value.size(), value);
+        }
+        return value;
+    }
+
+    @Override
+    public List<ScoredMember> zRevRange(String key, long start, long end) {
+        sample(zRevRangeTracker, key);
+        List<ScoredMember> value = delegate.zRevRange(key, start, end);
+        if (value != null) {
+            checkCollection("zRevRange", key, value.size(), value);
+        }
+        return value;
+    }
+
+    @Override
+    public long zRemRangeByScore(String key, double min, double max) {
+        sample(zRemRangeByScoreTracker, key);
+        return delegate.zRemRangeByScore(key, min, max);
+    }
+
+    @Override
+    public List<ScoredMember> zPopMin(String key, int count) {
+        sample(zPopMinTracker, key);
+        return delegate.zPopMin(key, count);
+    }
+
+    @Override
+    public String xAdd(String key, Map<String, String> fields, long maxLen) {
+        sample(xAddTracker, key);
+        return delegate.xAdd(key, fields, maxLen);
+    }
+
+    @Override
+    public long xLen(String key) {
+        sample(xLenTracker, key);
+        return delegate.xLen(key);
+    }
+
+    @Override
+    public boolean xGroupCreate(String key, String group, String startId) {
+        sample(xGroupCreateTracker, key);
+        return delegate.xGroupCreate(key, group, startId);
+    }
+
+    @Override
+    public List<StreamEntry> xReadGroup(String key, String group, String consumer, int count, long blockMillis) {
+        sample(xReadGroupTracker, key);
+        return delegate.xReadGroup(key, group, consumer, count, blockMillis);
+    }
+
+    @Override
+    public long xAck(String key, String group, Collection<String> ids) {
+        sample(xAckTracker, key);
+        return delegate.xAck(key, group, ids);
+    }
+
+    @Override
+    public StreamClaimResult xAutoClaim(String key, String group, String consumer, long minIdleMillis, String startId, int count) {
+        sample(xAutoClaimTracker, key);
+        return delegate.xAutoClaim(key, group, consumer, minIdleMillis, startId, count);
+    }
+
+    @Override
+    public List<StreamGroupInfo> xInfoGroups(String key) {
+        sample(xInfoGroupsTracker, key);
+        return delegate.xInfoGroups(key);
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        sample(mGetTracker, keys);
+        return delegate.mGet(keys);
+    }
+
+    @Override
+    public void mSet(Map<String, String> map) {
+        sample(mSetTracker, map.keySet());
+        delegate.mSet(map);
+    }
+
+    @Override
+    public long mDelete(List<String> keys) {
+        sample(mDeleteTracker, keys);
+        return delegate.mDelete(keys);
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return new ProfilingBatch(delegate.batch());
+    }
+
+    @Override
+    public long publish(String channel, String message) {
+        sample(publishTracker, channel);
+        return delegate.publish(channel, message);
+    }
+
+    @Override
+    public Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args) {
+        sample(evalShaTracker, keys);
+        return delegate.evalSha(sha1, returnType, keys, args);
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        sample(getBytesTracker, key);
+        byte[] value = delegate.getBytes(key);
+        if (value != null && value.length >= bigValueBytes) {
+            recordBigKey("getBytes", key, value.length, -1);
+        }
+        return value;
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value) {
+        sample(setBytesTracker, key);
+        delegate.setBytes(key, value);
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        sample(setBytesExTracker, key);
+        delegate.setBytes(key, value, timeout, unit);
+    }
+
+    @Override
+    public List<byte[]> mGetBytes(List<String> keys) {
+        sample(mGetBytesTracker, keys);
+        return delegate.mGetBytes(keys);
+    }
+
+    @Override
+    public byte[] hGetBytes(String key, String field) {
+        sample(hGetBytesTracker, key);
+        return delegate.hGetBytes(key, field);
+    }
+
+    @Override
+    public void hSetBytes(String key, String field, byte[] value) {
+        sample(hSetBytesTracker, key);
+        delegate.hSetBytes(key, field, value);
+    }
+
+    @Override
+    public Map<String, byte[]> hGetAllBytes(String key) {
+        sample(hGetAllBytesTracker, key);
+        Map<String, byte[]> value = delegate.hGetAllBytes(key);
+        if (value != null) {
+            checkCollection("hGetAllBytes", key, value.size(), value.entrySet());
+        }
+        return value;
+    }
+
+    private HotKeyTracker tracker(String command, ProfilerConfig config) {
+        HotKeyTracker tracker = new HotKeyTracker(command, config);
+        trackers.put(command, tracker);
+        return tracker;
+    }
+
+    private boolean sampled() {
+        return ThreadLocalRandom.current().nextInt(SAMPLE_SCALE) < sampleBound;
+    }
+
+    private void sample(HotKeyTracker tracker, String key) {
+        if (sampled()) {
+            tracker.record(key);
+        }
+    }
+
+    /**
+     * 多键命令按调用采样，被采样时记录所有键，每个键被记录的概率仍是采样比例
+     */
+    private void sample(HotKeyTracker tracker, Collection<String> keys) {
+        if (keys != null && sampled()) {
+            for (String key : keys) {
+                tracker.record(key);
+            }
+        }
+    }
+
+    private void checkString(String command, String key, String value) {
+        // UTF-8下每个字符占1到3个字节，字符数的3倍都不到阈值时不需要计算字节数
+        if (value == null || (long) value.length() * 3 < bigValueBytes) {
+            return;
+        }
+        long bytes = utf8Length(value);
+        if (bytes >= bigValueBytes) {
+            recordBigKey(command, key, bytes, -1);
+        }
+    }
+
+    /**
+     * 检查集合返回值，先按元素个数和字符数估计，只有可能超过阈值时才逐个计算字节数
+     */
+    private void checkCollection(String command, String key, int elements, Collection<?> items) {
+        if (elements == 0) {
+            return;
+        }
+        boolean tooMany = elements >= bigCollectionElements;
+        if (!tooMany && estimateMaxBytes(items) < bigValueBytes) {
+            return;
+        }
+        long bytes = 0;
+        for (Object item : items) {
+            bytes += sizeOf(item, true);
+        }
+        if (tooMany || bytes >= bigValueBytes) {
+            recordBigKey(command, key, bytes, elements);
+        }
+    }
+
+    private static long estimateMaxBytes(Collection<?> items) {
+        long bytes = 0;
+        for (Object item : items) {
+            bytes += sizeOf(item, false);
+        }
+        return bytes;
+    }
+
+    /**
+     * 元素大小
+     * @param exact true时按UTF-8计算字符串字节数，false时按字符数的3倍估计上界
+     */
+    private static long sizeOf(Object item, boolean exact) {
+        if (item instanceof Map.Entry) {
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) item;
+            return sizeOf(entry.getKey(), exact) + sizeOf(entry.getValue(), exact);
+        }
+        if (item instanceof ScoredMember) {
+            return sizeOf(((ScoredMember) item).getMember(), exact) + 8;
+        }
+        if (item instanceof String) {
+            String value = (String) item;
+            return exact ? utf8Length(value) : (long) value.length() * 3;
+        }
+        if (item instanceof byte[]) {
+            return ((byte[]) item).length;
+        }
+        if (item == null) {
+            return 0;
+        }
+        return exact ? String.valueOf(item).getBytes(StandardCharsets.UTF_8).length : (long) String.valueOf(item).length() * 3;
+    }
+
+    private static long utf8Length(String value) {
+        long bytes = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private void recordBigKey(String command, String key, long bytes, long elements) {
+        BigKey bigKey = new BigKey(command, key, bytes, elements, System.currentTimeMillis());
+        BigKey previous;
+        bigKeyLock.lock();
+        try {
+            previous = bigKeys.remove(key);
+            bigKeys.put(key, bigKey);
+            if (bigKeys.size() > maxBigKeys) {
+                Iterator<String> eldest = bigKeys.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        } finally {
+            bigKeyLock.unlock();
+        }
+        if (previous == null) {
+            log.warn("Redis big key detected by [{}]: {} ({} bytes, {} elements)", command, key, bytes, elements);
+        }
+    }
+
+    private void decay() {
+        try {
+            for (HotKeyTracker tracker : trackers.values()) {
+                tracker.decay();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to decay Redis hot key counters: {}", e.getMessage(), e);
+        }
+    }
+
+    private void logReport() {
+        try {
+            ProfilerReport report = getReport();
+            Map<String, List<HotKey>> sorted = new TreeMap<>(report.getHotKeys());
+            sorted.forEach((command, keys) -> log.info("Redis hot keys [{}]: {}", command, keys.stream()
+                    .limit(REPORT_LIMIT)
+                    .map(hotKey -> hotKey.getKey() + "~" + hotKey.getEstimatedCalls())
+                    .collect(Collectors.joining(", "))));
+            if (!report.getBigKeys().isEmpty()) {
+                log.info("Redis big keys ({} total): {}", report.getBigKeys().size(), report.getBigKeys().stream()
+                        .limit(REPORT_LIMIT)
+                        .map(bigKey -> bigKey.getKey() + "=" + bigKey.getBytes() + "B/" + bigKey.getElements())
+                        .collect(Collectors.joining(", ")));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to report Redis hot keys: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 弱引用装饰器的定时任务，装饰器被回收后自行取消
+     */
+    private static final class WeakTask implements Runnable {
+        private final WeakReference<ProfilingRedisService> service;
+        private final Consumer<ProfilingRedisService> action;
+        private volatile ScheduledFuture<?> future;
+
+        private WeakTask(ProfilingRedisService service, Consumer<ProfilingRedisService> action) {
+            this.service = new WeakReference<>(service);
+            this.action = action;
+        }
+
+        static ScheduledFuture<?> schedule(ProfilingRedisService service, Consumer<ProfilingRedisService> action,
+                                           long intervalMillis) {
+            WeakTask task = new WeakTask(service, action);
+            task.future = SCHEDULER.scheduleWithFixedDelay(task, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+            return task.future;
+        }
+
+        @Override
+        public void run() {
+            ProfilingRedisService current = service.get();
+            if (current == null) {
+                ScheduledFuture<?> scheduled = future;
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                }
+                return;
+            }
+            action.accept(current);
+        }
+    }
+
+    /**
+     * 批量操作中的命令计入对应命令的热点统计，不检查返回值大小
+     */
+    private class ProfilingBatch extends DelegatingRedisBatch {
+        ProfilingBatch(RedisBatch delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public RedisBatch set(String key, String value) {
+            sample(setTracker, key);
+            return super.set(key, value);
+        }
+
+        @Override
+        public RedisBatch set(String key, String value, long timeout, TimeUnit unit) {
+            sample(setExTracker, key);
+            return super.set(key, value, timeout, unit);
+        }
+
+        @Override
+        public RedisBatch get(String key) {
+            sample(getTracker, key);
+            return super.get(key);
+        }
+
+        @Override
+        public RedisBatch delete(String key) {
+            sample(deleteTracker, key);
+            return super.delete(key);
+        }
+
+        @Override
+        public RedisBatch expire(String key, long timeout, TimeUnit unit) {
+            sample(expireTracker, key);
+            return super.expire(key, timeout, unit);
+        }
+
+        @Override
+        public RedisBatch hSet(String key, String field, Object value) {
+            sample(hSetTracker, key);
+            return super.hSet(key, field, value);
+        }
+
+        @Override
+        public RedisBatch hGet(String key, String field) {
+            sample(hGetTracker, key);
+            return super.hGet(key, field);
+        }
+
+        @Override
+        public RedisBatch hSetAll(String key, Map<String, Object> map) {
+            sample(hSetAllTracker, key);
+            return super.hSetAll(key, map);
+        }
+
+        @Override
+        public RedisBatch lPush(String key, String value) {
+            sample(lPushTracker, key);
+            return super.lPush(key, value);
+        }
+
+        @Override
+        public RedisBatch rPush(String key, String value) {
+            sample(rPushTracker, key);
+            return super.rPush(key, value);
+        }
+
+        @Override
+        public RedisBatch sAdd(String key, String... values) {
+            sample(sAddTracker, key);
+            return super.sAdd(key, values);
+        }
+
+        @Override
+        public RedisBatch zAdd(String key, double score, String member) {
+            sample(zAddTracker, key);
+            return super.zAdd(key, score, member);
+        }
+
+        @Override
+        public RedisBatch zIncrBy(String key, double increment, String member) {
+            sample(zIncrByTracker, key);
+            return super.zIncrBy(key, increment, member);
+        }
+
+        @Override
+        public RedisBatch zRemRangeByScore(String key, double min, double max) {
+            sample(zRemRangeByScoreTracker, key);
+            return super.zRemRangeByScore(key, min, max);
+        }
+
+        @Override
+        public RedisBatch zCard(String key) {
+            sample(zCardTracker, key);
+            return super.zCard(key);
+        }
+
+        @Override
+        public RedisBatch xAdd(String key, Map<String, String> fields, long maxLen) {
+            sample(xAddTracker, key);
+            return super.xAdd(key, fields, maxLen);
+        }
+
+        @Override
+        public RedisBatch xAck(String key, String group, String... ids) {
+            sample(xAckTracker, key);
+            return super.xAck(key, group, ids);
+        }
+
+        @Override
+        public RedisBatch incrBy(String key, long delta) {
+            sample(incrByTracker, key);
+            return super.incrBy(key, delta);
+        }
+
+        @Override
+        public RedisBatch hIncrBy(String key, String field, long delta) {
+            sample(hIncrByTracker, key);
+            return super.hIncrBy(key, field, delta);
+        }
+    }
+}
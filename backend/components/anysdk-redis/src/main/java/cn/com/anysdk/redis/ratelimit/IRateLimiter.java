@@ -0,0 +1,22 @@
+package cn.com.anysdk.redis.ratelimit;
+
+/**
+ * 分布式限流器
+ * 同一个键在所有节点上共享限额，每次判定在Redis中通过一个脚本原子完成
+ */
+public interface IRateLimiter {
+    /**
+     * 尝试获取一个许可
+     * @param key 限流键，例如租户ID
+     * @return 是否放行
+     */
+    boolean tryAcquire(String key);
+
+    /**
+     * 尝试获取多个许可，要么全部获得，要么一个都不获得
+     * @param key 限流键
+     * @param permits 许可数
+     * @return 判定结果
+     */
+    RateLimitDecision tryAcquire(String key, int permits);
+}
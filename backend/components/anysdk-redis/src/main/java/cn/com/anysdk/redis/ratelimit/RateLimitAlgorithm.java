@@ -0,0 +1,26 @@
+package cn.com.anysdk.redis.ratelimit;
+
+/**
+ * 限流算法
+ */
+public enum RateLimitAlgorithm {
+    /**
+     * 令牌桶：按速率补充令牌，桶容量决定允许的突发量，状态为一个哈希
+     */
+    TOKEN_BUCKET,
+
+    /**
+     * 滑动窗口日志：记录窗口内每次请求的时间戳，精确但内存随请求量增长，适合较小的限额
+     */
+    SLIDING_LOG,
+
+    /**
+     * 滑动窗口计数：用上一个固定窗口的计数按重叠比例加权估算，内存固定为两个计数器
+     */
+    SLIDING_WINDOW,
+
+    /**
+     * 通用信元速率算法：只保存理论到达时间一个值，效果与令牌桶相同但状态最小
+     */
+    GCRA
+}
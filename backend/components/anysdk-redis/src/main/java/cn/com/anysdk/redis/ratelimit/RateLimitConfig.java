@@ -0,0 +1,62 @@
+package cn.com.anysdk.redis.ratelimit;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 限流器配置
+ */
+@Data
+@Accessors(chain = true)
+public class RateLimitConfig {
+    /**
+     * 限流算法
+     */
+    private RateLimitAlgorithm algorithm = RateLimitAlgorithm.GCRA;
+
+    /**
+     * 每个周期允许的许可数
+     */
+    private long limit = 100;
+
+    /**
+     * 周期（毫秒）
+     */
+    private long periodMillis = 1000;
+
+    /**
+     * 突发容量，仅用于令牌桶和GCRA，小于等于0时等于limit
+     */
+    private long burst = 0;
+
+    /**
+     * 键前缀，完整的键为前缀 + {限流键}
+     */
+    private String keyPrefix = "ratelimit:";
+
+    /**
+     * 每次访问Redis预留的许可数，大于1时在本地消费预留的许可，
+     * 高QPS下访问Redis的次数约降为1/batchSize；本地未用完的许可在一个周期后作废
+     */
+    private int batchSize = 1;
+
+    /**
+     * 是否在本地缓存拒绝结果，开启后在Redis给出的重试时间之前直接在本地拒绝，超限流量不再访问Redis
+     */
+    private boolean localPrecheck = false;
+
+    /**
+     * 创建配置
+     * @param algorithm 限流算法
+     * @param limit 每个周期允许的许可数
+     * @param periodMillis 周期（毫秒）
+     * @return 配置
+     */
+    public static RateLimitConfig create(RateLimitAlgorithm algorithm, long limit, long periodMillis) {
+        return new RateLimitConfig().setAlgorithm(algorithm).setLimit(limit).setPeriodMillis(periodMillis);
+    }
+
+    long effectiveBurst() {
+        return burst > 0 ? burst : limit;
+    }
+}
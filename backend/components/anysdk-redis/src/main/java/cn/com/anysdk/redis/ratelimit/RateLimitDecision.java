@@ -0,0 +1,28 @@
+package cn.com.anysdk.redis.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 限流判定结果
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RateLimitDecision {
+    /**
+     * 是否放行
+     */
+    private final boolean allowed;
+
+    /**
+     * 剩余许可数，开启批量预留时为近似值
+     */
+    private final long remaining;
+
+    /**
+     * 被拒绝时建议的重试等待时间（毫秒），放行时为0
+     */
+    private final long retryAfterMillis;
+}
@@ -0,0 +1,244 @@
+package cn.com.anysdk.redis.ratelimit;
+
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.impl.LocalRedisService;
+import cn.com.anysdk.redis.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流脚本
+ * <p>
+ * 所有脚本使用服务端TIME作为当前时间，避免各节点时钟偏差；参数一致：
+ * ARGV[1]请求的许可数，ARGV[2]至少需要的许可数，ARGV[3]周期限额，ARGV[4]周期（毫秒），ARGV[5]突发容量，ARGV[6]请求标识。
+ * 可用许可不少于ARGV[2]时放行，授予min(ARGV[1], 可用许可)个许可，返回{授予数, 剩余数, 重试等待毫秒数}。
+ * 本地提供商执行各脚本等价的Java实现，当前时间取本进程时钟。
+ */
+final class RateLimitScripts {
+    private static final String PREAMBLE = "redis.replicate_commands() "
+            + "local time = redis.call('TIME') "
+            + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) "
+            + "local requested = tonumber(ARGV[1]) "
+            + "local minimum = tonumber(ARGV[2]) "
+            + "local limit = tonumber(ARGV[3]) "
+            + "local period = tonumber(ARGV[4]) "
+            + "local burst = tonumber(ARGV[5]) ";
+
+    static final RedisScript<List<Object>> TOKEN_BUCKET = RedisScript.ofList(PREAMBLE
+            + "local rate = limit / period "
+            + "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts') "
+            + "local tokens = tonumber(state[1]) or burst "
+            + "local ts = tonumber(state[2]) or now "
+            + "tokens = math.min(burst, tokens + math.max(0, now - ts) * rate) "
+            + "local granted = math.min(requested, math.floor(tokens)) "
+            + "if granted < minimum then return {0, math.floor(tokens), math.max(1, math.ceil((minimum - tokens) / rate))} end "
+            + "tokens = tokens - granted "
+            + "redis.call('HMSET', KEYS[1], 'tokens', tokens, 'ts', now) "
+            + "redis.call('PEXPIRE', KEYS[1], math.ceil(burst / rate)) "
+            + "return {granted, math.floor(tokens), 0}");
+
+    static final RedisScript<List<Object>> SLIDING_LOG = RedisScript.ofList(PREAMBLE
+            + "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - period) "
+            + "local count = redis.call('ZCARD', KEYS[1]) "
+            + "local granted = math.min(requested, limit - count) "
+            + "if granted < minimum then "
+            + "local index = count + minimum - limit - 1 "
+            + "local entry = redis.call('ZRANGE', KEYS[1], index, index, 'WITHSCORES') "
+            + "local retry = period "
+            + "if entry[2] then retry = tonumber(entry[2]) + period - now end "
+            + "return {0, math.max(0, limit - count), math.max(1, retry)} end "
+            // 每条ZADD最多500个成员，unpack的参数个数受Lua栈大小限制
+            + "local args = {} "
+            + "for i = 1, granted do "
+            + "args[#args + 1] = now args[#args + 1] = ARGV[6] .. ':' .. i "
+            + "if #args >= 1000 or i == granted then redis.call('ZADD', KEYS[1], unpack(args)) args = {} end end "
+            + "redis.call('PEXPIRE', KEYS[1], period) "
+            + "return {granted, limit - count - granted, 0}");
+
+    static final RedisScript<List<Object>> SLIDING_WINDOW = RedisScript.ofList(PREAMBLE
+            + "local window = math.floor(now / period) "
+            + "local offset = now - window * period "
+            + "local elapsed = offset / period "
+            + "local current = tonumber(redis.call('HGET', KEYS[1], tostring(window))) or 0 "
+            + "local previous = tonumber(redis.call('HGET', KEYS[1], tostring(window - 1))) or 0 "
+            + "local available = math.floor(limit - previous * (1 - elapsed) - current) "
+            + "local granted = math.min(requested, available) "
+            + "if granted < minimum then "
+            + "local room = limit - current - minimum "
+            + "local retry = period - offset "
+            + "if room >= 0 and previous > 0 then retry = math.ceil((1 - room / previous - elapsed) * period) end "
+            + "return {0, math.max(0, available), math.max(1, retry)} end "
+            + "redis.call('HINCRBY', KEYS[1], tostring(window), granted) "
+            + "if redis.call('HLEN', KEYS[1]) > 2 then "
+            + "for _, field in ipairs(redis.call('HKEYS', KEYS[1])) do "
+            + "if tonumber(field) < window - 1 then redis.call('HDEL', KEYS[1], field) end end end "
+            + "redis.call('PEXPIRE', KEYS[1], period * 2) "
+            + "return {granted, available - granted, 0}");
+
+    static final RedisScript<List<Object>> GCRA = RedisScript.ofList(PREAMBLE
+            + "local emission = period / limit "
+            + "local tolerance = emission * burst "
+            + "local tat = tonumber(redis.call('GET', KEYS[1])) or now "
+            + "if tat < now then tat = now end "
+            + "local available = math.floor((tolerance - (tat - now)) / emission + 1e-9) "
+            + "local granted = math.min(requested, available) "
+            + "if granted < minimum then "
+            + "return {0, math.max(0, available), math.max(1, math.ceil(tat + emission * minimum - tolerance - now))} end "
+            + "local newTat = tat + emission * granted "
+            + "redis.call('SET', KEYS[1], newTat, 'PX', math.max(1, math.ceil(newTat - now))) "
+            + "return {granted, available - granted, 0}");
+
+    static {
+        LocalRedisService.registerBuiltinScript(TOKEN_BUCKET.getSource(), RateLimitScripts::tokenBucket);
+        LocalRedisService.registerBuiltinScript(SLIDING_LOG.getSource(), RateLimitScripts::slidingLog);
+        LocalRedisService.registerBuiltinScript(SLIDING_WINDOW.getSource(), RateLimitScripts::slidingWindow);
+        LocalRedisService.registerBuiltinScript(GCRA.getSource(), RateLimitScripts::gcra);
+    }
+
+    private RateLimitScripts() {
+    }
+
+    static RedisScript<List<Object>> of(RateLimitAlgorithm algorithm) {
+        switch (algorithm) {
+            case TOKEN_BUCKET:
+                return TOKEN_BUCKET;
+            case SLIDING_LOG:
+                return SLIDING_LOG;
+            case SLIDING_WINDOW:
+                return SLIDING_WINDOW;
+            case GCRA:
+            default:
+                return GCRA;
+        }
+    }
+
+    private static List<Object> tokenBucket(LocalRedisService redis, List<String> keys, List<String> args) {
+        long now = System.currentTimeMillis();
+        double requested = number(args.get(0));
+        double minimum = number(args.get(1));
+        double burst = number(args.get(4));
+        double rate = number(args.get(2)) / number(args.get(3));
+        Object storedTokens = redis.hGet(keys.get(0), "tokens");
+        Object storedTs = redis.hGet(keys.get(0), "ts");
+        double tokens = storedTokens == null ? burst : number(storedTokens);
+        double ts = storedTs == null ? now : number(storedTs);
+        tokens = Math.min(burst, tokens + Math.max(0, now - ts) * rate);
+        double granted = Math.min(requested, Math.floor(tokens));
+        if (granted < minimum) {
+            return reply(0, Math.floor(tokens), Math.max(1, Math.ceil((minimum - tokens) / rate)));
+        }
+        tokens = tokens - granted;
+        Map<String, Object> state = new HashMap<>();
+        state.put("tokens", format(tokens));
+        state.put("ts", Long.toString(now));
+        redis.hSetAll(keys.get(0), state);
+        redis.expire(keys.get(0), (long) Math.ceil(burst / rate), TimeUnit.MILLISECONDS);
+        return reply(granted, Math.floor(tokens), 0);
+    }
+
+    private static List<Object> slidingLog(LocalRedisService redis, List<String> keys, List<String> args) {
+        long now = System.currentTimeMillis();
+        String key = keys.get(0);
+        double requested = number(args.get(0));
+        double minimum = number(args.get(1));
+        double limit = number(args.get(2));
+        double period = number(args.get(3));
+        redis.zRemRangeByScore(key, Double.NEGATIVE_INFINITY, now - period);
+        long count = redis.zCard(key);
+        double granted = Math.min(requested, limit - count);
+        if (granted < minimum) {
+            long index = (long) (count + minimum - limit - 1);
+            List<ScoredMember> entry = redis.zRangeByScore(key, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    index < 0 ? Math.max(0, count + index) : index, 1);
+            double retry = entry.isEmpty() ? period : entry.get(0).getScore() + period - now;
+            return reply(0, Math.max(0, limit - count), Math.max(1, retry));
+        }
+        List<ScoredMember> members = new ArrayList<>();
+        for (int i = 1; i <= granted; i++) {
+            members.add(new ScoredMember(args.get(5) + ":" + i, now));
+        }
+        if (!members.isEmpty()) {
+            redis.zAdd(key, members);
+        }
+        redis.expire(key, (long) period, TimeUnit.MILLISECONDS);
+        return reply(granted, limit - count - granted, 0);
+    }
+
+    private static List<Object> slidingWindow(LocalRedisService redis, List<String> keys, List<String> args) {
+        long now = System.currentTimeMillis();
+        String key = keys.get(0);
+        double requested = number(args.get(0));
+        double minimum = number(args.get(1));
+        double limit = number(args.get(2));
+        double period = number(args.get(3));
+        long window = (long) Math.floor(now / period);
+        double offset = now - window * period;
+        double elapsed = offset / period;
+        Object storedCurrent = redis.hGet(key, Long.toString(window));
+        Object storedPrevious = redis.hGet(key, Long.toString(window - 1));
+        double current = storedCurrent == null ? 0 : number(storedCurrent);
+        double previous = storedPrevious == null ? 0 : number(storedPrevious);
+        double available = Math.floor(limit - previous * (1 - elapsed) - current);
+        double granted = Math.min(requested, available);
+        if (granted < minimum) {
+            double room = limit - current - minimum;
+            double retry = period - offset;
+            if (room >= 0 && previous > 0) {
+                retry = Math.ceil((1 - room / previous - elapsed) * period);
+            }
+            return reply(0, Math.max(0, available), Math.max(1, retry));
+        }
+        redis.hIncrBy(key, Long.toString(window), (long) granted);
+        Map<Object, Object> windows = redis.hGetAll(key);
+        if (windows.size() > 2) {
+            for (Object field : windows.keySet()) {
+                if (number(field) < window - 1) {
+                    redis.hDel(key, String.valueOf(field));
+                }
+            }
+        }
+        redis.expire(key, (long) (period * 2), TimeUnit.MILLISECONDS);
+        return reply(granted, available - granted, 0);
+    }
+
+    private static List<Object> gcra(LocalRedisService redis, List<String> keys, List<String> args) {
+        long now = System.currentTimeMillis();
+        double requested = number(args.get(0));
+        double minimum = number(args.get(1));
+        double emission = number(args.get(3)) / number(args.get(2));
+        double tolerance = emission * number(args.get(4));
+        String stored = redis.get(keys.get(0));
+        double tat = stored == null ? now : Math.max(now, number(stored));
+        double available = Math.floor((tolerance - (tat - now)) / emission + 1e-9);
+        double granted = Math.min(requested, available);
+        if (granted < minimum) {
+            return reply(0, Math.max(0, available), Math.max(1, Math.ceil(tat + emission * minimum - tolerance - now)));
+        }
+        double newTat = tat + emission * granted;
+        redis.set(keys.get(0), format(newTat), Math.max(1, (long) Math.ceil(newTat - now)), TimeUnit.MILLISECONDS);
+        return reply(granted, available - granted, 0);
+    }
+
+    private static double number(Object value) {
+        return Double.parseDouble(String.valueOf(value));
+    }
+
+    /**
+     * 与Lua数字转为字符串一致，整数不带小数部分
+     */
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    /**
+     * 与Lua数字转为整数回复一致，截断小数部分
+     */
+    private static List<Object> reply(double granted, double remaining, double retryMillis) {
+        return Arrays.asList((long) granted, (long) remaining, (long) retryMillis);
+    }
+}
@@ -0,0 +1,28 @@
+package cn.com.anysdk.redis.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 限流器统计快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RateLimiterStats {
+    /**
+     * 访问Redis执行脚本的次数
+     */
+    private final long remoteCount;
+
+    /**
+     * 使用本地预留许可或本地拒绝缓存完成的判定次数
+     */
+    private final long localCount;
+
+    /**
+     * 拒绝次数
+     */
+    private final long rejectedCount;
+}
@@ -0,0 +1,183 @@
+package cn.com.anysdk.redis.ratelimit;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.script.RedisScript;
+import cn.com.anysdk.redis.script.RedisScriptExecutor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于Lua脚本的分布式限流器
+ * <p>
+ * 每次判定只执行一个脚本，读取状态、计算与写回在服务端原子完成。
+ * 配置了批量预留或本地拒绝缓存时，每个键在本地维护预留的许可和拒绝截止时间，
+ * 同一个键的本地判定互斥，补充预留时同一时刻只有一个线程访问Redis。
+ * 每个周期清理一次预留和拒绝都已过期的键，本地状态只保留最近活跃的键。
+ */
+public class RedisRateLimiter implements IRateLimiter {
+    private static final long MIN_SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final RateLimitConfig config;
+    private final RedisScriptExecutor scriptExecutor;
+    private final RedisScript<List<Object>> script;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, LocalPermits> localPermits = new ConcurrentHashMap<>();
+
+    private final LongAdder remoteCount = new LongAdder();
+    private final LongAdder localCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final AtomicLong requestSequence = new AtomicLong();
+    private final AtomicLong nextSweepMillis = new AtomicLong();
+
+    public RedisRateLimiter(IRedisService redisService, RateLimitConfig config) {
+        this(new RedisScriptExecutor(redisService), config);
+    }
+
+    public RedisRateLimiter(RedisScriptExecutor scriptExecutor, RateLimitConfig config) {
+        if (config.getLimit() <= 0 || config.getPeriodMillis() <= 0) {
+            throw new IllegalArgumentException("limit and periodMillis must be positive");
+        }
+        this.config = config;
+        this.scriptExecutor = scriptExecutor;
+        this.script = RateLimitScripts.of(config.getAlgorithm());
+    }
+
+    @Override
+    public boolean tryAcquire(String key) {
+        return tryAcquire(key, 1).isAllowed();
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        if (config.getBatchSize() <= 1 && !config.isLocalPrecheck()) {
+            long[] result = evaluate(key, permits, permits);
+            return decision(result[0] > 0, result[1], result[2]);
+        }
+
+        sweep();
+        LocalPermits state = lockLocal(key);
+        try {
+            long now = System.currentTimeMillis();
+            if (now < state.deniedUntil) {
+                localCount.increment();
+                return decision(false, 0, state.deniedUntil - now);
+            }
+            long leftover = now < state.expiresAt ? state.available : 0;
+            if (leftover >= permits) {
+                state.available = leftover - permits;
+                localCount.increment();
+                return decision(true, state.available, 0);
+            }
+
+            // 本地剩余的许可不足时只向Redis申请差额，并顺带预留一批
+            long needed = permits - leftover;
+            long[] result = evaluate(key, Math.max(needed, config.getBatchSize()), needed);
+            if (result[0] == 0) {
+                if (config.isLocalPrecheck()) {
+                    state.deniedUntil = now + result[2];
+                }
+                return decision(false, result[1], result[2]);
+            }
+            state.available = leftover + result[0] - permits;
+            state.expiresAt = now + config.getPeriodMillis();
+            return decision(true, result[1] + state.available, 0);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * 清除本地预留的许可和拒绝缓存，预留但未使用的许可不会归还
+     */
+    public void clearLocal() {
+        localPermits.clear();
+    }
+
+    /**
+     * 锁住键的本地状态；拿到的状态已被清理时重新获取
+     */
+    private LocalPermits lockLocal(String key) {
+        while (true) {
+            LocalPermits state = localPermits.computeIfAbsent(key, k -> new LocalPermits());
+            state.lock.lock();
+            if (!state.removed) {
+                return state;
+            }
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * 每个周期最多一次，移除预留和拒绝都已过期的键；正在使用的键跳过
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        long next = nextSweepMillis.get();
+        long interval = Math.max(config.getPeriodMillis(), MIN_SWEEP_INTERVAL_MILLIS);
+        if (now < next || !nextSweepMillis.compareAndSet(next, now + interval)) {
+            return;
+        }
+        localPermits.forEach((key, state) -> {
+            if (state.expiresAt > now || state.deniedUntil > now || !state.lock.tryLock()) {
+                return;
+            }
+            try {
+                if (state.expiresAt <= now && state.deniedUntil <= now) {
+                    state.removed = true;
+                    localPermits.remove(key, state);
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        });
+    }
+
+    public RateLimiterStats getStats() {
+        return new RateLimiterStats(remoteCount.sum(), localCount.sum(), rejectedCount.sum());
+    }
+
+    public RateLimitConfig getConfig() {
+        return config;
+    }
+
+    private long[] evaluate(String key, long requested, long minimum) {
+        remoteCount.increment();
+        List<Object> reply = scriptExecutor.execute(script,
+                Collections.singletonList(config.getKeyPrefix() + "{" + key + "}"),
+                requested, minimum, config.getLimit(), config.getPeriodMillis(), config.effectiveBurst(),
+                instanceId + ":" + requestSequence.incrementAndGet());
+        return new long[]{toLong(reply.get(0)), toLong(reply.get(1)), toLong(reply.get(2))};
+    }
+
+    private RateLimitDecision decision(boolean allowed, long remaining, long retryAfterMillis) {
+        if (!allowed) {
+            rejectedCount.increment();
+        }
+        return new RateLimitDecision(allowed, Math.max(0, remaining), retryAfterMillis);
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    /**
+     * 单个键的本地预留状态，由自身的锁保护；向Redis申请许可时持有该锁
+     */
+    private static final class LocalPermits {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long available;
+        private long expiresAt;
+        private long deniedUntil;
+        private boolean removed;
+    }
+}
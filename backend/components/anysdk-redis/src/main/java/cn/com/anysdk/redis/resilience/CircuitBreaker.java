@@ -0,0 +1,228 @@
+package cn.com.anysdk.redis.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按失败率和慢调用比例熔断的熔断器
+ * <p>
+ * 统计窗口按时间分成若干桶，每桶用LongAdder计数，关闭状态下记录结果不加锁；
+ * 只有失败或慢调用才汇总窗口判断是否打开，成功调用不会让熔断器打开。
+ * 状态切换和桶的轮换很少发生，在锁内完成。打开一段时间后进入半开状态，
+ * 放行固定数量的试探调用，全部完成后按同样的阈值决定关闭还是重新打开。
+ */
+@Slf4j
+final class CircuitBreaker {
+    private static final int BUCKETS = 10;
+
+    private final CommandClass commandClass;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final int minimumCalls;
+    private final int halfOpenCalls;
+    private final long bucketNanos;
+    private final long openStateNanos;
+    private final long baseNanos = System.nanoTime();
+    private final Bucket[] buckets = new Bucket[BUCKETS];
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder openedCount;
+
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private long openedAt;
+    private final AtomicInteger trialPermits = new AtomicInteger();
+    private int trialCalls;
+    private int trialFailures;
+    private int trialSlowCalls;
+
+    CircuitBreaker(CommandClass commandClass, ResilienceConfig config, LongAdder openedCount) {
+        this.commandClass = commandClass;
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.minimumCalls = Math.max(1, config.getMinimumCalls());
+        this.halfOpenCalls = Math.max(1, config.getHalfOpenCalls());
+        this.bucketNanos = Math.max(1, TimeUnit.MILLISECONDS.toNanos(config.getSlidingWindowMillis()) / BUCKETS);
+        this.openStateNanos = TimeUnit.MILLISECONDS.toNanos(config.getOpenStateMillis());
+        this.openedCount = openedCount;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * 申请执行一次调用
+     * @return 放行时所处的状态，拒绝时返回null
+     */
+    CircuitState tryAcquire() {
+        CircuitState current = state;
+        if (current == CircuitState.CLOSED) {
+            return current;
+        }
+        if (current == CircuitState.OPEN) {
+            if (System.nanoTime() - openedAt < openStateNanos) {
+                return null;
+            }
+            lock.lock();
+            try {
+                if (state == CircuitState.OPEN && System.nanoTime() - openedAt >= openStateNanos) {
+                    trialPermits.set(halfOpenCalls);
+                    trialCalls = 0;
+                    trialFailures = 0;
+                    trialSlowCalls = 0;
+                    state = CircuitState.HALF_OPEN;
+                    log.info("Redis circuit breaker for {} commands is half-open", commandClass);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (state == CircuitState.CLOSED) {
+                return CircuitState.CLOSED;
+            }
+        }
+        if (state == CircuitState.HALF_OPEN && trialPermits.getAndDecrement() > 0) {
+            return CircuitState.HALF_OPEN;
+        }
+        return null;
+    }
+
+    /**
+     * 归还已放行但未执行的调用
+     * @param admitted {@link #tryAcquire()}的返回值
+     */
+    void cancel(CircuitState admitted) {
+        if (admitted == CircuitState.HALF_OPEN) {
+            trialPermits.incrementAndGet();
+        }
+    }
+
+    /**
+     * 记录调用结果
+     * @param admitted {@link #tryAcquire()}的返回值
+     * @param failure 是否失败
+     * @param elapsedNanos 耗时（纳秒）
+     * @param slowCallNanos 慢调用阈值（纳秒）
+     */
+    void record(CircuitState admitted, boolean failure, long elapsedNanos, long slowCallNanos) {
+        boolean slow = elapsedNanos > slowCallNanos;
+        if (admitted == CircuitState.HALF_OPEN) {
+            recordTrial(failure, slow);
+            return;
+        }
+        long now = System.nanoTime();
+        Bucket bucket = bucketFor(now);
+        bucket.calls.increment();
+        if (!failure && !slow) {
+            return;
+        }
+        if (failure) {
+            bucket.failures.increment();
+        }
+        if (slow) {
+            bucket.slowCalls.increment();
+        }
+        if (state == CircuitState.CLOSED && shouldOpen(now)) {
+            lock.lock();
+            try {
+                if (state == CircuitState.CLOSED) {
+                    open(now);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void recordTrial(boolean failure, boolean slow) {
+        lock.lock();
+        try {
+            if (state != CircuitState.HALF_OPEN) {
+                return;
+            }
+            trialCalls++;
+            if (failure) {
+                trialFailures++;
+            }
+            if (slow) {
+                trialSlowCalls++;
+            }
+            if (trialCalls < halfOpenCalls) {
+                return;
+            }
+            if (exceeds(trialCalls, trialFailures, trialSlowCalls)) {
+                open(System.nanoTime());
+            } else {
+                for (Bucket bucket : buckets) {
+                    bucket.reset(-1);
+                }
+                state = CircuitState.CLOSED;
+                log.info("Redis circuit breaker for {} commands is closed", commandClass);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean shouldOpen(long now) {
+        long current = (now - baseNanos) / bucketNanos;
+        long calls = 0;
+        long failures = 0;
+        long slowCalls = 0;
+        for (Bucket bucket : buckets) {
+            if (current - bucket.epoch < BUCKETS) {
+                calls += bucket.calls.sum();
+                failures += bucket.failures.sum();
+                slowCalls += bucket.slowCalls.sum();
+            }
+        }
+        return calls >= minimumCalls && exceeds(calls, failures, slowCalls);
+    }
+
+    private boolean exceeds(long calls, long failures, long slowCalls) {
+        return failures >= calls * failureRateThreshold || slowCalls >= calls * slowCallRateThreshold;
+    }
+
+    private void open(long now) {
+        openedAt = now;
+        state = CircuitState.OPEN;
+        openedCount.increment();
+        log.warn("Redis circuit breaker for {} commands is open for {}ms", commandClass,
+                TimeUnit.NANOSECONDS.toMillis(openStateNanos));
+    }
+
+    private Bucket bucketFor(long now) {
+        long epoch = (now - baseNanos) / bucketNanos;
+        Bucket bucket = buckets[(int) (epoch % BUCKETS)];
+        if (bucket.epoch != epoch) {
+            lock.lock();
+            try {
+                if (bucket.epoch != epoch) {
+                    bucket.reset(epoch);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        volatile long epoch = -1;
+        final LongAdder calls = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder slowCalls = new LongAdder();
+
+        void reset(long newEpoch) {
+            calls.reset();
+            failures.reset();
+            slowCalls.reset();
+            epoch = newEpoch;
+        }
+    }
+}
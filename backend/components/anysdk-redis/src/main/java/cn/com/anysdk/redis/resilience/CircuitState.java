@@ -0,0 +1,21 @@
+package cn.com.anysdk.redis.resilience;
+
+/**
+ * 熔断器状态
+ */
+public enum CircuitState {
+    /**
+     * 关闭，命令正常执行
+     */
+    CLOSED,
+
+    /**
+     * 打开，命令直接拒绝
+     */
+    OPEN,
+
+    /**
+     * 半开，放行少量试探命令，根据结果关闭或重新打开
+     */
+    HALF_OPEN
+}
@@ -0,0 +1,28 @@
+package cn.com.anysdk.redis.resilience;
+
+/**
+ * 命令类别，每个类别使用独立的熔断器
+ * <p>
+ * 读写分开熔断：只读副本故障或主节点拒绝写入时不会连带另一类命令。
+ */
+public enum CommandClass {
+    /**
+     * 读命令
+     */
+    READ,
+
+    /**
+     * 写命令，包括发布消息
+     */
+    WRITE,
+
+    /**
+     * 批量操作
+     */
+    BATCH,
+
+    /**
+     * 脚本加载和执行
+     */
+    SCRIPT
+}
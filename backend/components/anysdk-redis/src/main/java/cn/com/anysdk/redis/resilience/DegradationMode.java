@@ -0,0 +1,23 @@
+package cn.com.anysdk.redis.resilience;
+
+/**
+ * 读命令被熔断、削峰拒绝或因Redis不可用失败时的降级方式
+ * <p>
+ * 写命令、脚本和批量操作不降级，总是抛出异常。
+ */
+public enum DegradationMode {
+    /**
+     * 抛出{@link cn.com.anysdk.redis.exception.RedisException}，拒绝时带有区分原因的错误码
+     */
+    THROW,
+
+    /**
+     * 返回空值：单值返回null，集合返回空集合，hasKey返回false，getExpire返回-2
+     */
+    RETURN_NULL,
+
+    /**
+     * 返回最近一次成功读到的旧值，没有旧值时抛出异常
+     */
+    STALE
+}
@@ -0,0 +1,79 @@
+package cn.com.anysdk.redis.resilience;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 熔断、隔离和削峰配置
+ */
+@Data
+@Accessors(chain = true)
+public class ResilienceConfig {
+    /**
+     * 失败率达到该比例时打开熔断器
+     */
+    private double failureRateThreshold = 0.5;
+
+    /**
+     * 慢调用比例达到该值时打开熔断器
+     */
+    private double slowCallRateThreshold = 0.8;
+
+    /**
+     * 超过该耗时（毫秒）的调用记为慢调用
+     */
+    private long slowCallThresholdMillis = 500;
+
+    /**
+     * 统计窗口内调用数达到该值后才计算失败率
+     */
+    private int minimumCalls = 20;
+
+    /**
+     * 统计窗口长度（毫秒）
+     */
+    private long slidingWindowMillis = 10_000;
+
+    /**
+     * 熔断器打开后保持的时间（毫秒），之后进入半开状态
+     */
+    private long openStateMillis = 5_000;
+
+    /**
+     * 半开状态放行的试探调用数
+     */
+    private int halfOpenCalls = 5;
+
+    /**
+     * 最大并发调用数，小于等于0表示不隔离
+     */
+    private int maxConcurrentCalls = 64;
+
+    /**
+     * 排队等待的预算（毫秒），预计或实际排队时间超过预算的调用直接拒绝
+     */
+    private long maxQueueWaitMillis = 50;
+
+    /**
+     * 读命令的降级方式
+     */
+    private DegradationMode degradationMode = DegradationMode.THROW;
+
+    /**
+     * 降级为旧值时最多保留的旧值数
+     */
+    private long staleMaxEntries = 10_000;
+
+    /**
+     * 降级为旧值时旧值的最长保留时间（毫秒）
+     */
+    private long staleTtlMillis = 300_000;
+
+    /**
+     * 创建默认配置
+     * @return 默认配置
+     */
+    public static ResilienceConfig createDefault() {
+        return new ResilienceConfig();
+    }
+}
@@ -0,0 +1,55 @@
+package cn.com.anysdk.redis.resilience;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * 熔断、隔离和削峰统计快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ResilienceStats {
+    /**
+     * 各命令类别的熔断器状态
+     */
+    private final Map<CommandClass, CircuitState> circuitStates;
+
+    /**
+     * 累计打开熔断器的次数
+     */
+    private final long circuitOpenedCount;
+
+    /**
+     * 累计因熔断器打开被拒绝的调用次数
+     */
+    private final long circuitRejectedCount;
+
+    /**
+     * 累计因排队超过预算被拒绝的调用次数
+     */
+    private final long shedCount;
+
+    /**
+     * 累计降级返回的读调用次数
+     */
+    private final long degradedCount;
+
+    /**
+     * 正在执行的调用数
+     */
+    private final int inFlight;
+
+    /**
+     * 正在排队的调用数（估计值）
+     */
+    private final int queued;
+
+    /**
+     * 调用耗时的滑动平均（微秒）
+     */
+    private final long averageCallMicros;
+}
@@ -0,0 +1,696 @@
+package cn.com.anysdk.redis.resilience;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.ScoredMember;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
+import cn.com.anysdk.redis.cache.LocalCache;
+import cn.com.anysdk.redis.exception.RedisErrorCodes;
+import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.impl.DelegatingRedisBatch;
+import cn.com.anysdk.redis.impl.DelegatingRedisService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 带熔断、隔离和削峰的Redis服务
+ * <p>
+ * Redis变慢或不可用时，每个调用都要等到操作超时才失败，调用线程被耗尽后整个应用跟着不可用。
+ * 这里按命令类别（{@link CommandClass}）分别熔断：统计窗口内失败率或慢调用比例超过阈值后熔断器打开，
+ * 命令不再发送，直接以{@link RedisErrorCodes#CIRCUIT_OPEN}拒绝，一段时间后放行少量试探调用决定是否恢复。
+ * 只有连接失败、超时（按异常链中的异常类型判断）和表示服务端暂不可用的错误回复算作失败，
+ * WRONGTYPE、NOSCRIPT等业务错误以及参数校验、编解码等客户端异常不影响熔断，也不降级。
+ * <p>
+ * 并发调用数受信号量限制（隔离），超出的调用排队。按调用耗时的滑动平均估算排队时间，
+ * 预计或实际等待超过预算时以{@link RedisErrorCodes#LOAD_SHED}拒绝（削峰），不再堆积等待。
+ * <p>
+ * 读命令被拒绝或失败时按{@link DegradationMode}降级；写命令、脚本和批量操作总是抛出异常。
+ * 降级为旧值时，成功读到的字符串、字节数组和哈希字段值保存在有界的本地缓存中，
+ * 本服务上成功的写命令会清除对应的旧值；批量操作、脚本和删除整个哈希不会清除，旧值最长保留{@code staleTtlMillis}。
+ * 游标遍历、订阅和阻塞的流读取按原样转发。
+ */
+public class ResilientRedisService extends DelegatingRedisService {
+    private static final Object NULL_VALUE = new Object();
+    private static final Set<String> UNAVAILABLE_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            RedisErrorCodes.BUSY, RedisErrorCodes.LOADING, RedisErrorCodes.OOM, RedisErrorCodes.TRYAGAIN,
+            RedisErrorCodes.CLUSTERDOWN, RedisErrorCodes.MASTERDOWN, RedisErrorCodes.READONLY)));
+    /**
+     * 各客户端表示连接失败或超时的异常，按类名匹配，避免加载未使用的客户端
+     */
+    private static final Set<String> UNAVAILABLE_EXCEPTIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "redis.clients.jedis.exceptions.JedisConnectionException",
+            "redis.clients.jedis.exceptions.JedisClusterOperationException",
+            "redis.clients.jedis.exceptions.JedisExhaustedPoolException",
+            "io.lettuce.core.RedisConnectionException",
+            "io.lettuce.core.RedisCommandTimeoutException",
+            "org.redisson.client.RedisConnectionException",
+            "org.redisson.client.WriteRedisConnectionException",
+            "org.redisson.client.RedisTimeoutException",
+            "org.redisson.client.RedisNodeNotFoundException")));
+
+    private final Map<CommandClass, CircuitBreaker> breakers = new EnumMap<>(CommandClass.class);
+    private final CircuitBreaker readBreaker;
+    private final CircuitBreaker writeBreaker;
+    private final CircuitBreaker batchBreaker;
+    private final CircuitBreaker scriptBreaker;
+    private final DegradationMode degradationMode;
+    private final long slowCallNanos;
+    private final Semaphore permits;
+    private final int maxConcurrentCalls;
+    private final long maxQueueWaitNanos;
+    private final LocalCache<StaleKey, Object> staleCache;
+
+    private final LongAdder openedCount = new LongAdder();
+    private final LongAdder circuitRejections = new LongAdder();
+    private final LongAdder sheds = new LongAdder();
+    private final LongAdder degraded = new LongAdder();
+    private volatile long averageCallNanos;
+
+    /**
+     * @param delegate 被装饰的服务
+     * @param config 熔断、隔离和削峰配置
+     */
+    public ResilientRedisService(IRedisService delegate, ResilienceConfig config) {
+        super(delegate);
+        if (config == null) {
+            throw new RedisException("Resilience config cannot be null");
+        }
+        for (CommandClass commandClass : CommandClass.values()) {
+            breakers.put(commandClass, new CircuitBreaker(commandClass, config, openedCount));
+        }
+        this.readBreaker = breakers.get(CommandClass.READ);
+        this.writeBreaker = breakers.get(CommandClass.WRITE);
+        this.batchBreaker = breakers.get(CommandClass.BATCH);
+        this.scriptBreaker = breakers.get(CommandClass.SCRIPT);
+        this.degradationMode = config.getDegradationMode() == null ? DegradationMode.THROW : config.getDegradationMode();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallThresholdMillis());
+        this.maxConcurrentCalls = config.getMaxConcurrentCalls();
+        this.permits = maxConcurrentCalls > 0 ? new Semaphore(maxConcurrentCalls, true) : null;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getMaxQueueWaitMillis()));
+        this.staleCache = degradationMode == DegradationMode.STALE
+                ? new LocalCache<>(config.getStaleMaxEntries(), config.getStaleTtlMillis(), TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    /**
+     * 获取指定命令类别的熔断器状态
+     * @param commandClass 命令类别
+     * @return 熔断器状态
+     */
+    public CircuitState getCircuitState(CommandClass commandClass) {
+        return breakers.get(commandClass).getState();
+    }
+
+    /**
+     * 获取统计快照
+     * @return 统计快照
+     */
+    public ResilienceStats getStats() {
+        Map<CommandClass, CircuitState> states = new EnumMap<>(CommandClass.class);
+        breakers.forEach((commandClass, breaker) -> states.put(commandClass, breaker.getState()));
+        return new ResilienceStats(states, openedCount.sum(), circuitRejections.sum(), sheds.sum(), degraded.sum(),
+                permits == null ? 0 : maxConcurrentCalls - permits.availablePermits(),
+                permits == null ? 0 : permits.getQueueLength(),
+                TimeUnit.NANOSECONDS.toMicros(averageCallNanos));
+    }
+
+    @Override
+    public void set(String key, String value) {
+        execute(writeBreaker, () -> {
+            delegate.set(key, value);
+            return null;
+        });
+        invalidateKey(key);
+    }
+
+    @Override
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        execute(writeBreaker, () -> {
+            delegate.set(key, value, timeout, unit);
+            return null;
+        });
+        invalidateKey(key);
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        boolean result = execute(writeBreaker, () -> delegate.setIfAbsent(key, value, timeout, unit));
+        if (result) {
+            invalidateKey(key);
+        }
+        return result;
+    }
+
+    @Override
+    public String get(String key) {
+        return read(() -> delegate.get(key), null, staleCache == null ? null : new StaleKey(StaleKey.STRING, key, null));
+    }
+
+    @Override
+    public boolean delete(String key) {
+        boolean result = execute(writeBreaker, () -> delegate.delete(key));
+        invalidateKey(key);
+        return result;
+    }
+
+    @Override
+    public long delete(List<String> keys) {
+        long result = execute(writeBreaker, () -> delegate.delete(keys));
+        invalidateKeys(keys);
+        return result;
+    }
+
+    @Override
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        return execute(writeBreaker, () -> delegate.expire(key, timeout, unit));
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return read(() -> delegate.hasKey(key), false, null);
+    }
+
+    @Override
+    public long getExpire(String key, TimeUnit unit) {
+        return read(() -> delegate.getExpire(key, unit), -2L, null);
+    }
+
+    @Override
+    public byte[] dump(String key) {
+        return read(() -> delegate.dump(key), null, null);
+    }
+
+    @Override
+    public void restore(String key, long ttlMillis, byte[] serialized, boolean replace) {
+        execute(writeBreaker, () -> {
+            delegate.restore(key, ttlMillis, serialized, replace);
+            return null;
+        });
+        invalidateKey(key);
+    }
+
+    @Override
+    public long incr(String key) {
+        long result = execute(writeBreaker, () -> delegate.incr(key));
+        invalidateKey(key);
+        return result;
+    }
+
+    @Override
+    public long incrBy(String key, long delta) {
+        long result = execute(writeBreaker, () -> delegate.incrBy(key, delta));
+        invalidateKey(key);
+        return result;
+    }
+
+    @Override
+    public long hIncrBy(String key, String field, long delta) {
+        long result = execute(writeBreaker, () -> delegate.hIncrBy(key, field, delta));
+        invalidateField(key, field);
+        return result;
+    }
+
+    @Override
+    public void hSet(String key, String field, Object value) {
+        execute(writeBreaker, () -> {
+            delegate.hSet(key, field, value);
+            return null;
+        });
+        invalidateField(key, field);
+    }
+
+    @Override
+    public Object hGet(String key, String field) {
+        return read(() -> delegate.hGet(key, field), null,
+                staleCache == null ? null : new StaleKey(StaleKey.HASH, key, field));
+    }
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map) {
+        execute(writeBreaker, () -> {
+            delegate.hSetAll(key, map);
+            return null;
+        });
+        if (staleCache != null) {
+            for (String field : map.keySet()) {
+                invalidateField(key, field);
+            }
+        }
+    }
+
+    @Override
+    public Map<Object, Object> hGetAll(String key) {
+        return read(() -> delegate.hGetAll(key), Collections.emptyMap(), null);
+    }
+
+    @Override
+    public long lPush(String key, String value) {
+        return execute(writeBreaker, () -> delegate.lPush(key, value));
+    }
+
+    @Override
+    public long rPush(String key, String value) {
+        return execute(writeBreaker, () -> delegate.rPush(key, value));
+    }
+
+    @Override
+    public List<String> lRange(String key, long start, long end) {
+        return read(() -> delegate.lRange(key, start, end), Collections.emptyList(), null);
+    }
+
+    @Override
+    public long sAdd(String key, String... values) {
+        return execute(writeBreaker, () -> delegate.sAdd(key, values));
+    }
+
+    @Override
+    public Set<String> sMembers(String key) {
+        return read(() -> delegate.sMembers(key), Collections.emptySet(), null);
+    }
+
+    @Override
+    public long zAdd(String key, double score, String member) {
+        return execute(writeBreaker, () -> delegate.zAdd(key, score, member));
+    }
+
+    @Override
+    public long zAdd(String key, Collection<ScoredMember> members) {
+        return execute(writeBreaker, () -> delegate.zAdd(key, members));
+    }
+
+    @Override
+    public double zIncrBy(String key, double increment, String member) {
+        return execute(writeBreaker, () -> delegate.zIncrBy(key, increment, member));
+    }
+
+    @Override
+    public Double zScore(String key, String member) {
+        return read(() -> delegate.zScore(key, member), null, null);
+    }
+
+    @Override
+    public long zRank(String key, String member) {
+        return read(() -> delegate.zRank(key, member), -1L, null);
+    }
+
+    @Override
+    public long zRevRank(String key, String member) {
+        return read(() -> delegate.zRevRank(key, member), -1L, null);
+    }
+
+    @Override
+    public long zCard(String key) {
+        return read(() -> delegate.zCard(key), 0L, null);
+    }
+
+    @Override
+    public List<ScoredMember> zRangeByScore(String key, double min, double max, long offset, long count) {
+        return read(() -> delegate.zRangeByScore(key, min, max, offset, count), Collections.emptyList(), null);
+    }
+
+    @Override
+    public List<ScoredMember> zRevRange(String key, long start, long end) {
+        return read(() -> delegate.zRevRange(key, start, end), Collections.emptyList(), null);
+    }
+
+    @Override
+    public long zRemRangeByScore(String key, double min, double max) {
+        return execute(writeBreaker, () -> delegate.zRemRangeByScore(key, min, max));
+    }
+
+    @Override
+    public List<ScoredMember> zPopMin(String key, int count) {
+        return execute(writeBreaker, () -> delegate.zPopMin(key, count));
+    }
+
+    @Override
+    public String xAdd(String key, Map<String, String> fields, long maxLen) {
+        return execute(writeBreaker, () -> delegate.xAdd(key, fields, maxLen));
+    }
+
+    @Override
+    public long xLen(String key) {
+        return read(() -> delegate.xLen(key), 0L, null);
+    }
+
+    @Override
+    public boolean xGroupCreate(String key, String group, String startId) {
+        return execute(writeBreaker, () -> delegate.xGroupCreate(key, group, startId));
+    }
+
+    @Override
+    public List<StreamEntry> xReadGroup(String key, String group, String consumer, int count, long blockMillis) {
+        if (blockMillis > 0) {
+            // 阻塞读取的耗时由等待时间决定，不计入慢调用和排队时间的估算
+            return delegate.xReadGroup(key, group, consumer, count, blockMillis);
+        }
+        return execute(writeBreaker, () -> delegate.xReadGroup(key, group, consumer, count, blockMillis));
+    }
+
+    @Override
+    public long xAck(String key, String group, Collection<String> ids) {
+        return execute(writeBreaker, () -> delegate.xAck(key, group, ids));
+    }
+
+    @Override
+    public StreamClaimResult xAutoClaim(String key, String group, String consumer, long minIdleMillis, String startId, int count) {
+        return execute(writeBreaker, () -> delegate.xAutoClaim(key, group, consumer, minIdleMillis, startId, count));
+    }
+
+    @Override
+    public List<StreamGroupInfo> xInfoGroups(String key) {
+        return read(() -> delegate.xInfoGroups(key), Collections.emptyList(), null);
+    }
+
+    @Override
+    public List<String> mGet(List<String> keys) {
+        return readMulti(() -> delegate.mGet(keys), keys, StaleKey.STRING);
+    }
+
+    @Override
+    public void mSet(Map<String, String> map) {
+        execute(writeBreaker, () -> {
+            delegate.mSet(map);
+            return null;
+        });
+        if (staleCache != null) {
+            invalidateKeys(map.keySet());
+        }
+    }
+
+    @Override
+    public long mDelete(List<String> keys) {
+        long result = execute(writeBreaker, () -> delegate.mDelete(keys));
+        invalidateKeys(keys);
+        return result;
+    }
+
+    @Override
+    public RedisBatch batch() {
+        return new ResilientBatch(delegate.batch());
+    }
+
+    @Override
+    public long publish(String channel, String message) {
+        return execute(writeBreaker, () -> delegate.publish(channel, message));
+    }
+
+    @Override
+    public String scriptLoad(String script) {
+        return execute(scriptBreaker, () -> delegate.scriptLoad(script));
+    }
+
+    @Override
+    public Object evalSha(String sha1, ScriptReturnType returnType, List<String> keys, List<String> args) {
+        return execute(scriptBreaker, () -> delegate.evalSha(sha1, returnType, keys, args));
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        return read(() -> delegate.getBytes(key), null,
+                staleCache == null ? null : new StaleKey(StaleKey.BYTES, key, null));
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value) {
+        execute(writeBreaker, () -> {
+            delegate.setBytes(key, value);
+            return null;
+        });
+        invalidateKey(key);
+    }
+
+    @Override
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        execute(writeBreaker, () -> {
+            delegate.setBytes(key, value, timeout, unit);
+            return null;
+        });
+        invalidateKey(key);
+    }
+
+    @Override
+    public List<byte[]> mGetBytes(List<String> keys) {
+        return readMulti(() -> delegate.mGetBytes(keys), keys, StaleKey.BYTES);
+    }
+
+    @Override
+    public byte[] hGetBytes(String key, String field) {
+        return read(() -> delegate.hGetBytes(key, field), null,
+                staleCache == null ? null : new StaleKey(StaleKey.HASH_BYTES, key, field));
+    }
+
+    @Override
+    public void hSetBytes(String key, String field, byte[] value) {
+        execute(writeBreaker, () -> {
+            delegate.hSetBytes(key, field, value);
+            return null;
+        });
+        invalidateField(key, field);
+    }
+
+    @Override
+    public Map<String, byte[]> hGetAllBytes(String key) {
+        return read(() -> delegate.hGetAllBytes(key), Collections.emptyMap(), null);
+    }
+
+    /**
+     * 经过熔断器和隔离执行调用，被拒绝时抛出带错误码的异常
+     */
+    private <T> T execute(CircuitBreaker breaker, Supplier<T> call) {
+        CircuitState admitted = breaker.tryAcquire();
+        if (admitted == null) {
+            circuitRejections.increment();
+            throw new RedisException(RedisErrorCodes.CIRCUIT_OPEN, "Redis circuit breaker is open, command rejected");
+        }
+        try {
+            enterBulkhead();
+        } catch (RuntimeException e) {
+            breaker.cancel(admitted);
+            throw e;
+        }
+        long start = System.nanoTime();
+        boolean failure = false;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            failure = isFailure(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (permits != null) {
+                permits.release();
+            }
+            // 并发更新时可能丢失个别样本，不影响排队时间的估算
+            long average = averageCallNanos;
+            averageCallNanos = average + ((elapsed - average) >> 4);
+            breaker.record(admitted, failure, elapsed, slowCallNanos);
+        }
+    }
+
+    private void enterBulkhead() {
+        if (permits == null) {
+            return;
+        }
+        try {
+            // 不带超时的tryAcquire会插队，忽略公平性
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            // 前面排队的调用按平均耗时分批执行，预计等待超过预算时直接拒绝，不再排队
+            long expectedWait = (permits.getQueueLength() + 1L) * averageCallNanos / maxConcurrentCalls;
+            if (expectedWait <= maxQueueWaitNanos && permits.tryAcquire(maxQueueWaitNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException("Interrupted while waiting for a Redis call permit", e);
+        }
+        sheds.increment();
+        throw new RedisException(RedisErrorCodes.LOAD_SHED, "Redis call shed, queue wait over budget of "
+                + TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos) + "ms, max concurrent calls: " + maxConcurrentCalls);
+    }
+
+    private <T> T read(Supplier<T> call, T fallback, StaleKey staleKey) {
+        T value;
+        try {
+            value = execute(readBreaker, call);
+        } catch (RuntimeException e) {
+            if (!isDegradable(e)) {
+                throw e;
+            }
+            if (degradationMode == DegradationMode.RETURN_NULL) {
+                degraded.increment();
+                return fallback;
+            }
+            Object stale = staleKey == null ? null : staleCache.peek(staleKey);
+            if (stale == null) {
+                throw e;
+            }
+            degraded.increment();
+            return stale == NULL_VALUE ? null : cast(stale);
+        }
+        if (staleKey != null) {
+            staleCache.put(staleKey, value == null ? NULL_VALUE : value);
+        }
+        return value;
+    }
+
+    /**
+     * 批量读取，降级为旧值时没有旧值的键返回null，所有键都没有旧值时抛出异常
+     */
+    private <T> List<T> readMulti(Supplier<List<T>> call, List<String> keys, byte kind) {
+        List<T> values;
+        try {
+            values = execute(readBreaker, call);
+        } catch (RuntimeException e) {
+            if (!isDegradable(e)) {
+                throw e;
+            }
+            List<T> result = new ArrayList<>(keys.size());
+            boolean found = false;
+            for (String key : keys) {
+                Object stale = staleCache == null ? null : staleCache.peek(new StaleKey(kind, key, null));
+                found |= stale != null;
+                result.add(stale == null || stale == NULL_VALUE ? null : cast(stale));
+            }
+            if (degradationMode == DegradationMode.STALE && !found) {
+                throw e;
+            }
+            degraded.increment();
+            return result;
+        }
+        if (staleCache != null && values != null && values.size() == keys.size()) {
+            for (int i = 0; i < keys.size(); i++) {
+                T value = values.get(i);
+                staleCache.put(new StaleKey(kind, keys.get(i), null), value == null ? NULL_VALUE : value);
+            }
+        }
+        return values;
+    }
+
+    private boolean isDegradable(RuntimeException e) {
+        if (degradationMode == DegradationMode.THROW) {
+            return false;
+        }
+        String code = RedisErrorCodes.of(e);
+        return RedisErrorCodes.CIRCUIT_OPEN.equals(code) || RedisErrorCodes.LOAD_SHED.equals(code) || isFailure(e);
+    }
+
+    /**
+     * 是否算作Redis不可用：连接失败或超时，或服务端回复表示暂时不可用
+     */
+    private static boolean isFailure(RuntimeException e) {
+        String code = RedisErrorCodes.of(e);
+        if (code != null) {
+            return UNAVAILABLE_CODES.contains(code);
+        }
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (current instanceof IOException || current instanceof TimeoutException) {
+                return true;
+            }
+            for (Class<?> type = current.getClass(); type != null; type = type.getSuperclass()) {
+                if (UNAVAILABLE_EXCEPTIONS.contains(type.getName())) {
+                    return true;
+                }
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private void invalidateKey(String key) {
+        if (staleCache != null) {
+            staleCache.invalidate(new StaleKey(StaleKey.STRING, key, null));
+            staleCache.invalidate(new StaleKey(StaleKey.BYTES, key, null));
+        }
+    }
+
+    private void invalidateKeys(Iterable<String> keys) {
+        if (staleCache != null) {
+            for (String key : keys) {
+                invalidateKey(key);
+            }
+        }
+    }
+
+    private void invalidateField(String key, String field) {
+        if (staleCache != null) {
+            staleCache.invalidate(new StaleKey(StaleKey.HASH, key, field));
+            staleCache.invalidate(new StaleKey(StaleKey.HASH_BYTES, key, field));
+        }
+    }
+
+    /**
+     * 旧值的缓存键，区分读取方式，字符串和字节数组读到的旧值不会混用
+     */
+    private static final class StaleKey {
+        static final byte STRING = 0;
+        static final byte BYTES = 1;
+        static final byte HASH = 2;
+        static final byte HASH_BYTES = 3;
+
+        private final byte kind;
+        private final String key;
+        private final String field;
+
+        StaleKey(byte kind, String key, String field) {
+            this.kind = kind;
+            this.key = key;
+            this.field = field;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StaleKey)) {
+                return false;
+            }
+            StaleKey other = (StaleKey) o;
+            return kind == other.kind && key.equals(other.key) && Objects.equals(field, other.field);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * key.hashCode() + Objects.hashCode(field)) * 4 + kind;
+        }
+    }
+
+    private class ResilientBatch extends DelegatingRedisBatch {
+        ResilientBatch(RedisBatch delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public List<Object> execute() {
+            return ResilientRedisService.this.execute(batchBreaker, delegate::execute);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package cn.com.anysdk.redis.script;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.impl.LocalRedisService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Lua脚本的原子复合操作
+ * <p>
+ * 先读后写的逻辑在客户端实现需要两次往返，且两次命令之间可能被其他客户端修改；
+ * 这里每个操作都是一个脚本，在服务端原子执行，只需一次往返。
+ * 多键操作在集群模式下要求所有键位于同一槽位（可使用{hashtag}）。
+ */
+public class AtomicOperations {
+    private static final RedisScript<Boolean> COMPARE_AND_SET = RedisScript.ofBoolean(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end "
+                    + "local ttl = tonumber(ARGV[3]) "
+                    + "if ttl > 0 then redis.call('SET', KEYS[1], ARGV[2], 'PX', ttl) return 1 end "
+                    + "local remaining = redis.call('PTTL', KEYS[1]) "
+                    + "redis.call('SET', KEYS[1], ARGV[2]) "
+                    + "if remaining > 0 then redis.call('PEXPIRE', KEYS[1], remaining) end "
+                    + "return 1");
+
+    private static final RedisScript<Boolean> COMPARE_AND_DELETE = RedisScript.ofBoolean(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0");
+
+    private static final RedisScript<String> GET_OR_SET = RedisScript.ofString(
+            "local current = redis.call('GET', KEYS[1]) "
+                    + "if current then return current end "
+                    + "if tonumber(ARGV[2]) > 0 then redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) "
+                    + "else redis.call('SET', KEYS[1], ARGV[1]) end "
+                    + "return false");
+
+    private static final RedisScript<Long> INCREMENT_AND_CAP = RedisScript.ofLong(
+            "local value = redis.call('INCRBY', KEYS[1], ARGV[1]) "
+                    + "local cap = tonumber(ARGV[2]) "
+                    + "if value > cap then "
+                    + "local remaining = redis.call('PTTL', KEYS[1]) "
+                    + "redis.call('SET', KEYS[1], cap) "
+                    + "if remaining > 0 then redis.call('PEXPIRE', KEYS[1], remaining) end "
+                    + "value = cap end "
+                    + "if tonumber(ARGV[3]) > 0 and redis.call('PTTL', KEYS[1]) == -1 then redis.call('PEXPIRE', KEYS[1], ARGV[3]) end "
+                    + "return value");
+
+    private static final RedisScript<Boolean> TRY_INCREMENT = RedisScript.ofBoolean(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0') "
+                    + "local delta = tonumber(ARGV[1]) "
+                    + "if current + delta > tonumber(ARGV[2]) then return 0 end "
+                    + "redis.call('INCRBY', KEYS[1], delta) "
+                    + "if tonumber(ARGV[3]) > 0 and redis.call('PTTL', KEYS[1]) == -1 then redis.call('PEXPIRE', KEYS[1], ARGV[3]) end "
+                    + "return 1");
+
+    private static final RedisScript<Long> DELETE_IF_ALL_MATCH = RedisScript.ofLong(
+            "for i, key in ipairs(KEYS) do "
+                    + "if redis.call('GET', key) ~= ARGV[i] then return 0 end end "
+                    + "return redis.call('DEL', unpack(KEYS))");
+
+    // 本地提供商执行的等价实现
+    static {
+        LocalRedisService.registerBuiltinScript(COMPARE_AND_SET.getSource(), (redis, keys, args) -> {
+            String key = keys.get(0);
+            if (!args.get(0).equals(redis.get(key))) {
+                return 0L;
+            }
+            long ttl = Long.parseLong(args.get(2));
+            if (ttl > 0) {
+                redis.set(key, args.get(1), ttl, TimeUnit.MILLISECONDS);
+                return 1L;
+            }
+            long remaining = redis.getExpire(key, TimeUnit.MILLISECONDS);
+            redis.set(key, args.get(1));
+            if (remaining > 0) {
+                redis.expire(key, remaining, TimeUnit.MILLISECONDS);
+            }
+            return 1L;
+        });
+        LocalRedisService.registerBuiltinScript(COMPARE_AND_DELETE.getSource(), (redis, keys, args) ->
+                args.get(0).equals(redis.get(keys.get(0))) && redis.delete(keys.get(0)) ? 1L : 0L);
+        LocalRedisService.registerBuiltinScript(GET_OR_SET.getSource(), (redis, keys, args) -> {
+            String current = redis.get(keys.get(0));
+            if (current != null) {
+                return current;
+            }
+            long ttl = Long.parseLong(args.get(1));
+            if (ttl > 0) {
+                redis.set(keys.get(0), args.get(0), ttl, TimeUnit.MILLISECONDS);
+            } else {
+                redis.set(keys.get(0), args.get(0));
+            }
+            return null;
+        });
+        LocalRedisService.registerBuiltinScript(INCREMENT_AND_CAP.getSource(), (redis, keys, args) -> {
+            String key = keys.get(0);
+            long value = redis.incrBy(key, Long.parseLong(args.get(0)));
+            long cap = Long.parseLong(args.get(1));
+            if (value > cap) {
+                long remaining = redis.getExpire(key, TimeUnit.MILLISECONDS);
+                redis.set(key, String.valueOf(cap));
+                if (remaining > 0) {
+                    redis.expire(key, remaining, TimeUnit.MILLISECONDS);
+                }
+                value = cap;
+            }
+            expireIfPersistent(redis, key, Long.parseLong(args.get(2)));
+            return value;
+        });
+        LocalRedisService.registerBuiltinScript(TRY_INCREMENT.getSource(), (redis, keys, args) -> {
+            String key = keys.get(0);
+            String current = redis.get(key);
+            long delta = Long.parseLong(args.get(0));
+            if ((current == null ? 0 : Long.parseLong(current)) + delta > Long.parseLong(args.get(1))) {
+                return 0L;
+            }
+            redis.incrBy(key, delta);
+            expireIfPersistent(redis, key, Long.parseLong(args.get(2)));
+            return 1L;
+        });
+        LocalRedisService.registerBuiltinScript(DELETE_IF_ALL_MATCH.getSource(), (redis, keys, args) -> {
+            for (int i = 0; i < keys.size(); i++) {
+                if (i >= args.size() || !args.get(i).equals(redis.get(keys.get(i)))) {
+                    return 0L;
+                }
+            }
+            return redis.delete(keys);
+        });
+    }
+
+    private final RedisScriptExecutor executor;
+
+    public AtomicOperations(IRedisService redisService) {
+        this(new RedisScriptExecutor(redisService));
+    }
+
+    public AtomicOperations(RedisScriptExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 当前值等于期望值时替换为新值，保留原有的过期时间
+     * @param key 键
+     * @param expected 期望值
+     * @param value 新值
+     * @return 是否替换成功
+     */
+    public boolean compareAndSet(String key, String expected, String value) {
+        return compareAndSet(key, expected, value, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 当前值等于期望值时替换为新值并设置过期时间
+     * @param key 键
+     * @param expected 期望值
+     * @param value 新值
+     * @param timeout 过期时间，小于等于0时保留原有的过期时间
+     * @param unit 时间单位
+     * @return 是否替换成功
+     */
+    public boolean compareAndSet(String key, String expected, String value, long timeout, TimeUnit unit) {
+        return executor.execute(COMPARE_AND_SET, Collections.singletonList(key), expected, value, unit.toMillis(timeout));
+    }
+
+    /**
+     * 当前值等于期望值时删除，常用于释放带令牌的锁
+     * @param key 键
+     * @param expected 期望值
+     * @return 是否删除成功
+     */
+    public boolean compareAndDelete(String key, String expected) {
+        return executor.execute(COMPARE_AND_DELETE, Collections.singletonList(key), expected);
+    }
+
+    /**
+     * 键不存在时写入，存在时返回当前值
+     * @param key 键
+     * @param value 值
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit 时间单位
+     * @return 键原有的值，本次写入成功时返回null
+     */
+    public String getOrSet(String key, String value, long timeout, TimeUnit unit) {
+        return executor.execute(GET_OR_SET, Collections.singletonList(key), value, unit.toMillis(timeout));
+    }
+
+    /**
+     * 自增并限制上限，超过上限时把值截断为上限
+     * @param key 键
+     * @param delta 增量
+     * @param cap 上限
+     * @param timeout 键首次创建时设置的过期时间，小于等于0时不过期
+     * @param unit 时间单位
+     * @return 自增后的值
+     */
+    public long incrementAndCap(String key, long delta, long cap, long timeout, TimeUnit unit) {
+        return executor.execute(INCREMENT_AND_CAP, Collections.singletonList(key), delta, cap, unit.toMillis(timeout));
+    }
+
+    /**
+     * 自增后不超过上限时才自增，常用于配额扣减
+     * @param key 键
+     * @param delta 增量
+     * @param limit 上限
+     * @param timeout 键首次创建时设置的过期时间，小于等于0时不过期
+     * @param unit 时间单位
+     * @return 是否自增成功
+     */
+    public boolean tryIncrement(String key, long delta, long limit, long timeout, TimeUnit unit) {
+        return executor.execute(TRY_INCREMENT, Collections.singletonList(key), delta, limit, unit.toMillis(timeout));
+    }
+
+    /**
+     * 所有键的当前值都等于期望值时一起删除，任一不匹配时都不删除
+     * @param expected 键到期望值的映射
+     * @return 删除的键数量，不匹配时返回0
+     */
+    public long deleteIfAllMatch(Map<String, String> expected) {
+        if (expected.isEmpty()) {
+            return 0;
+        }
+        List<String> keys = new ArrayList<>(expected.size());
+        Object[] values = new Object[expected.size()];
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            values[keys.size()] = entry.getValue();
+            keys.add(entry.getKey());
+        }
+        return executor.execute(DELETE_IF_ALL_MATCH, keys, values);
+    }
+
+    public RedisScriptExecutor getExecutor() {
+        return executor;
+    }
+
+    private static void expireIfPersistent(IRedisService redis, String key, long ttlMillis) {
+        if (ttlMillis > 0 && redis.getExpire(key, TimeUnit.MILLISECONDS) == -1) {
+            redis.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package cn.com.anysdk.redis.script;
+
+import cn.com.anysdk.redis.api.ScriptReturnType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Lua脚本定义
+ * <p>
+ * SHA1摘要在本地计算，与SCRIPT LOAD返回的摘要一致，因此无需加载即可直接EVALSHA。
+ * 脚本对象不可变，建议声明为常量复用。
+ * @param <T> 返回值类型
+ */
+public final class RedisScript<T> {
+    private final String source;
+    private final String sha1;
+    private final ScriptReturnType returnType;
+
+    private RedisScript(String source, ScriptReturnType returnType) {
+        this.source = source;
+        this.sha1 = sha1Hex(source);
+        this.returnType = returnType;
+    }
+
+    /**
+     * 返回布尔值的脚本，脚本返回1为true
+     */
+    public static RedisScript<Boolean> ofBoolean(String source) {
+        return new RedisScript<>(source, ScriptReturnType.BOOLEAN);
+    }
+
+    /**
+     * 返回整数的脚本
+     */
+    public static RedisScript<Long> ofLong(String source) {
+        return new RedisScript<>(source, ScriptReturnType.INTEGER);
+    }
+
+    /**
+     * 返回字符串值的脚本，nil为null
+     */
+    public static RedisScript<String> ofString(String source) {
+        return new RedisScript<>(source, ScriptReturnType.VALUE);
+    }
+
+    /**
+     * 返回数组的脚本
+     */
+    public static RedisScript<List<Object>> ofList(String source) {
+        return new RedisScript<>(source, ScriptReturnType.MULTI);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getSha1() {
+        return sha1;
+    }
+
+    public ScriptReturnType getReturnType() {
+        return returnType;
+    }
+
+    @Override
+    public String toString() {
+        return "RedisScript(sha1=" + sha1 + ", returnType=" + returnType + ")";
+    }
+
+    private static String sha1Hex(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+}
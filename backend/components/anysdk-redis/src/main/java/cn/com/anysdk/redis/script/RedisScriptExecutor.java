@@ -0,0 +1,82 @@
+package cn.com.anysdk.redis.script;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.exception.RedisErrorCodes;
+import cn.com.anysdk.redis.exception.RedisException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lua脚本执行器
+ * <p>
+ * 每个脚本在本执行器内首次使用时通过SCRIPT LOAD加载一次，之后只发送EVALSHA和40字节的摘要，不再重复传输脚本源码。
+ * 服务端重启、故障转移或执行SCRIPT FLUSH后脚本缓存会丢失，此时收到NOSCRIPT错误，重新加载后重试一次。
+ * 三种客户端行为一致，执行器线程安全，可在整个应用内共享。
+ */
+@Slf4j
+public class RedisScriptExecutor {
+    private final IRedisService redisService;
+    private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+
+    public RedisScriptExecutor(IRedisService redisService) {
+        this.redisService = redisService;
+    }
+
+    /**
+     * 执行脚本
+     * @param script 脚本
+     * @param keys 键，集群模式下必须位于同一槽位
+     * @param args 参数，按String.valueOf转换
+     * @return 脚本返回值
+     */
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        List<String> keyList = keys == null ? Collections.emptyList() : keys;
+        List<String> argList = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            argList.add(String.valueOf(arg));
+        }
+
+        if (!loaded.contains(script.getSha1())) {
+            load(script);
+        }
+        try {
+            return evalSha(script, keyList, argList);
+        } catch (RedisException e) {
+            if (!RedisErrorCodes.isNoScript(e)) {
+                throw e;
+            }
+            log.info("Script {} missing from server cache, reloading", script.getSha1());
+            loaded.remove(script.getSha1());
+            load(script);
+            return evalSha(script, keyList, argList);
+        }
+    }
+
+    /**
+     * 预先加载脚本，例如在应用启动时调用，避免首次执行时多一次往返
+     * @param scripts 脚本
+     */
+    public void preload(RedisScript<?>... scripts) {
+        for (RedisScript<?> script : scripts) {
+            load(script);
+        }
+    }
+
+    private void load(RedisScript<?> script) {
+        String sha1 = redisService.scriptLoad(script.getSource());
+        if (!script.getSha1().equals(sha1)) {
+            throw new RedisException("Script digest mismatch, expected: " + script.getSha1() + ", actual: " + sha1);
+        }
+        loaded.add(sha1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T evalSha(RedisScript<T> script, List<String> keys, List<String> args) {
+        return (T) redisService.evalSha(script.getSha1(), script.getReturnType(), keys, args);
+    }
+}
@@ -0,0 +1,403 @@
+package cn.com.anysdk.redis.stream;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import cn.com.anysdk.redis.api.StreamClaimResult;
+import cn.com.anysdk.redis.api.StreamEntry;
+import cn.com.anysdk.redis.api.StreamGroupInfo;
+import cn.com.anysdk.redis.exception.RedisErrorCodes;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 消费者组运行器
+ * <p>
+ * 读取线程用XREADGROUP ... COUNT BLOCK读取新消息，交给有界的工作线程池（或虚拟线程）并发处理，
+ * 处理成功的消息ID由确认线程攒批后以一个管道批次的XACK确认。已读取但尚未确认的消息数不超过{@code maxInFlight}，
+ * 达到上限时读取线程暂停，处理慢时积压留在Redis的流中而不是本地内存。
+ * 处理失败的消息不确认，留在待确认列表中，空闲超过{@code claimMinIdleMillis}后由组内任一消费者通过XAUTOCLAIM认领重新处理，
+ * 消费者宕机遗留的消息也以同样方式转移，因此处理逻辑应当幂等。
+ * <p>
+ * 消息并发处理，不保证处理顺序。{@code blockMillis}应小于客户端的命令超时。
+ */
+@Slf4j
+public class StreamConsumer implements AutoCloseable {
+    private static final String CLAIM_START_ID = "0-0";
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private final IRedisService redisService;
+    private final String key;
+    private final StreamConsumerConfig config;
+    private final StreamHandler handler;
+    private final String consumer;
+    private final Semaphore window;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<String> ackQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingAcks = new AtomicInteger();
+    private final Lock ackLock = new ReentrantLock();
+    private final Condition ackReady = ackLock.newCondition();
+    private final Lock stateLock = new ReentrantLock();
+    private ExecutorService workers;
+    private Thread reader;
+    private Thread acker;
+    private volatile boolean running;
+    private long nextClaimMillis;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public StreamConsumer(IRedisService redisService, String key, StreamHandler handler) {
+        this(redisService, key, StreamConsumerConfig.createDefault(), handler);
+    }
+
+    public StreamConsumer(IRedisService redisService, String key, StreamConsumerConfig config, StreamHandler handler) {
+        if (config.getMaxInFlight() <= 0 || config.getReadCount() <= 0 || config.getAckBatchSize() <= 0) {
+            throw new IllegalArgumentException("maxInFlight, readCount and ackBatchSize must be positive");
+        }
+        this.redisService = redisService;
+        this.key = key;
+        this.config = config;
+        this.handler = handler;
+        this.consumer = config.getConsumer() != null ? config.getConsumer()
+                : "consumer-" + UUID.randomUUID().toString().substring(0, 8);
+        this.window = new Semaphore(config.getMaxInFlight());
+    }
+
+    /**
+     * 创建消费者组（如果配置）并启动读取和确认线程，重复调用无效
+     */
+    public void start() {
+        stateLock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            if (config.isCreateGroup()) {
+                createGroup();
+            }
+            running = true;
+            workers = newWorkers();
+            reader = startThread(this::readLoop, "anysdk-redis-stream-reader-" + consumer);
+            acker = startThread(this::ackLoop, "anysdk-redis-stream-acker-" + consumer);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * 停止读取，等待已分发的消息处理完毕并确认
+     * @param timeoutMillis 等待处理完毕的最长时间，超时未处理完的消息留在待确认列表中
+     */
+    public void stop(long timeoutMillis) {
+        stateLock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            signalAcker();
+            join(reader, config.getBlockMillis() + timeoutMillis);
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    log.warn("Stream consumer {} stopped with unfinished messages on {}", consumer, key);
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.shutdownNow();
+            }
+            join(acker, timeoutMillis);
+            flushAcks();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        stop(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    /**
+     * 获取统计快照，组的待确认数和滞后数通过XINFO GROUPS查询，查询失败时为-1
+     * @return 统计快照
+     */
+    public StreamConsumerStats getStats() {
+        long groupPending = -1;
+        long groupLag = -1;
+        try {
+            for (StreamGroupInfo info : redisService.xInfoGroups(key)) {
+                if (info.getName().equals(config.getGroup())) {
+                    groupPending = info.getPending();
+                    groupLag = info.getLag();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.debug("Failed to query stream group info of {}: {}", key, e.getMessage());
+        }
+        return new StreamConsumerStats(config.getGroup(), consumer, delivered.sum(), claimed.sum(), processed.sum(),
+                failed.sum(), acked.sum(), inFlight.get(), pendingAcks.get(),
+                errors.sum(), groupPending, groupLag);
+    }
+
+    private void readLoop() {
+        long backoffMillis = 0;
+        while (running) {
+            try {
+                if (backoffMillis > 0) {
+                    TimeUnit.MILLISECONDS.sleep(backoffMillis);
+                }
+                claimIdle();
+                int permits = acquire(config.getReadCount());
+                if (permits == 0) {
+                    continue;
+                }
+                List<StreamEntry> entries;
+                try {
+                    entries = redisService.xReadGroup(key, config.getGroup(), consumer, permits, config.getBlockMillis());
+                } catch (RuntimeException e) {
+                    window.release(permits);
+                    throw e;
+                }
+                // 没有读到消息的许可在分发前归还
+                window.release(permits - entries.size());
+                delivered.add(entries.size());
+                dispatch(entries);
+                backoffMillis = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                errors.increment();
+                backoffMillis = Math.min(MAX_BACKOFF_MILLIS, Math.max(100, backoffMillis * 2));
+                if (config.isCreateGroup() && RedisErrorCodes.NOGROUP.equals(RedisErrorCodes.of(e))) {
+                    log.warn("Consumer group {} of {} is missing, recreating", config.getGroup(), key);
+                    recreateGroup();
+                } else {
+                    log.warn("Failed to read stream {} as {}: {}", key, consumer, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 每隔claimIntervalMillis从头遍历一次组的待确认列表，认领空闲超时的消息，认领数量同样受在途窗口限制
+     */
+    private void claimIdle() {
+        if (config.getClaimIntervalMillis() <= 0 || System.currentTimeMillis() < nextClaimMillis) {
+            return;
+        }
+        nextClaimMillis = System.currentTimeMillis() + config.getClaimIntervalMillis();
+        String cursor = CLAIM_START_ID;
+        do {
+            int permits = tryAcquire(config.getClaimCount());
+            if (permits == 0) {
+                return;
+            }
+            StreamClaimResult result;
+            try {
+                result = redisService.xAutoClaim(key, config.getGroup(), consumer, config.getClaimMinIdleMillis(), cursor, permits);
+            } catch (RuntimeException e) {
+                window.release(permits);
+                throw e;
+            }
+            window.release(permits - result.getEntries().size());
+            if (!result.getDeletedIds().isEmpty()) {
+                log.debug("Dropped {} deleted pending entries of {} from group {}", result.getDeletedIds().size(), key, config.getGroup());
+            }
+            claimed.add(result.getEntries().size());
+            dispatch(result.getEntries());
+            cursor = result.getNextId();
+        } while (running && !CLAIM_START_ID.equals(cursor));
+    }
+
+    /**
+     * 获取在途许可，至少等到1个，再尽量多取，最多max个
+     * @return 获取到的许可数，已停止时返回0
+     */
+    private int acquire(int max) throws InterruptedException {
+        while (running) {
+            if (window.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                return 1 + tryAcquire(max - 1);
+            }
+        }
+        return 0;
+    }
+
+    private int tryAcquire(int max) {
+        int acquired = 0;
+        while (acquired < max && window.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    private void dispatch(List<StreamEntry> entries) {
+        inFlight.addAndGet(entries.size());
+        for (StreamEntry entry : entries) {
+            try {
+                workers.execute(() -> process(entry));
+            } catch (RejectedExecutionException e) {
+                finish(1);
+            }
+        }
+    }
+
+    private void process(StreamEntry entry) {
+        try {
+            handler.handle(entry);
+        } catch (Exception e) {
+            failed.increment();
+            finish(1);
+            log.warn("Failed to handle stream entry {} of {}: {}", entry.getId(), key, e.getMessage());
+            return;
+        }
+        processed.increment();
+        ackQueue.add(entry.getId());
+        if (pendingAcks.incrementAndGet() >= config.getAckBatchSize()) {
+            signalAcker();
+        }
+    }
+
+    private void ackLoop() {
+        boolean acknowledged = true;
+        while (running) {
+            ackLock.lock();
+            try {
+                // 上次确认失败时按间隔重试，不因积压达到批量而连续重试
+                if (running && (!acknowledged || pendingAcks.get() < config.getAckBatchSize())) {
+                    ackReady.await(config.getAckIntervalMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                ackLock.unlock();
+            }
+            acknowledged = flushAcks();
+        }
+    }
+
+    /**
+     * 确认所有已处理的消息，每ackBatchSize个ID一条XACK，放在同一个管道批次中；失败时放回队列等待下次确认
+     * @return 是否确认成功
+     */
+    private boolean flushAcks() {
+        List<String> ids = new ArrayList<>();
+        String id;
+        while ((id = ackQueue.poll()) != null) {
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            return true;
+        }
+        pendingAcks.addAndGet(-ids.size());
+        RedisBatch batch = redisService.batch();
+        for (int from = 0; from < ids.size(); from += config.getAckBatchSize()) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + config.getAckBatchSize()));
+            batch.xAck(key, config.getGroup(), chunk.toArray(new String[0]));
+        }
+        try {
+            for (Object count : batch.execute()) {
+                acked.add((Long) count);
+            }
+            finish(ids.size());
+            return true;
+        } catch (RuntimeException e) {
+            errors.increment();
+            ackQueue.addAll(ids);
+            pendingAcks.addAndGet(ids.size());
+            log.warn("Failed to ack {} stream entries of {}: {}", ids.size(), key, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 消息确认或处理失败后归还在途许可
+     */
+    private void finish(int count) {
+        inFlight.addAndGet(-count);
+        window.release(count);
+    }
+
+    private void signalAcker() {
+        ackLock.lock();
+        try {
+            ackReady.signal();
+        } finally {
+            ackLock.unlock();
+        }
+    }
+
+    private void createGroup() {
+        if (redisService.xGroupCreate(key, config.getGroup(), config.getStartId())) {
+            log.info("Created consumer group {} of {} from {}", config.getGroup(), key, config.getStartId());
+        }
+    }
+
+    private void recreateGroup() {
+        try {
+            createGroup();
+        } catch (RuntimeException e) {
+            log.warn("Failed to create consumer group {} of {}: {}", config.getGroup(), key, e.getMessage());
+        }
+    }
+
+    /**
+     * 工作线程池；使用虚拟线程时每条消息一个线程，并发数由在途窗口限制
+     */
+    private ExecutorService newWorkers() {
+        if (config.isVirtualThreads()) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads are not available, falling back to {} worker threads", config.getWorkerThreads());
+            }
+        }
+        AtomicInteger index = new AtomicInteger();
+        return Executors.newFixedThreadPool(config.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "anysdk-redis-stream-worker-" + consumer + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Thread startThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void join(Thread thread, long timeoutMillis) {
+        try {
+            thread.join(Math.max(1, timeoutMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
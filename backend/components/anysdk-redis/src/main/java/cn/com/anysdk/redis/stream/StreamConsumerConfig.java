@@ -0,0 +1,99 @@
+package cn.com.anysdk.redis.stream;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 流消费者配置
+ */
+@Data
+@Accessors(chain = true)
+public class StreamConsumerConfig {
+    /**
+     * 消费者组名
+     */
+    private String group = "default";
+
+    /**
+     * 消费者名称，同一组内唯一，为null时随机生成；重启后沿用同一名称可以先处理自己遗留的待确认消息
+     */
+    private String consumer;
+
+    /**
+     * 启动时是否创建消费者组（流不存在时一并创建）
+     */
+    private boolean createGroup = true;
+
+    /**
+     * 创建组时的起始ID，0表示处理流中已有的消息，$表示只处理新消息
+     */
+    private String startId = "0";
+
+    /**
+     * 每次XREADGROUP最多读取的消息数
+     */
+    private int readCount = 100;
+
+    /**
+     * 没有新消息时XREADGROUP阻塞等待的毫秒数，需小于命令超时时间
+     */
+    private long blockMillis = 1000;
+
+    /**
+     * 处理消息的工作线程数，使用虚拟线程时不生效
+     */
+    private int workerThreads = 16;
+
+    /**
+     * 是否每条消息使用一个虚拟线程处理，需要Java 21，低版本回退到工作线程池
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * 最多在途的消息数：已读取但尚未确认，达到上限后暂停读取
+     */
+    private int maxInFlight = 1000;
+
+    /**
+     * 待确认的消息ID达到该数量时立即确认
+     */
+    private int ackBatchSize = 100;
+
+    /**
+     * 确认的最长间隔（毫秒）
+     */
+    private long ackIntervalMillis = 50;
+
+    /**
+     * 扫描并接管空闲消息的间隔（毫秒），小于等于0时不接管
+     */
+    private long claimIntervalMillis = 30000;
+
+    /**
+     * 待确认消息空闲超过该毫秒数后由本消费者接管（XAUTOCLAIM）
+     */
+    private long claimMinIdleMillis = 60000;
+
+    /**
+     * 每次XAUTOCLAIM最多接管的消息数
+     */
+    private int claimCount = 100;
+
+    /**
+     * 创建默认配置
+     * @return 默认配置
+     */
+    public static StreamConsumerConfig createDefault() {
+        return new StreamConsumerConfig();
+    }
+
+    /**
+     * 创建指定消费者组的配置
+     * @param group 组名
+     * @param consumer 消费者名称
+     * @return 配置
+     */
+    public static StreamConsumerConfig create(String group, String consumer) {
+        return new StreamConsumerConfig().setGroup(group).setConsumer(consumer);
+    }
+}
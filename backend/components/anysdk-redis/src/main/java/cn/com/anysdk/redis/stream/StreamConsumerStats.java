@@ -0,0 +1,73 @@
+package cn.com.anysdk.redis.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 流消费者统计快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StreamConsumerStats {
+    /**
+     * 消费者组名
+     */
+    private final String group;
+
+    /**
+     * 消费者名称
+     */
+    private final String consumer;
+
+    /**
+     * 通过XREADGROUP读取的新消息数
+     */
+    private final long deliveredCount;
+
+    /**
+     * 通过XAUTOCLAIM接管的消息数
+     */
+    private final long claimedCount;
+
+    /**
+     * 处理成功的消息数
+     */
+    private final long processedCount;
+
+    /**
+     * 处理失败的消息数，失败的消息在空闲超时后重新投递
+     */
+    private final long failedCount;
+
+    /**
+     * 已确认的消息数
+     */
+    private final long ackedCount;
+
+    /**
+     * 在途的消息数：已读取但尚未确认
+     */
+    private final int inFlight;
+
+    /**
+     * 处理成功但尚未确认的消息数
+     */
+    private final int pendingAcks;
+
+    /**
+     * 读取、接管或确认失败的次数
+     */
+    private final long errorCount;
+
+    /**
+     * 组在服务端的待确认消息数（所有消费者），查询失败时为-1
+     */
+    private final long groupPending;
+
+    /**
+     * 组在服务端的积压消息数（尚未投递给该组），Redis 7.0以下或查询失败时为-1
+     */
+    private final long groupLag;
+}
@@ -0,0 +1,16 @@
+package cn.com.anysdk.redis.stream;
+
+import cn.com.anysdk.redis.api.StreamEntry;
+
+/**
+ * 流消息处理器
+ */
+@FunctionalInterface
+public interface StreamHandler {
+    /**
+     * 处理一条消息，正常返回后消息被确认；抛出异常时消息留在待确认列表中，空闲超时后重新投递
+     * @param entry 消息
+     * @throws Exception 处理失败
+     */
+    void handle(StreamEntry entry) throws Exception;
+}
@@ -0,0 +1,296 @@
+package cn.com.anysdk.redis.stream;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 流生产者
+ * <p>
+ * {@link #send}把消息放入本地缓冲后立即返回，后台线程每攒够{@code batchSize}条或等待{@code lingerMillis}后，
+ * 把缓冲的消息作为一个管道批次的XADD发送，高频写入从每条消息一次往返降为每个批次一次往返。
+ * 缓冲达到上限时发送方等待，超时后先发送缓冲中已有的消息再直接同步发送，消息不会丢弃。
+ * 配置了{@code maxLen}时每条XADD带MAXLEN ~近似裁剪，流的长度维持在上限附近，裁剪的开销分摊到每次写入。
+ * 所有写入由{@code sendLock}串行化，同一生产者发送的消息按发送顺序写入。
+ */
+@Slf4j
+public class StreamProducer implements AutoCloseable {
+    private final IRedisService redisService;
+    private final String key;
+    private final StreamProducerConfig config;
+    private final ArrayDeque<PendingMessage> queue = new ArrayDeque<>();
+    private final Lock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Lock sendLock = new ReentrantLock();
+    private final Thread sender;
+    private volatile boolean running = true;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder directSends = new LongAdder();
+    private volatile long lastBatchMillis;
+
+    public StreamProducer(IRedisService redisService, String key) {
+        this(redisService, key, StreamProducerConfig.createDefault());
+    }
+
+    public StreamProducer(IRedisService redisService, String key, StreamProducerConfig config) {
+        this.redisService = redisService;
+        this.key = key;
+        this.config = config;
+        this.sender = new Thread(this::runLoop, "anysdk-redis-stream-producer-" + key);
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    /**
+     * 缓冲一条消息，由后台线程批量发送
+     * @param fields 消息字段
+     * @return 发送完成后得到消息ID
+     */
+    public CompletableFuture<String> send(Map<String, String> fields) {
+        PendingMessage message = new PendingMessage(fields);
+        if (!running || !enqueue(message)) {
+            directSends.increment();
+            sendLock.lock();
+            try {
+                // 先发送已缓冲的消息，直接发送的消息不会越过它们
+                flushQueued();
+                message.future.complete(redisService.xAdd(key, fields, config.getMaxLen()));
+                sent.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                message.future.completeExceptionally(e);
+            } finally {
+                sendLock.unlock();
+            }
+        }
+        return message.future;
+    }
+
+    /**
+     * 同步发送多条消息，每{@code batchSize}条一个管道批次
+     * @param messages 消息字段
+     * @return 按顺序排列的消息ID
+     */
+    public List<String> sendAll(List<Map<String, String>> messages) {
+        List<String> ids = new ArrayList<>(messages.size());
+        int batchSize = Math.max(1, config.getBatchSize());
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            List<Map<String, String>> chunk = messages.subList(from, Math.min(messages.size(), from + batchSize));
+            RedisBatch batch = redisService.batch();
+            for (Map<String, String> fields : chunk) {
+                batch.xAdd(key, fields, config.getMaxLen());
+            }
+            try {
+                for (Object id : batch.execute()) {
+                    ids.add((String) id);
+                }
+            } catch (RuntimeException e) {
+                failed.add(chunk.size());
+                throw e;
+            }
+            sent.add(chunk.size());
+            batches.increment();
+        }
+        return ids;
+    }
+
+    /**
+     * 获取统计快照
+     * @return 统计快照
+     */
+    public StreamProducerStats getStats() {
+        int pending;
+        lock.lock();
+        try {
+            pending = queue.size();
+        } finally {
+            lock.unlock();
+        }
+        return new StreamProducerStats(pending, sent.sum(), failed.sum(), batches.sum(), directSends.sum(), lastBatchMillis);
+    }
+
+    /**
+     * 停止后台线程并发送缓冲中剩余的消息，之后的发送直接同步执行；后台线程未在等待时间内退出时，等它发完当前批次后再发送
+     */
+    @Override
+    public void close() {
+        running = false;
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            sender.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sendLock.lock();
+        try {
+            List<PendingMessage> remaining;
+            while (!(remaining = drain()).isEmpty()) {
+                sendBatch(remaining);
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * 放入缓冲，缓冲已满时等待
+     * @return 是否放入，等待超时或已关闭时返回false
+     */
+    private boolean enqueue(PendingMessage message) {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(config.getBackpressureWaitMillis());
+            while (queue.size() >= config.getMaxPendingMessages()) {
+                if (remaining <= 0 || !running) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            queue.addLast(message);
+            if (queue.size() == 1 || queue.size() >= config.getBatchSize()) {
+                notEmpty.signal();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                awaitBatch();
+                sendLock.lock();
+                try {
+                    List<PendingMessage> messages = drain();
+                    if (!messages.isEmpty()) {
+                        sendBatch(messages);
+                    }
+                } finally {
+                    sendLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Stream producer loop failed", e);
+            }
+        }
+    }
+
+    /**
+     * 等待攒够一个批次或最早的消息等待超过lingerMillis
+     */
+    private void awaitBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running && queue.isEmpty()) {
+                notEmpty.await();
+            }
+            if (!queue.isEmpty()) {
+                long remaining = queue.peekFirst().enqueuedNanos + TimeUnit.MILLISECONDS.toNanos(config.getLingerMillis())
+                        - System.nanoTime();
+                while (running && queue.size() < config.getBatchSize() && remaining > 0) {
+                    remaining = notEmpty.awaitNanos(remaining);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 发送调用时已缓冲的消息，调用方持有sendLock；只发送调用时的数量，持续写入时不会一直等待
+     */
+    private void flushQueued() {
+        int backlog;
+        lock.lock();
+        try {
+            backlog = queue.size();
+        } finally {
+            lock.unlock();
+        }
+        while (backlog > 0) {
+            List<PendingMessage> messages = drain();
+            if (messages.isEmpty()) {
+                return;
+            }
+            sendBatch(messages);
+            backlog -= messages.size();
+        }
+    }
+
+    private List<PendingMessage> drain() {
+        lock.lock();
+        try {
+            int size = Math.min(queue.size(), Math.max(1, config.getBatchSize()));
+            List<PendingMessage> messages = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                messages.add(queue.pollFirst());
+            }
+            if (size > 0) {
+                notFull.signalAll();
+            }
+            return messages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sendBatch(List<PendingMessage> messages) {
+        long startMillis = System.currentTimeMillis();
+        RedisBatch batch = redisService.batch();
+        for (PendingMessage message : messages) {
+            batch.xAdd(key, message.fields, config.getMaxLen());
+        }
+        try {
+            List<Object> ids = batch.execute();
+            for (int i = 0; i < messages.size(); i++) {
+                messages.get(i).future.complete((String) ids.get(i));
+            }
+            sent.add(messages.size());
+        } catch (RuntimeException e) {
+            failed.add(messages.size());
+            log.warn("Failed to send {} stream messages to {}: {}", messages.size(), key, e.getMessage());
+            for (PendingMessage message : messages) {
+                message.future.completeExceptionally(e);
+            }
+        }
+        batches.increment();
+        lastBatchMillis = System.currentTimeMillis() - startMillis;
+    }
+
+    private static final class PendingMessage {
+        private final Map<String, String> fields;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+        private final long enqueuedNanos = System.nanoTime();
+
+        private PendingMessage(Map<String, String> fields) {
+            this.fields = fields;
+        }
+    }
+}
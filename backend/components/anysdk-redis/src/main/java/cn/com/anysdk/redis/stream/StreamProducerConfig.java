@@ -0,0 +1,44 @@
+package cn.com.anysdk.redis.stream;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 流生产者配置
+ */
+@Data
+@Accessors(chain = true)
+public class StreamProducerConfig {
+    /**
+     * 每个管道批次最多的XADD条数
+     */
+    private int batchSize = 100;
+
+    /**
+     * 不足一个批次时最多等待的毫秒数，等待期间到达的消息合并发送
+     */
+    private long lingerMillis = 2;
+
+    /**
+     * 最多缓冲的消息数，超过后发送进入背压
+     */
+    private int maxPendingMessages = 10000;
+
+    /**
+     * 背压时等待缓冲腾出空间的最长时间（毫秒），超时后直接同步发送
+     */
+    private long backpressureWaitMillis = 1000;
+
+    /**
+     * 大于0时每次XADD按MAXLEN ~近似裁剪到该长度
+     */
+    private long maxLen = 0;
+
+    /**
+     * 创建默认配置
+     * @return 默认配置
+     */
+    public static StreamProducerConfig createDefault() {
+        return new StreamProducerConfig();
+    }
+}
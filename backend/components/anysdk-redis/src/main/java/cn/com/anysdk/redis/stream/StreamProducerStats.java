@@ -0,0 +1,43 @@
+package cn.com.anysdk.redis.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 流生产者统计快照
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StreamProducerStats {
+    /**
+     * 当前缓冲的消息数
+     */
+    private final int pendingMessages;
+
+    /**
+     * 发送成功的消息数
+     */
+    private final long sentCount;
+
+    /**
+     * 发送失败的消息数
+     */
+    private final long failedCount;
+
+    /**
+     * 发送的管道批次数
+     */
+    private final long batchCount;
+
+    /**
+     * 因背压超时而直接同步发送的消息数
+     */
+    private final long directSendCount;
+
+    /**
+     * 最近一个批次的耗时（毫秒）
+     */
+    private final long lastBatchMillis;
+}
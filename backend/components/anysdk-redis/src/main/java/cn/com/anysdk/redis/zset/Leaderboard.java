@@ -0,0 +1,107 @@
+package cn.com.anysdk.redis.zset;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.ScoredMember;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 排行榜
+ * <p>
+ * 基于一个有序集合，分数越高名次越靠前，分数相同时按成员倒序。
+ * 分页通过ZREVRANGE按名次区间读取，每页一次往返，与页码无关；名次直接由区间起点推算，不再逐个查询ZREVRANK。
+ */
+public class Leaderboard {
+    private final IRedisService redisService;
+    private final String key;
+
+    public Leaderboard(IRedisService redisService, String key) {
+        this.redisService = redisService;
+        this.key = key;
+    }
+
+    /**
+     * 增加成员的分数，成员不存在时从0开始
+     * @param member 成员
+     * @param delta 增量
+     * @return 新分数
+     */
+    public double incrementScore(String member, double delta) {
+        return redisService.zIncrBy(key, delta, member);
+    }
+
+    /**
+     * 设置成员的分数
+     * @param member 成员
+     * @param score 分数
+     */
+    public void setScore(String member, double score) {
+        redisService.zAdd(key, score, member);
+    }
+
+    /**
+     * 批量设置分数，一条ZADD命令完成
+     * @param scores 成员及分数
+     */
+    public void setScores(Collection<ScoredMember> scores) {
+        redisService.zAdd(key, scores);
+    }
+
+    /**
+     * 获取前N名
+     * @param n 名数
+     * @return 按名次排列的条目
+     */
+    public List<LeaderboardEntry> top(int n) {
+        return page(0, n);
+    }
+
+    /**
+     * 分页获取
+     * @param pageIndex 页码，从0开始
+     * @param pageSize 每页条数
+     * @return 按名次排列的条目，超出范围时为空列表
+     */
+    public List<LeaderboardEntry> page(int pageIndex, int pageSize) {
+        if (pageIndex < 0 || pageSize <= 0) {
+            return Collections.emptyList();
+        }
+        long start = (long) pageIndex * pageSize;
+        List<ScoredMember> members = redisService.zRevRange(key, start, start + pageSize - 1);
+        List<LeaderboardEntry> entries = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            ScoredMember member = members.get(i);
+            entries.add(new LeaderboardEntry(start + i, member.getMember(), member.getScore()));
+        }
+        return entries;
+    }
+
+    /**
+     * 获取成员的名次
+     * @param member 成员
+     * @return 从0开始的名次，不在榜上时返回-1
+     */
+    public long rank(String member) {
+        return redisService.zRevRank(key, member);
+    }
+
+    /**
+     * 获取成员的分数
+     * @param member 成员
+     * @return 分数，不在榜上时返回null
+     */
+    public Double score(String member) {
+        return redisService.zScore(key, member);
+    }
+
+    /**
+     * 获取榜上的成员数
+     * @return 成员数
+     */
+    public long size() {
+        return redisService.zCard(key);
+    }
+}
@@ -0,0 +1,28 @@
+package cn.com.anysdk.redis.zset;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 排行榜条目
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class LeaderboardEntry {
+    /**
+     * 名次，从0开始，分数最高的为0
+     */
+    private final long rank;
+
+    /**
+     * 成员
+     */
+    private final String member;
+
+    /**
+     * 分数
+     */
+    private final double score;
+}
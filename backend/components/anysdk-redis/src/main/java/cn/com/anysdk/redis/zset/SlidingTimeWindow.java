@@ -0,0 +1,78 @@
+package cn.com.anysdk.redis.zset;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisBatch;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 滑动时间窗口计数
+ * <p>
+ * 每个键一个有序集合，成员为事件、分数为事件时间（毫秒）。
+ * 记录和计数都在一个管道内完成：ZREMRANGEBYSCORE裁掉窗口外的事件，ZADD写入新事件，ZCARD计数，
+ * 最后把键的过期时间续到一个窗口，空闲的键自动删除，整个过程一次往返。
+ * 时间取自本机时钟，多个节点写同一个键时需要时钟同步。
+ */
+public class SlidingTimeWindow {
+    private final IRedisService redisService;
+    private final long windowMillis;
+
+    /**
+     * @param redisService Redis服务
+     * @param windowMillis 窗口长度（毫秒）
+     */
+    public SlidingTimeWindow(IRedisService redisService, long windowMillis) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("windowMillis must be positive");
+        }
+        this.redisService = redisService;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * 记录一个事件
+     * @param key 键
+     * @return 记录后窗口内的事件数
+     */
+    public long record(String key) {
+        long now = System.currentTimeMillis();
+        return record(key, now + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong()), now);
+    }
+
+    /**
+     * 记录一个事件，同一事件ID在窗口内只计一次
+     * @param key 键
+     * @param eventId 事件ID
+     * @return 记录后窗口内的事件数
+     */
+    public long record(String key, String eventId) {
+        return record(key, eventId, System.currentTimeMillis());
+    }
+
+    /**
+     * 获取窗口内的事件数，同时裁掉窗口外的事件
+     * @param key 键
+     * @return 事件数
+     */
+    public long count(String key) {
+        RedisBatch batch = redisService.batch()
+                .zRemRangeByScore(key, Double.NEGATIVE_INFINITY, System.currentTimeMillis() - windowMillis)
+                .zCard(key);
+        return replyCount(batch.execute(), 1);
+    }
+
+    private long record(String key, String member, long now) {
+        RedisBatch batch = redisService.batch()
+                .zRemRangeByScore(key, Double.NEGATIVE_INFINITY, now - windowMillis)
+                .zAdd(key, now, member)
+                .zCard(key)
+                .expire(key, windowMillis, TimeUnit.MILLISECONDS);
+        return replyCount(batch.execute(), 2);
+    }
+
+    private static long replyCount(List<Object> replies, int index) {
+        return ((Number) replies.get(index)).longValue();
+    }
+}
@@ -0,0 +1,167 @@
+package cn.com.anysdk.redis.impl;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import cn.com.anysdk.redis.api.ScriptReturnType;
+import cn.com.anysdk.redis.config.LocalRedisConfig;
+import cn.com.anysdk.redis.exception.RedisErrorCodes;
+import cn.com.anysdk.redis.exception.RedisException;
+import cn.com.anysdk.redis.monitor.LocalKeyspaceStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 本地提供商的键过期、内存淘汰和脚本执行
+ */
+class LocalRedisServiceTest {
+
+    @Test
+    void expiredKeyIsGoneOnAccess() throws InterruptedException {
+        LocalRedisService redis = new LocalRedisService(LocalRedisConfig.createDefault());
+        redis.set("k", "v", 50, TimeUnit.MILLISECONDS);
+        assertTrue(redis.getExpire("k", TimeUnit.MILLISECONDS) > 0);
+
+        Thread.sleep(80);
+        assertNull(redis.get("k"));
+        assertFalse(redis.hasKey("k"));
+        assertEquals(-2, redis.getExpire("k", TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void expiredKeysAreRemovedByActiveCycle() throws InterruptedException {
+        LocalRedisService redis = new LocalRedisService(LocalRedisConfig.createDefault());
+        for (int i = 0; i < 100; i++) {
+            redis.set("k" + i, "v", 20, TimeUnit.MILLISECONDS);
+        }
+        redis.set("persistent", "v");
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (redis.dbSize() > 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, redis.dbSize());
+        assertEquals(100, redis.getStats().getExpiredKeys());
+    }
+
+    @Test
+    void incrKeepsTtlAndSetClearsIt() {
+        LocalRedisService redis = new LocalRedisService(LocalRedisConfig.createDefault());
+        redis.set("counter", "1", 10, TimeUnit.SECONDS);
+        assertEquals(2, redis.incr("counter"));
+        assertTrue(redis.getExpire("counter", TimeUnit.MILLISECONDS) > 0);
+
+        redis.set("counter", "5");
+        assertEquals(-1, redis.getExpire("counter", TimeUnit.MILLISECONDS));
+
+        assertTrue(redis.expire("counter", 0, TimeUnit.MILLISECONDS));
+        assertFalse(redis.hasKey("counter"));
+    }
+
+    @Test
+    void allKeysLruEvictsToStayUnderMaxMemory() {
+        long maxMemory = 64 * 1024;
+        LocalRedisService redis = new LocalRedisService(
+                LocalRedisConfig.create(maxMemory, IRedisConfig.MAXMEMORY_POLICY_ALLKEYS_LRU));
+        String value = repeat('x', 100);
+        redis.set("hot", value);
+        for (int i = 0; i < 2000; i++) {
+            redis.set("key:" + i, value);
+            redis.get("hot");
+        }
+
+        LocalKeyspaceStats stats = redis.getStats();
+        assertTrue(stats.getEvictedKeys() > 0);
+        assertTrue(stats.getUsedMemory() <= maxMemory + 1024, "usedMemory: " + stats.getUsedMemory());
+        assertTrue(redis.dbSize() < 2001);
+        assertNotNull(redis.get("hot"));
+    }
+
+    @Test
+    void volatilePolicyOnlyEvictsKeysWithTtl() {
+        LocalRedisService redis = new LocalRedisService(
+                LocalRedisConfig.create(64 * 1024, IRedisConfig.MAXMEMORY_POLICY_VOLATILE_TTL));
+        String value = repeat('x', 100);
+        for (int i = 0; i < 50; i++) {
+            redis.set("persistent:" + i, value);
+        }
+        for (int i = 0; i < 2000; i++) {
+            redis.set("volatile:" + i, value, 1, TimeUnit.HOURS);
+        }
+
+        assertTrue(redis.getStats().getEvictedKeys() > 0);
+        for (int i = 0; i < 50; i++) {
+            assertNotNull(redis.get("persistent:" + i));
+        }
+    }
+
+    @Test
+    void noEvictionRejectsWritesWithOom() {
+        LocalRedisService redis = new LocalRedisService(
+                LocalRedisConfig.create(16 * 1024, IRedisConfig.MAXMEMORY_POLICY_NOEVICTION));
+        String value = repeat('x', 100);
+        RedisException e = assertThrows(RedisException.class, () -> {
+            for (int i = 0; i < 1000; i++) {
+                redis.set("key:" + i, value);
+            }
+        });
+        assertEquals(RedisErrorCodes.OOM, e.getErrorCode());
+        assertEquals(0, redis.getStats().getEvictedKeys());
+        // 不增加内存的命令仍可执行
+        assertTrue(redis.delete("key:0"));
+    }
+
+    @Test
+    void evalShaRequiresLoadAndImplementation() {
+        LocalRedisService redis = new LocalRedisService(LocalRedisConfig.createDefault());
+        String script = "return redis.call('INCRBY', KEYS[1], ARGV[1])";
+        String sha1 = redis.registerScript(script,
+                (service, keys, args) -> service.incrBy(keys.get(0), Long.parseLong(args.get(0))));
+
+        RedisException noScript = assertThrows(RedisException.class, () -> redis.evalSha(sha1, ScriptReturnType.INTEGER,
+                Collections.singletonList("n"), Collections.singletonList("2")));
+        assertEquals(RedisErrorCodes.NOSCRIPT, noScript.getErrorCode());
+
+        assertEquals(sha1, redis.scriptLoad(script));
+        assertEquals(2L, redis.evalSha(sha1, ScriptReturnType.INTEGER, Collections.singletonList("n"),
+                Collections.singletonList("2")));
+
+        String unknown = redis.scriptLoad("return 1");
+        RedisException err = assertThrows(RedisException.class, () -> redis.evalSha(unknown, ScriptReturnType.INTEGER,
+                Collections.emptyList(), Collections.emptyList()));
+        assertEquals(RedisErrorCodes.ERR, err.getErrorCode());
+    }
+
+    @Test
+    void zRemAndHDelDeleteEmptyKeys() {
+        LocalRedisService redis = new LocalRedisService(LocalRedisConfig.createDefault());
+        redis.zAdd("z", 1, "a");
+        redis.zAdd("z", 1, "b");
+        assertEquals(1, redis.zRem("z", "a", "missing"));
+        assertEquals(1, redis.zRangeByScore("z", 0, 2, 0, -1).size());
+        assertEquals(1, redis.zRem("z", "b"));
+        assertFalse(redis.hasKey("z"));
+
+        redis.hSet("h", "a", "1");
+        redis.hSet("h", "b", "2");
+        assertEquals(1, redis.hDel("h", "a"));
+        assertNull(redis.hGet("h", "a"));
+        assertEquals("2", redis.hGet("h", "b"));
+        assertEquals(1, redis.hDel("h", "b", "c"));
+        assertFalse(redis.hasKey("h"));
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,152 @@
+package cn.com.anysdk.redis.lock;
+
+import cn.com.anysdk.redis.config.LocalRedisConfig;
+import cn.com.anysdk.redis.impl.LocalRedisService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 锁与信号量在本地提供商上的获取、续期和释放，本地提供商执行的是与Lua脚本等价的Java实现
+ */
+class RedisLockFactoryTest {
+    private static final long WATCHDOG_LEASE_MILLIS = 300;
+
+    private LocalRedisService redis;
+    private RedisLockFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        redis = new LocalRedisService(LocalRedisConfig.createDefault());
+        factory = new RedisLockFactory(redis, LockConfig.createDefault().setWatchdogLeaseMillis(WATCHDOG_LEASE_MILLIS));
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.close();
+    }
+
+    @Test
+    void lockIsExclusiveUntilReleased() {
+        IDistributedLock lock = factory.getLock("order");
+        LockLease lease = lock.tryLock();
+        assertNotNull(lease);
+        assertTrue(lease.isHeld());
+        assertTrue(lock.isLocked());
+        assertNull(lock.tryLock());
+
+        lease.close();
+        assertFalse(lease.isHeld());
+        assertFalse(lock.isLocked());
+        // 重复释放不做任何操作
+        lease.close();
+
+        LockLease next = lock.tryLock();
+        assertNotNull(next);
+        assertTrue(next.getFencingToken() > lease.getFencingToken());
+        next.close();
+    }
+
+    @Test
+    void watchdogRenewsLease() throws InterruptedException {
+        IDistributedLock lock = factory.getLock("order");
+        LockLease lease = lock.tryLock();
+        assertNotNull(lease);
+
+        Thread.sleep(WATCHDOG_LEASE_MILLIS * 3);
+        assertTrue(lease.isHeld());
+        assertFalse(lease.isLost());
+        assertNull(lock.tryLock());
+        lease.close();
+    }
+
+    @Test
+    void leaseExpiresWithoutWatchdog() throws InterruptedException {
+        IDistributedLock lock = factory.getLock("order");
+        LockLease lease = lock.tryLock(0, 100, TimeUnit.MILLISECONDS);
+        assertNotNull(lease);
+
+        Thread.sleep(200);
+        assertFalse(lease.isHeld());
+        assertFalse(lock.isLocked());
+
+        LockLease next = lock.tryLock();
+        assertNotNull(next);
+        // 过期的旧凭证不能释放新持有者的锁
+        lease.close();
+        assertTrue(next.isHeld());
+        next.close();
+    }
+
+    @Test
+    void waiterAcquiresAfterRelease() throws Exception {
+        IDistributedLock lock = factory.getLock("order");
+        LockLease lease = lock.tryLock();
+        assertNotNull(lease);
+
+        CompletableFuture<LockLease> waiter = CompletableFuture.supplyAsync(() -> lock.tryLock(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertFalse(waiter.isDone());
+        lease.close();
+
+        LockLease next = waiter.get(5, TimeUnit.SECONDS);
+        assertNotNull(next);
+        assertTrue(next.isHeld());
+        next.close();
+    }
+
+    @Test
+    void semaphoreLimitsConcurrentHolders() {
+        IDistributedSemaphore semaphore = factory.getSemaphore("jobs", 2);
+        LockLease first = semaphore.tryAcquire();
+        LockLease second = semaphore.tryAcquire();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(semaphore.tryAcquire());
+        assertEquals(0, semaphore.availablePermits());
+
+        first.close();
+        assertEquals(1, semaphore.availablePermits());
+        LockLease third = semaphore.tryAcquire();
+        assertNotNull(third);
+        second.close();
+        third.close();
+        assertEquals(2, semaphore.availablePermits());
+    }
+
+    @Test
+    void semaphorePermitsAreReclaimedAfterLease() throws InterruptedException {
+        IDistributedSemaphore semaphore = factory.getSemaphore("jobs", 1);
+        LockLease lease = semaphore.tryAcquire(0, 100, TimeUnit.MILLISECONDS);
+        assertNotNull(lease);
+        assertNull(semaphore.tryAcquire());
+
+        Thread.sleep(200);
+        assertEquals(1, semaphore.availablePermits());
+        LockLease next = semaphore.tryAcquire();
+        assertNotNull(next);
+        next.close();
+    }
+
+    @Test
+    void watchdogRenewsSemaphorePermit() throws InterruptedException {
+        IDistributedSemaphore semaphore = factory.getSemaphore("jobs", 1);
+        LockLease lease = semaphore.tryAcquire();
+        assertNotNull(lease);
+
+        Thread.sleep(WATCHDOG_LEASE_MILLIS * 3);
+        assertTrue(lease.isHeld());
+        assertFalse(lease.isLost());
+        assertNull(semaphore.tryAcquire());
+        lease.close();
+    }
+}
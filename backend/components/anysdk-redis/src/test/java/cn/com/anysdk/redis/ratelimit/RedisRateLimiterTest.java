@@ -0,0 +1,149 @@
+package cn.com.anysdk.redis.ratelimit;
+
+import cn.com.anysdk.redis.config.LocalRedisConfig;
+import cn.com.anysdk.redis.impl.LocalRedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 四种限流算法在本地提供商上的行为，本地提供商执行的是与Lua脚本等价的Java实现
+ */
+class RedisRateLimiterTest {
+    private static final long LIMIT = 5;
+    private static final long LONG_PERIOD_MILLIS = 60_000;
+    private static final long SHORT_PERIOD_MILLIS = 200;
+
+    private LocalRedisService redis;
+
+    @BeforeEach
+    void setUp() {
+        redis = new LocalRedisService(LocalRedisConfig.createDefault());
+    }
+
+    @Test
+    void tokenBucketRejectsOverLimit() {
+        assertRejectsOverLimit(RateLimitAlgorithm.TOKEN_BUCKET);
+    }
+
+    @Test
+    void slidingLogRejectsOverLimit() {
+        assertRejectsOverLimit(RateLimitAlgorithm.SLIDING_LOG);
+    }
+
+    @Test
+    void slidingWindowRejectsOverLimit() {
+        assertRejectsOverLimit(RateLimitAlgorithm.SLIDING_WINDOW);
+    }
+
+    @Test
+    void gcraRejectsOverLimit() {
+        assertRejectsOverLimit(RateLimitAlgorithm.GCRA);
+    }
+
+    @Test
+    void tokenBucketRecoversAfterPeriod() throws InterruptedException {
+        assertRecoversAfterPeriod(RateLimitAlgorithm.TOKEN_BUCKET);
+    }
+
+    @Test
+    void slidingLogRecoversAfterPeriod() throws InterruptedException {
+        assertRecoversAfterPeriod(RateLimitAlgorithm.SLIDING_LOG);
+    }
+
+    @Test
+    void slidingWindowRecoversAfterPeriod() throws InterruptedException {
+        assertRecoversAfterPeriod(RateLimitAlgorithm.SLIDING_WINDOW);
+    }
+
+    @Test
+    void gcraRecoversAfterPeriod() throws InterruptedException {
+        assertRecoversAfterPeriod(RateLimitAlgorithm.GCRA);
+    }
+
+    @Test
+    void keysAreLimitedIndependently() {
+        RedisRateLimiter limiter = new RedisRateLimiter(redis,
+                RateLimitConfig.create(RateLimitAlgorithm.GCRA, 1, LONG_PERIOD_MILLIS));
+        assertTrue(limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void permitsOverBurstAreRejected() {
+        RedisRateLimiter limiter = new RedisRateLimiter(redis,
+                RateLimitConfig.create(RateLimitAlgorithm.TOKEN_BUCKET, LIMIT, LONG_PERIOD_MILLIS));
+        assertFalse(limiter.tryAcquire("k", (int) LIMIT + 1).isAllowed());
+        RateLimitDecision decision = limiter.tryAcquire("k", (int) LIMIT);
+        assertTrue(decision.isAllowed());
+        assertEquals(0, decision.getRemaining());
+    }
+
+    @Test
+    void batchedPermitsShareTheQuotaWithOtherInstances() {
+        RateLimitConfig config = RateLimitConfig.create(RateLimitAlgorithm.SLIDING_LOG, 20, LONG_PERIOD_MILLIS)
+                .setBatchSize(10);
+        RedisRateLimiter first = new RedisRateLimiter(redis, config);
+        RedisRateLimiter second = new RedisRateLimiter(redis, config);
+
+        // 第一个实例预留一批许可，第二个实例只能拿到剩下的
+        assertTrue(first.tryAcquire("k"));
+        int granted = 0;
+        while (second.tryAcquire("k")) {
+            granted++;
+        }
+        assertEquals(10, granted);
+        for (int i = 0; i < 9; i++) {
+            assertTrue(first.tryAcquire("k"));
+        }
+        assertFalse(first.tryAcquire("k"));
+
+        RateLimiterStats stats = first.getStats();
+        assertEquals(9, stats.getLocalCount());
+    }
+
+    @Test
+    void localPrecheckRejectsWithoutCallingRedis() {
+        RedisRateLimiter limiter = new RedisRateLimiter(redis,
+                RateLimitConfig.create(RateLimitAlgorithm.GCRA, 1, LONG_PERIOD_MILLIS).setLocalPrecheck(true));
+        assertTrue(limiter.tryAcquire("k"));
+        assertFalse(limiter.tryAcquire("k"));
+        long remote = limiter.getStats().getRemoteCount();
+
+        RateLimitDecision decision = limiter.tryAcquire("k", 1);
+        assertFalse(decision.isAllowed());
+        assertTrue(decision.getRetryAfterMillis() > 0);
+        assertEquals(remote, limiter.getStats().getRemoteCount());
+    }
+
+    private void assertRejectsOverLimit(RateLimitAlgorithm algorithm) {
+        RedisRateLimiter limiter = new RedisRateLimiter(redis,
+                RateLimitConfig.create(algorithm, LIMIT, LONG_PERIOD_MILLIS));
+        for (int i = 0; i < LIMIT; i++) {
+            assertTrue(limiter.tryAcquire("k", 1).isAllowed(), algorithm + " permit " + i);
+        }
+        RateLimitDecision decision = limiter.tryAcquire("k", 1);
+        assertFalse(decision.isAllowed(), algorithm + " over limit");
+        assertTrue(decision.getRetryAfterMillis() > 0, algorithm + " retry: " + decision.getRetryAfterMillis());
+        assertTrue(decision.getRetryAfterMillis() <= LONG_PERIOD_MILLIS,
+                algorithm + " retry: " + decision.getRetryAfterMillis());
+    }
+
+    private void assertRecoversAfterPeriod(RateLimitAlgorithm algorithm) throws InterruptedException {
+        RedisRateLimiter limiter = new RedisRateLimiter(redis,
+                RateLimitConfig.create(algorithm, LIMIT, SHORT_PERIOD_MILLIS));
+        int granted = 0;
+        while (limiter.tryAcquire("k")) {
+            granted++;
+        }
+        assertTrue(granted >= LIMIT, algorithm + " granted: " + granted);
+
+        // 滑动窗口要等上一个窗口的计数完全移出
+        Thread.sleep(SHORT_PERIOD_MILLIS * 2 + 50);
+        assertTrue(limiter.tryAcquire("k"), algorithm + " after period");
+    }
+}
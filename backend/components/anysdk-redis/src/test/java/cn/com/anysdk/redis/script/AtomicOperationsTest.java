@@ -0,0 +1,92 @@
+package cn.com.anysdk.redis.script;
+
+import cn.com.anysdk.redis.config.LocalRedisConfig;
+import cn.com.anysdk.redis.impl.LocalRedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 原子操作在本地提供商上的行为，本地提供商执行的是与Lua脚本等价的Java实现
+ */
+class AtomicOperationsTest {
+    private LocalRedisService redis;
+    private AtomicOperations operations;
+
+    @BeforeEach
+    void setUp() {
+        redis = new LocalRedisService(LocalRedisConfig.createDefault());
+        operations = new AtomicOperations(redis);
+    }
+
+    @Test
+    void compareAndSetKeepsRemainingTtl() {
+        redis.set("k", "a", 10, TimeUnit.SECONDS);
+        assertFalse(operations.compareAndSet("k", "b", "c"));
+        assertTrue(operations.compareAndSet("k", "a", "b"));
+        assertEquals("b", redis.get("k"));
+        assertTrue(redis.getExpire("k", TimeUnit.MILLISECONDS) > 0);
+
+        assertTrue(operations.compareAndSet("k", "b", "c", 1, TimeUnit.HOURS));
+        assertTrue(redis.getExpire("k", TimeUnit.MILLISECONDS) > TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Test
+    void compareAndDeleteOnlyDeletesMatchingValue() {
+        redis.set("k", "a");
+        assertFalse(operations.compareAndDelete("k", "b"));
+        assertTrue(redis.hasKey("k"));
+        assertTrue(operations.compareAndDelete("k", "a"));
+        assertFalse(redis.hasKey("k"));
+        assertFalse(operations.compareAndDelete("k", "a"));
+    }
+
+    @Test
+    void getOrSetReturnsExistingValue() {
+        assertNull(operations.getOrSet("k", "a", 10, TimeUnit.SECONDS));
+        assertEquals("a", operations.getOrSet("k", "b", 10, TimeUnit.SECONDS));
+        assertEquals("a", redis.get("k"));
+        assertTrue(redis.getExpire("k", TimeUnit.MILLISECONDS) > 0);
+    }
+
+    @Test
+    void incrementAndCapTruncatesToCap() {
+        assertEquals(3, operations.incrementAndCap("k", 3, 5, 10, TimeUnit.SECONDS));
+        assertEquals(5, operations.incrementAndCap("k", 3, 5, 10, TimeUnit.SECONDS));
+        assertEquals("5", redis.get("k"));
+        assertTrue(redis.getExpire("k", TimeUnit.MILLISECONDS) > 0);
+    }
+
+    @Test
+    void tryIncrementStopsAtLimit() {
+        assertTrue(operations.tryIncrement("k", 2, 5, 0, TimeUnit.MILLISECONDS));
+        assertTrue(operations.tryIncrement("k", 3, 5, 0, TimeUnit.MILLISECONDS));
+        assertFalse(operations.tryIncrement("k", 1, 5, 0, TimeUnit.MILLISECONDS));
+        assertEquals("5", redis.get("k"));
+        assertEquals(-1, redis.getExpire("k", TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void deleteIfAllMatchIsAllOrNothing() {
+        redis.set("a", "1");
+        redis.set("b", "2");
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("a", "1");
+        expected.put("b", "3");
+        assertEquals(0, operations.deleteIfAllMatch(expected));
+        assertTrue(redis.hasKey("a"));
+
+        expected.put("b", "2");
+        assertEquals(2, operations.deleteIfAllMatch(expected));
+        assertFalse(redis.hasKey("a"));
+        assertFalse(redis.hasKey("b"));
+    }
+}
@@ -0,0 +1,38 @@
+package cn.com.anysdk.starter.cache;
+
+import cn.com.anysdk.redis.codec.IRedisCodec;
+import cn.com.anysdk.redis.exception.RedisException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * JDK序列化编解码器，缓存值需要实现{@link java.io.Serializable}
+ * 与Spring Data Redis缓存的默认序列化方式一致
+ */
+public class JdkSerializationRedisCodec implements IRedisCodec<Object> {
+    public static final JdkSerializationRedisCodec INSTANCE = new JdkSerializationRedisCodec();
+
+    @Override
+    public byte[] encode(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(value);
+        } catch (IOException e) {
+            throw new RedisException("Failed to serialize cache value: " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return input.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RedisException("Failed to deserialize cache value: " + e.getMessage(), e);
+        }
+    }
+}
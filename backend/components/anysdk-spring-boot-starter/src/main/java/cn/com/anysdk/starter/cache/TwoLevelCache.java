@@ -0,0 +1,234 @@
+package cn.com.anysdk.starter.cache;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.cache.LocalCache;
+import cn.com.anysdk.redis.codec.IRedisCodec;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 二级缓存
+ * <p>
+ * 一级为进程内{@link LocalCache}（按条目数LRU淘汰，带存活时间），二级为Redis。
+ * 读取先查本地，未命中再查Redis并回填本地；写入和删除先更新Redis，再更新本地，并通过发布订阅通知其他节点失效本地条目。
+ * 回填前先放入加载中占位符，只在占位符未被写入或失效替换时才回填，读取期间的修改不会被旧值覆盖。
+ * 同一JVM内相同键的并发{@code get(key, valueLoader)}只执行一次加载。
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+    private static final int CLEAR_SCAN_COUNT = 1000;
+
+    private final String name;
+    private final IRedisService redisService;
+    private final IRedisCodec<Object> codec;
+    private final LocalCache<String, Object> localCache;
+    private final long ttlMillis;
+    private final TwoLevelCacheManager cacheManager;
+    private final ConcurrentMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    TwoLevelCache(String name, IRedisService redisService, IRedisCodec<Object> codec, boolean allowNullValues,
+                  Duration ttl, long localMaxSize, Duration localTtl, TwoLevelCacheManager cacheManager) {
+        super(allowNullValues);
+        this.name = name;
+        this.redisService = redisService;
+        this.codec = codec;
+        this.localCache = new LocalCache<>(localMaxSize, localTtl.toMillis(), TimeUnit.MILLISECONDS);
+        this.ttlMillis = ttl.toMillis();
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String cacheKey = cacheKey(key);
+        Object cached = localCache.get(cacheKey);
+        if (cached != null && !(cached instanceof Loading)) {
+            return cached;
+        }
+        Loading loading = new Loading();
+        // 其他线程正在回填时只读取不回填
+        boolean owner = cached == null && localCache.putIfAbsent(cacheKey, loading) == null;
+        Object value;
+        try {
+            value = redisService.get(redisKey(cacheKey), codec);
+        } catch (RuntimeException e) {
+            if (owner) {
+                localCache.remove(cacheKey, loading);
+            }
+            throw e;
+        }
+        if (value == null) {
+            remoteMisses.increment();
+            if (owner) {
+                localCache.remove(cacheKey, loading);
+            }
+            return null;
+        }
+        remoteHits.increment();
+        if (owner) {
+            localCache.replace(cacheKey, loading, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        String cacheKey = cacheKey(key);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loading.putIfAbsent(cacheKey, future);
+        if (existing != null) {
+            return (T) await(key, valueLoader, existing);
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            future.complete(value);
+            return value;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loading.remove(cacheKey, future);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = cacheKey(key);
+        Object storeValue = toStoreValue(value);
+        if (ttlMillis > 0) {
+            redisService.set(redisKey(cacheKey), storeValue, codec, ttlMillis, TimeUnit.MILLISECONDS);
+        } else {
+            redisService.set(redisKey(cacheKey), storeValue, codec);
+        }
+        localCache.put(cacheKey, storeValue);
+        cacheManager.publishEvict(name, cacheKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = cacheKey(key);
+        try {
+            redisService.delete(redisKey(cacheKey));
+        } finally {
+            localCache.invalidate(cacheKey);
+            cacheManager.publishEvict(name, cacheKey);
+        }
+    }
+
+    @Override
+    public void clear() {
+        try (Stream<String> keys = redisService.scanKeys(name + "::*", CLEAR_SCAN_COUNT)) {
+            List<String> batch = new ArrayList<>(CLEAR_SCAN_COUNT);
+            keys.forEach(key -> {
+                batch.add(key);
+                if (batch.size() >= CLEAR_SCAN_COUNT) {
+                    redisService.mDelete(batch);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                redisService.mDelete(batch);
+            }
+        } finally {
+            localCache.invalidateAll();
+            cacheManager.publishClear(name);
+        }
+    }
+
+    /**
+     * 获取本地缓存命中次数
+     */
+    public long getLocalHitCount() {
+        return localCache.getHitCount();
+    }
+
+    /**
+     * 获取本地缓存未命中次数
+     */
+    public long getLocalMissCount() {
+        return localCache.getMissCount();
+    }
+
+    /**
+     * 获取Redis命中次数（本地未命中后）
+     */
+    public long getRemoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    /**
+     * 获取Redis未命中次数
+     */
+    public long getRemoteMissCount() {
+        return remoteMisses.sum();
+    }
+
+    /**
+     * 获取本地缓存条目数
+     */
+    public long getLocalSize() {
+        return localCache.size();
+    }
+
+    void invalidateLocal(String cacheKey) {
+        localCache.invalidate(cacheKey);
+    }
+
+    void invalidateLocalAll() {
+        localCache.invalidateAll();
+    }
+
+    private String redisKey(String cacheKey) {
+        return name + "::" + cacheKey;
+    }
+
+    private static String cacheKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private static Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } catch (ExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    /**
+     * 回填中占位符，每次回填使用独立实例以便按引用比较
+     */
+    private static final class Loading {
+    }
+}
@@ -0,0 +1,119 @@
+package cn.com.anysdk.starter.cache;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.api.RedisSubscription;
+import cn.com.anysdk.redis.codec.IRedisCodec;
+import cn.com.anysdk.starter.config.redis.TwoLevelCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 二级缓存管理器
+ * <p>
+ * 每个缓存的本地部分独立限制容量和存活时间。本节点写入或删除后在失效频道发布消息，
+ * 其他节点收到后删除对应的本地条目，下次读取从Redis获取新值。
+ * 消息格式为{@code 操作|节点ID|缓存名|键}，操作E表示删除单个键，C表示清空缓存；本节点发出的消息会被忽略。
+ * 订阅断开期间丢失的消息由本地存活时间兜底。
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, InitializingBean, DisposableBean {
+    private static final String OP_EVICT = "E";
+    private static final String OP_CLEAR = "C";
+    private static final String SEPARATOR = "|";
+
+    private final IRedisService redisService;
+    private final IRedisCodec<Object> codec;
+    private final TwoLevelCacheProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private volatile RedisSubscription subscription;
+
+    public TwoLevelCacheManager(IRedisService redisService, TwoLevelCacheProperties properties) {
+        this(redisService, JdkSerializationRedisCodec.INSTANCE, properties);
+    }
+
+    public TwoLevelCacheManager(IRedisService redisService, IRedisCodec<Object> codec, TwoLevelCacheProperties properties) {
+        this.redisService = redisService;
+        this.codec = codec;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        subscription = redisService.subscribe((channel, message) -> onInvalidation(message), properties.getInvalidationChannel());
+        properties.getCacheNames().forEach(this::getCache);
+    }
+
+    @Override
+    public void destroy() {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * 获取已创建的缓存
+     * @return 缓存集合
+     */
+    public Collection<TwoLevelCache> getCaches() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+
+    void publishEvict(String cacheName, String cacheKey) {
+        publish(OP_EVICT + SEPARATOR + nodeId + SEPARATOR + cacheName + SEPARATOR + cacheKey);
+    }
+
+    void publishClear(String cacheName) {
+        publish(OP_CLEAR + SEPARATOR + nodeId + SEPARATOR + cacheName + SEPARATOR);
+    }
+
+    private TwoLevelCache createCache(String name) {
+        TwoLevelCacheProperties.Spec spec = properties.specFor(name);
+        return new TwoLevelCache(name, redisService, codec, properties.isAllowNullValues(),
+                spec.getTtl(), spec.getLocalMaxSize(), spec.getLocalTtl(), this);
+    }
+
+    private void publish(String message) {
+        try {
+            redisService.publish(properties.getInvalidationChannel(), message);
+        } catch (RuntimeException e) {
+            // 通知失败时其他节点的本地旧值最多保留到本地存活时间结束
+            log.warn("Failed to publish cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    private void onInvalidation(String message) {
+        String[] parts = message.split("\\|", 4);
+        if (parts.length < 4 || nodeId.equals(parts[1])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (OP_CLEAR.equals(parts[0])) {
+            cache.invalidateLocalAll();
+        } else if (OP_EVICT.equals(parts[0])) {
+            cache.invalidateLocal(parts[3]);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package cn.com.anysdk.starter.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 二级缓存的Micrometer指标
+ * <p>
+ * 导出每个缓存每一级的命中/未命中次数（anysdk.cache.gets，标签cache、level、result）和命中率（anysdk.cache.hit.ratio）。
+ * local级命中率即不离开JVM的读取占比。绑定时只覆盖已创建的缓存，需要监控的缓存应配置在cache-names中预先创建。
+ */
+public class TwoLevelCacheMeterBinder implements MeterBinder {
+    private static final String PREFIX = "anysdk.cache";
+
+    private final TwoLevelCacheManager cacheManager;
+
+    public TwoLevelCacheMeterBinder(TwoLevelCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (TwoLevelCache cache : cacheManager.getCaches()) {
+            String name = cache.getName();
+            counter(registry, cache, name, "local", "hit", TwoLevelCache::getLocalHitCount);
+            counter(registry, cache, name, "local", "miss", TwoLevelCache::getLocalMissCount);
+            counter(registry, cache, name, "remote", "hit", TwoLevelCache::getRemoteHitCount);
+            counter(registry, cache, name, "remote", "miss", TwoLevelCache::getRemoteMissCount);
+
+            Gauge.builder(PREFIX + ".hit.ratio", cache, c -> ratio(c.getLocalHitCount(), c.getLocalMissCount()))
+                    .tag("cache", name)
+                    .tag("level", "local")
+                    .register(registry);
+            Gauge.builder(PREFIX + ".hit.ratio", cache, c -> ratio(c.getRemoteHitCount(), c.getRemoteMissCount()))
+                    .tag("cache", name)
+                    .tag("level", "remote")
+                    .register(registry);
+            Gauge.builder(PREFIX + ".local.size", cache, TwoLevelCache::getLocalSize)
+                    .tag("cache", name)
+                    .register(registry);
+        }
+    }
+
+    private static void counter(MeterRegistry registry, TwoLevelCache cache, String name, String level, String result,
+                                ToDoubleFunction<TwoLevelCache> count) {
+        FunctionCounter.builder(PREFIX + ".gets", cache, count)
+                .tag("cache", name)
+                .tag("level", level)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,37 @@
+package cn.com.anysdk.starter.config.redis;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.redis.factory.RedisServiceFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * AnySDK Redis自动配置
+ * 设置anysdk.redis.enabled=true后按配置创建{@link IRedisService}，容器关闭时通过{@link RedisServiceFactory#close(IRedisService)}关闭
+ */
+@AutoConfiguration
+@ConditionalOnClass(IRedisService.class)
+@ConditionalOnProperty(prefix = "anysdk.redis", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(AnySdkRedisProperties.class)
+public class AnySdkRedisAutoConfiguration implements DisposableBean {
+    private volatile IRedisService redisService;
+
+    @Bean(destroyMethod = "")
+    @ConditionalOnMissingBean
+    public IRedisService anySdkRedisService(AnySdkRedisProperties properties) {
+        redisService = RedisServiceFactory.createService(properties);
+        return redisService;
+    }
+
+    @Override
+    public void destroy() {
+        if (redisService != null) {
+            RedisServiceFactory.close(redisService);
+        }
+    }
+}
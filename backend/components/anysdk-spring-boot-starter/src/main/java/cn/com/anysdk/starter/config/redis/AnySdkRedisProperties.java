@@ -0,0 +1,58 @@
+package cn.com.anysdk.starter.config.redis;
+
+import cn.com.anysdk.redis.api.IRedisConfig;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AnySDK Redis配置属性，直接作为{@link IRedisConfig}使用
+ */
+@Data
+@ConfigurationProperties(prefix = "anysdk.redis")
+public class AnySdkRedisProperties implements IRedisConfig {
+    /**
+     * 是否启用AnySDK Redis自动配置
+     */
+    private boolean enabled = false;
+
+    /**
+     * 客户端提供商（jedis, lettuce, redisson, local）
+     */
+    private String provider = "lettuce";
+
+    private String host = "localhost";
+    private int port = 6379;
+    private String password = "";
+    private int database = 0;
+    private int connectTimeout = 3000;
+    private int operationTimeout = 3000;
+    private int maxConnections = 8;
+    private boolean useSsl = false;
+    private int minIdle = 1;
+    private int maxIdle = -1;
+    private long poolMaxWaitMillis = -1;
+    private boolean testOnBorrow = false;
+    private long idleCheckIntervalMillis = 30000;
+    private long minEvictableIdleMillis = 60000;
+    private boolean prewarmPool = true;
+    private boolean adaptivePool = false;
+    private int connectionCount = 1;
+    private String connectionAssignment = CONNECTION_ASSIGNMENT_ROUND_ROBIN;
+    private boolean sharedClientResources = true;
+    private boolean commandCoalescing = false;
+    private boolean virtualThreads = false;
+    private int maxConcurrentCommands = 0;
+    private int maxBatchSize = 1000;
+    private long slowOperationThreshold = 100;
+    private int compressionThreshold = 0;
+    private long maxMemory = 0;
+    private String maxMemoryPolicy = MAXMEMORY_POLICY_NOEVICTION;
+    private String mode = MODE_STANDALONE;
+    private List<String> nodes = new ArrayList<>();
+    private int maxRedirects = 5;
+    private String sentinelMaster = "mymaster";
+    private String readFrom = READ_FROM_MASTER;
+}
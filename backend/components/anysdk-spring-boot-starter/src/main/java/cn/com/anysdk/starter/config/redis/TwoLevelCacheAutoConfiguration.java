@@ -0,0 +1,44 @@
+package cn.com.anysdk.starter.config.redis;
+
+import cn.com.anysdk.redis.api.IRedisService;
+import cn.com.anysdk.starter.cache.TwoLevelCacheManager;
+import cn.com.anysdk.starter.cache.TwoLevelCacheMeterBinder;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 二级缓存自动配置
+ * 设置anysdk.redis.cache.enabled=true后注册{@link TwoLevelCacheManager}，配合@EnableCaching即可使用@Cacheable
+ */
+@AutoConfiguration(after = AnySdkRedisAutoConfiguration.class)
+@ConditionalOnClass({IRedisService.class, CacheManager.class})
+@ConditionalOnBean(IRedisService.class)
+@ConditionalOnProperty(prefix = "anysdk.redis.cache", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
+public class TwoLevelCacheAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(CacheManager.class)
+    public TwoLevelCacheManager cacheManager(IRedisService redisService, TwoLevelCacheProperties properties) {
+        return new TwoLevelCacheManager(redisService, properties);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class TwoLevelCacheMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnBean(TwoLevelCacheManager.class)
+        public TwoLevelCacheMeterBinder twoLevelCacheMeterBinder(TwoLevelCacheManager cacheManager) {
+            return new TwoLevelCacheMeterBinder(cacheManager);
+        }
+    }
+}
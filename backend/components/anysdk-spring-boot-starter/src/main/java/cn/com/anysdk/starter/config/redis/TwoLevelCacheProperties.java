@@ -0,0 +1,89 @@
+package cn.com.anysdk.starter.config.redis;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 二级缓存配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "anysdk.redis.cache")
+public class TwoLevelCacheProperties {
+    /**
+     * 是否启用二级缓存管理器
+     */
+    private boolean enabled = false;
+
+    /**
+     * 启动时创建的缓存名称，其余缓存在首次使用时创建
+     */
+    private List<String> cacheNames = new ArrayList<>();
+
+    /**
+     * 是否缓存null值
+     */
+    private boolean allowNullValues = true;
+
+    /**
+     * 跨节点失效本地缓存的发布订阅频道
+     */
+    private String invalidationChannel = "anysdk:cache:invalidation";
+
+    /**
+     * 默认缓存配置
+     */
+    private Spec defaults = new Spec()
+            .setTtl(Duration.ofMinutes(30))
+            .setLocalMaxSize(10_000L)
+            .setLocalTtl(Duration.ofMinutes(1));
+
+    /**
+     * 按缓存名称覆盖的配置，未设置的项使用默认配置
+     */
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    /**
+     * 获取指定缓存的配置
+     * @param cacheName 缓存名称
+     * @return 合并默认值后的配置
+     */
+    public Spec specFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        if (spec == null) {
+            return defaults;
+        }
+        return new Spec()
+                .setTtl(spec.getTtl() != null ? spec.getTtl() : defaults.getTtl())
+                .setLocalMaxSize(spec.getLocalMaxSize() != null ? spec.getLocalMaxSize() : defaults.getLocalMaxSize())
+                .setLocalTtl(spec.getLocalTtl() != null ? spec.getLocalTtl() : defaults.getLocalTtl());
+    }
+
+    /**
+     * 单个缓存的配置，未设置的项为null
+     */
+    @Data
+    @Accessors(chain = true)
+    public static class Spec {
+        /**
+         * Redis中的存活时间，0表示不过期
+         */
+        private Duration ttl;
+
+        /**
+         * 本地缓存最大条目数
+         */
+        private Long localMaxSize;
+
+        /**
+         * 本地缓存存活时间，也是跨节点失效消息丢失时本地旧值的最长存活时间
+         */
+        private Duration localTtl;
+    }
+}